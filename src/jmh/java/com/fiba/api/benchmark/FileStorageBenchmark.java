@@ -0,0 +1,128 @@
+package com.fiba.api.benchmark;
+
+import com.fiba.api.service.FileStorageService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.util.FileSystemUtils;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Сохранение загруженного изображения FileStorageService.storeFile во временный каталог.
+ * Сохраненный файл удаляется после каждого вызова вне замера, чтобы каталог не рос.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FileStorageBenchmark {
+
+    @Param({"16384", "524288"})
+    private int size;
+
+    private Path uploadDir;
+    private FileStorageService storageService;
+    private MultipartFile file;
+    private Path stored;
+
+    @Setup
+    public void setUp() throws IOException {
+        BenchmarkSupport.quietLogging();
+        uploadDir = Files.createTempDirectory("fiba-bench-uploads");
+        storageService = new FileStorageService();
+        BenchmarkSupport.setField(storageService, "uploadDir", uploadDir.toString());
+        storageService.init();
+
+        byte[] content = new byte[size];
+        new Random(42).nextBytes(content);
+        file = new BytesMultipartFile("photo.jpg", "image/jpeg", content);
+    }
+
+    @Benchmark
+    public String storeFile() throws IOException {
+        String url = storageService.storeFile(file, "temp");
+        stored = uploadDir.resolve(url.substring("/uploads/".length()));
+        return url;
+    }
+
+    @TearDown(Level.Invocation)
+    public void deleteStored() throws IOException {
+        if (stored != null) {
+            Files.deleteIfExists(stored);
+            stored = null;
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        FileSystemUtils.deleteRecursively(uploadDir);
+    }
+
+    /**
+     * MultipartFile из массива байт, как после разбора multipart-запроса в памяти
+     */
+    private record BytesMultipartFile(String originalFilename, String contentType, byte[] content)
+            implements MultipartFile {
+
+        @Override
+        public String getName() {
+            return "file";
+        }
+
+        @Override
+        public String getOriginalFilename() {
+            return originalFilename;
+        }
+
+        @Override
+        public String getContentType() {
+            return contentType;
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return content.length == 0;
+        }
+
+        @Override
+        public long getSize() {
+            return content.length;
+        }
+
+        @Override
+        public byte[] getBytes() {
+            return content;
+        }
+
+        @Override
+        public InputStream getInputStream() {
+            return new ByteArrayInputStream(content);
+        }
+
+        @Override
+        public void transferTo(File dest) throws IOException {
+            Files.write(dest.toPath(), content);
+        }
+    }
+}
@@ -0,0 +1,205 @@
+package com.fiba.api.benchmark;
+
+import com.fiba.api.model.Player;
+import com.fiba.api.model.Team;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.flywaydb.core.Flyway;
+import org.hibernate.boot.model.naming.CamelCaseToUnderscoresNamingStrategy;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.orm.jpa.hibernate.SpringImplicitNamingStrategy;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Пакетные вставки против построчных на PostgreSQL: массовая регистрация команд с новыми игроками через JPA
+ * (как при импорте составов) и вставка пользователей JdbcTemplate (как при генерации данных).
+ *
+ * Режимы: row - каждая строка отдельным запросом (так вставлялись строки с IDENTITY-идентификаторами),
+ * batch - JDBC batch по 50 строк, batch-rewrite - batch с reWriteBatchedInserts (текущая конфигурация).
+ * Идентификаторы во всех режимах выдаются последовательностями, поэтому режим row оценивает прежний
+ * вариант снизу: с IDENTITY к каждой вставке добавлялся возврат сгенерированного ключа.
+ *
+ * Сервер задается так же, как в тестах: TEST_DATABASE_URL, TEST_DATABASE_USER, TEST_DATABASE_PASSWORD.
+ * Для прогона создается временная база со схемой из миграций, после него она удаляется.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 10, time = 2)
+@Fork(1)
+public class InsertBatchingBenchmark {
+
+    private static final int BATCH_SIZE = 50;
+    private static final String INSERT_USER = "INSERT INTO users (id, name, email, password, email_verified, role, "
+                                              + "created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    @Param({"row", "batch", "batch-rewrite"})
+    private String mode;
+
+    @Param({"20"})
+    private int teams;
+
+    @Param({"5"})
+    private int playersPerTeam;
+
+    @Param({"1000"})
+    private int seedRows;
+
+    private String serverUrl;
+    private String databaseName;
+    private HikariDataSource dataSource;
+    private LocalContainerEntityManagerFactoryBean entityManagerFactoryBean;
+    private EntityManagerFactory entityManagerFactory;
+    private JdbcTemplate jdbcTemplate;
+    private long nextUserId = 1;
+
+    @Setup
+    public void setUp() throws SQLException {
+        BenchmarkSupport.quietLogging();
+        serverUrl = setting("TEST_DATABASE_URL", "jdbc:postgresql://localhost:5432/postgres");
+        databaseName = "fiba_bench_" + UUID.randomUUID().toString().replace("-", "").substring(0, 12);
+        try (Connection connection = DriverManager.getConnection(serverUrl, user(), password());
+             Statement statement = connection.createStatement()) {
+            statement.execute("CREATE DATABASE " + databaseName + " TEMPLATE template0 ENCODING 'UTF8'");
+        }
+
+        HikariConfig config = new HikariConfig();
+        config.setJdbcUrl(serverUrl.substring(0, serverUrl.lastIndexOf('/') + 1) + databaseName);
+        config.setUsername(user());
+        config.setPassword(password());
+        config.setMaximumPoolSize(2);
+        config.addDataSourceProperty("reWriteBatchedInserts", String.valueOf("batch-rewrite".equals(mode)));
+        dataSource = new HikariDataSource(config);
+        // Как spring.flyway.* в application.properties: под транзакционной блокировкой CREATE INDEX CONCURRENTLY ждет бесконечно
+        Flyway.configure()
+            .dataSource(dataSource)
+            .locations("classpath:db/migration")
+            .configuration(Map.of("flyway.postgresql.transactional.lock", "false"))
+            .load()
+            .migrate();
+        jdbcTemplate = new JdbcTemplate(dataSource);
+
+        // Те же настройки имен и пакетов, что у приложения; batch_size = 1 отключает пакеты Hibernate
+        entityManagerFactoryBean = new LocalContainerEntityManagerFactoryBean();
+        entityManagerFactoryBean.setDataSource(dataSource);
+        entityManagerFactoryBean.setPackagesToScan("com.fiba.api.model");
+        entityManagerFactoryBean.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+        entityManagerFactoryBean.setJpaPropertyMap(Map.of(
+            "hibernate.physical_naming_strategy", CamelCaseToUnderscoresNamingStrategy.class.getName(),
+            "hibernate.implicit_naming_strategy", SpringImplicitNamingStrategy.class.getName(),
+            "hibernate.hbm2ddl.auto", "none",
+            "hibernate.cache.use_second_level_cache", "false",
+            "hibernate.jdbc.batch_size", "row".equals(mode) ? "1" : String.valueOf(BATCH_SIZE),
+            "hibernate.order_inserts", "true"));
+        entityManagerFactoryBean.afterPropertiesSet();
+        entityManagerFactory = entityManagerFactoryBean.getObject();
+    }
+
+    /**
+     * Одна транзакция массовой регистрации: команды, их новые игроки и строки составов
+     */
+    @Benchmark
+    public int registerTeamsWithNewPlayers() {
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        try {
+            entityManager.getTransaction().begin();
+            for (int t = 0; t < teams; t++) {
+                List<Player> players = new ArrayList<>();
+                for (int i = 0; i < playersPerTeam; i++) {
+                    Player player = new Player();
+                    player.setName("Игрок " + i);
+                    entityManager.persist(player);
+                    players.add(player);
+                }
+                Team team = new Team();
+                team.setName("Команда " + t);
+                team.setPlayers(players);
+                entityManager.persist(team);
+            }
+            entityManager.getTransaction().commit();
+            return teams;
+        } finally {
+            entityManager.close();
+        }
+    }
+
+    /**
+     * Вставка пользователей с явными идентификаторами, как в SyntheticDataSeeder
+     */
+    @Benchmark
+    public int seedUsers() {
+        LocalDateTime now = LocalDateTime.now();
+        List<Object[]> rows = new ArrayList<>(seedRows);
+        for (int i = 0; i < seedRows; i++) {
+            long id = nextUserId++;
+            rows.add(new Object[]{id, "Игрок " + id, "user" + id + "@bench.local", "x", true, "user", now, now});
+        }
+        if ("row".equals(mode)) {
+            for (Object[] row : rows) {
+                jdbcTemplate.update(INSERT_USER, row);
+            }
+        } else {
+            for (int from = 0; from < rows.size(); from += BATCH_SIZE) {
+                jdbcTemplate.batchUpdate(INSERT_USER, rows.subList(from, Math.min(from + BATCH_SIZE, rows.size())));
+            }
+        }
+        return rows.size();
+    }
+
+    @TearDown(Level.Iteration)
+    public void truncate() {
+        // Таблицы не растут от итерации к итерации, чтобы индексы не замедляли поздние замеры
+        jdbcTemplate.execute("TRUNCATE team_players, teams, players, users CASCADE");
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+        entityManagerFactoryBean.destroy();
+        dataSource.close();
+        try (Connection connection = DriverManager.getConnection(serverUrl, user(), password());
+             Statement statement = connection.createStatement()) {
+            statement.execute("DROP DATABASE IF EXISTS " + databaseName + " WITH (FORCE)");
+        }
+    }
+
+    private static String user() {
+        return setting("TEST_DATABASE_USER", "postgres");
+    }
+
+    private static String password() {
+        return setting("TEST_DATABASE_PASSWORD", "");
+    }
+
+    private static String setting(String env, String defaultValue) {
+        String value = System.getenv(env);
+        return value == null || value.isBlank() ? defaultValue : value;
+    }
+}
@@ -0,0 +1,64 @@
+package com.fiba.api.benchmark;
+
+import com.fiba.api.security.JwtTokenProvider;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Проверка JWT на каждом аутентифицированном запросе: разбор и проверка подписи токена
+ * и сборка Authentication. Загрузка пользователя подменена готовым объектом, чтобы
+ * замер не включал обращение к БД.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtTokenProviderBenchmark {
+
+    private JwtTokenProvider provider;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        BenchmarkSupport.quietLogging();
+        UserDetails user = User.withUsername("player@fiba.ru").password("").roles("USER").build();
+        provider = new JwtTokenProvider(username -> user);
+        BenchmarkSupport.setField(provider, "secretKey", "0d2f28c0-d842-4389-b14a-e932ac20feeb");
+        BenchmarkSupport.setField(provider, "validityInMilliseconds", 86_400_000L);
+        BenchmarkSupport.invoke(provider, "init");
+        token = provider.createToken("player@fiba.ru", "user");
+    }
+
+    @Benchmark
+    public boolean validateToken() {
+        return provider.validateToken(token);
+    }
+
+    @Benchmark
+    public Authentication getAuthentication() {
+        return provider.getAuthentication(token);
+    }
+
+    /**
+     * Путь фильтра аутентификации целиком: проверка, затем повторный разбор в getAuthentication
+     */
+    @Benchmark
+    public Authentication validateAndAuthenticate() {
+        return provider.validateToken(token) ? provider.getAuthentication(token) : null;
+    }
+}
@@ -0,0 +1,86 @@
+package com.fiba.api.benchmark;
+
+import com.fiba.api.controller.PlayerController;
+import com.fiba.api.model.Profile;
+import com.fiba.api.model.User;
+import com.fiba.api.service.ProfileService;
+import com.fiba.api.service.UserService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.ResponseEntity;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Сортировки в памяти в PlayerController.getPlayerRankings. Сервисы подменены наследниками,
+ * отдающими заранее собранные профили и пользователей, поэтому замер включает только
+ * фильтрацию, сортировку и сборку ответа.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PlayerRankingsBenchmark {
+
+    @Param({"1000", "20000"})
+    private int profiles;
+
+    @Param({"points", "rating"})
+    private String category;
+
+    private PlayerController controller;
+
+    @Setup
+    public void setUp() {
+        BenchmarkSupport.quietLogging();
+        Random random = new Random(42);
+        List<Profile> allProfiles = new ArrayList<>(profiles);
+        Map<Long, User> users = new HashMap<>();
+        for (long id = 1; id <= profiles; id++) {
+            User user = User.builder().id(id).name("Игрок " + id).build();
+            users.put(id, user);
+            Profile profile = new Profile();
+            profile.setId(id);
+            profile.setUser(user);
+            profile.setTotalPoints(random.nextInt(5000));
+            profile.setRating(random.nextInt(3000));
+            profile.setTournamentsPlayed(random.nextInt(100));
+            allProfiles.add(profile);
+        }
+
+        ProfileService profileService = new ProfileService(null) {
+            @Override
+            public List<Profile> getAllProfiles() {
+                return allProfiles;
+            }
+        };
+        UserService userService = new UserService(null, null, null) {
+            @Override
+            public User getUserById(Long id) {
+                return users.get(id);
+            }
+        };
+        controller = new PlayerController(profileService, userService);
+    }
+
+    @Benchmark
+    public ResponseEntity<?> rankingsTop10() {
+        return controller.getPlayerRankings(category, 10);
+    }
+}
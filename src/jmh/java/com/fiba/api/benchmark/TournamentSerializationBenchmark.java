@@ -0,0 +1,114 @@
+package com.fiba.api.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fiba.api.controller.TournamentController;
+import com.fiba.api.model.Registration;
+import com.fiba.api.model.Tournament;
+import com.fiba.api.model.TournamentStatus;
+import com.fiba.api.model.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Преобразование списка турниров в ответ GET /api/tournaments: TournamentController.convertToMap
+ * и сериализация результата в JSON. Турниры собираются в памяти, с заявками и игроками
+ * в количестве, заданном параметрами.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TournamentSerializationBenchmark {
+
+    @Param({"100"})
+    private int tournaments;
+
+    @Param({"0", "16"})
+    private int registrationsPerTournament;
+
+    private static final int PLAYERS_PER_REGISTRATION = 5;
+
+    private final ObjectMapper objectMapper = JsonMapper.builder().findAndAddModules().build();
+    private TournamentController controller;
+    private MethodHandle convertToMap;
+    private List<Tournament> data;
+
+    @Setup
+    public void setUp() throws Exception {
+        BenchmarkSupport.quietLogging();
+        controller = new TournamentController(null, null, null, null, null);
+        convertToMap = MethodHandles.privateLookupIn(TournamentController.class, MethodHandles.lookup())
+            .findVirtual(TournamentController.class, "convertToMap", MethodType.methodType(Map.class, Tournament.class));
+
+        data = new ArrayList<>(tournaments);
+        long userId = 1;
+        for (int i = 0; i < tournaments; i++) {
+            Tournament tournament = new Tournament();
+            tournament.setId((long) i + 1);
+            tournament.setName("Турнир " + i);
+            tournament.setDate(LocalDate.of(2030, 1, 1).plusDays(i));
+            tournament.setLocation("Казань");
+            tournament.setLevel("amateur");
+            tournament.setPrizePool("100000");
+            tournament.setStatus(TournamentStatus.values()[i % TournamentStatus.values().length]);
+            tournament.setSponsorName(i % 3 == 0 ? "Спонсор " + i : null);
+            List<Registration> registrations = new ArrayList<>();
+            for (int r = 0; r < registrationsPerTournament; r++) {
+                List<User> players = new ArrayList<>();
+                for (int p = 0; p < PLAYERS_PER_REGISTRATION; p++) {
+                    players.add(User.builder().id(userId).name("Игрок " + userId).build());
+                    userId++;
+                }
+                Registration registration = new Registration();
+                registration.setId((long) i * 1000 + r);
+                registration.setTeamName("Команда " + r);
+                registration.setStatus("approved");
+                registration.setCaptain(players.get(0));
+                registration.setPlayers(players);
+                registrations.add(registration);
+            }
+            tournament.setRegistrations(registrations);
+            data.add(tournament);
+        }
+    }
+
+    @Benchmark
+    public List<Map<String, Object>> convertToMap() throws Throwable {
+        List<Map<String, Object>> result = new ArrayList<>(data.size());
+        for (Tournament tournament : data) {
+            result.add(convert(tournament));
+        }
+        return result;
+    }
+
+    @Benchmark
+    public byte[] convertAndSerialize() throws Throwable {
+        return objectMapper.writeValueAsBytes(convertToMap());
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> convert(Tournament tournament) throws Throwable {
+        return (Map<String, Object>) convertToMap.invoke(controller, tournament);
+    }
+}
@@ -0,0 +1,109 @@
+package com.fiba.api.load;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.net.http.HttpResponse;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Данные для сценариев: администратор, турниры без ограничения мест и зарегистрированные
+ * пользователи с токенами. Имена содержат идентификатор прогона, поэтому прогоны
+ * можно повторять на одной базе.
+ */
+final class Fixtures {
+
+    record Account(long id, String token) {
+    }
+
+    final String runId;
+    final Account admin;
+    final List<Long> tournamentIds;
+    final List<Account> users;
+    final byte[] photo;
+
+    private Fixtures(String runId, Account admin, List<Long> tournamentIds, List<Account> users, byte[] photo) {
+        this.runId = runId;
+        this.admin = admin;
+        this.tournamentIds = tournamentIds;
+        this.users = users;
+        this.photo = photo;
+    }
+
+    static Fixtures create(LoadClient client, int tournaments, int users, int photoBytes) throws Exception {
+        String runId = Long.toString(System.currentTimeMillis(), 36);
+        Account admin = adminAccount(client);
+
+        List<Long> tournamentIds = new ArrayList<>();
+        for (int i = 0; i < tournaments; i++) {
+            HttpResponse<byte[]> response = client.postJson("setup", "/api/admin/tournaments", admin.token(), Map.of(
+                "name", "Load Cup " + runId + "-" + i,
+                "date", LocalDate.now().plusMonths(1).toString(),
+                "location", "Казань",
+                "status", "UPCOMING",
+                "maxTeams", 1_000_000,
+                "registrationOpen", true));
+            tournamentIds.add(client.readJson(checked(response, "создание турнира")).get("id").asLong());
+        }
+
+        // Регистрация упирается в BCrypt на сервере, поэтому идет в несколько потоков
+        List<Account> accounts = new ArrayList<>();
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Account>> futures = new ArrayList<>();
+            for (int i = 0; i < users; i++) {
+                String email = "load-" + runId + "-" + i + "@load.local";
+                String name = "Load User " + i;
+                futures.add(pool.submit(() -> register(client, name, email, "user")));
+            }
+            for (Future<Account> future : futures) {
+                accounts.add(future.get());
+            }
+        } finally {
+            pool.shutdown();
+        }
+
+        byte[] photo = new byte[photoBytes];
+        new Random(42).nextBytes(photo);
+        photo[0] = (byte) 0xFF;
+        photo[1] = (byte) 0xD8;
+        photo[2] = (byte) 0xFF;
+        return new Fixtures(runId, admin, tournamentIds, accounts, photo);
+    }
+
+    private static Account adminAccount(LoadClient client) {
+        String email = System.getProperty("load.admin-email", "load-admin@load.local");
+        String password = System.getProperty("load.admin-password", "load-secret");
+        HttpResponse<byte[]> login = client.postJson("setup", "/api/auth/login", null,
+            Map.of("email", email, "password", password));
+        if (login != null && login.statusCode() == 200) {
+            return account(client.readJson(login));
+        }
+        return register(client, "Load Admin", email, "admin");
+    }
+
+    private static Account register(LoadClient client, String name, String email, String role) {
+        String password = "admin".equals(role) ? System.getProperty("load.admin-password", "load-secret") : "load-secret";
+        HttpResponse<byte[]> response = client.postJson("setup", "/api/auth/register", null,
+            Map.of("name", name, "email", email, "password", password, "role", role));
+        return account(client.readJson(checked(response, "регистрация " + email)));
+    }
+
+    private static Account account(JsonNode auth) {
+        return new Account(auth.get("userId").asLong(), auth.get("token").asText());
+    }
+
+    private static HttpResponse<byte[]> checked(HttpResponse<byte[]> response, String action) {
+        if (response == null || response.statusCode() >= 300) {
+            throw new IllegalStateException("Подготовка данных не удалась (" + action + "): "
+                + (response == null ? "нет ответа" : response.statusCode() + " " + new String(response.body())));
+        }
+        return response;
+    }
+}
@@ -0,0 +1,143 @@
+package com.fiba.api.load;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * HTTP-клиент генератора нагрузки. Каждый запрос учитывается в {@link LoadStats} под именем
+ * эндпоинта (шаблоном маршрута), чтобы задержки разных турниров и пользователей попадали
+ * в одну гистограмму.
+ */
+final class LoadClient {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+
+    private final HttpClient http;
+    private final String baseUrl;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private volatile LoadStats stats;
+
+    LoadClient(String baseUrl) {
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+        this.http = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    }
+
+    /**
+     * Статистика текущей ступени нагрузки; null - запросы подготовки данных не учитываются
+     */
+    void setStats(LoadStats stats) {
+        this.stats = stats;
+    }
+
+    ObjectMapper objectMapper() {
+        return objectMapper;
+    }
+
+    HttpResponse<byte[]> get(String endpoint, String path, String token) {
+        return send(endpoint, request(path, token).GET().build());
+    }
+
+    HttpResponse<byte[]> postJson(String endpoint, String path, String token, Object body) {
+        return send(endpoint, json(request(path, token), body, "POST").build());
+    }
+
+    HttpResponse<byte[]> putJson(String endpoint, String path, String token, Object body) {
+        return send(endpoint, json(request(path, token), body, "PUT").build());
+    }
+
+    HttpResponse<byte[]> send(String endpoint, HttpRequest request) {
+        long start = System.nanoTime();
+        int status = -1;
+        try {
+            HttpResponse<byte[]> response = http.send(request, HttpResponse.BodyHandlers.ofByteArray());
+            status = response.statusCode();
+            return response;
+        } catch (IOException e) {
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } finally {
+            LoadStats current = stats;
+            if (current != null) {
+                current.record(endpoint, System.nanoTime() - start, status);
+            }
+        }
+    }
+
+    /**
+     * Учитывает составную операцию (например, регистрацию с ожиданием в очереди) как отдельный эндпоинт
+     */
+    void recordDerived(String endpoint, long nanos, int status) {
+        LoadStats current = stats;
+        if (current != null) {
+            current.record(endpoint, nanos, status);
+        }
+    }
+
+    /**
+     * Отправляет multipart/form-data с одним файлом и текстовыми полями
+     */
+    HttpResponse<byte[]> postMultipart(String endpoint, String path, String token, String fileField,
+                                       String filename, String contentType, byte[] content,
+                                       Map<String, String> fields) {
+        String boundary = "----fiba-load-" + UUID.randomUUID();
+        ByteArrayOutputStream body = new ByteArrayOutputStream(content.length + 512);
+        for (Map.Entry<String, String> field : fields.entrySet()) {
+            write(body, "--" + boundary + "\r\nContent-Disposition: form-data; name=\"" + field.getKey()
+                + "\"\r\n\r\n" + field.getValue() + "\r\n");
+        }
+        write(body, "--" + boundary + "\r\nContent-Disposition: form-data; name=\"" + fileField
+            + "\"; filename=\"" + filename + "\"\r\nContent-Type: " + contentType + "\r\n\r\n");
+        body.writeBytes(content);
+        write(body, "\r\n--" + boundary + "--\r\n");
+        HttpRequest request = request(path, token)
+            .header("Content-Type", "multipart/form-data; boundary=" + boundary)
+            .POST(HttpRequest.BodyPublishers.ofByteArray(body.toByteArray()))
+            .build();
+        return send(endpoint, request);
+    }
+
+    HttpRequest.Builder request(String path, String token) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(TIMEOUT);
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        return builder;
+    }
+
+    HttpRequest.Builder json(HttpRequest.Builder builder, Object body, String method) {
+        try {
+            return builder.header("Content-Type", "application/json")
+                .method(method, HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)));
+        } catch (IOException e) {
+            throw new IllegalArgumentException(e);
+        }
+    }
+
+    JsonNode readJson(HttpResponse<byte[]> response) {
+        try {
+            return objectMapper.readTree(response.body());
+        } catch (IOException e) {
+            throw new IllegalStateException("Ответ не в JSON: " + new String(response.body(), StandardCharsets.UTF_8), e);
+        }
+    }
+
+    private static void write(ByteArrayOutputStream out, String text) {
+        out.writeBytes(text.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,159 @@
+package com.fiba.api.load;
+
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Генератор нагрузки на локально запущенный экземпляр API.
+ *
+ * Нагрузка закрытая: на каждой ступени работает заданное число виртуальных пользователей,
+ * каждый выполняет итерации сценария подряд. Ступени идут по возрастанию числа пользователей,
+ * по каждой печатаются пропускная способность и перцентили задержек по эндпоинтам.
+ * Точка насыщения - ступень, после которой пропускная способность перестает расти,
+ * а p99 резко увеличивается.
+ *
+ * Параметры (системные свойства):
+ * load.base-url, load.scenario (browse|rush|scores|avatars|proxy|mixed), load.stages (через запятую),
+ * load.stage-seconds, load.warmup-seconds, load.users, load.tournaments, load.think-ms,
+ * load.photo-bytes, load.report (JSON-отчет).
+ * Для сценария proxy: load.upstream-port запускает {@link SlowUpstream} на этом порту,
+ * load.upstream-latency-ms и load.upstream-bytes задают его задержку и размер ответа.
+ */
+public final class LoadGenerator {
+
+    private LoadGenerator() {
+    }
+
+    record StageResult(int users, double seconds, List<LoadStats.Summary> endpoints) {
+
+        LoadStats.Summary total() {
+            return endpoints.get(endpoints.size() - 1);
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        String baseUrl = System.getProperty("load.base-url", "http://localhost:8080");
+        Scenario scenario = Scenario.valueOf(System.getProperty("load.scenario", "mixed").toUpperCase(Locale.ROOT));
+        int[] stages = Arrays.stream(System.getProperty("load.stages", "10,25,50,100,200,400").split(","))
+            .map(String::trim).mapToInt(Integer::parseInt).toArray();
+        int stageSeconds = Integer.getInteger("load.stage-seconds", 30);
+        int warmupSeconds = Integer.getInteger("load.warmup-seconds", 10);
+        long thinkMs = Long.getLong("load.think-ms", 0L);
+        File report = new File(System.getProperty("load.report", "target/load-report.json"));
+
+        Integer upstreamPort = Integer.getInteger("load.upstream-port");
+        long upstreamLatencyMs = Long.getLong("load.upstream-latency-ms", 200L);
+        SlowUpstream upstream = null;
+        if (upstreamPort != null) {
+            upstream = SlowUpstream.start(upstreamPort, upstreamLatencyMs, Integer.getInteger("load.upstream-bytes", 20 * 1024));
+            System.out.printf("Медленный upstream на порту %d, задержка %d мс%n", upstreamPort, upstreamLatencyMs);
+        }
+
+        LoadClient client = new LoadClient(baseUrl);
+        System.out.printf("Подготовка данных на %s...%n", baseUrl);
+        Fixtures fixtures = Fixtures.create(client, Integer.getInteger("load.tournaments", 5),
+            Integer.getInteger("load.users", 200), Integer.getInteger("load.photo-bytes", 100 * 1024));
+        System.out.printf("Прогон %s: сценарий %s, ступени %s по %d с, пауза %d мс%n",
+            fixtures.runId, scenario, Arrays.toString(stages), stageSeconds, thinkMs);
+
+        if (warmupSeconds > 0) {
+            System.out.printf("Прогрев %d с...%n", warmupSeconds);
+            runStage(client, fixtures, scenario, stages[0], warmupSeconds, thinkMs);
+        }
+
+        List<StageResult> results = new ArrayList<>();
+        for (int users : stages) {
+            StageResult result = runStage(client, fixtures, scenario, users, stageSeconds, thinkMs);
+            results.add(result);
+            printStage(result);
+        }
+        printOverview(results);
+
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("run_id", fixtures.runId);
+        json.put("base_url", baseUrl);
+        json.put("scenario", scenario.name().toLowerCase(Locale.ROOT));
+        json.put("think_ms", thinkMs);
+        json.put("upstream_latency_ms", upstream != null ? upstreamLatencyMs : null);
+        json.put("stages", results);
+        report.getAbsoluteFile().getParentFile().mkdirs();
+        client.objectMapper().copy().enable(SerializationFeature.INDENT_OUTPUT).writeValue(report, json);
+        System.out.printf("Отчет: %s%n", report.getPath());
+        if (upstream != null) {
+            upstream.close();
+        }
+    }
+
+    private static StageResult runStage(LoadClient client, Fixtures fixtures, Scenario scenario, int users,
+                                        int seconds, long thinkMs) throws InterruptedException {
+        LoadStats stats = new LoadStats();
+        client.setStats(stats);
+        long start = System.nanoTime();
+        long deadline = start + seconds * 1_000_000_000L;
+        List<Thread> threads = new ArrayList<>(users);
+        for (int i = 0; i < users; i++) {
+            Thread thread = new Thread(() -> {
+                while (System.nanoTime() < deadline && !Thread.currentThread().isInterrupted()) {
+                    try {
+                        scenario.iteration(client, fixtures, thinkMs);
+                    } catch (RuntimeException e) {
+                        // Ошибка разбора ответа не должна останавливать виртуального пользователя
+                    }
+                }
+            }, "load-vu-" + i);
+            thread.setDaemon(true);
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        client.setStats(null);
+        double elapsed = (System.nanoTime() - start) / 1e9;
+        return new StageResult(users, elapsed, stats.summarize(elapsed));
+    }
+
+    private static void printStage(StageResult result) {
+        System.out.printf("%n=== %d пользователей, %.1f с ===%n", result.users(), result.seconds());
+        System.out.printf("%-48s %9s %9s %8s %8s %8s %9s %9s %9s %9s%n",
+            "endpoint", "requests", "req/s", "2xx", "429/503", "4xx", "5xx/io", "p50 ms", "p99 ms", "max ms");
+        for (LoadStats.Summary s : result.endpoints()) {
+            System.out.printf("%-48s %9d %9.1f %8d %8d %8d %9d %9.2f %9.2f %9.2f%n",
+                s.endpoint(), s.requests(), s.rps(), s.ok(), s.throttled(), s.clientErrors(),
+                s.serverErrors() + s.ioErrors(), s.p50Ms(), s.p99Ms(), s.maxMs());
+        }
+    }
+
+    private static void printOverview(List<StageResult> results) {
+        System.out.printf("%n=== Итог по ступеням ===%n");
+        System.out.printf("%8s %10s %9s %9s %9s %8s%n", "users", "req/s", "p50 ms", "p90 ms", "p99 ms", "errors");
+        StageResult saturation = null;
+        StageResult previous = null;
+        for (StageResult result : results) {
+            LoadStats.Summary total = result.total();
+            long errors = total.serverErrors() + total.ioErrors();
+            System.out.printf("%8d %10.1f %9.2f %9.2f %9.2f %8d%n",
+                result.users(), total.rps(), total.p50Ms(), total.p90Ms(), total.p99Ms(), errors);
+            // Прирост пропускной способности меньше 10% при росте p99 больше чем вдвое
+            if (saturation == null && previous != null
+                && total.rps() < previous.total().rps() * 1.1
+                && total.p99Ms() > previous.total().p99Ms() * 2) {
+                saturation = previous;
+            }
+            previous = result;
+        }
+        if (saturation != null) {
+            System.out.printf("Насыщение примерно при %d пользователях (%.1f req/s)%n",
+                saturation.users(), saturation.total().rps());
+        } else {
+            System.out.println("Насыщение на этих ступенях не достигнуто");
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.fiba.api.load;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Задержки и статусы ответов одной ступени нагрузки по эндпоинтам (HdrHistogram, микросекунды)
+ */
+final class LoadStats {
+
+    private static final long MAX_LATENCY_MICROS = 120_000_000L;
+
+    private final Map<String, Endpoint> endpoints = new ConcurrentHashMap<>();
+
+    static final class Endpoint {
+        private final Recorder recorder = new Recorder(MAX_LATENCY_MICROS, 3);
+        private final LongAdder ok = new LongAdder();
+        private final LongAdder throttled = new LongAdder();
+        private final LongAdder clientErrors = new LongAdder();
+        private final LongAdder serverErrors = new LongAdder();
+        private final LongAdder ioErrors = new LongAdder();
+    }
+
+    /**
+     * Итоги эндпоинта за ступень
+     */
+    record Summary(String endpoint, long requests, double rps, long ok, long throttled, long clientErrors,
+                   long serverErrors, long ioErrors, double p50Ms, double p90Ms, double p99Ms, double maxMs) {
+    }
+
+    void record(String endpoint, long nanos, int status) {
+        Endpoint stats = endpoints.computeIfAbsent(endpoint, key -> new Endpoint());
+        stats.recorder.recordValue(Math.min(MAX_LATENCY_MICROS, Math.max(1, nanos / 1000)));
+        if (status < 0) {
+            stats.ioErrors.increment();
+        } else if (status == 429 || status == 503) {
+            // Отказы очереди регистрации и перегрузки - ожидаемая реакция, а не ошибка
+            stats.throttled.increment();
+        } else if (status >= 500) {
+            stats.serverErrors.increment();
+        } else if (status >= 400) {
+            stats.clientErrors.increment();
+        } else {
+            stats.ok.increment();
+        }
+    }
+
+    /**
+     * Итоги по эндпоинтам и строка "TOTAL" по всем запросам ступени
+     */
+    List<Summary> summarize(double seconds) {
+        List<Summary> result = new ArrayList<>();
+        Histogram total = new Histogram(MAX_LATENCY_MICROS, 3);
+        long ok = 0;
+        long throttled = 0;
+        long clientErrors = 0;
+        long serverErrors = 0;
+        long ioErrors = 0;
+        for (Map.Entry<String, Endpoint> entry : new TreeMap<>(endpoints).entrySet()) {
+            Endpoint stats = entry.getValue();
+            Histogram histogram = stats.recorder.getIntervalHistogram();
+            total.add(histogram);
+            result.add(summary(entry.getKey(), histogram, seconds, stats.ok.sum(), stats.throttled.sum(),
+                stats.clientErrors.sum(), stats.serverErrors.sum(), stats.ioErrors.sum()));
+            ok += stats.ok.sum();
+            throttled += stats.throttled.sum();
+            clientErrors += stats.clientErrors.sum();
+            serverErrors += stats.serverErrors.sum();
+            ioErrors += stats.ioErrors.sum();
+        }
+        result.add(summary("TOTAL", total, seconds, ok, throttled, clientErrors, serverErrors, ioErrors));
+        return result;
+    }
+
+    private static Summary summary(String endpoint, Histogram histogram, double seconds, long ok, long throttled,
+                                   long clientErrors, long serverErrors, long ioErrors) {
+        long requests = histogram.getTotalCount();
+        return new Summary(endpoint, requests, requests / seconds, ok, throttled, clientErrors, serverErrors,
+            ioErrors, ms(histogram.getValueAtPercentile(50)), ms(histogram.getValueAtPercentile(90)),
+            ms(histogram.getValueAtPercentile(99)), ms(histogram.getMaxValue()));
+    }
+
+    private static double ms(long micros) {
+        return Math.round(micros / 10.0) / 100.0;
+    }
+}
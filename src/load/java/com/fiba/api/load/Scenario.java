@@ -0,0 +1,161 @@
+package com.fiba.api.load;
+
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Сценарии нагрузки. Одна итерация - законченное действие пользователя; между запросами
+ * внутри итерации выдерживается пауза think-ms.
+ */
+enum Scenario {
+
+    /**
+     * Анонимный просмотр: список турниров, предстоящие, лучшие игроки, реклама, карточка турнира
+     */
+    BROWSE {
+        @Override
+        void iteration(LoadClient client, Fixtures fixtures, long thinkMs) {
+            long tournamentId = randomTournament(fixtures);
+            client.get("GET /api/tournaments", "/api/tournaments", null);
+            think(thinkMs);
+            client.get("GET /api/tournaments/upcoming", "/api/tournaments/upcoming", null);
+            think(thinkMs);
+            client.get("GET /api/players/top", "/api/players/top", null);
+            think(thinkMs);
+            client.get("GET /api/ads/public/advertisement", "/api/ads/public/advertisement", null);
+            think(thinkMs);
+            client.get("GET /api/tournaments/{id}", "/api/tournaments/" + tournamentId, null);
+            think(thinkMs);
+            client.get("GET /api/tournaments/{id}/teams", "/api/tournaments/" + tournamentId + "/teams", null);
+        }
+    },
+
+    /**
+     * Наплыв регистраций: капитан регистрирует команду из трех случайных игроков,
+     * при 429 ждет в очереди с талоном X-Queue-Token
+     */
+    RUSH {
+        @Override
+        void iteration(LoadClient client, Fixtures fixtures, long thinkMs) {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            Fixtures.Account captain = fixtures.users.get(random.nextInt(fixtures.users.size()));
+            List<Long> players = new ArrayList<>();
+            while (players.size() < 3) {
+                long id = fixtures.users.get(random.nextInt(fixtures.users.size())).id();
+                if (id != captain.id() && !players.contains(id)) {
+                    players.add(id);
+                }
+            }
+            long tournamentId = randomTournament(fixtures);
+            String path = "/api/tournaments/" + tournamentId + "/register";
+            Map<String, Object> body = Map.of(
+                "tournamentId", tournamentId,
+                "teamName", "Load " + UUID.randomUUID().toString().substring(0, 12),
+                "playerIds", players);
+
+            long start = System.nanoTime();
+            String queueToken = null;
+            int status = -1;
+            for (int attempt = 0; attempt < 60; attempt++) {
+                HttpRequest.Builder request = client.json(client.request(path, captain.token()), body, "POST");
+                if (queueToken != null) {
+                    request.header("X-Queue-Token", queueToken);
+                }
+                HttpResponse<byte[]> response = client.send("POST /api/tournaments/{id}/register", request.build());
+                status = response != null ? response.statusCode() : -1;
+                if (status != 429) {
+                    break;
+                }
+                queueToken = response.headers().firstValue("X-Queue-Token").orElse(queueToken);
+                long retryAfter = response.headers().firstValueAsLong("Retry-After").orElse(1);
+                sleep(Math.max(200, Math.min(retryAfter, 5) * 1000));
+            }
+            // Время от первой попытки до ответа, включая ожидание в очереди
+            client.recordDerived("register end-to-end (with queue)", System.nanoTime() - start, status);
+        }
+    },
+
+    /**
+     * Трансляция счета: администратор обновляет матч, зрители опрашивают турнир и команды
+     */
+    SCORES {
+        @Override
+        void iteration(LoadClient client, Fixtures fixtures, long thinkMs) {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            long tournamentId = randomTournament(fixtures);
+            client.putJson("PUT /api/tournaments/{id}/matches/{matchId}",
+                "/api/tournaments/" + tournamentId + "/matches/m" + random.nextInt(16), fixtures.admin.token(),
+                Map.of("score1", random.nextInt(100), "score2", random.nextInt(100), "isCompleted", false));
+            for (int i = 0; i < 4; i++) {
+                think(thinkMs);
+                client.get("GET /api/tournaments/{id}", "/api/tournaments/" + tournamentId, null);
+                client.get("GET /api/tournaments/{id}/teams", "/api/tournaments/" + tournamentId + "/teams", null);
+            }
+        }
+    },
+
+    /**
+     * Загрузка фотографии профиля
+     */
+    AVATARS {
+        @Override
+        void iteration(LoadClient client, Fixtures fixtures, long thinkMs) {
+            Fixtures.Account user = fixtures.users.get(ThreadLocalRandom.current().nextInt(fixtures.users.size()));
+            client.postMultipart("POST /api/profile/update", "/api/profile/update", user.token(),
+                "photo", "avatar.jpg", "image/jpeg", fixtures.photo, Map.of());
+        }
+    },
+
+    /**
+     * Открытие страницы: два ресурса фронтенда через некэширующий прокси (время ответа задает upstream)
+     * и список предстоящих турниров из БД. Показывает, держит ли сервер запросы к API,
+     * пока большая часть потоков ждет медленный upstream
+     */
+    PROXY {
+        @Override
+        void iteration(LoadClient client, Fixtures fixtures, long thinkMs) {
+            int asset = ThreadLocalRandom.current().nextInt(100);
+            client.get("GET /api/proxy/static-bro-js/**", "/api/proxy/static-bro-js/load/main-" + asset + ".js", null);
+            client.get("GET /api/proxy/static-bro-js/**", "/api/proxy/static-bro-js/load/vendor-" + asset + ".js", null);
+            client.get("GET /api/tournaments/upcoming", "/api/tournaments/upcoming", null);
+            think(thinkMs);
+        }
+    },
+
+    /**
+     * Смесь: 70% просмотр, 10% регистрации, 10% счет, 10% загрузки фото
+     */
+    MIXED {
+        @Override
+        void iteration(LoadClient client, Fixtures fixtures, long thinkMs) {
+            int dice = ThreadLocalRandom.current().nextInt(100);
+            Scenario scenario = dice < 70 ? BROWSE : dice < 80 ? RUSH : dice < 90 ? SCORES : AVATARS;
+            scenario.iteration(client, fixtures, thinkMs);
+        }
+    };
+
+    abstract void iteration(LoadClient client, Fixtures fixtures, long thinkMs);
+
+    private static long randomTournament(Fixtures fixtures) {
+        return fixtures.tournamentIds.get(ThreadLocalRandom.current().nextInt(fixtures.tournamentIds.size()));
+    }
+
+    private static void think(long thinkMs) {
+        if (thinkMs > 0) {
+            sleep(ThreadLocalRandom.current().nextLong(thinkMs / 2, thinkMs * 3 / 2 + 1));
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
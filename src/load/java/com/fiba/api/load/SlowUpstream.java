@@ -0,0 +1,55 @@
+package com.fiba.api.load;
+
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Заглушка внешнего сервера статики с задержкой ответа, на которую направляется прокси
+ * (proxy.static-bro-js.base-url). Отвечает на любой GET телом заданного размера через
+ * latency-ms, имитируя медленный upstream, ожидание которого занимает поток обработки запроса.
+ */
+final class SlowUpstream implements AutoCloseable {
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    private SlowUpstream(HttpServer server, ExecutorService executor) {
+        this.server = server;
+        this.executor = executor;
+    }
+
+    static SlowUpstream start(int port, long latencyMs, int bodyBytes) throws IOException {
+        byte[] body = new byte[bodyBytes];
+        Arrays.fill(body, (byte) ' ');
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", port), 1024);
+        server.createContext("/", exchange -> {
+            try (exchange) {
+                Thread.sleep(latencyMs);
+                exchange.getResponseHeaders().set("Content-Type", "application/javascript");
+                exchange.sendResponseHeaders(200, body.length);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(body);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        // Каждое ожидание на своем потоке, чтобы заглушка сама не ограничивала параллелизм
+        ExecutorService executor = Executors.newCachedThreadPool();
+        server.setExecutor(executor);
+        server.start();
+        return new SlowUpstream(server, executor);
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+}
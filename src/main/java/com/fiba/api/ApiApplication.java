@@ -2,17 +2,25 @@ package com.fiba.api;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
 
 @SpringBootApplication
 @EnableJpaRepositories
 public class ApiApplication {
 
+    /**
+     * Число шагов запуска, которые запоминаются для отчета о старте и /actuator/startup
+     */
+    private static final int STARTUP_STEPS_CAPACITY = 10000;
+
     public static void main(String[] args) {
         // Вывод информации о переменных окружения при запуске
         System.out.println("PORT environment: " + System.getenv("PORT"));
         System.out.println("RAILWAY_ENVIRONMENT: " + System.getenv("RAILWAY_ENVIRONMENT"));
         
-        SpringApplication.run(ApiApplication.class, args);
+        SpringApplication application = new SpringApplication(ApiApplication.class);
+        application.setApplicationStartup(new BufferingApplicationStartup(STARTUP_STEPS_CAPACITY));
+        application.run(args);
     }
-} 
\ No newline at end of file
+}
@@ -1,8 +1,18 @@
 package com.fiba.api.config;
 
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import io.micrometer.observation.ObservationRegistry;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.web.client.RestTemplate;
 import lombok.extern.slf4j.Slf4j;
 
@@ -11,27 +21,84 @@ import lombok.extern.slf4j.Slf4j;
  */
 @Slf4j
 @Configuration
+@EnableScheduling
 public class AppConfig {
 
+    @Value("${http.client.max-connections:100}")
+    private int maxConnections;
+
+    @Value("${http.client.max-connections-per-route:50}")
+    private int maxConnectionsPerRoute;
+
+    @Value("${http.client.connect-timeout-ms:5000}")
+    private long connectTimeoutMs;
+
+    @Value("${http.client.read-timeout-ms:5000}")
+    private long readTimeoutMs;
+
+    /**
+     * Создает HTTP клиент с пулом соединений. Соединения (и TLS-сессии) переиспользуются
+     * между запросами, простаивающие соединения закрываются в фоне.
+     *
+     * @return HTTP клиент
+     */
+    @Bean(destroyMethod = "close")
+    public CloseableHttpClient httpClient() {
+        PoolingHttpClientConnectionManager connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(maxConnections)
+                .setMaxConnPerRoute(maxConnectionsPerRoute)
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.ofMilliseconds(connectTimeoutMs))
+                        .setSocketTimeout(Timeout.ofMilliseconds(readTimeoutMs))
+                        .setTimeToLive(TimeValue.ofMinutes(5))
+                        .build())
+                .build();
+
+        return HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .evictIdleConnections(TimeValue.ofSeconds(30))
+                .evictExpiredConnections()
+                .build();
+    }
+
     /**
      * Создает и настраивает RestTemplate для HTTP запросов
      * 
      * @return настроенный экземпляр RestTemplate
      */
     @Bean
-    public RestTemplate restTemplate() {
-        SimpleClientHttpRequestFactory factory = new SimpleClientHttpRequestFactory();
-        factory.setConnectTimeout(5000);
-        factory.setReadTimeout(5000);
+    public RestTemplate restTemplate(CloseableHttpClient httpClient, RequestTracer tracer,
+                                     ObservationRegistry observationRegistry) {
+        HttpComponentsClientHttpRequestFactory factory = new HttpComponentsClientHttpRequestFactory(httpClient);
+        factory.setConnectionRequestTimeout((int) connectTimeoutMs);
         
         RestTemplate restTemplate = new RestTemplate(factory);
+        // Метрики http.client.requests
+        restTemplate.setObservationRegistry(observationRegistry);
         
-        // Добавляем логирование запросов
+        // Добавляем логирование запросов (пишется выборочно, см. app.logging.sampling)
         restTemplate.getInterceptors().add((request, body, execution) -> {
             log.info("Making request to: {} {}", request.getMethod(), request.getURI());
             return execution.execute(request, body);
         });
+
+        // Спан трассировки запроса к внешнему сервису
+        restTemplate.getInterceptors().add((request, body, execution) -> {
+            if (!tracer.isActive()) {
+                return execution.execute(request, body);
+            }
+            RequestTracer.Span span = tracer.start("http-client",
+                request.getMethod() + " " + request.getURI().getHost() + request.getURI().getPath());
+            try {
+                return execution.execute(request, body);
+            } finally {
+                tracer.end(span);
+            }
+        });
+
+        // Ожидание соединения вне synchronized пула HttpClient (см. UpstreamConnectionLimiter)
+        restTemplate.getInterceptors().add(new UpstreamConnectionLimiter(maxConnectionsPerRoute, connectTimeoutMs));
         
         return restTemplate;
     }
-} 
\ No newline at end of file
+}
@@ -3,9 +3,8 @@ package com.fiba.api.config;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.context.event.ContextRefreshedEvent;
 import org.springframework.context.event.EventListener;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.datasource.SingleConnectionDataSource;
@@ -32,13 +31,21 @@ public class DatabaseConfig {
     @Autowired(required = false)
     private DataSource dataSource;
     
+    @Autowired
+    private DeferredStartupTasks deferredStartupTasks;
+    
     /**
-     * Проверка соединения с базой данных при старте приложения
+     * Проверка соединения с базой данных при старте приложения.
+     * Только диагностика, поэтому в профиле fast-start выполняется уже после готовности.
      * 
-     * @param event событие обновления контекста
+     * @param event событие готовности приложения
      */
     @EventListener
-    public void onApplicationEvent(ContextRefreshedEvent event) {
+    public void onApplicationEvent(ApplicationReadyEvent event) {
+        deferredStartupTasks.run("database-check", this::checkConnection);
+    }
+    
+    private void checkConnection() {
         log.info("Приложение запущено, проверка подключения к базе данных...");
         log.info("Используемый URL базы данных: {}", datasourceUrl);
         
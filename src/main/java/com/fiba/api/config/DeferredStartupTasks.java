@@ -0,0 +1,72 @@
+package com.fiba.api.config;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.metrics.ApplicationStartup;
+import org.springframework.core.metrics.StartupStep;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Некритичная работа при запуске: диагностика подключения к БД, пересчет счетчиков и т.п.
+ *
+ * По умолчанию задача выполняется сразу в вызывающем потоке. При app.startup.deferred-tasks=true
+ * (профиль fast-start) задачи по очереди выполняются в отдельном фоновом потоке, и готовность
+ * приложения их не ждет. Каждая задача записывается шагом app.startup.&lt;name&gt; в /actuator/startup.
+ */
+@Slf4j
+@Component
+public class DeferredStartupTasks {
+
+    private final ApplicationStartup applicationStartup;
+    private final ExecutorService executor;
+
+    public DeferredStartupTasks(ApplicationStartup applicationStartup,
+                                @Value("${app.startup.deferred-tasks:false}") boolean deferred) {
+        this.applicationStartup = applicationStartup;
+        // Один поток: отложенные задачи не конкурируют между собой за CPU с первыми запросами
+        this.executor = deferred ? Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "deferred-startup");
+            thread.setDaemon(true);
+            return thread;
+        }) : null;
+    }
+
+    /**
+     * Выполняет задачу сейчас или ставит ее в очередь фонового потока
+     *
+     * @param name имя задачи для лога и шага запуска
+     * @param task задача; исключения логируются и не прерывают запуск
+     */
+    public void run(String name, Runnable task) {
+        if (executor == null) {
+            execute(name, task);
+        } else {
+            executor.execute(() -> execute(name, task));
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    private void execute(String name, Runnable task) {
+        StartupStep step = applicationStartup.start("app.startup." + name);
+        long started = System.nanoTime();
+        try {
+            task.run();
+            log.info("Startup task {} finished in {} ms", name, (System.nanoTime() - started) / 1_000_000);
+        } catch (RuntimeException e) {
+            step.tag("error", String.valueOf(e.getMessage()));
+            log.warn("Startup task {} failed: {}", name, e.getMessage(), e);
+        } finally {
+            step.end();
+        }
+    }
+}
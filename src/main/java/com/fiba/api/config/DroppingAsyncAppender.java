@@ -0,0 +1,36 @@
+package com.fiba.api.config;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Асинхронный вывод логов (logback-spring.xml) с учетом отброшенных событий.
+ *
+ * Поток запроса только кладет событие в ограниченную очередь, запись в консоль и файл выполняет
+ * отдельный поток. Когда в очереди остается меньше discardingThreshold мест, события INFO и ниже
+ * отбрасываются; при neverBlock=true полная очередь отбрасывает и WARN/ERROR вместо того, чтобы
+ * останавливать запрос. Отброшенные события считаются (метрика logging.async.dropped), счет
+ * при переполненной очереди приблизительный.
+ */
+public class DroppingAsyncAppender extends AsyncAppender {
+
+    private final LongAdder dropped = new LongAdder();
+
+    @Override
+    protected void append(ILoggingEvent event) {
+        int remaining = getRemainingCapacity();
+        if ((remaining < getDiscardingThreshold() && isDiscardable(event)) || (remaining == 0 && isNeverBlock())) {
+            dropped.increment();
+        }
+        super.append(event);
+    }
+
+    /**
+     * Количество событий, отброшенных с момента запуска
+     */
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+}
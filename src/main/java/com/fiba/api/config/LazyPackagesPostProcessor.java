@@ -0,0 +1,68 @@
+package com.fiba.api.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.AnnotatedBeanDefinition;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.context.EnvironmentAware;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+/**
+ * Помечает ленивыми бины из пакетов app.startup.lazy-packages: они создаются при первом обращении,
+ * а не при запуске.
+ *
+ * Подходит только для бинов, которые не нужны во время старта. Например, контроллеры springdoc
+ * регистрируются в маппинге по имени бина, поэтому сами бины и сканирование контроллеров для
+ * спецификации откладываются до первого запроса к /api-docs или /swagger-ui. Бины из этих пакетов,
+ * от которых зависят неленивые бины, все равно создаются при старте.
+ */
+@Slf4j
+@Component
+public class LazyPackagesPostProcessor implements BeanFactoryPostProcessor, EnvironmentAware {
+
+    private String[] packages = new String[0];
+
+    @Override
+    public void setEnvironment(Environment environment) {
+        // BeanFactoryPostProcessor создается до обработки @Value, поэтому настройка читается из Environment
+        packages = environment.getProperty("app.startup.lazy-packages", String[].class, new String[0]);
+    }
+
+    @Override
+    public void postProcessBeanFactory(ConfigurableListableBeanFactory beanFactory) {
+        if (packages.length == 0) {
+            return;
+        }
+        int deferred = 0;
+        for (String name : beanFactory.getBeanDefinitionNames()) {
+            BeanDefinition definition = beanFactory.getBeanDefinition(name);
+            String type = declaringType(definition);
+            if (type != null && !definition.isLazyInit() && matches(type)) {
+                definition.setLazyInit(true);
+                deferred++;
+            }
+        }
+        log.info("Lazy initialization for {} beans from {}", deferred, String.join(",", packages));
+    }
+
+    /**
+     * Класс бина или, для методов @Bean, класс конфигурации, объявляющий метод
+     */
+    private static String declaringType(BeanDefinition definition) {
+        if (definition instanceof AnnotatedBeanDefinition annotated && annotated.getFactoryMethodMetadata() != null) {
+            return annotated.getFactoryMethodMetadata().getDeclaringClassName();
+        }
+        return definition.getBeanClassName();
+    }
+
+    private boolean matches(String type) {
+        for (String prefix : packages) {
+            if (!prefix.isBlank() && type.startsWith(prefix.trim())) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,125 @@
+package com.fiba.api.config;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.Marker;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Выборочное логирование частых сообщений (logback-spring.xml, app.logging.sampling).
+ *
+ * Для логгеров из списка вида "com.fiba.api.controller.ProxyController=100" пишется одно сообщение
+ * из каждых 100, начиная с первого. Счет ведется отдельно для каждого шаблона сообщения, поэтому
+ * редкое сообщение того же логгера не теряется из-за частого. Логгер из списка покрывает и
+ * вложенные логгеры (пакет). WARN и ERROR не отбрасываются.
+ *
+ * Фильтр вызывается до создания события, поэтому отброшенное сообщение не форматируется и не
+ * попадает в очередь асинхронного вывода.
+ */
+public class LogSamplingFilter extends TurboFilter {
+
+    // Шаблоны сообщений - константы в коде; ограничение на случай шаблонов, собранных конкатенацией
+    private static final int MAX_TEMPLATES_PER_LOGGER = 256;
+
+    private final Map<String, Integer> rates = new LinkedHashMap<>();
+    private final ConcurrentMap<String, Sampler> samplers = new ConcurrentHashMap<>();
+    private final LongAdder suppressed = new LongAdder();
+
+    /**
+     * @param spec список "логгер=N" через запятую; N - каждое какое сообщение писать
+     */
+    public void setRates(String spec) {
+        rates.clear();
+        samplers.clear();
+        if (spec == null) {
+            return;
+        }
+        for (String entry : spec.split(",")) {
+            int separator = entry.indexOf('=');
+            if (separator <= 0) {
+                continue;
+            }
+            try {
+                int rate = Integer.parseInt(entry.substring(separator + 1).trim());
+                if (rate > 1) {
+                    rates.put(entry.substring(0, separator).trim(), rate);
+                }
+            } catch (NumberFormatException e) {
+                addWarn("Invalid log sampling rate: " + entry);
+            }
+        }
+    }
+
+    @Override
+    public void start() {
+        if (!rates.isEmpty()) {
+            addInfo("Log sampling: " + rates);
+        }
+        super.start();
+    }
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        // format == null - проверка isDebugEnabled() и т.п., а не само сообщение
+        if (format == null || rates.isEmpty() || level.isGreaterOrEqual(Level.WARN)) {
+            return FilterReply.NEUTRAL;
+        }
+        Sampler sampler = samplers.computeIfAbsent(logger.getName(), this::samplerFor);
+        if (sampler.rate == 0 || !level.isGreaterOrEqual(logger.getEffectiveLevel())) {
+            return FilterReply.NEUTRAL;
+        }
+        if (sampler.next(format) % sampler.rate == 0) {
+            return FilterReply.NEUTRAL;
+        }
+        suppressed.increment();
+        return FilterReply.DENY;
+    }
+
+    /**
+     * Количество сообщений, отброшенных выборкой с момента запуска
+     */
+    public long getSuppressedCount() {
+        return suppressed.sum();
+    }
+
+    private Sampler samplerFor(String loggerName) {
+        // Самое длинное совпадение: настройка для класса важнее настройки для его пакета
+        String match = null;
+        for (String name : rates.keySet()) {
+            boolean covers = loggerName.equals(name) || loggerName.startsWith(name + ".");
+            if (covers && (match == null || name.length() > match.length())) {
+                match = name;
+            }
+        }
+        return new Sampler(match != null ? rates.get(match) : 0);
+    }
+
+    private static final class Sampler {
+
+        private final int rate;
+        private final ConcurrentMap<String, AtomicLong> counters = new ConcurrentHashMap<>();
+        private final AtomicLong overflow = new AtomicLong();
+
+        private Sampler(int rate) {
+            this.rate = rate;
+        }
+
+        private long next(String format) {
+            AtomicLong counter = counters.get(format);
+            if (counter == null) {
+                counter = counters.size() < MAX_TEMPLATES_PER_LOGGER
+                    ? counters.computeIfAbsent(format, key -> new AtomicLong())
+                    : overflow;
+            }
+            return counter.getAndIncrement();
+        }
+    }
+}
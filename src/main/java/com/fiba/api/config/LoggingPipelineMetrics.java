@@ -0,0 +1,53 @@
+package com.fiba.api.config;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.Appender;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+
+/**
+ * Метрики конвейера логов из logback-spring.xml: заполнение очередей асинхронного вывода,
+ * отброшенные при переполнении события и сообщения, пропущенные выборкой.
+ */
+@Slf4j
+@Component
+public class LoggingPipelineMetrics {
+
+    public LoggingPipelineMetrics(MeterRegistry meterRegistry) {
+        if (!(LoggerFactory.getILoggerFactory() instanceof LoggerContext context)) {
+            return;
+        }
+        Logger root = context.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME);
+        for (Iterator<Appender<ILoggingEvent>> it = root.iteratorForAppenders(); it.hasNext(); ) {
+            if (it.next() instanceof DroppingAsyncAppender appender) {
+                Gauge.builder("logging.async.queue.size", appender, DroppingAsyncAppender::getNumberOfElementsInQueue)
+                    .tag("appender", appender.getName())
+                    .description("Количество событий в очереди асинхронного вывода логов")
+                    .register(meterRegistry);
+                FunctionCounter.builder("logging.async.dropped", appender, DroppingAsyncAppender::getDroppedCount)
+                    .tag("appender", appender.getName())
+                    .description("События логов, отброшенные из-за заполнения очереди")
+                    .register(meterRegistry);
+                log.info("Async log appender {}: queue {}, discarding threshold {}, never block {}",
+                    appender.getName(), appender.getQueueSize(), appender.getDiscardingThreshold(),
+                    appender.isNeverBlock());
+            }
+        }
+        for (TurboFilter filter : context.getTurboFilterList()) {
+            if (filter instanceof LogSamplingFilter sampling) {
+                FunctionCounter.builder("logging.sampled.suppressed", sampling, LogSamplingFilter::getSuppressedCount)
+                    .description("Сообщения логов, пропущенные выборочным логированием")
+                    .register(meterRegistry);
+            }
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.fiba.api.config;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Счетчик SQL-запросов, выполненных текущим потоком.
+ *
+ * Запросы регистрирует {@link QueryCountingDataSource}; учет ведется только между {@link #start()}
+ * и {@link #stop()} (их вызывает фильтр на каждый HTTP-запрос) или внутри {@link #capture(Runnable)}.
+ * Для каждого текста запроса хранится число повторов, по которому обнаруживаются N+1.
+ */
+public final class QueryCounter {
+
+    private static final int MAX_TRACKED_STATEMENTS = 256;
+    private static final ThreadLocal<Stats> CURRENT = new ThreadLocal<>();
+
+    private QueryCounter() {
+    }
+
+    /**
+     * Статистика запросов одного HTTP-запроса или одного вызова {@link #capture(Runnable)}
+     */
+    public static final class Stats {
+        private int count;
+        private long nanos;
+        private final Map<String, Integer> bySql = new HashMap<>();
+
+        void record(String sql, long elapsedNanos) {
+            count++;
+            nanos += elapsedNanos;
+            if (sql != null && (bySql.size() < MAX_TRACKED_STATEMENTS || bySql.containsKey(sql))) {
+                bySql.merge(sql, 1, Integer::sum);
+            }
+        }
+
+        void add(Stats other) {
+            count += other.count;
+            nanos += other.nanos;
+            other.bySql.forEach((sql, times) -> bySql.merge(sql, times, Integer::sum));
+        }
+
+        public int getCount() {
+            return count;
+        }
+
+        public long getNanos() {
+            return nanos;
+        }
+
+        public long getMillis() {
+            return nanos / 1_000_000;
+        }
+
+        /**
+         * Запрос, выполненный больше всего раз, или null, если запросов не было
+         */
+        public Map.Entry<String, Integer> getMostRepeated() {
+            Map.Entry<String, Integer> most = null;
+            for (Map.Entry<String, Integer> entry : bySql.entrySet()) {
+                if (most == null || entry.getValue() > most.getValue()) {
+                    most = entry;
+                }
+            }
+            return most;
+        }
+    }
+
+    /**
+     * Начинает учет запросов в текущем потоке
+     */
+    public static Stats start() {
+        Stats stats = new Stats();
+        CURRENT.set(stats);
+        return stats;
+    }
+
+    /**
+     * Завершает учет и возвращает накопленную статистику (null, если учет не был начат)
+     */
+    public static Stats stop() {
+        Stats stats = CURRENT.get();
+        CURRENT.remove();
+        return stats;
+    }
+
+    /**
+     * Текущая статистика потока или null
+     */
+    public static Stats current() {
+        return CURRENT.get();
+    }
+
+    static void record(String sql, long elapsedNanos) {
+        Stats stats = CURRENT.get();
+        if (stats != null) {
+            stats.record(sql, elapsedNanos);
+        }
+    }
+
+    /**
+     * Выполняет действие и возвращает статистику его запросов. Запросы учитываются
+     * и в объемлющем учете, если он был начат.
+     */
+    public static Stats capture(Runnable action) {
+        Stats previous = CURRENT.get();
+        Stats stats = new Stats();
+        CURRENT.set(stats);
+        try {
+            action.run();
+        } finally {
+            if (previous != null) {
+                previous.add(stats);
+                CURRENT.set(previous);
+            } else {
+                CURRENT.remove();
+            }
+        }
+        return stats;
+    }
+}
@@ -0,0 +1,86 @@
+package com.fiba.api.config;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Источник данных, учитывающий выполнение каждого SQL-запроса в {@link QueryCounter}.
+ *
+ * Оборачивает соединения пула, поэтому учитываются запросы Hibernate (включая ленивые загрузки
+ * вне транзакций) и JdbcTemplate. Пакет (executeBatch) считается одним обращением к БД.
+ * Наследуется от DelegatingDataSource, чтобы метрики пула по-прежнему находили HikariDataSource.
+ */
+public class QueryCountingDataSource extends DelegatingDataSource implements AutoCloseable {
+
+    public QueryCountingDataSource(DataSource target) {
+        super(target);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return wrap(obtainTargetDataSource().getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return wrap(obtainTargetDataSource().getConnection(username, password));
+    }
+
+    /**
+     * Закрывает пул при остановке контекста: Spring выводит метод уничтожения по обертке
+     */
+    @Override
+    public void close() throws Exception {
+        if (getTargetDataSource() instanceof AutoCloseable closeable) {
+            closeable.close();
+        }
+    }
+
+    private static Connection wrap(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(QueryCountingDataSource.class.getClassLoader(),
+            new Class<?>[]{Connection.class}, (proxy, method, args) -> {
+                Object result = invoke(connection, method, args);
+                return switch (method.getName()) {
+                    case "createStatement" -> wrap(Statement.class, result, null);
+                    case "prepareStatement" -> wrap(PreparedStatement.class, result, (String) args[0]);
+                    case "prepareCall" -> wrap(CallableStatement.class, result, (String) args[0]);
+                    default -> result;
+                };
+            });
+    }
+
+    private static Object wrap(Class<?> type, Object statement, String preparedSql) {
+        InvocationHandler handler = (proxy, method, args) -> {
+            if (!method.getName().startsWith("execute")) {
+                return invoke(statement, method, args);
+            }
+            String sql = preparedSql != null ? preparedSql
+                : args != null && args.length > 0 && args[0] instanceof String text ? text : null;
+            long start = System.nanoTime();
+            try {
+                return invoke(statement, method, args);
+            } finally {
+                QueryCounter.record(sql, System.nanoTime() - start);
+            }
+        };
+        return Proxy.newProxyInstance(QueryCountingDataSource.class.getClassLoader(), new Class<?>[]{type}, handler);
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
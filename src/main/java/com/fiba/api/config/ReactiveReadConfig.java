@@ -0,0 +1,117 @@
+package com.fiba.api.config;
+
+import com.fiba.api.controller.PublicReadHandler;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.metrics.r2dbc.ConnectionPoolMetrics;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.web.servlet.function.RouterFunction;
+import org.springframework.web.servlet.function.RouterFunctions;
+import org.springframework.web.servlet.function.ServerResponse;
+
+import java.time.Duration;
+
+/**
+ * Неблокирующий путь чтения публичных списков поверх R2DBC.
+ *
+ * Анонимные списки турниров, лучшие игроки и случайная реклама читаются через отдельный небольшой
+ * пул R2DBC к той же базе, что и JPA. Обработчики возвращают асинхронный ответ, поэтому поток
+ * сервера освобождается на время запроса, а соединение занято только пока БД выполняет запрос.
+ * Маршруты функциональные: RouterFunctionMapping опрашивается раньше аннотированных контроллеров,
+ * поэтому при включенном режиме эти GET обслуживаются здесь, а остальные методы контроллеров не меняются.
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(name = "app.reactive-read.enabled", havingValue = "true")
+public class ReactiveReadConfig {
+
+    private static final String JDBC_POSTGRESQL = "jdbc:postgresql:";
+
+    private ConnectionPool connectionPool;
+
+    /**
+     * Пул не регистрируется отдельным бином: бин типа ConnectionFactory отключает автоконфигурацию
+     * DataSource, на которой работает JPA. Метрики пула публикуются как r2dbc.pool.* с name=public-read.
+     */
+    @Bean
+    public DatabaseClient publicReadDatabaseClient(
+            MeterRegistry meterRegistry,
+            @Value("${app.reactive-read.url:}") String url,
+            @Value("${spring.datasource.url}") String jdbcUrl,
+            @Value("${spring.datasource.username}") String username,
+            @Value("${spring.datasource.password}") String password,
+            @Value("${app.reactive-read.pool.initial-size:2}") int initialSize,
+            @Value("${app.reactive-read.pool.max-size:5}") int maxSize,
+            @Value("${app.reactive-read.pool.max-acquire-time-ms:5000}") long maxAcquireTimeMs) {
+        String r2dbcUrl = url.isBlank() ? toR2dbcUrl(jdbcUrl) : url;
+        ConnectionFactoryOptions options = ConnectionFactoryOptions.parse(r2dbcUrl).mutate()
+            .option(ConnectionFactoryOptions.USER, username)
+            .option(ConnectionFactoryOptions.PASSWORD, password)
+            .build();
+        ConnectionFactory connectionFactory = ConnectionFactories.get(options);
+
+        log.info("Reactive read path enabled: {} (pool {}..{})", r2dbcUrl.replaceAll("\\?.*", ""), initialSize, maxSize);
+        connectionPool = new ConnectionPool(ConnectionPoolConfiguration.builder(connectionFactory)
+            .name("public-read")
+            .initialSize(initialSize)
+            .maxSize(maxSize)
+            .maxAcquireTime(Duration.ofMillis(maxAcquireTimeMs))
+            .maxIdleTime(Duration.ofMinutes(5))
+            .validationQuery("SELECT 1")
+            .build());
+        new ConnectionPoolMetrics(connectionPool, "public-read", Tags.empty()).bindTo(meterRegistry);
+        return DatabaseClient.create(connectionPool);
+    }
+
+    @PreDestroy
+    public void closeConnectionPool() {
+        if (connectionPool != null) {
+            connectionPool.dispose();
+        }
+    }
+
+    @Bean
+    public RouterFunction<ServerResponse> publicReadRoutes(PublicReadHandler handler) {
+        return RouterFunctions.route()
+            .GET("/api/tournaments", handler::tournaments)
+            .GET("/api/tournaments/upcoming", handler::upcomingTournaments)
+            .GET("/api/tournaments/past", handler::pastTournaments)
+            .GET("/api/players/top", handler::topPlayers)
+            .GET("/api/ads/public/advertisement", handler::advertisement)
+            .build();
+    }
+
+    /**
+     * jdbc:postgresql://host:port/db?sslmode=require -> r2dbc:postgresql://host:port/db?sslMode=require
+     */
+    static String toR2dbcUrl(String jdbcUrl) {
+        if (!jdbcUrl.startsWith(JDBC_POSTGRESQL)) {
+            throw new IllegalStateException("app.reactive-read поддерживает только PostgreSQL, задайте R2DBC_URL "
+                + "или выключите REACTIVE_READ_ENABLED (spring.datasource.url=" + jdbcUrl + ")");
+        }
+        String url = "r2dbc:postgresql:" + jdbcUrl.substring(JDBC_POSTGRESQL.length());
+        int query = url.indexOf('?');
+        if (query < 0) {
+            return url;
+        }
+        // Из параметров JDBC переносится только режим SSL, остальные относятся к драйверу JDBC
+        StringBuilder result = new StringBuilder(url.substring(0, query));
+        for (String param : url.substring(query + 1).split("&")) {
+            if (param.toLowerCase().startsWith("sslmode=")) {
+                result.append(result.indexOf("?") < 0 ? '?' : '&').append("sslMode=").append(param.substring(8));
+            }
+        }
+        return result.toString();
+    }
+}
@@ -0,0 +1,323 @@
+package com.fiba.api.config;
+
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Трассировка запросов внутри процесса без внешнего коллектора.
+ *
+ * Трасса HTTP-запроса живет в ThreadLocal потока обработки: фильтр открывает ее, аспект
+ * добавляет вложенные спаны контроллеров, сервисов и репозиториев, интерцептор RestTemplate -
+ * спаны обращений к внешним сервисам. Каждый спан помнит, сколько SQL-запросов и времени БД
+ * пришлось на него по данным {@link QueryCounter}, поэтому видны и ленивые загрузки.
+ * Для каждого маршрута хранятся только самые медленные трассы, их отдает /actuator/slowtraces.
+ */
+@Component
+public class RequestTracer {
+
+    private static final ThreadLocal<Trace> CURRENT = new ThreadLocal<>();
+
+    @Getter
+    @Value("${app.tracing.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.tracing.slowest-per-route:10}")
+    private int slowestPerRoute;
+
+    @Value("${app.tracing.max-spans:500}")
+    private int maxSpans;
+
+    @Value("${app.tracing.max-routes:300}")
+    private int maxRoutes;
+
+    private final Map<String, RouteTraces> routes = new ConcurrentHashMap<>();
+
+    /**
+     * Спан трассы: вызов метода или обращение к внешнему сервису
+     */
+    @Getter
+    public static final class Span {
+        private final String kind;
+        private final String name;
+        private final Span parent;
+        private final long startNanos;
+        private long endNanos = -1;
+        private final int sqlCountAtStart;
+        private final long sqlNanosAtStart;
+        private int sqlCount;
+        private long sqlNanos;
+        private List<Span> children;
+
+        Span(String kind, String name, Span parent) {
+            this.kind = kind;
+            this.name = name;
+            this.parent = parent;
+            this.startNanos = System.nanoTime();
+            QueryCounter.Stats stats = QueryCounter.current();
+            this.sqlCountAtStart = stats != null ? stats.getCount() : 0;
+            this.sqlNanosAtStart = stats != null ? stats.getNanos() : 0;
+        }
+
+        void close(long nanos) {
+            endNanos = nanos;
+            QueryCounter.Stats stats = QueryCounter.current();
+            if (stats != null) {
+                sqlCount = stats.getCount() - sqlCountAtStart;
+                sqlNanos = stats.getNanos() - sqlNanosAtStart;
+            }
+        }
+
+        public long getDurationNanos() {
+            return endNanos - startNanos;
+        }
+
+        public List<Span> getChildren() {
+            return children != null ? children : List.of();
+        }
+
+        Map<String, Object> toMap(long traceStartNanos) {
+            long childNanos = 0;
+            for (Span child : getChildren()) {
+                childNanos += child.getDurationNanos();
+            }
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("kind", kind);
+            map.put("name", name);
+            map.put("offset_ms", millis(startNanos - traceStartNanos));
+            map.put("duration_ms", millis(getDurationNanos()));
+            // Время самого спана без вложенных: маппинг, сериализация, ожидание
+            map.put("self_ms", millis(Math.max(0, getDurationNanos() - childNanos)));
+            map.put("sql_count", sqlCount);
+            map.put("sql_ms", millis(sqlNanos));
+            if (children != null) {
+                List<Map<String, Object>> childMaps = new ArrayList<>(children.size());
+                for (Span child : children) {
+                    childMaps.add(child.toMap(traceStartNanos));
+                }
+                map.put("children", childMaps);
+            }
+            return map;
+        }
+    }
+
+    /**
+     * Трасса одного HTTP-запроса
+     */
+    @Getter
+    public static final class Trace {
+        private final Span root;
+        private final String method;
+        private final String uri;
+        private final long startedAt = System.currentTimeMillis();
+        private final int maxSpans;
+        private Span current;
+        private int spanCount;
+        private int droppedSpans;
+        private String route;
+        private int status;
+
+        Trace(String method, String uri, int maxSpans) {
+            this.method = method;
+            this.uri = uri;
+            this.maxSpans = maxSpans;
+            this.root = new Span("http", method + " " + uri, null);
+            this.current = root;
+        }
+
+        Span push(String kind, String name) {
+            if (spanCount >= maxSpans) {
+                droppedSpans++;
+                return null;
+            }
+            spanCount++;
+            Span span = new Span(kind, name, current);
+            if (current.children == null) {
+                current.children = new ArrayList<>();
+            }
+            current.children.add(span);
+            current = span;
+            return span;
+        }
+
+        void pop(Span span) {
+            if (span.endNanos >= 0) {
+                return;
+            }
+            long now = System.nanoTime();
+            // Незакрытые вложенные спаны (например, render) закрываются вместе с родителем
+            while (current != span && current != root) {
+                current.close(now);
+                current = current.parent;
+            }
+            span.close(now);
+            current = span.parent != null ? span.parent : root;
+        }
+
+        public long getDurationNanos() {
+            return root.getDurationNanos();
+        }
+
+        public Map<String, Object> toSummary() {
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("started_at", startedAt);
+            map.put("uri", uri);
+            map.put("status", status);
+            map.put("duration_ms", millis(getDurationNanos()));
+            map.put("sql_count", root.sqlCount);
+            map.put("sql_ms", millis(root.sqlNanos));
+            map.put("spans", spanCount);
+            return map;
+        }
+
+        public Map<String, Object> toMap() {
+            Map<String, Object> map = toSummary();
+            if (droppedSpans > 0) {
+                map.put("dropped_spans", droppedSpans);
+            }
+            map.put("root", root.toMap(root.startNanos));
+            return map;
+        }
+    }
+
+    /**
+     * Самые медленные трассы маршрута (куча по длительности, в вершине - самая быстрая из сохраненных)
+     */
+    private static final class RouteTraces {
+        private final PriorityQueue<Trace> traces = new PriorityQueue<>(Comparator.comparingLong(Trace::getDurationNanos));
+        private final int capacity;
+        private long total;
+        private volatile long thresholdNanos;
+
+        RouteTraces(int capacity) {
+            this.capacity = capacity;
+        }
+
+        synchronized void offer(Trace trace) {
+            total++;
+            if (traces.size() < capacity) {
+                traces.add(trace);
+            } else if (trace.getDurationNanos() > traces.peek().getDurationNanos()) {
+                traces.poll();
+                traces.add(trace);
+            } else {
+                return;
+            }
+            thresholdNanos = traces.size() < capacity ? 0 : traces.peek().getDurationNanos();
+        }
+
+        synchronized List<Trace> slowestFirst() {
+            List<Trace> result = new ArrayList<>(traces);
+            result.sort(Comparator.comparingLong(Trace::getDurationNanos).reversed());
+            return result;
+        }
+
+        synchronized long getTotal() {
+            return total;
+        }
+    }
+
+    /**
+     * Открывает трассу HTTP-запроса в текущем потоке
+     */
+    public Trace begin(String method, String uri) {
+        Trace trace = new Trace(method, uri, maxSpans);
+        CURRENT.set(trace);
+        return trace;
+    }
+
+    /**
+     * Закрывает трассу и сохраняет ее, если она среди самых медленных для маршрута.
+     * Запросы без маршрута (статика, отклоненные фильтрами) не сохраняются.
+     */
+    public void finish(Trace trace, String route, int status) {
+        CURRENT.remove();
+        trace.pop(trace.root);
+        if (route == null) {
+            return;
+        }
+        trace.route = route;
+        trace.status = status;
+        RouteTraces traces = routes.get(route);
+        if (traces == null) {
+            if (routes.size() >= maxRoutes) {
+                return;
+            }
+            traces = routes.computeIfAbsent(route, key -> new RouteTraces(slowestPerRoute));
+        }
+        if (trace.getDurationNanos() > traces.thresholdNanos) {
+            traces.offer(trace);
+        } else {
+            synchronized (traces) {
+                traces.total++;
+            }
+        }
+    }
+
+    /**
+     * Есть ли открытая трасса в текущем потоке
+     */
+    public boolean isActive() {
+        return CURRENT.get() != null;
+    }
+
+    /**
+     * Открывает вложенный спан; возвращает null, если трассы нет или превышен лимит спанов
+     */
+    public Span start(String kind, String name) {
+        Trace trace = CURRENT.get();
+        return trace != null ? trace.push(kind, name) : null;
+    }
+
+    /**
+     * Закрывает спан, открытый {@link #start}
+     */
+    public void end(Span span) {
+        Trace trace = CURRENT.get();
+        if (span != null && trace != null) {
+            trace.pop(span);
+        }
+    }
+
+    /**
+     * Сводка по маршрутам: число запросов и сохраненные трассы без спанов
+     */
+    public Map<String, Object> summary() {
+        Map<String, Object> result = new TreeMap<>();
+        routes.forEach((route, traces) -> {
+            Map<String, Object> routeData = new LinkedHashMap<>();
+            routeData.put("requests", traces.getTotal());
+            routeData.put("slowest", traces.slowestFirst().stream().map(Trace::toSummary).toList());
+            result.put(route, routeData);
+        });
+        return result;
+    }
+
+    /**
+     * Сохраненные трассы маршрута со всеми спанами, от самой медленной
+     */
+    public List<Map<String, Object>> traces(String route) {
+        RouteTraces traces = routes.get(route);
+        return traces == null ? List.of() : traces.slowestFirst().stream().map(Trace::toMap).toList();
+    }
+
+    /**
+     * Очищает сохраненные трассы
+     */
+    public void clear() {
+        routes.clear();
+    }
+
+    private static double millis(long nanos) {
+        return Math.round(nanos / 10_000.0) / 100.0;
+    }
+}
@@ -0,0 +1,60 @@
+package com.fiba.api.config;
+
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Статистика кэша второго уровня Hibernate по регионам: /actuator/l2cache.
+ *
+ * Счетчики накапливаются с момента запуска; те же значения публикуются в метриках
+ * hibernate.second.level.cache.requests и hibernate.second.level.cache.puts.
+ */
+@Component
+@Endpoint(id = "l2cache")
+@RequiredArgsConstructor
+public class SecondLevelCacheEndpoint {
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    @ReadOperation
+    public Map<String, Object> statistics() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("statistics_enabled", statistics.isStatisticsEnabled());
+        result.put("hits", statistics.getSecondLevelCacheHitCount());
+        result.put("misses", statistics.getSecondLevelCacheMissCount());
+        result.put("puts", statistics.getSecondLevelCachePutCount());
+        result.put("hit_ratio", hitRatio(statistics.getSecondLevelCacheHitCount(),
+                                         statistics.getSecondLevelCacheMissCount()));
+        // Загрузки сущностей из БД, которые кэш не перехватил
+        result.put("entity_loads", statistics.getEntityLoadCount());
+
+        Map<String, Object> regions = new TreeMap<>();
+        for (String name : statistics.getSecondLevelCacheRegionNames()) {
+            CacheRegionStatistics region = statistics.getDomainDataRegionStatistics(name);
+            Map<String, Object> regionData = new LinkedHashMap<>();
+            regionData.put("hits", region.getHitCount());
+            regionData.put("misses", region.getMissCount());
+            regionData.put("puts", region.getPutCount());
+            regionData.put("hit_ratio", hitRatio(region.getHitCount(), region.getMissCount()));
+            regions.put(name, regionData);
+        }
+        result.put("regions", regions);
+        return result;
+    }
+
+    private static double hitRatio(long hits, long misses) {
+        long requests = hits + misses;
+        return requests == 0 ? 0.0 : Math.round(hits * 10000.0 / requests) / 10000.0;
+    }
+}
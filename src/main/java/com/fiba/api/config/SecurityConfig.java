@@ -2,7 +2,10 @@ package com.fiba.api.config;
 
 import com.fiba.api.security.JwtAuthenticationFilter;
 import com.fiba.api.service.CustomUserDetailsService;
+import jakarta.servlet.DispatcherType;
 import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
+import org.springframework.boot.actuate.health.HealthEndpoint;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -68,7 +71,7 @@ public class SecurityConfig {
         ));
         configuration.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "DELETE", "OPTIONS"));
         configuration.setAllowedHeaders(List.of("*"));
-        configuration.setExposedHeaders(Arrays.asList("Authorization"));
+        configuration.setExposedHeaders(Arrays.asList("Authorization", "X-Queue-Token", "Retry-After"));
         configuration.setAllowCredentials(true);
         configuration.setMaxAge(3600L);
         
@@ -84,6 +87,8 @@ public class SecurityConfig {
             .csrf(AbstractHttpConfigurer::disable)
             .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
             .authorizeHttpRequests(auth -> auth
+                // Завершение асинхронных ответов (потоковые выгрузки): доступ уже проверен при исходном запросе
+                .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                 // Разрешаем доступ к файлам без авторизации
                 .requestMatchers("/api/files/**").permitAll()
                 .requestMatchers("/uploads/**").permitAll()
@@ -92,6 +97,7 @@ public class SecurityConfig {
                 .requestMatchers("/api/auth/**").permitAll()
                 .requestMatchers("/api/public/**").permitAll()
                 .requestMatchers("/api/status").permitAll()
+                .requestMatchers("/api/waiting-room/**").permitAll()
                 .requestMatchers("/api/tournaments").permitAll()
                 .requestMatchers("/api/tournaments/**").permitAll()
                 .requestMatchers(HttpMethod.POST, "/api/tournaments").permitAll()
@@ -103,6 +109,10 @@ public class SecurityConfig {
                 .requestMatchers("/api/players/rankings").permitAll()
                 .requestMatchers("/api/players/top").permitAll()
                 .requestMatchers("/api/proxy/**").permitAll()
+                // Проверка состояния (вместе с пробами liveness/readiness) открыта для оркестратора
+                .requestMatchers(EndpointRequest.to(HealthEndpoint.class)).permitAll()
+                // Остальные endpoints actuator (метрики, кэш, трассы с удалением, отчет старта) - только администратору
+                .requestMatchers(EndpointRequest.toAnyEndpoint()).hasRole("ADMIN")
                 // Swagger UI и OpenAPI
                 .requestMatchers("/swagger-ui/**", "/swagger-ui.html", "/api-docs/**", "/v3/api-docs/**").permitAll()
                 // Разрешаем OPTIONS запросы для CORS preflight
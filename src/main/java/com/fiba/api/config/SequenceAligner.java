@@ -0,0 +1,87 @@
+package com.fiba.api.config;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import jakarta.persistence.metamodel.EntityType;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.lang.reflect.Field;
+import java.sql.Connection;
+
+/**
+ * Продвигает последовательности идентификаторов за уже существующие данные.
+ *
+ * Раньше идентификаторы выдавались IDENTITY-колонками. Последовательности создает и продвигает
+ * миграция V2, а выравнивание при старте страхует от строк, вставленных в обход Hibernate
+ * (ручные правки, восстановление из дампа). Выполняется при создании контекста, до первой вставки,
+ * и только для PostgreSQL; последовательности, уже обогнавшие данные, не меняются.
+ * Достаточно одного выравнивания, поэтому в профиле fast-start (app.sequences.align-on-startup=false)
+ * реплики его пропускают.
+ */
+@Component
+@ConditionalOnProperty(name = "app.sequences.align-on-startup", havingValue = "true", matchIfMissing = true)
+@Slf4j
+public class SequenceAligner {
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final DataSource dataSource;
+    private final JdbcTemplate jdbcTemplate;
+
+    public SequenceAligner(EntityManagerFactory entityManagerFactory, DataSource dataSource) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.dataSource = dataSource;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    @PostConstruct
+    public void align() {
+        try (Connection connection = dataSource.getConnection()) {
+            if (!"PostgreSQL".equals(connection.getMetaData().getDatabaseProductName())) {
+                return;
+            }
+        } catch (Exception e) {
+            log.warn("Cannot detect database for sequence alignment: {}", e.getMessage());
+            return;
+        }
+
+        for (EntityType<?> entity : entityManagerFactory.getMetamodel().getEntities()) {
+            Class<?> type = entity.getJavaType();
+            Table table = type.getAnnotation(Table.class);
+            SequenceGenerator generator = findGenerator(type);
+            if (table == null || generator == null) {
+                continue;
+            }
+            try {
+                Long maxId = jdbcTemplate.queryForObject(
+                    "SELECT COALESCE(MAX(id), 0) FROM " + table.name(), Long.class);
+                Long lastValue = jdbcTemplate.queryForObject(
+                    "SELECT last_value FROM " + generator.sequenceName(), Long.class);
+                if (maxId != null && lastValue != null && maxId >= lastValue) {
+                    // Пул следующего nextval начнется сразу за maxId
+                    jdbcTemplate.queryForObject("SELECT setval(CAST(? AS regclass), ?)",
+                        Long.class, generator.sequenceName(), maxId);
+                    log.info("Sequence {} moved past existing id {} of table {}",
+                             generator.sequenceName(), maxId, table.name());
+                }
+            } catch (Exception e) {
+                log.warn("Cannot align sequence {}: {}", generator.sequenceName(), e.getMessage());
+            }
+        }
+    }
+
+    private static SequenceGenerator findGenerator(Class<?> type) {
+        for (Field field : type.getDeclaredFields()) {
+            SequenceGenerator generator = field.getAnnotation(SequenceGenerator.class);
+            if (generator != null) {
+                return generator;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,32 @@
+package com.fiba.api.config;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+/**
+ * Самые медленные трассы по маршрутам: /actuator/slowtraces.
+ *
+ * Без параметров возвращает сводку по всем маршрутам, с ?route=GET /api/tournaments/{id}/teams -
+ * трассы маршрута со спанами. DELETE очищает накопленные трассы.
+ */
+@Component
+@Endpoint(id = "slowtraces")
+@RequiredArgsConstructor
+public class SlowTracesEndpoint {
+
+    private final RequestTracer tracer;
+
+    @ReadOperation
+    public Object traces(@Nullable String route) {
+        return route == null ? tracer.summary() : tracer.traces(route);
+    }
+
+    @DeleteOperation
+    public void clear() {
+        tracer.clear();
+    }
+}
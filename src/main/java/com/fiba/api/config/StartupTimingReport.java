@@ -0,0 +1,120 @@
+package com.fiba.api.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.boot.context.metrics.buffering.StartupTimeline;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.metrics.ApplicationStartup;
+import org.springframework.core.metrics.StartupStep;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Отчет о длительности фаз запуска.
+ *
+ * Шаги запуска записывает BufferingApplicationStartup (см. ApiApplication). Когда приложение переходит
+ * в состояние ACCEPTING_TRAFFIC (после всех слушателей ApplicationReadyEvent), в лог выводятся: время JVM до запуска Spring, верхнеуровневые фазы и крупные
+ * шаги обновления контекста, а также бины с наибольшим собственным временем создания (без времени
+ * их зависимостей). Полная временная шкала, включая отложенные задачи, доступна в /actuator/startup.
+ */
+@Slf4j
+@Component
+public class StartupTimingReport {
+
+    private static final String BEAN_INSTANTIATE = "spring.beans.instantiate";
+    private static final String CONTEXT_REFRESH = "spring.context.refresh";
+
+    private final ApplicationStartup applicationStartup;
+    private final int slowestBeans;
+    private final long minStepMs;
+    private final AtomicBoolean reported = new AtomicBoolean();
+
+    public StartupTimingReport(ApplicationStartup applicationStartup,
+                               @Value("${app.startup.report.slowest-beans:10}") int slowestBeans,
+                               @Value("${app.startup.report.min-step-ms:100}") long minStepMs) {
+        this.applicationStartup = applicationStartup;
+        this.slowestBeans = slowestBeans;
+        this.minStepMs = minStepMs;
+    }
+
+    @EventListener
+    public void onReadiness(AvailabilityChangeEvent<ReadinessState> event) {
+        if (event.getState() != ReadinessState.ACCEPTING_TRAFFIC || !reported.compareAndSet(false, true)) {
+            return;
+        }
+        long jvmStart = ManagementFactory.getRuntimeMXBean().getStartTime();
+        if (!(applicationStartup instanceof BufferingApplicationStartup buffering)) {
+            log.info("Application ready in {} ms since JVM start (startup steps are not recorded)",
+                     System.currentTimeMillis() - jvmStart);
+            return;
+        }
+        StartupTimeline timeline = buffering.getBufferedTimeline();
+        // Шаги записываются по завершении, для отчета нужен порядок начала
+        List<StartupTimeline.TimelineEvent> events = timeline.getEvents().stream()
+            .sorted(Comparator.comparing(StartupTimeline.TimelineEvent::getStartTime))
+            .toList();
+
+        StringBuilder report = new StringBuilder("Startup timing report:");
+        line(report, 0, "jvm -> spring", timeline.getStartTime().toEpochMilli() - jvmStart);
+
+        Map<Long, StartupTimeline.TimelineEvent> byId = new HashMap<>();
+        Map<Long, Long> childrenMillis = new HashMap<>();
+        for (StartupTimeline.TimelineEvent timelineEvent : events) {
+            StartupStep step = timelineEvent.getStartupStep();
+            byId.put(step.getId(), timelineEvent);
+            if (step.getParentId() != null) {
+                childrenMillis.merge(step.getParentId(), millis(timelineEvent.getDuration()), Long::sum);
+            }
+        }
+        for (StartupTimeline.TimelineEvent timelineEvent : events) {
+            StartupStep step = timelineEvent.getStartupStep();
+            StartupTimeline.TimelineEvent parent = step.getParentId() == null ? null : byId.get(step.getParentId());
+            if (parent == null) {
+                line(report, 0, describe(step), millis(timelineEvent.getDuration()));
+            } else if (CONTEXT_REFRESH.equals(parent.getStartupStep().getName())
+                    && !BEAN_INSTANTIATE.equals(step.getName())
+                    && millis(timelineEvent.getDuration()) >= minStepMs) {
+                line(report, 1, describe(step), millis(timelineEvent.getDuration()));
+            }
+        }
+        line(report, 0, "ready (since jvm start)", System.currentTimeMillis() - jvmStart);
+
+        report.append("\n  slowest beans (own time):");
+        events.stream()
+            .filter(timelineEvent -> BEAN_INSTANTIATE.equals(timelineEvent.getStartupStep().getName()))
+            .map(timelineEvent -> Map.entry(describe(timelineEvent.getStartupStep()), millis(timelineEvent.getDuration())
+                - childrenMillis.getOrDefault(timelineEvent.getStartupStep().getId(), 0L)))
+            .sorted(Map.Entry.<String, Long>comparingByValue(Comparator.reverseOrder()))
+            .limit(slowestBeans)
+            .forEach(bean -> line(report, 1, bean.getKey(), bean.getValue()));
+
+        log.info(report.toString());
+    }
+
+    private static String describe(StartupStep step) {
+        for (StartupStep.Tag tag : step.getTags()) {
+            if ("beanName".equals(tag.getKey())) {
+                return tag.getValue();
+            }
+        }
+        return step.getName();
+    }
+
+    private static void line(StringBuilder report, int depth, String name, long ms) {
+        report.append('\n').append("  ".repeat(depth + 1)).append(String.format("%-60s %6d ms", name, ms));
+    }
+
+    private static long millis(Duration duration) {
+        return duration.toMillis();
+    }
+}
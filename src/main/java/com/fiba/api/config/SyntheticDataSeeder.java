@@ -0,0 +1,468 @@
+package com.fiba.api.config;
+
+import com.fiba.api.repository.TournamentRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Заполняет схему синтетическими данными в объеме, близком к production, для нагрузочных
+ * тестов и проверки планов запросов.
+ *
+ * Включается свойством app.seed.enabled=true и выполняется при старте, до приема запросов,
+ * только на пустой базе: если данные уже сгенерированы, генерация пропускается, а если таблицы
+ * содержат другие данные, старт прерывается. Строки вставляются пачками JdbcTemplate с явными
+ * идентификаторами начиная с единицы, затем последовательности выравниваются {@link SequenceAligner},
+ * а счетчики команд турниров пересчитываются (выравнивание выполняется только на PostgreSQL,
+ * как и при старте). Распределения неравномерные: популярность турниров и активность
+ * пользователей подчиняются закону Ципфа, очки и просмотры рекламы - степенному и
+ * логнормальному. При одинаковых app.seed.random-seed и app.seed.reference-date (по умолчанию
+ * фиксированная дата, а не текущая) данные получаются одинаковыми.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.seed.enabled", havingValue = "true")
+public class SyntheticDataSeeder implements CommandLineRunner {
+
+    private static final String[] CITIES = {
+        "Москва", "Санкт-Петербург", "Казань", "Новосибирск", "Екатеринбург", "Нижний Новгород",
+        "Краснодар", "Самара", "Ростов-на-Дону", "Уфа", "Пермь", "Воронеж", "Волгоград", "Красноярск",
+        "Челябинск", "Омск", "Тюмень", "Иркутск", "Владивосток", "Калининград"
+    };
+    private static final String[] FIRST_NAMES = {
+        "Александр", "Дмитрий", "Максим", "Иван", "Артем", "Никита", "Михаил", "Егор", "Андрей", "Илья",
+        "Анна", "Мария", "Елена", "Дарья", "Алина", "Ксения", "Полина", "Виктория", "Софья", "Екатерина"
+    };
+    private static final String[] LAST_NAMES = {
+        "Иванов", "Смирнов", "Кузнецов", "Попов", "Васильев", "Петров", "Соколов", "Михайлов",
+        "Новиков", "Федоров", "Морозов", "Волков", "Алексеев", "Лебедев", "Семенов", "Егоров"
+    };
+    private static final String[] LEVELS = {"Amateur", "Amateur", "Amateur", "Semi-Pro", "Professional", "Youth"};
+    private static final int[] MAX_TEAMS = {8, 16, 16, 32, 32, 64};
+    private static final String[] TARGET_TABLES = {
+        "users", "profiles", "tournaments", "registrations", "player_team", "players", "teams",
+        "team_players", "tournament_teams", "ads", "ad_results"
+    };
+    // Таблицы пусты, поэтому идентификаторы всегда начинаются с единицы
+    private static final long FIRST_ID = 1;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DataSource dataSource;
+    private final PasswordEncoder passwordEncoder;
+    private final TournamentRepository tournamentRepository;
+    private final SequenceAligner sequenceAligner;
+
+    @Value("${app.seed.random-seed:42}")
+    private long randomSeed;
+
+    @Value("${app.seed.reference-date:2026-01-01}")
+    private String referenceDate;
+
+    @Value("${app.seed.users:500000}")
+    private int userCount;
+
+    @Value("${app.seed.tournaments:20000}")
+    private int tournamentCount;
+
+    @Value("${app.seed.registrations:200000}")
+    private int registrationCount;
+
+    @Value("${app.seed.ads:1000000}")
+    private int adCount;
+
+    @Value("${app.seed.batch-size:5000}")
+    private int batchSize;
+
+    public SyntheticDataSeeder(JdbcTemplate jdbcTemplate,
+                               DataSource dataSource,
+                               PasswordEncoder passwordEncoder,
+                               TournamentRepository tournamentRepository,
+                               SequenceAligner sequenceAligner) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.dataSource = dataSource;
+        this.passwordEncoder = passwordEncoder;
+        this.tournamentRepository = tournamentRepository;
+        this.sequenceAligner = sequenceAligner;
+    }
+
+    /**
+     * Пачка строк одной таблицы; flush отправляет ее одним JDBC batch
+     */
+    private final class Batch {
+        private final String sql;
+        private final List<Object[]> rows = new ArrayList<>();
+        private long total;
+
+        Batch(String sql) {
+            this.sql = sql;
+        }
+
+        void add(Object... values) {
+            rows.add(values);
+        }
+
+        boolean isFull() {
+            return rows.size() >= batchSize;
+        }
+
+        void flush() {
+            if (!rows.isEmpty()) {
+                jdbcTemplate.batchUpdate(sql, rows);
+                total += rows.size();
+                rows.clear();
+            }
+        }
+    }
+
+    /**
+     * Выбор элемента 0..n-1 по закону Ципфа: элемент k выбирается с вероятностью ~ 1/(k+1)^s.
+     * Ранги перемешаны, чтобы популярность не совпадала с порядком идентификаторов.
+     */
+    private static final class Zipf {
+        private final double[] cdf;
+        private final int[] permutation;
+
+        Zipf(int n, double exponent, SplittableRandom random) {
+            cdf = new double[n];
+            double sum = 0;
+            for (int k = 0; k < n; k++) {
+                sum += 1.0 / Math.pow(k + 1, exponent);
+                cdf[k] = sum;
+            }
+            for (int k = 0; k < n; k++) {
+                cdf[k] /= sum;
+            }
+            permutation = new int[n];
+            for (int k = 0; k < n; k++) {
+                permutation[k] = k;
+            }
+            for (int k = n - 1; k > 0; k--) {
+                int j = random.nextInt(k + 1);
+                int tmp = permutation[k];
+                permutation[k] = permutation[j];
+                permutation[j] = tmp;
+            }
+        }
+
+        int next(SplittableRandom random) {
+            int index = Arrays.binarySearch(cdf, random.nextDouble());
+            int rank = index >= 0 ? index : Math.min(-index - 1, cdf.length - 1);
+            return permutation[rank];
+        }
+    }
+
+    @Override
+    public void run(String... args) {
+        if (!targetTablesEmpty()) {
+            log.info("Синтетические данные уже сгенерированы, повторная генерация пропущена");
+            return;
+        }
+        long started = System.currentTimeMillis();
+        SplittableRandom random = new SplittableRandom(randomSeed);
+        LocalDate today = LocalDate.parse(referenceDate);
+        log.info("Генерация синтетических данных (seed={}, дата={}): {} пользователей, {} турниров, {} заявок, {} объявлений",
+                 randomSeed, today, userCount, tournamentCount, registrationCount, adCount);
+
+        long userBase = FIRST_ID;
+        String[] userNames = new String[userCount];
+        List<Long> businessUsers = new ArrayList<>();
+        seedUsers(random, today, userBase, userNames, businessUsers);
+
+        long tournamentBase = FIRST_ID;
+        LocalDate[] tournamentDates = new LocalDate[tournamentCount];
+        int[] maxTeams = new int[tournamentCount];
+        seedTournaments(random, today, tournamentBase, tournamentDates, maxTeams);
+
+        if (userCount >= 4 && tournamentCount > 0) {
+            seedRegistrations(random, today, userBase, userNames, tournamentBase, tournamentDates, maxTeams);
+        }
+        if (!businessUsers.isEmpty()) {
+            seedAds(random, today, tournamentBase, businessUsers);
+        }
+
+        sequenceAligner.align();
+        int recalculated = tournamentRepository.recalculateTeamCounts();
+        log.info("Счетчики команд пересчитаны для {} турниров", recalculated);
+        analyzeIfPostgres();
+        log.info("Синтетические данные сгенерированы за {} с", (System.currentTimeMillis() - started) / 1000);
+    }
+
+    private void seedUsers(SplittableRandom random, LocalDate today, long userBase, String[] userNames,
+                           List<Long> businessUsers) {
+        // BCrypt намеренно медленный, поэтому у всех синтетических пользователей один хэш
+        String password = passwordEncoder.encode("seed-password");
+        Zipf cities = new Zipf(CITIES.length, 1.1, random);
+        Batch users = new Batch("INSERT INTO users (id, name, email, password, email_verified, role, created_at, updated_at) "
+                                + "VALUES (?, ?, ?, ?, ?, ?, ?, ?)");
+        Batch profiles = new Batch("INSERT INTO profiles (id, user_id, city, age, bio, tournaments_played, total_points, "
+                                   + "rating, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)");
+        long profileBase = FIRST_ID;
+        long started = System.currentTimeMillis();
+
+        for (int i = 0; i < userCount; i++) {
+            long id = userBase + i;
+            String name = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)] + " " + LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+            userNames[i] = name;
+            String role = random.nextDouble() < 0.02 ? "business" : "user";
+            if ("business".equals(role)) {
+                businessUsers.add(id);
+            }
+            // Больше недавних регистраций: дни назад ~ u^2
+            LocalDateTime createdAt = today.atStartOfDay().minusMinutes((long) (1095 * 24 * 60 * Math.pow(random.nextDouble(), 2)));
+            users.add(id, name, "user" + id + "@seed.local", password, random.nextDouble() < 0.8, role, createdAt, createdAt);
+
+            int tournamentsPlayed = (int) Math.min(300, -Math.log(1 - random.nextDouble()) * 6);
+            int totalPoints = (int) Math.min(100_000, 10 / Math.pow(1 - random.nextDouble(), 1.2)) - 10 + tournamentsPlayed * 5;
+            int rating = (int) Math.max(0, Math.min(3000, 1000 + random.nextDouble() * 400 - 200 + tournamentsPlayed * 4));
+            profiles.add(profileBase + i, id, CITIES[cities.next(random)], 16 + (int) Math.abs(nextGaussian(random) * 8),
+                         random.nextDouble() < 0.3 ? "Играю в баскетбол 3x3" : null,
+                         tournamentsPlayed, totalPoints, rating, createdAt, createdAt);
+
+            if (users.isFull()) {
+                users.flush();
+                profiles.flush();
+            }
+        }
+        users.flush();
+        profiles.flush();
+        logTable("users + profiles", users.total + profiles.total, started);
+    }
+
+    private void seedTournaments(SplittableRandom random, LocalDate today, long tournamentBase,
+                                 LocalDate[] tournamentDates, int[] maxTeams) {
+        Zipf cities = new Zipf(CITIES.length, 1.1, random);
+        Batch tournaments = new Batch("INSERT INTO tournaments (id, name, date, start_time, location, description, status, "
+                                      + "level, max_teams, entry_fee, prize_pool, is_business_tournament, sponsor_name, "
+                                      + "business_type, registration_open, created_at, updated_at) "
+                                      + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)");
+        long started = System.currentTimeMillis();
+
+        for (int i = 0; i < tournamentCount; i++) {
+            // Три года истории и год вперед, прошедших турниров больше
+            LocalDate date = today.plusDays(random.nextDouble() < 0.75 ? -random.nextInt(1095) : random.nextInt(365) + 1);
+            tournamentDates[i] = date;
+            maxTeams[i] = MAX_TEAMS[random.nextInt(MAX_TEAMS.length)];
+            String status = date.isBefore(today.minusDays(1)) ? "COMPLETED" : date.isAfter(today) ? "UPCOMING" : "ONGOING";
+            String city = CITIES[cities.next(random)];
+            boolean business = random.nextDouble() < 0.1;
+            LocalDateTime createdAt = date.minusDays(30 + random.nextInt(60)).atStartOfDay();
+            tournaments.add(tournamentBase + i, city + " 3x3 Open #" + (tournamentBase + i), date,
+                            LocalTime.of(9 + random.nextInt(10), random.nextBoolean() ? 0 : 30), city,
+                            "Турнир по баскетболу 3x3", status, LEVELS[random.nextInt(LEVELS.length)], maxTeams[i],
+                            (double) (random.nextInt(11) * 500), business ? (random.nextInt(20) + 1) * 10_000 + " ₽" : null,
+                            business, business ? "Спонсор " + random.nextInt(200) : null,
+                            business ? "Корпоративный" : null, "UPCOMING".equals(status), createdAt, createdAt);
+            if (tournaments.isFull()) {
+                tournaments.flush();
+            }
+        }
+        tournaments.flush();
+        logTable("tournaments", tournaments.total, started);
+    }
+
+    private void seedRegistrations(SplittableRandom random, LocalDate today, long userBase, String[] userNames,
+                                   long tournamentBase, LocalDate[] tournamentDates, int[] maxTeams) {
+        Zipf tournamentPopularity = new Zipf(tournamentCount, 0.9, random);
+        Zipf userActivity = new Zipf(userCount, 0.8, random);
+        Batch registrations = new Batch("INSERT INTO registrations (id, team_name, tournament_id, user_id, status, "
+                                        + "created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?)");
+        Batch registrationPlayers = new Batch("INSERT INTO player_team (registration_id, user_id) VALUES (?, ?)");
+        Batch players = new Batch("INSERT INTO players (id, name, rating, user_id, created_at, updated_at) "
+                                  + "VALUES (?, ?, ?, ?, ?, ?)");
+        Batch teams = new Batch("INSERT INTO teams (id, name, total_points, tournaments_played, tournaments_won, "
+                                + "created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?)");
+        Batch teamPlayers = new Batch("INSERT INTO team_players (team_id, player_id) VALUES (?, ?)");
+        Batch tournamentTeams = new Batch("INSERT INTO tournament_teams (id, tournament_id, team_id, status, "
+                                          + "waitlist_position, registration_id, registration_date) "
+                                          + "VALUES (?, ?, ?, ?, ?, ?, ?)");
+        long registrationBase = FIRST_ID;
+        long teamBase = FIRST_ID;
+        long tournamentTeamBase = FIRST_ID;
+        long nextPlayerId = FIRST_ID;
+        // Игрок создается для пользователя при первом участии в заявке
+        long[] playerOfUser = new long[userCount];
+        int[] occupied = new int[tournamentCount];
+        int[] waitlisted = new int[tournamentCount];
+        long started = System.currentTimeMillis();
+
+        for (int i = 0; i < registrationCount; i++) {
+            long registrationId = registrationBase + i;
+            long teamId = teamBase + i;
+            int t = tournamentPopularity.next(random);
+            LocalDate date = tournamentDates[t];
+            LocalDateTime createdAt = date.minusDays(1 + random.nextInt(60)).atTime(10, 0);
+            if (createdAt.toLocalDate().isAfter(today)) {
+                createdAt = today.atTime(10, 0);
+            }
+
+            String status;
+            String teamStatus;
+            Integer waitlistPosition = null;
+            boolean completed = date.isBefore(today);
+            if (random.nextDouble() < 0.1) {
+                status = "rejected";
+                teamStatus = "REJECTED";
+            } else if (occupied[t] < maxTeams[t]) {
+                occupied[t]++;
+                boolean approved = completed || random.nextDouble() < 0.45;
+                status = approved ? "approved" : "pending";
+                teamStatus = !approved ? "PENDING" : completed ? "COMPLETED" : "APPROVED";
+            } else if (!completed) {
+                waitlistPosition = ++waitlisted[t];
+                status = "waitlisted";
+                teamStatus = "WAITLISTED";
+            } else {
+                status = "rejected";
+                teamStatus = "REJECTED";
+            }
+
+            int captain = userActivity.next(random);
+            String teamName = "Команда " + registrationId;
+            registrations.add(registrationId, teamName, tournamentBase + t, userBase + captain, status, createdAt, createdAt);
+            teams.add(teamId, teamName, completed ? random.nextInt(200) : 0, completed ? 1 : 0,
+                      completed && random.nextDouble() < 0.05 ? 1 : 0, createdAt, createdAt);
+            tournamentTeams.add(tournamentTeamBase + i, tournamentBase + t, teamId, teamStatus, waitlistPosition,
+                                registrationId, createdAt);
+
+            // 3-5 игроков, капитан обычно тоже в составе
+            int size = 3 + random.nextInt(3);
+            int[] members = new int[size];
+            members[0] = captain;
+            for (int m = 1; m < size; m++) {
+                int member;
+                do {
+                    member = userActivity.next(random);
+                } while (contains(members, m, member));
+                members[m] = member;
+            }
+            for (int member : members) {
+                registrationPlayers.add(registrationId, userBase + member);
+                if (playerOfUser[member] == 0) {
+                    playerOfUser[member] = nextPlayerId++;
+                    players.add(playerOfUser[member], userNames[member], random.nextInt(2000), userBase + member,
+                                createdAt, createdAt);
+                }
+                teamPlayers.add(teamId, playerOfUser[member]);
+            }
+
+            if (registrationPlayers.isFull()) {
+                // Порядок важен: строки связей ссылаются на заявки, команды и игроков
+                players.flush();
+                teams.flush();
+                registrations.flush();
+                registrationPlayers.flush();
+                teamPlayers.flush();
+                tournamentTeams.flush();
+            }
+        }
+        players.flush();
+        teams.flush();
+        registrations.flush();
+        registrationPlayers.flush();
+        teamPlayers.flush();
+        tournamentTeams.flush();
+        logTable("registrations + teams + players", registrations.total + registrationPlayers.total + players.total
+                 + teams.total + teamPlayers.total + tournamentTeams.total, started);
+    }
+
+    private void seedAds(SplittableRandom random, LocalDate today, long tournamentBase, List<Long> businessUsers) {
+        Zipf tournamentPopularity = tournamentCount > 0 ? new Zipf(tournamentCount, 0.9, random) : null;
+        Zipf advertiserActivity = new Zipf(businessUsers.size(), 1.0, random);
+        Batch ads = new Batch("INSERT INTO ads (id, title, image_url, tournament_id, advertiser_id, business_id, "
+                              + "created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?)");
+        Batch results = new Batch("INSERT INTO ad_results (id, ad_id, clicks, views, created_at, updated_at) "
+                                  + "VALUES (?, ?, ?, ?, ?, ?)");
+        long adBase = FIRST_ID;
+        long resultBase = FIRST_ID;
+        long started = System.currentTimeMillis();
+
+        for (int i = 0; i < adCount; i++) {
+            long adId = adBase + i;
+            Long tournamentId = tournamentPopularity != null && random.nextDouble() < 0.8
+                ? tournamentBase + tournamentPopularity.next(random) : null;
+            Long advertiser = businessUsers.get(advertiserActivity.next(random));
+            LocalDateTime createdAt = today.atStartOfDay().minusMinutes(random.nextInt(730 * 24 * 60));
+            ads.add(adId, "Реклама #" + adId, "/uploads/ads/seed-" + (adId % 50) + ".jpg", tournamentId,
+                    advertiser, advertiser, createdAt, createdAt);
+            // Просмотры логнормальные, CTR 0.5-3%
+            int views = (int) Math.min(10_000_000, Math.exp(6 + nextGaussian(random) * 1.5));
+            int clicks = (int) (views * (0.005 + random.nextDouble() * 0.025));
+            results.add(resultBase + i, adId, clicks, views, createdAt, createdAt);
+            if (ads.isFull()) {
+                ads.flush();
+                results.flush();
+            }
+        }
+        ads.flush();
+        results.flush();
+        logTable("ads + ad_results", ads.total + results.total, started);
+    }
+
+    /**
+     * Проверяет, что генерировать можно: данные уже сгенерированы - false, таблицы содержат
+     * другие данные - исключение, так как набор тогда не совпал бы с набором на пустой базе
+     */
+    private boolean targetTablesEmpty() {
+        if (Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM users WHERE email LIKE '%@seed.local')", Boolean.class))) {
+            return false;
+        }
+        List<String> nonEmpty = new ArrayList<>();
+        for (String table : TARGET_TABLES) {
+            if (Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                    "SELECT EXISTS (SELECT 1 FROM " + table + ")", Boolean.class))) {
+                nonEmpty.add(table);
+            }
+        }
+        if (!nonEmpty.isEmpty()) {
+            throw new IllegalStateException("Синтетические данные генерируются только на пустой базе, "
+                                            + "но таблицы не пусты: " + String.join(", ", nonEmpty));
+        }
+        return true;
+    }
+
+    private void analyzeIfPostgres() {
+        try (Connection connection = dataSource.getConnection()) {
+            if (!"PostgreSQL".equals(connection.getMetaData().getDatabaseProductName())) {
+                return;
+            }
+        } catch (Exception e) {
+            return;
+        }
+        // Статистика планировщика должна отражать новые объемы
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    private static boolean contains(int[] values, int length, int value) {
+        for (int i = 0; i < length; i++) {
+            if (values[i] == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static double nextGaussian(SplittableRandom random) {
+        // Преобразование Бокса-Мюллера: SplittableRandom не умеет nextGaussian в Java 19
+        return Math.sqrt(-2 * Math.log(1 - random.nextDouble())) * Math.cos(2 * Math.PI * random.nextDouble());
+    }
+
+    private static void logTable(String table, long rows, long started) {
+        long ms = Math.max(1, System.currentTimeMillis() - started);
+        log.info("Синтетические данные: {} - {} строк за {} мс ({} строк/с)", table, rows, ms, rows * 1000 / ms);
+    }
+}
@@ -0,0 +1,60 @@
+package com.fiba.api.config;
+
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.aop.framework.AopProxyUtils;
+import org.springframework.stereotype.Component;
+
+/**
+ * Спаны трассировки вокруг публичных методов контроллеров, сервисов и репозиториев.
+ * Без открытой трассы (фоновые задачи, трассировка выключена) вызов идет напрямую.
+ */
+@Aspect
+@Component
+@RequiredArgsConstructor
+public class TracingAspect {
+
+    private final RequestTracer tracer;
+
+    @Around("@within(org.springframework.web.bind.annotation.RestController) && execution(public * *(..))")
+    public Object traceController(ProceedingJoinPoint joinPoint) throws Throwable {
+        return trace("controller", joinPoint, false);
+    }
+
+    // Флаги вида isEnabled() вызываются фильтрами на каждый запрос и только засоряют трассу
+    @Around("@within(org.springframework.stereotype.Service) && execution(public * *(..)) && !execution(boolean is*())")
+    public Object traceService(ProceedingJoinPoint joinPoint) throws Throwable {
+        return trace("service", joinPoint, false);
+    }
+
+    @Around("execution(public * org.springframework.data.repository.Repository+.*(..))")
+    public Object traceRepository(ProceedingJoinPoint joinPoint) throws Throwable {
+        return trace("repository", joinPoint, true);
+    }
+
+    private Object trace(String kind, ProceedingJoinPoint joinPoint, boolean repository) throws Throwable {
+        if (!tracer.isActive()) {
+            return joinPoint.proceed();
+        }
+        RequestTracer.Span span = tracer.start(kind, spanName(joinPoint, repository));
+        try {
+            return joinPoint.proceed();
+        } finally {
+            tracer.end(span);
+        }
+    }
+
+    private static String spanName(ProceedingJoinPoint joinPoint, boolean repository) {
+        Class<?> type;
+        if (repository) {
+            // Цель репозитория - SimpleJpaRepository, имя берем из интерфейса прокси
+            Class<?>[] interfaces = AopProxyUtils.proxiedUserInterfaces(joinPoint.getThis());
+            type = interfaces.length > 0 ? interfaces[0] : joinPoint.getSignature().getDeclaringType();
+        } else {
+            type = joinPoint.getTarget().getClass();
+        }
+        return type.getSimpleName() + "." + joinPoint.getSignature().getName();
+    }
+}
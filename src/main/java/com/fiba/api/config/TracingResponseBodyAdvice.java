@@ -0,0 +1,34 @@
+package com.fiba.api.config;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * Открывает спан render перед записью тела ответа. Спан закрывается вместе с трассой,
+ * поэтому в него попадают сериализация JSON и ленивые загрузки, случившиеся во время нее.
+ */
+@ControllerAdvice
+@RequiredArgsConstructor
+public class TracingResponseBodyAdvice implements ResponseBodyAdvice<Object> {
+
+    private final RequestTracer tracer;
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return tracer.isActive();
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        tracer.start("render", selectedConverterType.getSimpleName());
+        return body;
+    }
+}
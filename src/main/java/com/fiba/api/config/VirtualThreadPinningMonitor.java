@@ -0,0 +1,113 @@
+package com.fiba.api.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+/**
+ * Следит за закреплением виртуальных потоков за потоками-носителями в режиме spring.threads.virtual.enabled.
+ *
+ * Блокирующая операция внутри synchronized (или нативного кадра) не освобождает носитель, и при
+ * небольшом числе носителей несколько таких мест останавливают обработку всех запросов. Монитор
+ * подписывается на событие JFR jdk.VirtualThreadPinned дольше threshold-ms, публикует его в метрике
+ * virtual_threads.pinned и один раз на каждое место пишет предупреждение со стеком. Местом считается
+ * первый кадр вне JDK (обычно библиотека или код приложения, удерживающие монитор), а вызывающий
+ * код приложения указывается отдельно.
+ *
+ * Виртуальные потоки Spring Boot включает только на Java 21+; на более старой JVM монитор лишь
+ * предупреждает, что настройка не действует.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+public class VirtualThreadPinningMonitor {
+
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    private static final int MAX_REPORTED_SITES = 100;
+    private static final int LOGGED_FRAMES = 30;
+
+    private final Timer pinnedTimer;
+    private final Duration threshold;
+    private final Set<String> reportedSites = ConcurrentHashMap.newKeySet();
+    private RecordingStream stream;
+
+    public VirtualThreadPinningMonitor(MeterRegistry meterRegistry,
+                                       @Value("${app.virtual-threads.pinned-threshold-ms:20}") long thresholdMs) {
+        this.threshold = Duration.ofMillis(thresholdMs);
+        this.pinnedTimer = Timer.builder("virtual_threads.pinned")
+            .description("Время, на которое виртуальный поток закреплялся за потоком-носителем")
+            .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (Runtime.version().feature() < 21) {
+            log.warn("spring.threads.virtual.enabled=true, но JVM {} не поддерживает виртуальные потоки: "
+                + "запросы обрабатываются пулом платформенных потоков Tomcat", Runtime.version());
+            return;
+        }
+        try {
+            stream = new RecordingStream();
+            stream.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+            stream.onEvent(PINNED_EVENT, this::onPinned);
+            stream.startAsync();
+            log.info("Virtual threads enabled, pinning monitor threshold {} ms", threshold.toMillis());
+        } catch (RuntimeException e) {
+            // JFR может быть недоступен в урезанном образе JVM; сам режим от этого не зависит
+            log.warn("Cannot start virtual thread pinning monitor: {}", e.getMessage());
+            stream = null;
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (stream != null) {
+            stream.close();
+        }
+    }
+
+    private void onPinned(RecordedEvent event) {
+        pinnedTimer.record(event.getDuration());
+        if (event.getStackTrace() == null) {
+            return;
+        }
+        List<RecordedFrame> frames = event.getStackTrace().getFrames();
+        String site = firstFrame(frames, type -> !type.startsWith("java.") && !type.startsWith("jdk.")
+            && !type.startsWith("sun."));
+        String caller = firstFrame(frames, type -> type.startsWith("com.fiba."));
+        if (reportedSites.size() < MAX_REPORTED_SITES && reportedSites.add(site)) {
+            log.warn("Виртуальный поток закреплен за носителем на {} мс в {} (вызов из {}):\n    {}",
+                event.getDuration().toMillis(), site, caller,
+                frames.stream().limit(LOGGED_FRAMES).map(VirtualThreadPinningMonitor::format)
+                    .collect(Collectors.joining("\n    ")));
+        }
+    }
+
+    private static String firstFrame(List<RecordedFrame> frames, Predicate<String> type) {
+        return frames.stream()
+            .filter(frame -> frame.isJavaFrame() && type.test(frame.getMethod().getType().getName()))
+            .findFirst()
+            .map(VirtualThreadPinningMonitor::format)
+            .orElse("unknown");
+    }
+
+    private static String format(RecordedFrame frame) {
+        return frame.getMethod().getType().getName() + "." + frame.getMethod().getName()
+            + (frame.getLineNumber() > 0 ? ":" + frame.getLineNumber() : "");
+    }
+}
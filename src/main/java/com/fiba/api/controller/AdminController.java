@@ -1,16 +1,30 @@
 package com.fiba.api.controller;
 
+import com.fiba.api.dto.BulkTeamStatusRequest;
+import com.fiba.api.dto.ImportReport;
 import com.fiba.api.dto.TournamentRequest;
 import com.fiba.api.dto.TeamStatusRequest;
+import com.fiba.api.exception.BadRequestException;
 import com.fiba.api.model.Tournament;
+import com.fiba.api.service.BulkExportService;
+import com.fiba.api.service.BulkImportService;
 import com.fiba.api.service.TournamentService;
 import com.fiba.api.service.TeamService;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import jakarta.validation.Valid;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
 import java.util.Map;
 import java.util.HashMap;
 
@@ -23,8 +37,12 @@ import java.util.HashMap;
 @PreAuthorize("hasRole('ADMIN')")
 public class AdminController {
 
+    private static final MediaType TEXT_CSV = MediaType.parseMediaType("text/csv");
+
     private final TournamentService tournamentService;
     private final TeamService teamService;
+    private final BulkImportService bulkImportService;
+    private final BulkExportService bulkExportService;
 
     /**
      * Создание нового турнира
@@ -88,4 +106,95 @@ public class AdminController {
         response.put("message", "Статус команды успешно обновлен");
         return ResponseEntity.ok(response);
     }
-} 
\ No newline at end of file
+
+    /**
+     * Массовое подтверждение или отклонение команд турнира
+     * 
+     * @param tournamentId идентификатор турнира
+     * @param request идентификаторы команд и новый статус (APPROVED или REJECTED)
+     * @return количество команд, у которых изменился статус
+     */
+    @PutMapping("/tournaments/{tournamentId}/teams")
+    public ResponseEntity<Map<String, Object>> updateTeamsStatus(
+            @PathVariable Long tournamentId,
+            @Valid @RequestBody BulkTeamStatusRequest request) {
+        int updated = teamService.updateTeamsStatus(tournamentId, request.getTeamIds(), request.getStatus());
+        
+        Map<String, Object> response = new HashMap<>();
+        response.put("status", "success");
+        response.put("requested", request.getTeamIds().size());
+        response.put("updated", updated);
+        response.put("message", "Статус команд успешно обновлен");
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Потоковый импорт из тела запроса (text/csv или application/x-ndjson).
+     * Размер файла не ограничен: строки записываются пачками по мере чтения.
+     * 
+     * @param kind вид данных: tournaments или rosters
+     * @param delimiter разделитель столбцов CSV
+     * @return отчет об импорте с ошибками по строкам
+     */
+    @PostMapping(value = "/import/{kind}", consumes = {"text/csv", "application/x-ndjson", "application/json"})
+    public ResponseEntity<ImportReport> importRows(
+            @PathVariable String kind,
+            @RequestParam(defaultValue = ",") char delimiter,
+            HttpServletRequest request) throws IOException {
+        BulkImportService.Format format = TEXT_CSV.isCompatibleWith(MediaType.parseMediaType(request.getContentType()))
+                ? BulkImportService.Format.CSV : BulkImportService.Format.NDJSON;
+        return ResponseEntity.ok(bulkImportService.importRows(kind, request.getInputStream(), format, delimiter));
+    }
+
+    /**
+     * Импорт из загруженного файла (.csv или .ndjson)
+     * 
+     * @param kind вид данных: tournaments или rosters
+     * @param file файл для импорта
+     * @param delimiter разделитель столбцов CSV
+     * @return отчет об импорте с ошибками по строкам
+     */
+    @PostMapping(value = "/import/{kind}", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<ImportReport> importFile(
+            @PathVariable String kind,
+            @RequestParam("file") MultipartFile file,
+            @RequestParam(defaultValue = ",") char delimiter) throws IOException {
+        String filename = file.getOriginalFilename() != null ? file.getOriginalFilename().toLowerCase() : "";
+        boolean csv = filename.endsWith(".csv")
+                || (file.getContentType() != null && file.getContentType().startsWith("text/csv"));
+        try (InputStream in = file.getInputStream()) {
+            return ResponseEntity.ok(bulkImportService.importRows(kind, in,
+                    csv ? BulkImportService.Format.CSV : BulkImportService.Format.NDJSON, delimiter));
+        }
+    }
+
+    /**
+     * Потоковая выгрузка регистраций, составов команд или пользователей.
+     * Строки передаются клиенту по мере чтения из БД, без сборки списка в памяти.
+     * 
+     * @param kind вид данных: registrations, rosters или users
+     * @param format csv или ndjson
+     * @param tournamentId ограничить регистрации одним турниром (необязательно)
+     * @return файл выгрузки
+     */
+    @GetMapping("/export/{kind}")
+    public ResponseEntity<StreamingResponseBody> export(
+            @PathVariable String kind,
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(required = false) Long tournamentId) {
+        bulkExportService.checkKind(kind);
+        BulkImportService.Format exportFormat = switch (format.toLowerCase()) {
+            case "csv" -> BulkImportService.Format.CSV;
+            case "ndjson" -> BulkImportService.Format.NDJSON;
+            default -> throw new BadRequestException("Неизвестный формат выгрузки: " + format);
+        };
+        String filename = kind + "-" + LocalDate.now() + "." + format.toLowerCase();
+        StreamingResponseBody body = out -> bulkExportService.export(kind, exportFormat, tournamentId, out);
+        return ResponseEntity.ok()
+                .contentType(exportFormat == BulkImportService.Format.CSV
+                        ? new MediaType(TEXT_CSV, StandardCharsets.UTF_8)
+                        : MediaType.parseMediaType("application/x-ndjson"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
+                .body(body);
+    }
+}
@@ -1,13 +1,19 @@
 package com.fiba.api.controller;
 
 import com.fiba.api.service.FeatureFlagService;
+import com.fiba.api.service.FeatureFlagSnapshot;
 import com.fiba.api.model.FeatureFlags;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.CacheControl;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.security.Principal;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
 @Slf4j
 @RestController
 @RequestMapping("/api/features")
@@ -16,16 +22,39 @@ public class FeatureFlagController {
 
     private final FeatureFlagService featureFlagService;
 
+    /**
+     * Флаги для текущего пользователя из снимка в памяти.
+     *
+     * Ответ помечен ETag из версии флагов и их значений для пользователя: при совпадении
+     * If-None-Match возвращается 304 без тела
+     */
     @GetMapping
-    public ResponseEntity<FeatureFlags> getFeatureFlags() {
-        log.info("Получение настроек feature flags");
-        return ResponseEntity.ok(featureFlagService.getFeatureFlags());
+    public ResponseEntity<Map<String, Object>> getFeatureFlags(Principal principal) {
+        log.debug("Получение настроек feature flags");
+        return response(featureFlagService.getSnapshot(), principal);
     }
 
     @PutMapping
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<FeatureFlags> updateFeatureFlags(@RequestBody FeatureFlags flags) {
+    public ResponseEntity<Map<String, Object>> updateFeatureFlags(@RequestBody FeatureFlags flags, Principal principal) {
         log.info("Обновление feature flags: {}", flags);
-        return ResponseEntity.ok(featureFlagService.updateFeatureFlags(flags));
+        return response(featureFlagService.updateFeatureFlags(flags), principal);
+    }
+
+    private static ResponseEntity<Map<String, Object>> response(FeatureFlagSnapshot snapshot, Principal principal) {
+        // Постепенное включение считается по email - имени пользователя в JWT, без обращения к БД
+        Map<String, Boolean> flags = snapshot.evaluate(principal != null ? principal.getName() : null);
+
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("id", "default");
+        body.putAll(flags);
+        body.put("version", snapshot.getVersion());
+        body.put("rollouts", snapshot.getRollouts());
+
+        // Значения зависят от пользователя, поэтому кэшировать ответ может только клиент, сверяясь с ETag
+        return ResponseEntity.ok()
+            .cacheControl(CacheControl.noCache().cachePrivate())
+            .eTag(snapshot.etag(flags))
+            .body(body);
     }
-} 
\ No newline at end of file
+}
@@ -252,7 +252,7 @@ public class PlayerController {
      */
     @GetMapping("/top")
     public ResponseEntity<?> getTopPlayers(@RequestParam(defaultValue = "5") int limit) {
-        log.info("Запрос на получение топ-{} игроков", limit);
+        log.debug("Запрос на получение топ-{} игроков", limit);
         
         try {
             // Фильтруем профили, чтобы исключить null значения
@@ -280,7 +280,7 @@ public class PlayerController {
                 result.add(playerData);
             }
             
-            log.info("Возвращается {} лучших игроков", result.size());
+            log.debug("Возвращается {} лучших игроков", result.size());
             return ResponseEntity.ok(result);
         } catch (Exception e) {
             log.error("Ошибка при получении топ игроков: {}", e.getMessage(), e);
@@ -0,0 +1,100 @@
+package com.fiba.api.controller;
+
+import com.fiba.api.service.PublicReadService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.function.ServerRequest;
+import org.springframework.web.servlet.function.ServerResponse;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Неблокирующие обработчики публичных списков (маршруты в {@link com.fiba.api.config.ReactiveReadConfig}).
+ *
+ * Параметры, коды ответов и тела ошибок повторяют аннотированные методы TournamentController,
+ * PlayerController и AdController, которые обслуживают эти пути при выключенном app.reactive-read.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.reactive-read.enabled", havingValue = "true")
+public class PublicReadHandler {
+
+    private final PublicReadService publicReadService;
+
+    /**
+     * GET /api/tournaments?limit&sort&direction&upcoming
+     */
+    public ServerResponse tournaments(ServerRequest request) {
+        Integer limit;
+        try {
+            limit = request.param("limit").map(Integer::valueOf).orElse(null);
+        } catch (NumberFormatException e) {
+            return ServerResponse.badRequest().body(Map.of("error", "Некорректный параметр limit"));
+        }
+        String sort = request.param("sort").orElse(null);
+        String direction = request.param("direction").orElse(null);
+        Boolean upcoming = request.param("upcoming").map(Boolean::valueOf).orElse(null);
+        boolean ascending = direction == null || "asc".equalsIgnoreCase(direction);
+
+        return list(publicReadService.getTournaments(sort, ascending, upcoming, limit),
+            "Ошибка при получении списка турниров: ");
+    }
+
+    /**
+     * GET /api/tournaments/upcoming
+     */
+    public ServerResponse upcomingTournaments(ServerRequest request) {
+        return list(publicReadService.getUpcomingTournaments(), "Ошибка при получении предстоящих турниров: ");
+    }
+
+    /**
+     * GET /api/tournaments/past
+     */
+    public ServerResponse pastTournaments(ServerRequest request) {
+        return list(publicReadService.getPastTournaments(), "Ошибка при получении прошедших турниров: ");
+    }
+
+    /**
+     * GET /api/players/top?limit; при ошибке, как и PlayerController, отдает пустой список
+     */
+    public ServerResponse topPlayers(ServerRequest request) {
+        int limit;
+        try {
+            limit = request.param("limit").map(Integer::parseInt).orElse(5);
+        } catch (NumberFormatException e) {
+            return ServerResponse.badRequest().body(Map.of("error", "Некорректный параметр limit"));
+        }
+        return ServerResponse.async(publicReadService.getTopPlayers(limit)
+            .onErrorResume(e -> {
+                log.error("Ошибка при получении топ игроков: {}", e.getMessage(), e);
+                return Mono.just(List.of());
+            })
+            .map(players -> ServerResponse.ok().contentType(MediaType.APPLICATION_JSON).body(players)));
+    }
+
+    /**
+     * GET /api/ads/public/advertisement; 204, если объявлений нет
+     */
+    public ServerResponse advertisement(ServerRequest request) {
+        return ServerResponse.async(publicReadService.getRandomAd()
+            .map(ad -> ServerResponse.ok().contentType(MediaType.APPLICATION_JSON).body(ad))
+            .defaultIfEmpty(ServerResponse.noContent().build()));
+    }
+
+    private ServerResponse list(Mono<List<Map<String, Object>>> result, String errorPrefix) {
+        return ServerResponse.async(result
+            .map(items -> ServerResponse.ok().contentType(MediaType.APPLICATION_JSON).body(items))
+            .onErrorResume(e -> {
+                log.error(errorPrefix + "{}", e.getMessage(), e);
+                return Mono.just(ServerResponse.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", errorPrefix + e.getMessage())));
+            }));
+    }
+}
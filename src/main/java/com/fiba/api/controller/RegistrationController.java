@@ -54,6 +54,20 @@ public class RegistrationController {
         return ResponseEntity.ok(registrationData);
     }
 
+    /**
+     * Позиция заявки в листе ожидания. Позиция хранится в строке участия команды,
+     * поэтому частый опрос стоит одного чтения по индексу.
+     */
+    @GetMapping("/{id}/waitlist")
+    public ResponseEntity<?> getWaitlistPosition(@PathVariable Long id) {
+        Optional<Integer> position = registrationService.getWaitlistPosition(id);
+        Map<String, Object> result = new HashMap<>();
+        result.put("registration_id", id);
+        result.put("waitlisted", position.isPresent());
+        result.put("waitlist_position", position.orElse(null));
+        return ResponseEntity.ok(result);
+    }
+
     @GetMapping("/captain")
     public ResponseEntity<?> getRegistrationsByCaptain(@AuthenticationPrincipal UserDetails userDetails) {
         User user = userService.getUserByEmail(userDetails.getUsername());
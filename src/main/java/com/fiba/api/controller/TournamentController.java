@@ -1,15 +1,17 @@
 package com.fiba.api.controller;
 
 import com.fiba.api.dto.TeamRegistrationRequest;
+import com.fiba.api.exception.ResourceNotFoundException;
+import com.fiba.api.exception.TournamentFullException;
 import com.fiba.api.model.Registration;
 import com.fiba.api.model.Team;
 import com.fiba.api.model.Tournament;
 import com.fiba.api.model.TournamentStatus;
-import com.fiba.api.model.TournamentTeam;
 import com.fiba.api.model.User;
 import com.fiba.api.model.TeamStatus;
 import com.fiba.api.model.Player;
 import com.fiba.api.service.RegistrationService;
+import com.fiba.api.service.TeamService;
 import com.fiba.api.service.TournamentService;
 import com.fiba.api.service.UserService;
 import com.fiba.api.service.FileStorageService;
@@ -48,6 +50,7 @@ public class TournamentController {
     private final TournamentService tournamentService;
     private final UserService userService;
     private final RegistrationService registrationService;
+    private final TeamService teamService;
     private final FileStorageService fileStorageService;
 
     /**
@@ -56,6 +59,7 @@ public class TournamentController {
      * @param tournamentService сервис турниров
      * @param userService сервис пользователей
      * @param registrationService сервис регистраций
+     * @param teamService сервис команд
      * @param fileStorageService сервис хранения файлов
      */
     @Autowired
@@ -63,10 +67,12 @@ public class TournamentController {
             TournamentService tournamentService,
             UserService userService,
             RegistrationService registrationService,
+            TeamService teamService,
             FileStorageService fileStorageService) {
         this.tournamentService = tournamentService;
         this.userService = userService;
         this.registrationService = registrationService;
+        this.teamService = teamService;
         this.fileStorageService = fileStorageService;
     }
 
@@ -81,7 +87,7 @@ public class TournamentController {
             @RequestParam(required = false) Boolean upcoming) {
         
         try {
-            log.info("Получен запрос на получение турниров: limit={}, sort={}, direction={}, upcoming={}", 
+            log.debug("Получен запрос на получение турниров: limit={}, sort={}, direction={}, upcoming={}", 
                     limit, sort, direction, upcoming);
             
             List<Tournament> tournaments = tournamentService.getAllTournaments(sort, direction);
@@ -105,7 +111,7 @@ public class TournamentController {
                     .map(this::convertToMap)
                     .collect(Collectors.toList());
             
-            log.info("Возвращается {} турниров", result.size());
+            log.debug("Возвращается {} турниров", result.size());
             return ResponseEntity.ok(result);
         } catch (Exception e) {
             log.error("Ошибка при получении турниров", e);
@@ -154,7 +160,7 @@ public class TournamentController {
     @GetMapping("/upcoming")
     public ResponseEntity<?> getUpcomingTournaments() {
         try {
-            log.info("Получен запрос на получение предстоящих турниров");
+            log.debug("Получен запрос на получение предстоящих турниров");
             
             List<Tournament> upcomingTournaments = tournamentService.getUpcomingTournaments();
             
@@ -162,7 +168,7 @@ public class TournamentController {
                     .map(this::convertToMap)
                     .collect(Collectors.toList());
             
-            log.info("Возвращается {} предстоящих турниров", result.size());
+            log.debug("Возвращается {} предстоящих турниров", result.size());
             return ResponseEntity.ok(result);
         } catch (Exception e) {
             log.error("Ошибка при получении предстоящих турниров", e);
@@ -177,7 +183,7 @@ public class TournamentController {
     @GetMapping("/past")
     public ResponseEntity<?> getPastTournaments() {
         try {
-            log.info("Получен запрос на получение прошедших турниров");
+            log.debug("Получен запрос на получение прошедших турниров");
             
             List<Tournament> pastTournaments = tournamentService.getCompletedTournaments();
             
@@ -185,7 +191,7 @@ public class TournamentController {
                     .map(this::convertToMap)
                     .collect(Collectors.toList());
             
-            log.info("Возвращается {} прошедших турниров", result.size());
+            log.debug("Возвращается {} прошедших турниров", result.size());
             return ResponseEntity.ok(result);
         } catch (Exception e) {
             log.error("Ошибка при получении прошедших турниров", e);
@@ -522,6 +528,16 @@ public class TournamentController {
                 request.getPlayerIds()
             );
             
+            if ("waitlisted".equals(createdRegistration.getStatus())) {
+                return ResponseEntity.status(HttpStatus.ACCEPTED).body(Map.of(
+                    "id", createdRegistration.getId(),
+                    "teamName", createdRegistration.getTeamName(),
+                    "status", createdRegistration.getStatus(),
+                    "waitlistPosition", registrationService.getWaitlistPosition(createdRegistration.getId()).orElse(0),
+                    "message", "Мест в турнире нет, команда добавлена в лист ожидания"
+                ));
+            }
+            
             return ResponseEntity.status(HttpStatus.CREATED).body(Map.of(
                 "id", createdRegistration.getId(),
                 "teamName", createdRegistration.getTeamName(),
@@ -623,6 +639,7 @@ public class TournamentController {
                     teamMap.put("logo", team.getLogo());
                     teamMap.put("status", tournamentTeam.getStatus().toString());
                     teamMap.put("position", tournamentTeam.getPosition());
+                    teamMap.put("waitlist_position", tournamentTeam.getWaitlistPosition());
                     teamMap.put("registration_date", tournamentTeam.getRegistrationDate());
                     
                     // Добавляем информацию об игроках команды
@@ -668,28 +685,15 @@ public class TournamentController {
         try {
             log.info("Получен запрос на подтверждение команды с ID {} для турнира с ID {}", teamId, tournamentId);
             
-            // Получаем турнир с командами
-            Tournament tournament = tournamentService.getTournamentWithTeams(tournamentId);
-            
-            // Ищем нужную связь команды с турниром
-            Optional<TournamentTeam> tournamentTeamOpt = tournament.getTeams().stream()
-                .filter(tt -> tt.getTeam().getId().equals(teamId))
-                .findFirst();
-            
-            if (tournamentTeamOpt.isEmpty()) {
+            // Изменяем статус на APPROVED вместе со счетчиками мест турнира
+            try {
+                teamService.updateTeamStatus(tournamentId, teamId, TeamStatus.APPROVED);
+            } catch (ResourceNotFoundException e) {
                 log.warn("Команда с ID {} не найдена в турнире с ID {}", teamId, tournamentId);
                 return ResponseEntity.badRequest()
                         .body(Map.of("error", "Команда не найдена в этом турнире"));
             }
             
-            TournamentTeam tournamentTeam = tournamentTeamOpt.get();
-            
-            // Изменяем статус на APPROVED
-            tournamentTeam.setStatus(TeamStatus.APPROVED);
-            
-            // Сохраняем изменения
-            tournamentService.saveTournamentTeam(tournamentTeam);
-            
             log.info("Команда с ID {} успешно подтверждена для турнира с ID {}", teamId, tournamentId);
             
             // Возвращаем обновленные данные команды
@@ -701,6 +705,8 @@ public class TournamentController {
             
             return ResponseEntity.ok(result);
             
+        } catch (TournamentFullException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", e.getMessage()));
         } catch (Exception e) {
             log.error("Ошибка при подтверждении команды с ID {} для турнира с ID {}: {}", 
                     teamId, tournamentId, e.getMessage(), e);
@@ -721,28 +727,15 @@ public class TournamentController {
         try {
             log.info("Получен запрос на отклонение команды с ID {} для турнира с ID {}", teamId, tournamentId);
             
-            // Получаем турнир с командами
-            Tournament tournament = tournamentService.getTournamentWithTeams(tournamentId);
-            
-            // Ищем нужную связь команды с турниром
-            Optional<TournamentTeam> tournamentTeamOpt = tournament.getTeams().stream()
-                .filter(tt -> tt.getTeam().getId().equals(teamId))
-                .findFirst();
-            
-            if (tournamentTeamOpt.isEmpty()) {
+            // Изменяем статус на REJECTED вместе со счетчиками мест турнира
+            try {
+                teamService.updateTeamStatus(tournamentId, teamId, TeamStatus.REJECTED);
+            } catch (ResourceNotFoundException e) {
                 log.warn("Команда с ID {} не найдена в турнире с ID {}", teamId, tournamentId);
                 return ResponseEntity.badRequest()
                         .body(Map.of("error", "Команда не найдена в этом турнире"));
             }
             
-            TournamentTeam tournamentTeam = tournamentTeamOpt.get();
-            
-            // Изменяем статус на REJECTED
-            tournamentTeam.setStatus(TeamStatus.REJECTED);
-            
-            // Сохраняем изменения
-            tournamentService.saveTournamentTeam(tournamentTeam);
-            
             log.info("Команда с ID {} успешно отклонена для турнира с ID {}", teamId, tournamentId);
             
             // Возвращаем обновленные данные команды
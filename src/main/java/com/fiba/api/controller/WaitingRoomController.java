@@ -0,0 +1,44 @@
+package com.fiba.api.controller;
+
+import com.fiba.api.service.RegistrationWaitingRoom;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Контроллер для опроса состояния очереди на регистрацию
+ */
+@RestController
+@RequestMapping("/api/waiting-room")
+@RequiredArgsConstructor
+public class WaitingRoomController {
+
+    private final RegistrationWaitingRoom waitingRoom;
+
+    /**
+     * Позиция талона в очереди и оценка времени ожидания.
+     * Опрос продлевает срок жизни талона; талоны, которые перестали опрашивать, выбывают из очереди.
+     */
+    @GetMapping("/{token}")
+    public ResponseEntity<?> getTicketStatus(@PathVariable String token) {
+        RegistrationWaitingRoom.Ticket ticket = waitingRoom.touch(token);
+        if (ticket == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(Map.of("error", "Талон не найден или истек"));
+        }
+
+        Map<String, Object> result = new HashMap<>();
+        result.put("queue_token", ticket.getToken());
+        result.put("position", waitingRoom.position(ticket));
+        result.put("eta_seconds", waitingRoom.etaSeconds(ticket));
+        result.put("admitted", ticket.isAdmitted());
+        return ResponseEntity.ok(result);
+    }
+}
@@ -0,0 +1,27 @@
+package com.fiba.api.dto;
+
+import com.fiba.api.model.TeamStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import java.util.List;
+
+/**
+ * DTO для массового обновления статуса команд турнира
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkTeamStatusRequest {
+
+    @NotEmpty(message = "Список команд не может быть пустым")
+    @Size(max = 1000, message = "За один запрос можно обновить не более 1000 команд")
+    private List<Long> teamIds;
+
+    @NotNull(message = "Статус команды обязателен")
+    private TeamStatus status;
+}
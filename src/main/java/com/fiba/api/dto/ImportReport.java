@@ -0,0 +1,55 @@
+package com.fiba.api.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Отчет о массовом импорте. Список ошибок ограничен, счетчики учитывают все строки файла.
+ */
+@Data
+public class ImportReport {
+
+    private final String kind;
+    private long rowsRead;
+    private long imported;
+    private long skipped;
+    private long failed;
+    private final Map<String, Long> created = new LinkedHashMap<>();
+    private boolean completed = true;
+    private final List<RowError> errors = new ArrayList<>();
+    private boolean errorsTruncated;
+
+    @JsonIgnore
+    private final int maxErrors;
+
+    /**
+     * Ошибка в строке файла
+     */
+    @Data
+    @AllArgsConstructor
+    public static class RowError {
+        private long line;
+        private String message;
+    }
+
+    public void fail(long line, String message) {
+        failed++;
+        if (errors.size() < maxErrors) {
+            errors.add(new RowError(line, message));
+        } else {
+            errorsTruncated = true;
+        }
+    }
+
+    public void addCreated(String entity, long count) {
+        if (count > 0) {
+            created.merge(entity, count, Long::sum);
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.fiba.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Строка выгрузки регистраций: регистрация и один из ее игроков.
+ * Строки одной регистрации идут подряд, у регистрации без игроков playerId равен null.
+ */
+@Data
+@AllArgsConstructor
+public class RegistrationExportRow {
+    private Long id;
+    private String teamName;
+    private Long tournamentId;
+    private String tournamentTitle;
+    private Long captainId;
+    private String captainName;
+    private String status;
+    private Long playerId;
+    private String playerName;
+}
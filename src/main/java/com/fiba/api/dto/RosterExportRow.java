@@ -0,0 +1,17 @@
+package com.fiba.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Строка выгрузки составов команд; столбцы team, player и email совпадают с форматом импорта
+ */
+@Data
+@AllArgsConstructor
+public class RosterExportRow {
+    private Long teamId;
+    private String team;
+    private Long playerId;
+    private String player;
+    private String email;
+}
@@ -0,0 +1,22 @@
+package com.fiba.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Строка выгрузки пользователей (проекция запроса, без загрузки сущностей)
+ */
+@Data
+@AllArgsConstructor
+public class UserExportRow {
+    private Long id;
+    private String name;
+    private String email;
+    private String role;
+    private boolean emailVerified;
+    private Long profileId;
+    private String photoUrl;
+    private Integer tournamentsPlayed;
+    private Integer totalPoints;
+    private Integer rating;
+}
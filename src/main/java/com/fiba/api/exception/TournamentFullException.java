@@ -0,0 +1,15 @@
+package com.fiba.api.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Исключение, которое выбрасывается, когда в турнире не осталось мест для команд
+ */
+@ResponseStatus(HttpStatus.CONFLICT)
+public class TournamentFullException extends RuntimeException {
+
+    public TournamentFullException(Long tournamentId) {
+        super("В турнире " + tournamentId + " не осталось мест для команд");
+    }
+}
@@ -0,0 +1,126 @@
+package com.fiba.api.filter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ограничивает число одновременно обрабатываемых запросов к API.
+ *
+ * С виртуальными потоками размер пула Tomcat больше не ограничивает параллелизм: тысячи запросов
+ * одновременно доходят до пула соединений с БД и ждут в нем до connection-timeout. Фильтр пропускает
+ * не больше max-concurrent запросов, остальные ждут место не дольше max-wait-ms и получают 503
+ * с Retry-After. Пути из excluded-paths (прокси статики, actuator, файлы) не обращаются к БД
+ * и не ограничиваются, поэтому медленный upstream не занимает места запросов к API.
+ *
+ * По умолчанию (max-concurrent=0) лимит равен двум размерам пула Hikari. Соединение запрос держит
+ * только внутри транзакции (open-in-view выключен), поэтому пока одни запросы работают с БД, другие
+ * сериализуют ответ или ждут upstream. В очереди пула при этом стоит не больше одного запроса
+ * на соединение, и ожидание в ней длится порядка одной транзакции, а не до connection-timeout.
+ *
+ * По умолчанию включается вместе с spring.threads.virtual.enabled.
+ */
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 3)
+@ConditionalOnProperty(name = "app.concurrency-limit.enabled", havingValue = "true")
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    private static final int POOL_MULTIPLIER = 2;
+
+    private final ObjectMapper objectMapper;
+    private final List<String> excludedPaths;
+    private final long maxWaitMs;
+    private final Semaphore permits;
+    private final Counter rejectedCounter;
+    private final Timer waitTimer;
+
+    public ConcurrencyLimitFilter(ObjectMapper objectMapper, MeterRegistry meterRegistry,
+                                  @Value("${app.concurrency-limit.max-concurrent:0}") int configuredMaxConcurrent,
+                                  @Value("${spring.datasource.hikari.maximum-pool-size:10}") int dbPoolSize,
+                                  @Value("${app.concurrency-limit.max-wait-ms:2000}") long maxWaitMs,
+                                  @Value("${app.concurrency-limit.excluded-paths:/api/proxy/,/actuator/}")
+                                  List<String> excludedPaths) {
+        this.objectMapper = objectMapper;
+        this.excludedPaths = excludedPaths;
+        this.maxWaitMs = maxWaitMs;
+        int maxConcurrent = configuredMaxConcurrent > 0 ? configuredMaxConcurrent : dbPoolSize * POOL_MULTIPLIER;
+        // Честная очередь: при перегрузке места получают в порядке прихода, а не случайно
+        this.permits = new Semaphore(maxConcurrent, true);
+        this.rejectedCounter = Counter.builder("http.server.concurrency_limit.rejected")
+            .description("Запросы, отклоненные из-за превышения лимита одновременной обработки")
+            .register(meterRegistry);
+        this.waitTimer = Timer.builder("http.server.concurrency_limit.wait")
+            .description("Ожидание места для обработки запроса")
+            .register(meterRegistry);
+        Gauge.builder("http.server.concurrency_limit.active", permits,
+                semaphore -> maxConcurrent - semaphore.availablePermits())
+            .description("Количество запросов в обработке под лимитом")
+            .register(meterRegistry);
+        log.info("Лимит одновременной обработки запросов: {} (ожидание до {} мс), без лимита: {}",
+            maxConcurrent, maxWaitMs, excludedPaths);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI();
+        return excludedPaths.stream().anyMatch(path::startsWith);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        long start = System.nanoTime();
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(maxWaitMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        waitTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+
+        if (!acquired) {
+            rejectedCounter.increment();
+            writeRejection(response);
+            return;
+        }
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            permits.release();
+        }
+    }
+
+    private void writeRejection(HttpServletResponse response) throws IOException {
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        objectMapper.writeValue(response.getOutputStream(), Map.of(
+            "error", "Сервер перегружен, повторите запрос позже"));
+    }
+}
@@ -0,0 +1,175 @@
+package com.fiba.api.filter;
+
+import com.fiba.api.config.QueryCounter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Считает SQL-запросы и время в БД на каждый HTTP-запрос.
+ *
+ * Число запросов и время публикуются в метриках http.server.requests.sql.count и
+ * http.server.requests.sql.time с тегами method и uri (шаблон маршрута). Если один и тот же
+ * запрос повторяется не меньше repeat-threshold раз, в лог пишется предупреждение о возможном N+1.
+ * При app.query-budget.expose-headers=true (для разработки и стендов) в ответ добавляются
+ * заголовки X-Query-Count и X-Query-Time-Ms.
+ *
+ * Статистика запроса доступна в атрибуте {@link #STATS_ATTRIBUTE} - по нему тесты проверяют бюджет
+ * запросов эндпоинтов.
+ */
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@ConditionalOnProperty(name = "app.query-budget.enabled", havingValue = "true", matchIfMissing = true)
+public class QueryBudgetFilter extends OncePerRequestFilter {
+
+    public static final String QUERY_COUNT_HEADER = "X-Query-Count";
+    public static final String QUERY_TIME_HEADER = "X-Query-Time-Ms";
+    public static final String STATS_ATTRIBUTE = QueryBudgetFilter.class.getName() + ".STATS";
+
+    private final MeterRegistry meterRegistry;
+    private final boolean exposeHeaders;
+    private final int warnThreshold;
+    private final int repeatThreshold;
+
+    public QueryBudgetFilter(MeterRegistry meterRegistry,
+                             @Value("${app.query-budget.expose-headers:false}") boolean exposeHeaders,
+                             @Value("${app.query-budget.warn-threshold:50}") int warnThreshold,
+                             @Value("${app.query-budget.repeat-threshold:10}") int repeatThreshold) {
+        this.meterRegistry = meterRegistry;
+        this.exposeHeaders = exposeHeaders;
+        this.warnThreshold = warnThreshold;
+        this.repeatThreshold = repeatThreshold;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        QueryCounter.Stats stats = QueryCounter.start();
+        request.setAttribute(STATS_ATTRIBUTE, stats);
+        HeaderWritingResponse wrapped = exposeHeaders ? new HeaderWritingResponse(response, stats) : null;
+        try {
+            filterChain.doFilter(request, wrapped != null ? wrapped : response);
+        } finally {
+            QueryCounter.stop();
+            if (wrapped != null) {
+                wrapped.writeHeaders();
+            }
+            report(request, stats);
+        }
+    }
+
+    private void report(HttpServletRequest request, QueryCounter.Stats stats) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        if (pattern == null) {
+            // Статика, actuator и отклоненные безопасностью запросы: без шаблона маршрута метрики не пишем
+            return;
+        }
+        String uri = pattern.toString();
+        String method = request.getMethod();
+
+        DistributionSummary.builder("http.server.requests.sql.count")
+            .description("Число SQL-запросов на HTTP-запрос")
+            .tags("method", method, "uri", uri)
+            .register(meterRegistry)
+            .record(stats.getCount());
+        Timer.builder("http.server.requests.sql.time")
+            .description("Время выполнения SQL-запросов на HTTP-запрос")
+            .tags("method", method, "uri", uri)
+            .register(meterRegistry)
+            .record(stats.getNanos(), TimeUnit.NANOSECONDS);
+
+        Map.Entry<String, Integer> mostRepeated = stats.getMostRepeated();
+        if (mostRepeated != null && mostRepeated.getValue() >= repeatThreshold) {
+            Counter.builder("http.server.requests.sql.repeated")
+                .description("HTTP-запросы с многократным повтором одного SQL (возможный N+1)")
+                .tags("method", method, "uri", uri)
+                .register(meterRegistry)
+                .increment();
+            log.warn("Возможный N+1 в {} {}: запрос выполнен {} раз из {}: {}",
+                     method, uri, mostRepeated.getValue(), stats.getCount(), mostRepeated.getKey());
+        } else if (stats.getCount() >= warnThreshold) {
+            log.warn("{} {} выполнил {} SQL-запросов за {} мс", method, uri, stats.getCount(), stats.getMillis());
+        }
+    }
+
+    /**
+     * Добавляет заголовки со статистикой перед фиксацией ответа: после начала записи тела
+     * заголовки уже не отправить, поэтому в них попадают запросы, выполненные до этого момента.
+     */
+    private static final class HeaderWritingResponse extends HttpServletResponseWrapper {
+
+        private final QueryCounter.Stats stats;
+        private boolean written;
+
+        HeaderWritingResponse(HttpServletResponse response, QueryCounter.Stats stats) {
+            super(response);
+            this.stats = stats;
+        }
+
+        void writeHeaders() {
+            if (written || isCommitted()) {
+                return;
+            }
+            written = true;
+            setHeader(QUERY_COUNT_HEADER, String.valueOf(stats.getCount()));
+            setHeader(QUERY_TIME_HEADER, String.valueOf(stats.getMillis()));
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            writeHeaders();
+            return super.getOutputStream();
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            writeHeaders();
+            return super.getWriter();
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            writeHeaders();
+            super.flushBuffer();
+        }
+
+        @Override
+        public void sendError(int sc, String msg) throws IOException {
+            writeHeaders();
+            super.sendError(sc, msg);
+        }
+
+        @Override
+        public void sendError(int sc) throws IOException {
+            writeHeaders();
+            super.sendError(sc);
+        }
+
+        @Override
+        public void sendRedirect(String location) throws IOException {
+            writeHeaders();
+            super.sendRedirect(location);
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.fiba.api.filter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fiba.api.service.RegistrationWaitingRoom;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Пропускает запросы регистрации команд через {@link RegistrationWaitingRoom}.
+ *
+ * Выполняется до фильтров безопасности, чтобы запросы в очереди не обращались к БД даже
+ * для аутентификации. Запрос, не получивший места, получает 429 с талоном в заголовке
+ * X-Queue-Token и повторяется клиентом с этим заголовком после допуска.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 2)
+@RequiredArgsConstructor
+public class RegistrationAdmissionFilter extends OncePerRequestFilter {
+
+    public static final String QUEUE_TOKEN_HEADER = "X-Queue-Token";
+
+    private static final Pattern TOURNAMENT_REGISTER = Pattern.compile("^/api/tournaments/\\d+/register/?$");
+
+    private final RegistrationWaitingRoom waitingRoom;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        if (!waitingRoom.isEnabled() || !"POST".equalsIgnoreCase(request.getMethod())) {
+            return true;
+        }
+        String path = request.getRequestURI();
+        return !path.equals("/api/registrations") && !path.equals("/api/registrations/")
+                && !TOURNAMENT_REGISTER.matcher(path).matches();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String token = request.getHeader(QUEUE_TOKEN_HEADER);
+
+        if (waitingRoom.tryAdmit(token)) {
+            proceed(request, response, filterChain);
+            return;
+        }
+
+        RegistrationWaitingRoom.Ticket ticket = waitingRoom.touch(token);
+        if (ticket == null) {
+            ticket = waitingRoom.enqueue();
+            if (ticket == null) {
+                writeResponse(response, HttpStatus.SERVICE_UNAVAILABLE, 5, Map.of(
+                    "error", "Слишком много желающих зарегистрироваться, попробуйте позже"));
+                return;
+            }
+            // Место могло освободиться, пока талон вставал в очередь
+            if (waitingRoom.tryAdmit(ticket.getToken())) {
+                proceed(request, response, filterChain);
+                return;
+            }
+        }
+
+        long eta = waitingRoom.etaSeconds(ticket);
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("error", "Вы в очереди на регистрацию");
+        body.put("queue_token", ticket.getToken());
+        body.put("position", waitingRoom.position(ticket));
+        body.put("eta_seconds", eta);
+        body.put("admitted", ticket.isAdmitted());
+        response.setHeader(QUEUE_TOKEN_HEADER, ticket.getToken());
+        writeResponse(response, HttpStatus.TOO_MANY_REQUESTS, ticket.isAdmitted() ? 0 : Math.max(1, Math.min(eta, 5)), body);
+    }
+
+    private void proceed(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        long start = System.currentTimeMillis();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            waitingRoom.release(System.currentTimeMillis() - start);
+        }
+    }
+
+    private void writeResponse(HttpServletResponse response, HttpStatus status, long retryAfterSeconds,
+                               Map<String, Object> body) throws IOException {
+        response.setStatus(status.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        objectMapper.writeValue(response.getOutputStream(), body);
+    }
+}
@@ -36,8 +36,8 @@ public class SimpleCorsFilter implements Filter {
         response.setHeader("Access-Control-Allow-Credentials", "true");
         response.setHeader("Access-Control-Allow-Methods", "GET, POST, PUT, DELETE, OPTIONS");
         response.setHeader("Access-Control-Max-Age", "3600");
-        response.setHeader("Access-Control-Allow-Headers", "Origin, X-Requested-With, Content-Type, Accept, Authorization, Cache-Control, X-Auth-Token");
-        response.setHeader("Access-Control-Expose-Headers", "Authorization");
+        response.setHeader("Access-Control-Allow-Headers", "Origin, X-Requested-With, Content-Type, Accept, Authorization, Cache-Control, X-Auth-Token, X-Queue-Token");
+        response.setHeader("Access-Control-Expose-Headers", "Authorization, X-Queue-Token, Retry-After");
 
         // Для предварительных запросов OPTIONS сразу возвращаем ответ 200 OK
         if ("OPTIONS".equalsIgnoreCase(request.getMethod())) {
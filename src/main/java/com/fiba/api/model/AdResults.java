@@ -19,7 +19,8 @@ import java.time.LocalDateTime;
 public class AdResults {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "ad_results_seq")
+    @SequenceGenerator(name = "ad_results_seq", sequenceName = "ad_results_seq", allocationSize = 50)
     private Long id;
 
     @OneToOne
@@ -3,10 +3,21 @@ package com.fiba.api.model;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
+import jakarta.persistence.CollectionTable;
+import jakarta.persistence.ElementCollection;
 import jakarta.persistence.Entity;
 import jakarta.persistence.Id;
 import jakarta.persistence.Column;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.MapKeyColumn;
+import jakarta.persistence.Version;
 
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Флаги функций. Запросы читают их из снимка FeatureFlagService, а не из БД
+ */
 @Data
 @Entity
 @NoArgsConstructor
@@ -36,4 +47,21 @@ public class FeatureFlags {
 
     @Column(nullable = false)
     private boolean experimentalRegistration = false;
+
+    /**
+     * Версия флагов: растет при каждом изменении, по ней узлы обновляют снимок, а клиенты - ETag
+     */
+    @Version
+    @Column(nullable = false)
+    private long version;
+
+    /**
+     * Постепенное включение: имя флага -> процент пользователей, которым включенный флаг виден
+     * (флаги без записи видны всем)
+     */
+    @ElementCollection
+    @CollectionTable(name = "feature_flag_rollouts", joinColumns = @JoinColumn(name = "feature_flags_id"))
+    @MapKeyColumn(name = "flag")
+    @Column(name = "percentage", nullable = false)
+    private Map<String, Integer> rollouts = new HashMap<>();
 } 
\ No newline at end of file
@@ -1,9 +1,12 @@
 package com.fiba.api.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
@@ -13,14 +16,18 @@ import java.util.List;
  * Модель данных для игрока
  */
 @Entity
-@Table(name = "players")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "players")
+@Table(name = "players", indexes = {
+    @Index(name = "idx_player_name", columnList = "name")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Player {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "players_seq")
+    @SequenceGenerator(name = "players_seq", sequenceName = "players_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
@@ -30,6 +37,14 @@ public class Player {
 
     private Integer rating = 0;
 
+    /**
+     * Пользователь, которому соответствует игрок
+     */
+    @JsonIgnore
+    @OneToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", unique = true)
+    private User user;
+
     @ManyToMany(mappedBy = "players")
     private List<Team> teams = new ArrayList<>();
 
@@ -4,6 +4,8 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
@@ -13,14 +15,18 @@ import java.util.List;
  * Модель данных для команды
  */
 @Entity
-@Table(name = "teams")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "teams")
+@Table(name = "teams", indexes = {
+    @Index(name = "idx_team_name", columnList = "name")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Team {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "teams_seq")
+    @SequenceGenerator(name = "teams_seq", sequenceName = "teams_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
@@ -41,6 +47,7 @@ public class Team {
     private List<TournamentTeam> tournaments = new ArrayList<>();
 
     @ManyToMany
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "teams.players")
     @JoinTable(
         name = "team_players",
         joinColumns = @JoinColumn(name = "team_id"),
@@ -7,5 +7,6 @@ public enum TeamStatus {
     PENDING,    // Ожидает подтверждения
     APPROVED,   // Подтверждена
     REJECTED,   // Отклонена
-    COMPLETED   // Завершила участие
+    COMPLETED,  // Завершила участие
+    WAITLISTED  // В листе ожидания: мест в турнире нет
 } 
\ No newline at end of file
@@ -6,6 +6,9 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
@@ -19,10 +22,12 @@ import java.util.List;
  * Модель данных для турнира
  */
 @Entity
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "tournaments")
 @Table(name = "tournaments", indexes = {
     @Index(name = "idx_tournament_date", columnList = "date"),
     @Index(name = "idx_tournament_status", columnList = "status"),
-    @Index(name = "idx_tournament_level", columnList = "level")
+    @Index(name = "idx_tournament_level", columnList = "level"),
+    @Index(name = "idx_tournament_name", columnList = "name")
 })
 @Data
 @Builder
@@ -31,7 +36,8 @@ import java.util.List;
 public class Tournament {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "tournaments_seq")
+    @SequenceGenerator(name = "tournaments_seq", sequenceName = "tournaments_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
@@ -63,6 +69,32 @@ public class Tournament {
 
     private Integer maxTeams;
 
+    /**
+     * Количество команд, занимающих место в турнире (все, кроме отклоненных).
+     * Изменяется только атомарными запросами TournamentRepository, поэтому не участвует
+     * в INSERT/UPDATE сущности и не может быть перезаписано устаревшим значением.
+     */
+    @Column(name = "registered_teams", nullable = false, insertable = false, updatable = false)
+    @ColumnDefault("0")
+    @Builder.Default
+    private Integer registeredTeams = 0;
+
+    /**
+     * Количество подтвержденных команд. Изменяется так же, как registeredTeams.
+     */
+    @Column(name = "approved_teams", nullable = false, insertable = false, updatable = false)
+    @ColumnDefault("0")
+    @Builder.Default
+    private Integer approvedTeams = 0;
+
+    /**
+     * Количество команд в листе ожидания. Изменяется так же, как registeredTeams.
+     */
+    @Column(name = "waitlisted_teams", nullable = false, insertable = false, updatable = false)
+    @ColumnDefault("0")
+    @Builder.Default
+    private Integer waitlistedTeams = 0;
+
     private Double entryFee;
 
     private String prizePool;
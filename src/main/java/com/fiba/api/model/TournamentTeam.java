@@ -1,5 +1,6 @@
 package com.fiba.api.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.*;
 
@@ -9,14 +10,18 @@ import java.time.LocalDateTime;
  * Модель данных для связи команды с турниром
  */
 @Entity
-@Table(name = "tournament_teams")
+@Table(name = "tournament_teams", indexes = {
+    @Index(name = "idx_tournament_teams_waitlist", columnList = "tournament_id, waitlist_position"),
+    @Index(name = "idx_tournament_teams_registration", columnList = "registration_id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class TournamentTeam {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "tournament_teams_seq")
+    @SequenceGenerator(name = "tournament_teams_seq", sequenceName = "tournament_teams_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne
@@ -33,6 +38,21 @@ public class TournamentTeam {
 
     private Integer position; // Финальная позиция команды в турнире
 
+    /**
+     * Позиция в листе ожидания (1 — следующая на повышение), null для команд вне листа.
+     * Поддерживается при каждом изменении листа, поэтому чтение позиции не требует подсчета.
+     */
+    @Column(name = "waitlist_position")
+    private Integer waitlistPosition;
+
+    /**
+     * Заявка, по которой команда попала в турнир (если команда зарегистрирована через заявку)
+     */
+    @JsonIgnore
+    @OneToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "registration_id")
+    private Registration registration;
+
     @Column(name = "registration_date")
     private LocalDateTime registrationDate;
 
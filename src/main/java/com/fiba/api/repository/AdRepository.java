@@ -8,6 +8,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -31,4 +32,12 @@ public interface AdRepository extends JpaRepository<Ad, Long> {
      */
     @Query(value = "SELECT * FROM ads ORDER BY RANDOM() LIMIT :limit", nativeQuery = true)
     List<Ad> findRandomActiveAds(@Param("limit") int limit);
+
+    /**
+     * Из переданных URL возвращает те, что используются как изображение рекламы
+     * @param urls проверяемые URL файлов
+     * @return используемые URL
+     */
+    @Query("SELECT a.imageUrl FROM Ad a WHERE a.imageUrl IN :urls")
+    List<String> findReferencedImageUrls(@Param("urls") Collection<String> urls);
 } 
\ No newline at end of file
@@ -2,8 +2,24 @@ package com.fiba.api.repository;
 
 import com.fiba.api.model.FeatureFlags;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Optional;
+
 @Repository
 public interface FeatureFlagRepository extends JpaRepository<FeatureFlags, String> {
-} 
\ No newline at end of file
+
+    /**
+     * Флаги вместе с процентами постепенного включения, одним запросом
+     */
+    @Query("SELECT f FROM FeatureFlags f LEFT JOIN FETCH f.rollouts WHERE f.id = :id")
+    Optional<FeatureFlags> findWithRolloutsById(@Param("id") String id);
+
+    /**
+     * Только версия флагов: по ней узел проверяет, не устарел ли его снимок
+     */
+    @Query("SELECT f.version FROM FeatureFlags f WHERE f.id = :id")
+    Optional<Long> findVersionById(@Param("id") String id);
+}
@@ -2,11 +2,35 @@ package com.fiba.api.repository;
 
 import com.fiba.api.model.Player;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface PlayerRepository extends JpaRepository<Player, Long> {
     Optional<Player> findByName(String name);
+
+    /**
+     * Поиск игроков, связанных с пользователями из списка, одним запросом
+     */
+    @Query("SELECT p FROM Player p WHERE p.user.id IN :userIds")
+    List<Player> findByUserIdIn(@Param("userIds") Collection<Long> userIds);
+
+    /**
+     * Поиск игроков, созданных до привязки к пользователям, по именам
+     */
+    @Query("SELECT p FROM Player p WHERE p.user IS NULL AND p.name IN :names")
+    List<Player> findUnlinkedByNameIn(@Param("names") Collection<String> names);
+
+    /**
+     * Поиск игроков по точным именам (по индексу idx_player_name)
+     */
+    List<Player> findByNameIn(Collection<String> names);
+
+    @Query("SELECT p.photoUrl FROM Player p WHERE p.photoUrl IN :urls")
+    List<String> findReferencedPhotoUrls(@Param("urls") Collection<String> urls);
 } 
\ No newline at end of file
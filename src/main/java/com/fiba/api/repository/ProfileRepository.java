@@ -3,12 +3,32 @@ package com.fiba.api.repository;
 import com.fiba.api.model.Profile;
 import com.fiba.api.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface ProfileRepository extends JpaRepository<Profile, Long> {
     Optional<Profile> findByUser(User user);
     Optional<Profile> findByUserId(Long userId);
+
+    /**
+     * Из переданных URL возвращает те, что используются как фото профиля
+     * @param urls проверяемые URL файлов
+     * @return используемые URL
+     */
+    @Query("SELECT p.photoUrl FROM Profile p WHERE p.photoUrl IN :urls")
+    List<String> findReferencedPhotoUrls(@Param("urls") Collection<String> urls);
+
+    /**
+     * Из переданных URL возвращает те, что используются как аватар
+     * @param urls проверяемые URL файлов
+     * @return используемые URL
+     */
+    @Query("SELECT p.avatarUrl FROM Profile p WHERE p.avatarUrl IN :urls")
+    List<String> findReferencedAvatarUrls(@Param("urls") Collection<String> urls);
 } 
\ No newline at end of file
@@ -1,14 +1,23 @@
 package com.fiba.api.repository;
 
+import com.fiba.api.dto.RegistrationExportRow;
 import com.fiba.api.model.Registration;
+import com.fiba.api.model.TeamStatus;
 import com.fiba.api.model.Tournament;
 import com.fiba.api.model.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface RegistrationRepository extends JpaRepository<Registration, Long> {
@@ -26,6 +35,14 @@ public interface RegistrationRepository extends JpaRepository<Registration, Long
     
     Optional<Registration> findByTournamentAndTeamName(Tournament tournament, String teamName);
 
+    /**
+     * Турнир заявки без загрузки самой заявки: нужен, чтобы заблокировать турнир до чтения заявки
+     * @param id ID регистрации
+     * @return ID турнира или пустое значение, если заявка не найдена
+     */
+    @Query("SELECT r.tournament.id FROM Registration r WHERE r.id = :id")
+    Optional<Long> findTournamentIdById(@Param("id") Long id);
+
     /**
      * Найти регистрацию с игроками по ID
      * @param registrationId ID регистрации
@@ -34,5 +51,60 @@ public interface RegistrationRepository extends JpaRepository<Registration, Long
     @Query("SELECT DISTINCT r FROM Registration r LEFT JOIN FETCH r.players WHERE r.id = :registrationId")
     Optional<Registration> loadRegistrationWithPlayers(Long registrationId);
 
+    /**
+     * Загрузить все регистрации с игроками и их профилями. В той же сессии заполняет составы
+     * регистраций, уже загруженных через {@link TournamentRepository#findAllWithRegistrations()}.
+     * @return регистрации с игроками
+     */
+    @Query("SELECT DISTINCT r FROM Registration r LEFT JOIN FETCH r.players p LEFT JOIN FETCH p.profile")
+    List<Registration> findAllWithPlayers();
+
     boolean existsByTeamNameAndTournamentId(String teamName, Long tournamentId);
-} 
\ No newline at end of file
+
+    /**
+     * Обновляет статус заявок, по которым указанные команды попали в турнир
+     * @param tournamentId ID турнира
+     * @param teamIds ID команд
+     * @param from статусы участия, заявки которых обновляются
+     * @param status новый статус заявок
+     * @return количество обновленных заявок
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Registration r SET r.status = :status WHERE r.id IN " +
+           "(SELECT tt.registration.id FROM TournamentTeam tt WHERE tt.tournament.id = :tournamentId " +
+           "AND tt.team.id IN :teamIds AND tt.status IN :from)")
+    int updateStatusByTeamIds(@Param("tournamentId") Long tournamentId,
+                              @Param("teamIds") Collection<Long> teamIds,
+                              @Param("from") Collection<TeamStatus> from,
+                              @Param("status") String status);
+
+    /**
+     * Обновляет статус заявок первых count команд листа ожидания
+     * @param tournamentId ID турнира
+     * @param waitlisted статус команд листа ожидания
+     * @param count количество команд
+     * @param status новый статус заявок
+     * @return количество обновленных заявок
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Registration r SET r.status = :status WHERE r.id IN " +
+           "(SELECT tt.registration.id FROM TournamentTeam tt WHERE tt.tournament.id = :tournamentId " +
+           "AND tt.status = :waitlisted AND tt.waitlistPosition <= :count)")
+    int updateStatusForWaitlistHead(@Param("tournamentId") Long tournamentId,
+                                    @Param("waitlisted") TeamStatus waitlisted,
+                                    @Param("count") int count,
+                                    @Param("status") String status);
+
+    /**
+     * Потоковое чтение регистраций с игроками для выгрузки, по строке на игрока.
+     * Поток нужно закрыть и прочитать внутри транзакции.
+     *
+     * @param tournamentId турнир или null для всех турниров
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT new com.fiba.api.dto.RegistrationExportRow(r.id, r.teamName, t.id, t.name, c.id, c.name, " +
+           "r.status, pl.id, pl.name) " +
+           "FROM Registration r JOIN r.tournament t JOIN r.captain c LEFT JOIN r.players pl " +
+           "WHERE (:tournamentId IS NULL OR t.id = :tournamentId) ORDER BY r.id, pl.id")
+    Stream<RegistrationExportRow> streamForExport(@Param("tournamentId") Long tournamentId);
+}
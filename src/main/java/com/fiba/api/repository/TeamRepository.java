@@ -1,11 +1,20 @@
 package com.fiba.api.repository;
 
+import com.fiba.api.dto.RosterExportRow;
 import com.fiba.api.model.Team;
+import com.fiba.api.model.TeamStatus;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * Репозиторий для работы с командами
@@ -21,12 +30,64 @@ public interface TeamRepository extends JpaRepository<Team, Long> {
      */
     List<Team> findByNameContainingIgnoreCase(String name);
 
+    /**
+     * Поиск команд по точным именам вместе с составами
+     *
+     * @param names имена команд
+     * @return найденные команды, более ранние первыми
+     */
+    @Query("SELECT DISTINCT t FROM Team t LEFT JOIN FETCH t.players WHERE t.name IN :names ORDER BY t.id")
+    List<Team> findByNameInWithPlayers(@Param("names") Collection<String> names);
+
+    /**
+     * Загрузка команд вместе с составами одним запросом
+     *
+     * @param ids ID команд
+     * @return найденные команды
+     */
+    @Query("SELECT DISTINCT t FROM Team t LEFT JOIN FETCH t.players WHERE t.id IN :ids")
+    List<Team> findByIdInWithPlayers(@Param("ids") Collection<Long> ids);
+
     /**
      * Поиск топ команд по рейтингу
      * 
      * @param limit максимальное количество команд
      * @return список топ команд
      */
-    @Query("SELECT t FROM Team t ORDER BY t.totalPoints DESC")
-    List<Team> findTopTeamsByRating(int limit);
-} 
\ No newline at end of file
+    @Query("SELECT t FROM Team t ORDER BY t.totalPoints DESC LIMIT :limit")
+    List<Team> findTopTeamsByRating(@Param("limit") int limit);
+
+    /**
+     * Из переданных URL возвращает те, что используются как логотип команды
+     *
+     * @param urls проверяемые URL файлов
+     * @return используемые URL
+     */
+    @Query("SELECT t.logo FROM Team t WHERE t.logo IN :urls")
+    List<String> findReferencedLogos(@Param("urls") Collection<String> urls);
+
+    /**
+     * Увеличивает счетчик сыгранных турниров у команд турнира, находящихся в указанном статусе
+     *
+     * @param tournamentId идентификатор турнира
+     * @param teamIds идентификаторы команд
+     * @param status статус участия, при котором счетчик увеличивается
+     * @return количество обновленных команд
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Team t SET t.tournamentsPlayed = COALESCE(t.tournamentsPlayed, 0) + 1 WHERE t.id IN " +
+           "(SELECT tt.team.id FROM TournamentTeam tt WHERE tt.tournament.id = :tournamentId " +
+           "AND tt.team.id IN :teamIds AND tt.status = :status)")
+    int incrementTournamentsPlayed(@Param("tournamentId") Long tournamentId,
+                                   @Param("teamIds") Collection<Long> teamIds,
+                                   @Param("status") TeamStatus status);
+
+    /**
+     * Потоковое чтение составов команд для выгрузки, по строке на игрока команды.
+     * Поток нужно закрыть и прочитать внутри транзакции.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT new com.fiba.api.dto.RosterExportRow(t.id, t.name, p.id, p.name, u.email) " +
+           "FROM Team t JOIN t.players p LEFT JOIN p.user u ORDER BY t.id, p.id")
+    Stream<RosterExportRow> streamRostersForExport();
+}
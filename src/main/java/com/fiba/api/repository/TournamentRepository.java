@@ -2,13 +2,19 @@ package com.fiba.api.repository;
 
 import com.fiba.api.model.Tournament;
 import com.fiba.api.model.TournamentStatus;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -18,6 +24,13 @@ import java.util.Optional;
 @Repository
 public interface TournamentRepository extends JpaRepository<Tournament, Long> {
 
+    /**
+     * Пространство запросов для UPDATE счетчиков команд. Оно не совпадает с таблицей tournaments,
+     * поэтому Hibernate не вытесняет регион турниров целиком: вызывающий код убирает из кэша
+     * только измененный турнир (см. TournamentCapacityService)
+     */
+    String COUNTERS_SPACE = "tournament_counters";
+
     /**
      * Поиск предстоящих турниров
      * 
@@ -63,6 +76,8 @@ public interface TournamentRepository extends JpaRepository<Tournament, Long> {
     
     @Query("SELECT t FROM Tournament t WHERE LOWER(t.name) LIKE LOWER(CONCAT('%', :searchTerm, '%'))")
     List<Tournament> searchByTitle(@Param("searchTerm") String searchTerm);
+
+    List<Tournament> findByNameIn(Collection<String> names);
     
     /**
      * Получить турнир по ID с загрузкой всех регистраций команд
@@ -71,4 +86,158 @@ public interface TournamentRepository extends JpaRepository<Tournament, Long> {
      */
     @Query("SELECT DISTINCT t FROM Tournament t LEFT JOIN FETCH t.registrations r LEFT JOIN FETCH r.captain WHERE t.id = :id")
     Optional<Tournament> findByIdWithRegistrations(@Param("id") Long id);
+
+    /**
+     * Получить все турниры с регистрациями и капитанами (вместе с профилями капитанов:
+     * обратная связь one-to-one иначе подгружается отдельным запросом на пользователя)
+     * @return турниры с загруженными регистрациями
+     */
+    @Query("SELECT DISTINCT t FROM Tournament t LEFT JOIN FETCH t.registrations r " +
+           "LEFT JOIN FETCH r.captain c LEFT JOIN FETCH c.profile")
+    List<Tournament> findAllWithRegistrations();
+
+    /**
+     * Получить турнир по ID с командами
+     * @param id ID турнира
+     * @return турнир с загруженными командами
+     */
+    @Query("SELECT DISTINCT t FROM Tournament t LEFT JOIN FETCH t.teams tt LEFT JOIN FETCH tt.team WHERE t.id = :id")
+    Optional<Tournament> findByIdWithTeams(@Param("id") Long id);
+
+    /**
+     * Атомарно занимает место для команды, если лимит турнира не исчерпан.
+     * Условие проверяется и счетчик увеличивается одним UPDATE под блокировкой строки,
+     * поэтому при любом числе параллельных запросов мест выдается не больше maxTeams.
+     * @param id ID турнира
+     * @return 1, если место занято, 0 — если мест нет или турнир не найден
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = COUNTERS_SPACE))
+    @Query(value = "UPDATE tournaments SET registered_teams = registered_teams + 1 " +
+           "WHERE id = :id AND (max_teams IS NULL OR registered_teams < max_teams)",
+           nativeQuery = true)
+    int tryReserveTeamSlot(@Param("id") Long id);
+
+    /**
+     * Занимает место для новой команды так же, как {@link #tryReserveTeamSlot(Long)}, но только если
+     * лист ожидания пуст: новая команда не может занять место раньше команд, уже стоящих в очереди
+     * @param id ID турнира
+     * @param ownWaitlisted сколько команд в листе ожидания поставлено туда этой же транзакцией
+     *                      и не должно мешать занять место
+     * @return 1, если место занято, 0 — если мест нет, лист ожидания не пуст или турнир не найден
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = COUNTERS_SPACE))
+    @Query(value = "UPDATE tournaments SET registered_teams = registered_teams + 1 " +
+           "WHERE id = :id AND waitlisted_teams = :ownWaitlisted " +
+           "AND (max_teams IS NULL OR registered_teams < max_teams)",
+           nativeQuery = true)
+    int tryReserveTeamSlotIfWaitlistEmpty(@Param("id") Long id, @Param("ownWaitlisted") int ownWaitlisted);
+
+    /**
+     * Изменяет счетчики команд турнира на указанные величины
+     * @param id ID турнира
+     * @param registeredDelta изменение числа занятых мест
+     * @param approvedDelta изменение числа подтвержденных команд
+     * @return количество обновленных строк
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = COUNTERS_SPACE))
+    @Query(value = "UPDATE tournaments SET registered_teams = registered_teams + :registeredDelta, " +
+           "approved_teams = approved_teams + :approvedDelta WHERE id = :id",
+           nativeQuery = true)
+    int adjustTeamCounts(@Param("id") Long id,
+                         @Param("registeredDelta") int registeredDelta,
+                         @Param("approvedDelta") int approvedDelta);
+
+    /**
+     * Изменяет размер листа ожидания турнира. Запрос блокирует строку турнира до конца транзакции,
+     * поэтому изменения листа ожидания одного турнира выполняются последовательно.
+     * @param id ID турнира
+     * @param delta изменение числа команд в листе ожидания
+     * @return количество обновленных строк
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = COUNTERS_SPACE))
+    @Query(value = "UPDATE tournaments SET waitlisted_teams = waitlisted_teams + :delta WHERE id = :id",
+           nativeQuery = true)
+    int adjustWaitlistedTeams(@Param("id") Long id, @Param("delta") int delta);
+
+    /**
+     * Текущий размер листа ожидания турнира
+     * @param id ID турнира
+     * @return количество команд в листе ожидания
+     */
+    @Query("SELECT t.waitlistedTeams FROM Tournament t WHERE t.id = :id")
+    int getWaitlistedTeams(@Param("id") Long id);
+
+    /**
+     * Количество свободных мест в турнире
+     * @param id ID турнира
+     * @return свободные места или null, если количество команд не ограничено
+     */
+    @Query("SELECT t.maxTeams - t.registeredTeams FROM Tournament t WHERE t.id = :id")
+    Integer getFreeTeamSlots(@Param("id") Long id);
+
+    /**
+     * Блокирует строку турнира до конца транзакции, чтобы изменения команд турнира
+     * выполнялись последовательно. Блокировка той же силы, что у UPDATE счетчиков (FOR NO KEY UPDATE),
+     * поэтому не ждет вставок, ссылающихся на турнир внешним ключом
+     * @param id ID турнира
+     * @return ID турнира или пустое значение, если турнир не найден
+     */
+    @Query(value = "SELECT id FROM tournaments WHERE id = :id FOR NO KEY UPDATE", nativeQuery = true)
+    Optional<Long> lockById(@Param("id") Long id);
+
+    /**
+     * Пересчитывает счетчики команд всех турниров по таблице tournament_teams без блокировок.
+     * Только для базы без параллельных регистраций (генерация данных). Вытесняет из кэша
+     * второго уровня весь регион турниров (но не остальные регионы)
+     * @return количество обновленных турниров
+     */
+    @Modifying
+    @Transactional
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "tournaments"))
+    @Query(value = "UPDATE tournaments t SET " +
+           "registered_teams = (SELECT COUNT(*) FROM tournament_teams tt WHERE tt.tournament_id = t.id AND tt.status NOT IN ('REJECTED', 'WAITLISTED')), " +
+           "approved_teams = (SELECT COUNT(*) FROM tournament_teams tt WHERE tt.tournament_id = t.id AND tt.status IN ('APPROVED', 'COMPLETED')), " +
+           "waitlisted_teams = (SELECT COUNT(*) FROM tournament_teams tt WHERE tt.tournament_id = t.id AND tt.status = 'WAITLISTED')",
+           nativeQuery = true)
+    int recalculateTeamCounts();
+
+    /**
+     * Пересчитывает счетчики команд одного турнира по таблице tournament_teams.
+     * Строка турнира должна быть заблокирована (lockById) предыдущим запросом той же транзакции:
+     * подсчет видит только изменения, зафиксированные до начала запроса
+     * @param id ID турнира
+     * @return количество обновленных турниров
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = COUNTERS_SPACE))
+    @Query(value = "UPDATE tournaments t SET " +
+           "registered_teams = (SELECT COUNT(*) FROM tournament_teams tt WHERE tt.tournament_id = t.id AND tt.status NOT IN ('REJECTED', 'WAITLISTED')), " +
+           "approved_teams = (SELECT COUNT(*) FROM tournament_teams tt WHERE tt.tournament_id = t.id AND tt.status IN ('APPROVED', 'COMPLETED')), " +
+           "waitlisted_teams = (SELECT COUNT(*) FROM tournament_teams tt WHERE tt.tournament_id = t.id AND tt.status = 'WAITLISTED') " +
+           "WHERE t.id = :id",
+           nativeQuery = true)
+    int recalculateTeamCounts(@Param("id") Long id);
+
+    @Query("SELECT t.id FROM Tournament t ORDER BY t.id")
+    List<Long> findAllIds();
+
+    /**
+     * Из переданных URL возвращает те, что используются как изображение турнира
+     * @param urls проверяемые URL файлов
+     * @return используемые URL
+     */
+    @Query("SELECT t.imageUrl FROM Tournament t WHERE t.imageUrl IN :urls")
+    List<String> findReferencedImageUrls(@Param("urls") Collection<String> urls);
+
+    /**
+     * Из переданных URL возвращает те, что используются как логотип спонсора
+     * @param urls проверяемые URL файлов
+     * @return используемые URL
+     */
+    @Query("SELECT t.sponsorLogo FROM Tournament t WHERE t.sponsorLogo IN :urls")
+    List<String> findReferencedSponsorLogos(@Param("urls") Collection<String> urls);
 } 
\ No newline at end of file
@@ -3,8 +3,12 @@ package com.fiba.api.repository;
 import com.fiba.api.model.TournamentTeam;
 import com.fiba.api.model.TeamStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -47,4 +51,104 @@ public interface TournamentTeamRepository extends JpaRepository<TournamentTeam,
      * @return список всех турниров команды
      */
     List<TournamentTeam> findByTeamId(Long teamId);
+
+    /**
+     * Поиск участия команды по заявке
+     * 
+     * @param registrationId идентификатор заявки
+     * @return связь турнира и команды, созданная по заявке
+     */
+    Optional<TournamentTeam> findByRegistrationId(Long registrationId);
+
+    /**
+     * Сдвигает к началу листа ожидания команды, стоящие за освободившейся позицией
+     * 
+     * @param tournamentId идентификатор турнира
+     * @param position освободившаяся позиция
+     * @return количество сдвинутых команд
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE TournamentTeam tt SET tt.waitlistPosition = tt.waitlistPosition - 1 " +
+           "WHERE tt.tournament.id = :tournamentId AND tt.waitlistPosition > :position")
+    int shiftWaitlist(@Param("tournamentId") Long tournamentId, @Param("position") int position);
+
+    /**
+     * Количество указанных команд турнира в каждом статусе
+     * 
+     * @param tournamentId идентификатор турнира
+     * @param teamIds идентификаторы команд
+     * @return пары [статус, количество]
+     */
+    @Query("SELECT tt.status, COUNT(tt) FROM TournamentTeam tt " +
+           "WHERE tt.tournament.id = :tournamentId AND tt.team.id IN :teamIds GROUP BY tt.status")
+    List<Object[]> countStatusesByTeamIds(@Param("tournamentId") Long tournamentId,
+                                          @Param("teamIds") Collection<Long> teamIds);
+
+    /**
+     * Переводит указанные команды турнира из допустимых статусов в новый одним запросом
+     * 
+     * @param tournamentId идентификатор турнира
+     * @param teamIds идентификаторы команд
+     * @param from статусы, из которых разрешен переход
+     * @param to новый статус
+     * @return количество обновленных записей
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE TournamentTeam tt SET tt.status = :to, tt.waitlistPosition = NULL " +
+           "WHERE tt.tournament.id = :tournamentId AND tt.team.id IN :teamIds AND tt.status IN :from")
+    int updateStatusByTeamIds(@Param("tournamentId") Long tournamentId,
+                              @Param("teamIds") Collection<Long> teamIds,
+                              @Param("from") Collection<TeamStatus> from,
+                              @Param("to") TeamStatus to);
+
+    /**
+     * Переводит первые count команд листа ожидания в указанный статус
+     * 
+     * @param tournamentId идентификатор турнира
+     * @param waitlisted статус команд листа ожидания
+     * @param to новый статус
+     * @param count количество повышаемых команд
+     * @return количество обновленных записей
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE TournamentTeam tt SET tt.status = :to, tt.waitlistPosition = NULL " +
+           "WHERE tt.tournament.id = :tournamentId AND tt.status = :waitlisted AND tt.waitlistPosition <= :count")
+    int promoteWaitlistHead(@Param("tournamentId") Long tournamentId,
+                            @Param("waitlisted") TeamStatus waitlisted,
+                            @Param("to") TeamStatus to,
+                            @Param("count") int count);
+
+    /**
+     * Сдвигает весь лист ожидания турнира к началу на count позиций
+     * 
+     * @param tournamentId идентификатор турнира
+     * @param count величина сдвига
+     * @return количество сдвинутых команд
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE TournamentTeam tt SET tt.waitlistPosition = tt.waitlistPosition - :count " +
+           "WHERE tt.tournament.id = :tournamentId AND tt.waitlistPosition IS NOT NULL")
+    int shiftWaitlistBy(@Param("tournamentId") Long tournamentId, @Param("count") int count);
+
+    /**
+     * Перенумеровывает лист ожидания турнира без пропусков после удаления из него нескольких команд
+     * 
+     * @param tournamentId идентификатор турнира
+     * @return количество перенумерованных команд
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE TournamentTeam tt SET tt.waitlistPosition = " +
+           "(SELECT COUNT(o) FROM TournamentTeam o WHERE o.tournament.id = :tournamentId " +
+           "AND o.waitlistPosition IS NOT NULL AND o.waitlistPosition <= tt.waitlistPosition) " +
+           "WHERE tt.tournament.id = :tournamentId AND tt.waitlistPosition IS NOT NULL")
+    int renumberWaitlist(@Param("tournamentId") Long tournamentId);
+
+    /**
+     * Позиция заявки в листе ожидания
+     * 
+     * @param registrationId идентификатор заявки
+     * @return позиция или пустое значение, если команда не в листе ожидания
+     */
+    @Query("SELECT tt.waitlistPosition FROM TournamentTeam tt WHERE tt.registration.id = :registrationId")
+    Optional<Integer> findWaitlistPositionByRegistrationId(@Param("registrationId") Long registrationId);
 } 
\ No newline at end of file
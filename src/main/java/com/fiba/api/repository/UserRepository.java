@@ -1,13 +1,19 @@
 package com.fiba.api.repository;
 
+import com.fiba.api.dto.UserExportRow;
 import com.fiba.api.model.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
@@ -30,35 +36,65 @@ public interface UserRepository extends JpaRepository<User, Long> {
     
     /**
      * Поиск пользователей по имени или email, содержащим искомую строку (без учета регистра)
-     * Учитывает язык ввода (кириллица/латиница)
+     * Учитывает язык ввода (кириллица/латиница).
+     * ILIKE стоит вне CASE: так триграммные индексы по name и email используются и в общем плане
+     * подготовленного запроса, где CASE по значению параметра не сворачивается
      * @param query строка для поиска
      * @return список пользователей, соответствующих критериям поиска
      */
     @Query(value = """
            SELECT * FROM users u 
-           WHERE CASE 
+           WHERE (u.name ILIKE '%' || :query || '%' AND CASE 
                WHEN :query ~ '^[А-Яа-яЁё\\s]+$' THEN 
                    -- Если запрос на кириллице, ищем только в именах на кириллице
-                   u.name ~ '^[А-Яа-яЁё\\s]+$' AND 
-                   u.name ILIKE '%' || :query || '%'
+                   u.name ~ '^[А-Яа-яЁё\\s]+$'
                WHEN :query ~ '^[A-Za-z\\s]+$' THEN 
                    -- Если запрос на латинице, ищем только в именах на латинице
-                   u.name ~ '^[A-Za-z\\s]+$' AND 
-                   u.name ILIKE '%' || :query || '%'
+                   u.name ~ '^[A-Za-z\\s]+$'
                ELSE 
                    -- Если запрос смешанный или содержит другие символы,
-                   -- ищем точное совпадение части строки
-                   u.name ILIKE '%' || :query || '%'
-           END
+                   -- достаточно совпадения части строки
+                   TRUE
+           END)
            OR u.email ILIKE '%' || :query || '%'
            """, 
            nativeQuery = true)
     List<User> searchByNameOrEmail(@Param("query") String query);
 
     /**
-     * Найти пользователей по списку ID
+     * Найти пользователей по списку ID.
+     * Профили загружаются тем же запросом, иначе обратная связь one-to-one подгружается по одному запросу на пользователя.
      * @param ids список ID пользователей
      * @return список найденных пользователей
      */
-    List<User> findByIdIn(List<Long> ids);
-} 
\ No newline at end of file
+    @Query("SELECT u FROM User u LEFT JOIN FETCH u.profile WHERE u.id IN :ids")
+    List<User> findByIdIn(@Param("ids") List<Long> ids);
+
+    /**
+     * Блокирует строки пользователей до конца транзакции. Строки блокируются в порядке ID,
+     * поэтому транзакции с пересекающимися наборами пользователей не ждут друг друга по кругу.
+     * FOR NO KEY UPDATE не мешает вставкам, ссылающимся на пользователей внешним ключом
+     * @param ids ID пользователей
+     * @return ID найденных пользователей
+     */
+    @Query(value = "SELECT id FROM users WHERE id IN (:ids) ORDER BY id FOR NO KEY UPDATE", nativeQuery = true)
+    List<Long> lockByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Найти пользователей по списку email (без учета регистра) вместе с профилями
+     * @param emails email в нижнем регистре
+     * @return список найденных пользователей
+     */
+    @Query("SELECT u FROM User u LEFT JOIN FETCH u.profile WHERE LOWER(u.email) IN :emails")
+    List<User> findByLowerEmailIn(@Param("emails") Collection<String> emails);
+
+    /**
+     * Потоковое чтение пользователей с профилями для выгрузки.
+     * Поток нужно закрыть и прочитать внутри транзакции; строки читаются курсором порциями по fetch size.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT new com.fiba.api.dto.UserExportRow(u.id, u.name, u.email, u.role, u.emailVerified, " +
+           "p.id, p.photoUrl, p.tournamentsPlayed, p.totalPoints, p.rating) " +
+           "FROM User u LEFT JOIN u.profile p ORDER BY u.id")
+    Stream<UserExportRow> streamForExport();
+}
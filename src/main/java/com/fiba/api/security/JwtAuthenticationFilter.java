@@ -68,8 +68,11 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private String getJwtFromRequest(HttpServletRequest request) {
         String bearerToken = request.getHeader("Authorization");
-        log.debug("Authorization header: {}", bearerToken != null ? (bearerToken.length() > 15 ? 
-                  bearerToken.substring(0, 15) + "..." : bearerToken) : "отсутствует");
+        if (log.isDebugEnabled()) {
+            // Фрагмент заголовка собирается только при включенном DEBUG: фильтр выполняется на каждый запрос
+            log.debug("Authorization header: {}", bearerToken != null ? (bearerToken.length() > 15 ? 
+                      bearerToken.substring(0, 15) + "..." : bearerToken) : "отсутствует");
+        }
                   
         if (StringUtils.hasText(bearerToken) && bearerToken.startsWith("Bearer ")) {
             return bearerToken.substring(7);
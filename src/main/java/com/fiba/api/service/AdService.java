@@ -7,6 +7,9 @@ import com.fiba.api.model.Tournament;
 import com.fiba.api.model.User;
 import com.fiba.api.repository.AdRepository;
 import com.fiba.api.repository.AdResultsRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -23,6 +26,20 @@ public class AdService {
     private final TournamentService tournamentService;
     private final UserService userService;
     private final FileStorageService fileStorageService;
+    private final MeterRegistry meterRegistry;
+
+    private Counter viewsCounter;
+    private Counter clicksCounter;
+
+    @PostConstruct
+    public void initMetrics() {
+        viewsCounter = Counter.builder("ads.views")
+            .description("Просмотры рекламных объявлений")
+            .register(meterRegistry);
+        clicksCounter = Counter.builder("ads.clicks")
+            .description("Клики по рекламным объявлениям")
+            .register(meterRegistry);
+    }
 
     /**
      * Получить все рекламные объявления
@@ -166,7 +183,14 @@ public class AdService {
             .ifPresent(v -> adResults.setViews(adResults.getViews() + v));
         
         // Сохраняем и возвращаем результаты
-        return adResultsRepository.save(adResults);
+        AdResults saved = adResultsRepository.save(adResults);
+        if (clicks != null) {
+            clicksCounter.increment(clicks);
+        }
+        if (views != null) {
+            viewsCounter.increment(views);
+        }
+        return saved;
     }
 
     /**
@@ -0,0 +1,305 @@
+package com.fiba.api.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import com.fiba.api.dto.RegistrationExportRow;
+import com.fiba.api.dto.RosterExportRow;
+import com.fiba.api.dto.UserExportRow;
+import com.fiba.api.exception.BadRequestException;
+import com.fiba.api.repository.RegistrationRepository;
+import com.fiba.api.repository.TeamRepository;
+import com.fiba.api.repository.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Потоковая выгрузка регистраций, составов команд и пользователей в CSV или NDJSON.
+ *
+ * Строки читаются курсором БД внутри транзакции только для чтения и сразу пишутся в ответ.
+ * Запросы возвращают проекции, а не сущности, поэтому контекст персистентности не растет,
+ * и потребление памяти не зависит от объема данных. Ответ сбрасывается клиенту каждые
+ * flushEvery строк, так что первые байты приходят до окончания чтения.
+ */
+@Service
+@Slf4j
+public class BulkExportService {
+
+    public static final String REGISTRATIONS = "registrations";
+    public static final String ROSTERS = "rosters";
+    public static final String USERS = "users";
+
+    private static final Set<String> KINDS = Set.of(REGISTRATIONS, ROSTERS, USERS);
+
+    private static final List<String> REGISTRATION_COLUMNS = List.of(
+        "id", "team_name", "tournament_id", "tournament_title", "captain_id", "captain_name", "status",
+        "player_ids", "player_names");
+    private static final List<String> ROSTER_COLUMNS = List.of("team_id", "team", "player_id", "player", "email");
+    private static final List<String> USER_COLUMNS = List.of(
+        "id", "name", "email", "role", "email_verified", "profile_id", "photo_url", "tournaments_played",
+        "total_points", "rating");
+
+    private final ObjectMapper objectMapper;
+    private final CsvMapper csvMapper = new CsvMapper();
+    private final RegistrationRepository registrationRepository;
+    private final TeamRepository teamRepository;
+    private final UserRepository userRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${app.export.flush-every-rows:500}")
+    private int flushEvery;
+
+    public BulkExportService(ObjectMapper objectMapper,
+                             RegistrationRepository registrationRepository,
+                             TeamRepository teamRepository,
+                             UserRepository userRepository,
+                             PlatformTransactionManager transactionManager) {
+        this.objectMapper = objectMapper;
+        this.registrationRepository = registrationRepository;
+        this.teamRepository = teamRepository;
+        this.userRepository = userRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+    }
+
+    /**
+     * Проверяет вид выгрузки до начала записи ответа
+     *
+     * @throws BadRequestException если вид выгрузки неизвестен
+     */
+    public void checkKind(String kind) {
+        if (!KINDS.contains(kind)) {
+            throw new BadRequestException("Неизвестный вид выгрузки: " + kind);
+        }
+    }
+
+    /**
+     * Выгружает данные указанного вида в поток
+     *
+     * @param kind вид данных: registrations, rosters или users
+     * @param format формат выгрузки
+     * @param tournamentId турнир для выгрузки регистраций или null для всех
+     * @param out поток ответа
+     */
+    public void export(String kind, BulkImportService.Format format, Long tournamentId, OutputStream out)
+            throws IOException {
+        checkKind(kind);
+        long start = System.currentTimeMillis();
+        long[] rows = {0};
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                try {
+                    rows[0] = switch (kind) {
+                        case REGISTRATIONS -> writeRegistrations(tournamentId, open(format, REGISTRATION_COLUMNS, out));
+                        case ROSTERS -> writeRosters(open(format, ROSTER_COLUMNS, out));
+                        default -> writeUsers(open(format, USER_COLUMNS, out));
+                    };
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            // Обычно клиент закрыл соединение, не дочитав выгрузку
+            log.warn("Export of {} aborted after {} ms: {}", kind, System.currentTimeMillis() - start, e.getMessage());
+            throw e.getCause();
+        }
+        log.info("Exported {} {} rows as {} in {} ms", rows[0], kind, format, System.currentTimeMillis() - start);
+    }
+
+    private long writeRegistrations(Long tournamentId, RowWriter writer) throws IOException {
+        try (writer; Stream<RegistrationExportRow> rows = registrationRepository.streamForExport(tournamentId)) {
+            Iterator<RegistrationExportRow> iterator = rows.iterator();
+            // Строки одной регистрации идут подряд: игроки собираются, пока не сменится регистрация
+            RegistrationExportRow current = null;
+            List<RegistrationExportRow> players = new ArrayList<>();
+            long count = 0;
+            while (iterator.hasNext()) {
+                RegistrationExportRow row = iterator.next();
+                if (current != null && !current.getId().equals(row.getId())) {
+                    writer.write(registrationRow(current, players, writer.isCsv()));
+                    players.clear();
+                    count++;
+                }
+                current = row;
+                if (row.getPlayerId() != null) {
+                    players.add(row);
+                }
+            }
+            if (current != null) {
+                writer.write(registrationRow(current, players, writer.isCsv()));
+                count++;
+            }
+            return count;
+        }
+    }
+
+    private Map<String, Object> registrationRow(RegistrationExportRow registration,
+                                                List<RegistrationExportRow> players, boolean csv) {
+        Map<String, Object> row = new LinkedHashMap<>();
+        row.put("id", registration.getId());
+        row.put("team_name", registration.getTeamName());
+        row.put("tournament_id", registration.getTournamentId());
+        row.put("tournament_title", registration.getTournamentTitle());
+        row.put("captain_id", registration.getCaptainId());
+        row.put("captain_name", registration.getCaptainName());
+        row.put("status", registration.getStatus());
+        if (csv) {
+            row.put("player_ids", players.stream().map(p -> String.valueOf(p.getPlayerId()))
+                .collect(Collectors.joining("|")));
+            row.put("player_names", players.stream().map(RegistrationExportRow::getPlayerName)
+                .collect(Collectors.joining("|")));
+        } else {
+            List<Map<String, Object>> playersList = new ArrayList<>(players.size());
+            for (RegistrationExportRow player : players) {
+                Map<String, Object> playerMap = new LinkedHashMap<>();
+                playerMap.put("id", player.getPlayerId());
+                playerMap.put("name", player.getPlayerName());
+                playerMap.put("is_captain", player.getPlayerId().equals(registration.getCaptainId()));
+                playersList.add(playerMap);
+            }
+            row.put("players", playersList);
+        }
+        return row;
+    }
+
+    private long writeRosters(RowWriter writer) throws IOException {
+        try (writer; Stream<RosterExportRow> rows = teamRepository.streamRostersForExport()) {
+            Iterator<RosterExportRow> iterator = rows.iterator();
+            long count = 0;
+            while (iterator.hasNext()) {
+                RosterExportRow roster = iterator.next();
+                Map<String, Object> row = new LinkedHashMap<>();
+                row.put("team_id", roster.getTeamId());
+                row.put("team", roster.getTeam());
+                row.put("player_id", roster.getPlayerId());
+                row.put("player", roster.getPlayer());
+                row.put("email", roster.getEmail());
+                writer.write(row);
+                count++;
+            }
+            return count;
+        }
+    }
+
+    private long writeUsers(RowWriter writer) throws IOException {
+        try (writer; Stream<UserExportRow> rows = userRepository.streamForExport()) {
+            Iterator<UserExportRow> iterator = rows.iterator();
+            long count = 0;
+            while (iterator.hasNext()) {
+                UserExportRow user = iterator.next();
+                Map<String, Object> row = new LinkedHashMap<>();
+                row.put("id", user.getId());
+                row.put("name", user.getName());
+                row.put("email", user.getEmail());
+                row.put("role", user.getRole());
+                row.put("email_verified", user.isEmailVerified());
+                row.put("profile_id", user.getProfileId());
+                row.put("photo_url", user.getPhotoUrl());
+                row.put("tournaments_played", user.getTournamentsPlayed());
+                row.put("total_points", user.getTotalPoints());
+                row.put("rating", user.getRating());
+                writer.write(row);
+                count++;
+            }
+            return count;
+        }
+    }
+
+    private RowWriter open(BulkImportService.Format format, List<String> columns, OutputStream out)
+            throws IOException {
+        if (format == BulkImportService.Format.CSV) {
+            CsvSchema.Builder schema = CsvSchema.builder();
+            columns.forEach(schema::addColumn);
+            SequenceWriter csv = csvMapper.writer(schema.build().withHeader())
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                .writeValues(out);
+            return new RowWriter(true) {
+                @Override
+                void writeRow(Map<String, Object> row) throws IOException {
+                    csv.write(row);
+                }
+
+                @Override
+                void flush() throws IOException {
+                    csv.flush();
+                }
+
+                @Override
+                public void close() throws IOException {
+                    csv.close();
+                }
+            };
+        }
+        ObjectWriter jsonWriter = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        JsonGenerator json = objectMapper.getFactory().createGenerator(out);
+        json.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        // Строки разделяются переводом строки, а не пробелом по умолчанию
+        json.setRootValueSeparator(null);
+        return new RowWriter(false) {
+            @Override
+            void writeRow(Map<String, Object> row) throws IOException {
+                jsonWriter.writeValue(json, row);
+                json.writeRaw('\n');
+            }
+
+            @Override
+            void flush() throws IOException {
+                json.flush();
+            }
+
+            @Override
+            public void close() throws IOException {
+                json.close();
+            }
+        };
+    }
+
+    /**
+     * Запись строк выгрузки с периодическим сбросом буфера клиенту
+     */
+    private abstract class RowWriter implements Closeable {
+        private final boolean csv;
+        private long written;
+
+        RowWriter(boolean csv) {
+            this.csv = csv;
+        }
+
+        boolean isCsv() {
+            return csv;
+        }
+
+        void write(Map<String, Object> row) throws IOException {
+            writeRow(row);
+            // Первая строка сбрасывается сразу, чтобы клиент начал получать файл без ожидания
+            if (++written == 1 || written % flushEvery == 0) {
+                flush();
+            }
+        }
+
+        abstract void writeRow(Map<String, Object> row) throws IOException;
+
+        abstract void flush() throws IOException;
+    }
+}
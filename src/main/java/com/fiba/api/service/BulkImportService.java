@@ -0,0 +1,528 @@
+package com.fiba.api.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvParser;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import com.fiba.api.dto.ImportReport;
+import com.fiba.api.dto.TournamentRequest;
+import com.fiba.api.exception.BadRequestException;
+import com.fiba.api.model.Player;
+import com.fiba.api.model.Team;
+import com.fiba.api.model.Tournament;
+import com.fiba.api.model.User;
+import com.fiba.api.repository.PlayerRepository;
+import com.fiba.api.repository.TeamRepository;
+import com.fiba.api.repository.TournamentRepository;
+import com.fiba.api.repository.UserRepository;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Потоковый импорт календаря турниров и составов команд из CSV или NDJSON.
+ *
+ * Файл читается построчно, каждая строка проверяется сразу после чтения. Корректные строки копятся
+ * в пачки по chunkSize и записываются отдельной транзакцией: существующие турниры, команды, пользователи
+ * и игроки пачки находятся несколькими запросами IN, новые сущности сохраняются пакетными вставками.
+ * В памяти одновременно находится не больше одной пачки и ограниченный список ошибок, поэтому
+ * потребление памяти не зависит от размера файла.
+ *
+ * Ошибка записи пачки откатывает только эту пачку; ее строки попадают в отчет как неуспешные.
+ */
+@Service
+@Slf4j
+public class BulkImportService {
+
+    public static final String TOURNAMENTS = "tournaments";
+    public static final String ROSTERS = "rosters";
+
+    private static final TypeReference<Map<String, Object>> ROW_TYPE = new TypeReference<>() {};
+    private static final Pattern EMAIL = Pattern.compile("^[^@\\s]+@[^@\\s]+\\.[^@\\s]+$");
+
+    /**
+     * Формат входного файла
+     */
+    public enum Format {
+        CSV,
+        NDJSON
+    }
+
+    private final ObjectMapper objectMapper;
+    private final CsvMapper csvMapper = new CsvMapper();
+    private final Validator validator;
+    private final TournamentService tournamentService;
+    private final PlayerService playerService;
+    private final TournamentRepository tournamentRepository;
+    private final TeamRepository teamRepository;
+    private final UserRepository userRepository;
+    private final PlayerRepository playerRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${app.import.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${app.import.max-reported-errors:1000}")
+    private int maxReportedErrors;
+
+    public BulkImportService(ObjectMapper objectMapper,
+                             Validator validator,
+                             TournamentService tournamentService,
+                             PlayerService playerService,
+                             TournamentRepository tournamentRepository,
+                             TeamRepository teamRepository,
+                             UserRepository userRepository,
+                             PlayerRepository playerRepository,
+                             PlatformTransactionManager transactionManager) {
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.tournamentService = tournamentService;
+        this.playerService = playerService;
+        this.tournamentRepository = tournamentRepository;
+        this.teamRepository = teamRepository;
+        this.userRepository = userRepository;
+        this.playerRepository = playerRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Импортирует данные указанного вида
+     *
+     * @param kind вид данных: tournaments (календарь турниров) или rosters (составы команд)
+     * @param in поток с содержимым файла
+     * @param format формат файла
+     * @param delimiter разделитель столбцов CSV
+     * @return отчет об импорте
+     * @throws BadRequestException если вид данных неизвестен или файл не удалось прочитать
+     */
+    public ImportReport importRows(String kind, InputStream in, Format format, char delimiter) {
+        ImportReport report = new ImportReport(kind, maxReportedErrors);
+        long start = System.currentTimeMillis();
+        switch (kind) {
+            case TOURNAMENTS -> process(in, format, delimiter, report, this::parseTournament, this::writeTournaments);
+            case ROSTERS -> process(in, format, delimiter, report, this::parseRosterRow, this::writeRosters);
+            default -> throw new BadRequestException("Неизвестный вид импорта: " + kind);
+        }
+        log.info("Import of {} finished in {} ms: read={}, imported={}, skipped={}, failed={}, created={}",
+                 kind, System.currentTimeMillis() - start, report.getRowsRead(), report.getImported(),
+                 report.getSkipped(), report.getFailed(), report.getCreated());
+        return report;
+    }
+
+    private <T> void process(InputStream in, Format format, char delimiter, ImportReport report,
+                             RowParser<T> parser, ChunkWriter<T> writer) {
+        List<Parsed<T>> chunk = new ArrayList<>(chunkSize);
+        try (BufferedReader reader = openReader(in)) {
+            RowSource source = format == Format.CSV ? csvSource(reader, delimiter) : ndjsonSource(reader);
+            Row row;
+            while ((row = source.next()) != null) {
+                report.setRowsRead(report.getRowsRead() + 1);
+                if (row.error != null) {
+                    report.fail(row.line, row.error);
+                    continue;
+                }
+                try {
+                    chunk.add(new Parsed<>(row.line, parser.parse(row.values)));
+                } catch (IllegalArgumentException e) {
+                    report.fail(row.line, e.getMessage());
+                    continue;
+                }
+                if (chunk.size() >= chunkSize) {
+                    writeChunk(chunk, report, writer);
+                    chunk.clear();
+                }
+            }
+        } catch (IOException | UncheckedIOException e) {
+            // Структура файла нарушена: дальнейшие строки не читаются, уже записанные пачки сохраняются
+            report.setCompleted(false);
+            report.fail(0, "Не удалось прочитать файл: " + e.getMessage());
+            log.warn("Import of {} stopped after {} rows: {}", report.getKind(), report.getRowsRead(), e.getMessage());
+        }
+        if (!chunk.isEmpty()) {
+            writeChunk(chunk, report, writer);
+        }
+    }
+
+    private <T> void writeChunk(List<Parsed<T>> chunk, ImportReport report, ChunkWriter<T> writer) {
+        ChunkResult result = new ChunkResult();
+        try {
+            transactionTemplate.executeWithoutResult(status -> writer.write(chunk, result));
+        } catch (Exception e) {
+            String message = "Ошибка записи: " + rootMessage(e);
+            log.warn("Import chunk of {} rows ({}..{}) rolled back: {}", chunk.size(),
+                     chunk.get(0).line, chunk.get(chunk.size() - 1).line, rootMessage(e));
+            for (Parsed<T> row : chunk) {
+                report.fail(row.line, message);
+            }
+            return;
+        }
+        report.setImported(report.getImported() + result.imported);
+        report.setSkipped(report.getSkipped() + result.skipped);
+        result.created.forEach(report::addCreated);
+        for (ImportReport.RowError failure : result.failures) {
+            report.fail(failure.getLine(), failure.getMessage());
+        }
+    }
+
+    // ----- Турниры -----
+
+    private TournamentRequest parseTournament(Map<String, String> values) {
+        Map<String, String> normalized = new LinkedHashMap<>(values);
+        normalized.computeIfPresent("status", (key, value) -> value.toUpperCase());
+        TournamentRequest request;
+        try {
+            request = objectMapper.convertValue(normalized, TournamentRequest.class);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Некорректное значение: " + conversionMessage(e));
+        }
+        Set<ConstraintViolation<TournamentRequest>> violations = validator.validate(request);
+        if (!violations.isEmpty()) {
+            throw new IllegalArgumentException(violations.stream()
+                .map(ConstraintViolation::getMessage)
+                .sorted()
+                .collect(Collectors.joining("; ")));
+        }
+        return request;
+    }
+
+    /**
+     * Сохраняет турниры пачки. Турнир с тем же названием и датой, что уже есть в базе
+     * или выше в файле, пропускается, поэтому повторный импорт файла не создает дубликатов.
+     */
+    private void writeTournaments(List<Parsed<TournamentRequest>> rows, ChunkResult result) {
+        Set<String> names = rows.stream().map(row -> row.value.getName()).collect(Collectors.toSet());
+        Set<String> existing = new HashSet<>();
+        for (Tournament tournament : tournamentRepository.findByNameIn(names)) {
+            existing.add(tournamentKey(tournament.getName(), tournament.getDate()));
+        }
+
+        List<Tournament> toSave = new ArrayList<>();
+        for (Parsed<TournamentRequest> row : rows) {
+            if (!existing.add(tournamentKey(row.value.getName(), row.value.getDate()))) {
+                result.skipped++;
+                continue;
+            }
+            toSave.add(tournamentService.toTournament(row.value));
+        }
+        tournamentRepository.saveAll(toSave);
+        result.imported += toSave.size();
+        result.created.merge("tournaments", (long) toSave.size(), Long::sum);
+    }
+
+    private static String tournamentKey(String name, LocalDate date) {
+        return name + '\u0000' + date;
+    }
+
+    // ----- Составы команд -----
+
+    /**
+     * Строка состава: team — название команды, player — имя игрока, email — email пользователя (необязательно)
+     */
+    private RosterRow parseRosterRow(Map<String, String> values) {
+        String team = values.get("team");
+        String player = values.get("player");
+        String email = values.get("email");
+        if (team == null) {
+            throw new IllegalArgumentException("Название команды обязательно");
+        }
+        if (team.length() < 3 || team.length() > 100) {
+            throw new IllegalArgumentException("Название команды должно содержать от 3 до 100 символов");
+        }
+        if (player == null && email == null) {
+            throw new IllegalArgumentException("Нужно указать имя игрока или email");
+        }
+        if (email != null && !EMAIL.matcher(email).matches()) {
+            throw new IllegalArgumentException("Некорректный email: " + email);
+        }
+        return new RosterRow(team, player, email != null ? email.toLowerCase() : null);
+    }
+
+    /**
+     * Добавляет игроков в составы команд пачки. Команды находятся по точному названию и создаются,
+     * если их нет. Игрок с email зарегистрированного пользователя привязывается к нему, остальные
+     * сопоставляются по имени с игроками без пользователя. Уже состоящие в команде игроки пропускаются.
+     */
+    private void writeRosters(List<Parsed<RosterRow>> rows, ChunkResult result) {
+        Map<String, Team> teams = new HashMap<>();
+        for (Team team : teamRepository.findByNameInWithPlayers(
+                rows.stream().map(row -> row.value.team).collect(Collectors.toSet()))) {
+            teams.putIfAbsent(team.getName(), team);
+        }
+        List<Team> newTeams = new ArrayList<>();
+        for (Parsed<RosterRow> row : rows) {
+            if (!teams.containsKey(row.value.team)) {
+                Team team = new Team();
+                team.setName(row.value.team);
+                teams.put(team.getName(), team);
+                newTeams.add(team);
+            }
+        }
+        teamRepository.saveAll(newTeams);
+        result.created.merge("teams", (long) newTeams.size(), Long::sum);
+
+        Map<String, Player> playersByEmail = resolveLinkedPlayers(rows);
+        Map<String, Player> playersByName = resolveUnlinkedPlayers(rows, playersByEmail, result);
+
+        Set<String> links = new HashSet<>();
+        for (Team team : teams.values()) {
+            for (Player player : team.getPlayers()) {
+                links.add(team.getId() + ":" + player.getId());
+            }
+        }
+        for (Parsed<RosterRow> row : rows) {
+            Team team = teams.get(row.value.team);
+            Player player = row.value.email != null ? playersByEmail.get(row.value.email) : null;
+            if (player == null && row.value.player != null) {
+                player = playersByName.get(row.value.player);
+            }
+            if (player == null) {
+                result.failures.add(new ImportReport.RowError(row.line,
+                    "Пользователь " + row.value.email + " не найден, а имя игрока не указано"));
+                continue;
+            }
+            if (!links.add(team.getId() + ":" + player.getId())) {
+                result.skipped++;
+                continue;
+            }
+            team.getPlayers().add(player);
+            result.imported++;
+        }
+    }
+
+    private Map<String, Player> resolveLinkedPlayers(List<Parsed<RosterRow>> rows) {
+        Set<String> emails = rows.stream()
+            .map(row -> row.value.email)
+            .filter(Objects::nonNull)
+            .collect(Collectors.toSet());
+        if (emails.isEmpty()) {
+            return Map.of();
+        }
+        List<User> users = userRepository.findByLowerEmailIn(emails);
+        List<Player> players = playerService.getOrCreatePlayers(users);
+        Map<String, Player> byEmail = new HashMap<>();
+        for (int i = 0; i < users.size(); i++) {
+            byEmail.put(users.get(i).getEmail().toLowerCase(), players.get(i));
+        }
+        return byEmail;
+    }
+
+    /**
+     * Игроки строк без зарегистрированного пользователя: существующие без привязки находятся по имени,
+     * недостающие создаются
+     */
+    private Map<String, Player> resolveUnlinkedPlayers(List<Parsed<RosterRow>> rows,
+                                                       Map<String, Player> playersByEmail,
+                                                       ChunkResult result) {
+        Set<String> names = new HashSet<>();
+        for (Parsed<RosterRow> row : rows) {
+            if (row.value.email == null || !playersByEmail.containsKey(row.value.email)) {
+                if (row.value.player != null) {
+                    names.add(row.value.player);
+                }
+            }
+        }
+        if (names.isEmpty()) {
+            return Map.of();
+        }
+        Map<String, Player> byName = new HashMap<>();
+        // Привязка проверяется здесь: с условием user IS NULL запрос уходит мимо индекса по имени
+        for (Player player : playerRepository.findByNameIn(names)) {
+            if (player.getUser() == null) {
+                byName.putIfAbsent(player.getName(), player);
+            }
+        }
+        List<Player> newPlayers = new ArrayList<>();
+        for (String name : names) {
+            if (!byName.containsKey(name)) {
+                Player player = new Player();
+                player.setName(name);
+                byName.put(name, player);
+                newPlayers.add(player);
+            }
+        }
+        playerRepository.saveAll(newPlayers);
+        result.created.merge("players", (long) newPlayers.size(), Long::sum);
+        return byName;
+    }
+
+    private static final class RosterRow {
+        private final String team;
+        private final String player;
+        private final String email;
+
+        private RosterRow(String team, String player, String email) {
+            this.team = team;
+            this.player = player;
+            this.email = email;
+        }
+    }
+
+    // ----- Чтение строк -----
+
+    private BufferedReader openReader(InputStream in) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        // Excel сохраняет CSV в UTF-8 с BOM
+        reader.mark(1);
+        if (reader.read() != '\uFEFF') {
+            reader.reset();
+        }
+        return reader;
+    }
+
+    private RowSource csvSource(BufferedReader reader, char delimiter) throws IOException {
+        CsvSchema schema = CsvSchema.emptySchema().withHeader().withColumnSeparator(delimiter);
+        MappingIterator<Map<String, Object>> iterator = csvMapper.readerFor(ROW_TYPE)
+            .with(schema)
+            .withFeatures(CsvParser.Feature.TRIM_SPACES, CsvParser.Feature.SKIP_EMPTY_LINES,
+                          CsvParser.Feature.IGNORE_TRAILING_UNMAPPABLE)
+            .readValues(reader);
+        return () -> {
+            if (!iterator.hasNextValue()) {
+                return null;
+            }
+            long line = iterator.getCurrentLocation().getLineNr();
+            return new Row(line, normalize(iterator.nextValue()), null);
+        };
+    }
+
+    private RowSource ndjsonSource(BufferedReader reader) {
+        long[] lineNumber = {0};
+        return () -> {
+            String text;
+            while ((text = reader.readLine()) != null) {
+                long line = ++lineNumber[0];
+                if (text.isBlank()) {
+                    continue;
+                }
+                try {
+                    return new Row(line, normalize(objectMapper.readValue(text, ROW_TYPE)), null);
+                } catch (JsonProcessingException e) {
+                    // Строки NDJSON независимы: ошибка разбора затрагивает только свою строку
+                    return new Row(line, null, "Некорректный JSON: " + e.getOriginalMessage());
+                }
+            }
+            return null;
+        };
+    }
+
+    /**
+     * Приводит строку к виду "поле в camelCase" -> непустое строковое значение,
+     * чтобы заголовки вида max_teams из таблиц совпадали с полями запросов
+     */
+    private static Map<String, String> normalize(Map<String, Object> raw) {
+        Map<String, String> values = new LinkedHashMap<>();
+        for (Map.Entry<String, Object> entry : raw.entrySet()) {
+            Object value = entry.getValue();
+            if (value == null || value instanceof Map || value instanceof List) {
+                continue;
+            }
+            String text = value.toString().trim();
+            if (!text.isEmpty()) {
+                values.put(toCamelCase(entry.getKey().trim()), text);
+            }
+        }
+        return values;
+    }
+
+    private static String toCamelCase(String key) {
+        StringBuilder result = new StringBuilder(key.length());
+        boolean upper = false;
+        for (char c : key.toCharArray()) {
+            if (c == '_' || c == '-' || c == ' ') {
+                upper = result.length() > 0;
+            } else {
+                result.append(upper ? Character.toUpperCase(c) : c);
+                upper = false;
+            }
+        }
+        return result.toString();
+    }
+
+    private static String conversionMessage(IllegalArgumentException e) {
+        Throwable cause = e.getCause() != null ? e.getCause() : e;
+        if (cause instanceof JsonProcessingException jpe) {
+            return jpe.getOriginalMessage();
+        }
+        return cause.getMessage();
+    }
+
+    private static String rootMessage(Throwable e) {
+        Throwable root = e;
+        while (root.getCause() != null && root.getCause() != root) {
+            root = root.getCause();
+        }
+        return root.getMessage();
+    }
+
+    @FunctionalInterface
+    private interface RowSource {
+        Row next() throws IOException;
+    }
+
+    @FunctionalInterface
+    private interface RowParser<T> {
+        T parse(Map<String, String> values);
+    }
+
+    @FunctionalInterface
+    private interface ChunkWriter<T> {
+        void write(List<Parsed<T>> rows, ChunkResult result);
+    }
+
+    private static final class Row {
+        private final long line;
+        private final Map<String, String> values;
+        private final String error;
+
+        private Row(long line, Map<String, String> values, String error) {
+            this.line = line;
+            this.values = values;
+            this.error = error;
+        }
+    }
+
+    private static final class Parsed<T> {
+        private final long line;
+        private final T value;
+
+        private Parsed(long line, T value) {
+            this.line = line;
+            this.value = value;
+        }
+    }
+
+    /**
+     * Итог записи одной пачки; переносится в отчет только после фиксации транзакции
+     */
+    private static final class ChunkResult {
+        private long imported;
+        private long skipped;
+        private final Map<String, Long> created = new LinkedHashMap<>();
+        private final List<ImportReport.RowError> failures = new ArrayList<>();
+    }
+}
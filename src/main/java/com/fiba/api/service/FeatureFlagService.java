@@ -1,12 +1,27 @@
 package com.fiba.api.service;
 
+import com.fiba.api.exception.BadRequestException;
 import com.fiba.api.model.FeatureFlags;
 import com.fiba.api.repository.FeatureFlagRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Флаги функций. Чтение обслуживается неизменяемым снимком в памяти без обращения к БД.
+ *
+ * Снимок загружается при первом чтении и заменяется после фиксации изменения на этом узле.
+ * Изменения с других узлов подхватываются проверкой версии (один столбец одной строки) раз
+ * в app.feature-flags.refresh-interval-ms; флаги перечитываются, только если версия выросла.
+ */
 @Slf4j
 @Service
 @RequiredArgsConstructor
@@ -15,20 +30,36 @@ public class FeatureFlagService {
     private final FeatureFlagRepository featureFlagRepository;
     private static final String DEFAULT_ID = "default";
 
-    @Transactional(readOnly = true)
-    public FeatureFlags getFeatureFlags() {
-        return featureFlagRepository.findById(DEFAULT_ID)
-            .orElseGet(() -> {
-                FeatureFlags defaultFlags = new FeatureFlags();
-                defaultFlags.setId(DEFAULT_ID);
-                return featureFlagRepository.save(defaultFlags);
-            });
+    private final AtomicReference<FeatureFlagSnapshot> snapshot = new AtomicReference<>();
+    // ReentrantLock, а не synchronized: загрузка обращается к БД и не должна закреплять виртуальный поток
+    private final ReentrantLock loadLock = new ReentrantLock();
+
+    /**
+     * Текущий снимок флагов
+     */
+    public FeatureFlagSnapshot getSnapshot() {
+        FeatureFlagSnapshot current = snapshot.get();
+        if (current != null) {
+            return current;
+        }
+        loadLock.lock();
+        try {
+            current = snapshot.get();
+            if (current == null) {
+                current = load();
+                publish(current);
+            }
+            return current;
+        } finally {
+            loadLock.unlock();
+        }
     }
 
     @Transactional
-    public FeatureFlags updateFeatureFlags(FeatureFlags flags) {
-        FeatureFlags existing = getFeatureFlags();
-        
+    public FeatureFlagSnapshot updateFeatureFlags(FeatureFlags flags) {
+        FeatureFlags existing = featureFlagRepository.findWithRolloutsById(DEFAULT_ID)
+            .orElseGet(FeatureFlags::new);
+
         // Обновляем только переданные флаги
         if (flags.isDisableBackend() != existing.isDisableBackend()) {
             existing.setDisableBackend(flags.isDisableBackend());
@@ -51,7 +82,75 @@ public class FeatureFlagService {
         if (flags.isExperimentalRegistration() != existing.isExperimentalRegistration()) {
             existing.setExperimentalRegistration(flags.isExperimentalRegistration());
         }
+        applyRollouts(existing, flags.getRollouts());
 
-        return featureFlagRepository.save(existing);
+        FeatureFlagSnapshot updated = FeatureFlagSnapshot.of(featureFlagRepository.saveAndFlush(existing));
+        // Снимок подменяется только после фиксации: до нее изменение может откатиться
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                publish(updated);
+            }
+        });
+        return updated;
+    }
+
+    /**
+     * Перечитывает флаги, если их версия в БД изменилась (например, флаги обновлены на другом узле)
+     */
+    @Scheduled(initialDelayString = "${app.feature-flags.refresh-interval-ms:10000}",
+               fixedDelayString = "${app.feature-flags.refresh-interval-ms:10000}")
+    public void refreshIfChanged() {
+        FeatureFlagSnapshot current = snapshot.get();
+        if (current == null) {
+            // Снимок еще не запрашивался: загрузится при первом чтении
+            return;
+        }
+        try {
+            Long version = featureFlagRepository.findVersionById(DEFAULT_ID).orElse(null);
+            if (version != null && version != current.getVersion()) {
+                publish(load());
+            }
+        } catch (RuntimeException e) {
+            log.warn("Не удалось проверить версию feature flags, используется версия {}: {}",
+                current.getVersion(), e.getMessage());
+        }
+    }
+
+    private FeatureFlagSnapshot load() {
+        // Строку флагов создает миграция; если ее нет, действуют значения по умолчанию без записи в БД
+        return FeatureFlagSnapshot.of(featureFlagRepository.findWithRolloutsById(DEFAULT_ID)
+            .orElseGet(FeatureFlags::new));
+    }
+
+    private void publish(FeatureFlagSnapshot candidate) {
+        FeatureFlagSnapshot previous = snapshot.getAndAccumulate(candidate,
+            (current, next) -> current == null || next.getVersion() > current.getVersion() ? next : current);
+        if (previous != null && candidate.getVersion() > previous.getVersion()) {
+            log.info("Feature flags updated to version {}", candidate.getVersion());
+        }
+    }
+
+    /**
+     * Проценты постепенного включения из запроса: 100 снимает ограничение, флаги без записи не меняются
+     */
+    private static void applyRollouts(FeatureFlags existing, Map<String, Integer> requested) {
+        if (requested == null) {
+            return;
+        }
+        Map<String, Boolean> known = FeatureFlagSnapshot.values(existing);
+        requested.forEach((flag, percentage) -> {
+            if (!known.containsKey(flag)) {
+                throw new BadRequestException("Неизвестный флаг: " + flag);
+            }
+            if (percentage == null || percentage < 0 || percentage > 100) {
+                throw new BadRequestException("Процент включения флага " + flag + " должен быть от 0 до 100");
+            }
+            if (percentage == 100) {
+                existing.getRollouts().remove(flag);
+            } else {
+                existing.getRollouts().put(flag, percentage);
+            }
+        });
     }
-} 
\ No newline at end of file
+}
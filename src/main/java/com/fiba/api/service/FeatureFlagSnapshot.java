@@ -0,0 +1,118 @@
+package com.fiba.api.service;
+
+import com.fiba.api.model.FeatureFlags;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Неизменяемый снимок флагов функций одной версии.
+ *
+ * Флаг с процентом постепенного включения виден пользователю, если флаг включен и корзина
+ * пользователя (0-99) меньше процента. Корзина вычисляется хешем имени флага и пользователя,
+ * поэтому пользователь видит флаг одинаково на всех узлах и при росте процента не теряет его,
+ * а разные флаги включаются разным группам пользователей.
+ */
+public final class FeatureFlagSnapshot {
+
+    private final long version;
+    private final Map<String, Boolean> flags;
+    private final Map<String, Integer> rollouts;
+
+    private FeatureFlagSnapshot(long version, Map<String, Boolean> flags, Map<String, Integer> rollouts) {
+        this.version = version;
+        this.flags = Collections.unmodifiableMap(flags);
+        this.rollouts = Collections.unmodifiableMap(new TreeMap<>(rollouts));
+    }
+
+    static FeatureFlagSnapshot of(FeatureFlags entity) {
+        return new FeatureFlagSnapshot(entity.getVersion(), values(entity), entity.getRollouts());
+    }
+
+    /**
+     * Значения флагов сущности в порядке полей, как их отдавал прежний ответ /api/features
+     */
+    static Map<String, Boolean> values(FeatureFlags entity) {
+        Map<String, Boolean> values = new LinkedHashMap<>();
+        values.put("disableBackend", entity.isDisableBackend());
+        values.put("showTopPlayers", entity.isShowTopPlayers());
+        values.put("showAdminPanel", entity.isShowAdminPanel());
+        values.put("enableAdminPage", entity.isEnableAdminPage());
+        values.put("enableTournamentFilter", entity.isEnableTournamentFilter());
+        values.put("enablePlayerSearch", entity.isEnablePlayerSearch());
+        values.put("experimentalRegistration", entity.isExperimentalRegistration());
+        return values;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public Map<String, Integer> getRollouts() {
+        return rollouts;
+    }
+
+    /**
+     * Значение флага для пользователя; без пользователя флаги с неполным включением выключены
+     *
+     * @param userKey устойчивый идентификатор пользователя или null
+     */
+    public boolean isEnabled(String flag, String userKey) {
+        if (!flags.getOrDefault(flag, false)) {
+            return false;
+        }
+        Integer percentage = rollouts.get(flag);
+        if (percentage == null || percentage >= 100) {
+            return true;
+        }
+        return userKey != null && bucket(flag, userKey) < percentage;
+    }
+
+    /**
+     * Значения всех флагов для пользователя
+     */
+    public Map<String, Boolean> evaluate(String userKey) {
+        Map<String, Boolean> result = new LinkedHashMap<>();
+        for (String flag : flags.keySet()) {
+            result.put(flag, isEnabled(flag, userKey));
+        }
+        return result;
+    }
+
+    /**
+     * ETag ответа: версия и значения флагов пользователя. Значения входят в тег, потому что
+     * у пользователей одной версии они различаются постепенным включением
+     */
+    public String etag(Map<String, Boolean> evaluated) {
+        long bits = 0;
+        int position = 0;
+        for (boolean value : evaluated.values()) {
+            if (value) {
+                bits |= 1L << position;
+            }
+            position++;
+        }
+        return "\"" + version + "-" + Long.toHexString(bits) + "\"";
+    }
+
+    /**
+     * Корзина пользователя для флага: 0-99
+     */
+    static int bucket(String flag, String userKey) {
+        // FNV-1a по имени флага и пользователю с финальным перемешиванием MurmurHash3 (fmix64)
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : (flag + ':' + userKey).getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xff;
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return (int) Math.floorMod(hash, 100L);
+    }
+}
@@ -5,14 +5,11 @@ import java.nio.file.*;
 import java.util.UUID;
 import java.util.Map;
 import java.util.HashMap;
-import java.time.Instant;
-import java.time.temporal.ChronoUnit;
 
 import jakarta.annotation.PostConstruct;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
 import org.springframework.web.multipart.MultipartFile;
@@ -80,7 +77,10 @@ public class FileStorageService {
             }
             
             // Проверяем права доступа
-            checkAndSetPermissions(rootLocation);
+            checkPermissions(rootLocation);
+            for (String subdir : subdirs.keySet()) {
+                checkPermissions(rootLocation.resolve(subdir));
+            }
             
             log.info("FileStorageService initialized successfully");
         } catch (IOException e) {
@@ -91,60 +91,24 @@ public class FileStorageService {
     }
     
     /**
-     * Проверяет и устанавливает правильные права доступа для директорий
+     * Проверяет права доступа к директории.
+     * Проверяются только корень и известные поддиректории: обход всего дерева перечислял бы
+     * каждый загруженный файл и замедлял запуск пропорционально их числу.
      */
-    private void checkAndSetPermissions(Path directory) throws IOException {
-        // Проверяем базовые разрешения
+    private void checkPermissions(Path directory) {
         if (!Files.isReadable(directory)) {
             log.warn("Directory is not readable: {}", directory);
         }
         if (!Files.isWritable(directory)) {
             log.warn("Directory is not writable: {}", directory);
         }
-        
-        // Проверяем все поддиректории
-        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory)) {
-            for (Path path : stream) {
-                if (Files.isDirectory(path)) {
-                    checkAndSetPermissions(path);
-                }
-            }
-        }
     }
     
     /**
-     * Очищает временные файлы старше определенного возраста
+     * Возвращает абсолютный путь к корневой директории загрузок
      */
-    @Scheduled(cron = "0 0 3 * * *") // Запускается каждый день в 3 утра
-    public void cleanupTempFiles() {
-        try {
-            Path tempDir = rootLocation.resolve("temp");
-            if (!Files.exists(tempDir)) {
-                return;
-            }
-            
-            // Удаляем файлы старше 24 часов
-            Files.walk(tempDir)
-                .filter(path -> !Files.isDirectory(path))
-                .filter(path -> {
-                    try {
-                        return Files.getLastModifiedTime(path).toInstant()
-                            .isBefore(Instant.now().minus(24, ChronoUnit.HOURS));
-                    } catch (IOException e) {
-                        return false;
-                    }
-                })
-                .forEach(path -> {
-                    try {
-                        Files.delete(path);
-                        log.info("Deleted old temp file: {}", path);
-                    } catch (IOException e) {
-                        log.error("Error deleting temp file: {}", path, e);
-                    }
-                });
-        } catch (IOException e) {
-            log.error("Error during temp files cleanup", e);
-        }
+    public Path getRootLocation() {
+        return rootLocation;
     }
     
     /**
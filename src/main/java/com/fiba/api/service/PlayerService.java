@@ -3,11 +3,16 @@ package com.fiba.api.service;
 import com.fiba.api.model.Player;
 import com.fiba.api.model.User;
 import com.fiba.api.repository.PlayerRepository;
+import com.fiba.api.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
@@ -15,21 +20,75 @@ import java.util.stream.Collectors;
 public class PlayerService {
 
     private final PlayerRepository playerRepository;
+    private final UserRepository userRepository;
 
     @Transactional
     public Player createOrUpdatePlayer(User user) {
-        return playerRepository.findByName(user.getName())
-            .orElseGet(() -> {
-                Player player = new Player();
-                player.setName(user.getName());
-                return playerRepository.save(player);
-            });
+        return getOrCreatePlayers(List.of(user)).get(0);
     }
 
+    /**
+     * Возвращает игроков для пользователей, создавая недостающих.
+     * Поиск выполняется одним запросом по ID пользователей, новые игроки сохраняются одной пачкой.
+     *
+     * Перед созданием недостающих игроков строки их пользователей блокируются, и поиск повторяется:
+     * параллельные первые регистрации одного пользователя выполняются по очереди, и вторая находит
+     * игрока, созданного первой, вместо нарушения уникальности players.user_id.
+     *
+     * @param users пользователи
+     * @return игроки в порядке следования пользователей
+     */
     @Transactional
     public List<Player> getOrCreatePlayers(List<User> users) {
+        if (users.isEmpty()) {
+            return List.of();
+        }
+
+        Map<Long, Player> byUserId = playerRepository.findByUserIdIn(
+                users.stream().map(User::getId).collect(Collectors.toSet()))
+            .stream()
+            .collect(Collectors.toMap(player -> player.getUser().getId(), player -> player));
+
+        List<User> missing = users.stream()
+            .filter(user -> !byUserId.containsKey(user.getId()))
+            .collect(Collectors.toList());
+
+        if (!missing.isEmpty()) {
+            // Блокировка ждет транзакцию, которая уже создает игрока этого пользователя;
+            // повторный запрос видит все, что она успела зафиксировать
+            Set<Long> missingIds = missing.stream().map(User::getId).collect(Collectors.toSet());
+            userRepository.lockByIdIn(missingIds);
+            for (Player player : playerRepository.findByUserIdIn(missingIds)) {
+                byUserId.put(player.getUser().getId(), player);
+            }
+            missing.removeIf(user -> byUserId.containsKey(user.getId()));
+        }
+
+        if (!missing.isEmpty()) {
+            // Игроки, созданные до привязки к пользователям, сопоставляются по имени и привязываются
+            Map<String, Player> unlinkedByName = new HashMap<>();
+            for (Player player : playerRepository.findUnlinkedByNameIn(
+                    missing.stream().map(User::getName).collect(Collectors.toSet()))) {
+                unlinkedByName.putIfAbsent(player.getName(), player);
+            }
+
+            List<Player> toSave = new ArrayList<>();
+            for (User user : missing) {
+                Player player = unlinkedByName.remove(user.getName());
+                if (player == null) {
+                    player = new Player();
+                    player.setName(user.getName());
+                }
+                player.setUser(user);
+                toSave.add(player);
+            }
+            for (Player player : playerRepository.saveAll(toSave)) {
+                byUserId.put(player.getUser().getId(), player);
+            }
+        }
+
         return users.stream()
-            .map(this::createOrUpdatePlayer)
+            .map(user -> byUserId.get(user.getId()))
             .collect(Collectors.toList());
     }
 
@@ -38,4 +97,4 @@ public class PlayerService {
         return playerRepository.findById(id)
             .orElseThrow(() -> new RuntimeException("Player not found with id: " + id));
     }
-} 
\ No newline at end of file
+}
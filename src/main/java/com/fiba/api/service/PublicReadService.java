@@ -0,0 +1,273 @@
+package com.fiba.api.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.r2dbc.spi.Readable;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Чтение публичных списков через R2DBC (см. {@link com.fiba.api.config.ReactiveReadConfig}).
+ *
+ * Ответы совпадают по форме с ответами TournamentController, PlayerController и AdController,
+ * но связи загружаются не по одной записи, а одним запросом на весь список: заявки турниров
+ * с капитанами, затем игроки всех заявок.
+ */
+@Service
+@ConditionalOnProperty(name = "app.reactive-read.enabled", havingValue = "true")
+public class PublicReadService {
+
+    private static final String TOURNAMENT_COLUMNS = "SELECT id, name, date, location, level, prize_pool, status, "
+        + "registration_open, image_url, sponsor_name, sponsor_logo, business_type FROM tournaments";
+
+    private final DatabaseClient databaseClient;
+    private final AdService adService;
+    private final Counter viewsCounter;
+
+    public PublicReadService(DatabaseClient publicReadDatabaseClient, AdService adService, MeterRegistry meterRegistry) {
+        this.databaseClient = publicReadDatabaseClient;
+        this.adService = adService;
+        // Тот же счетчик, что и в AdService: просмотры учитываются одинаково на обоих путях
+        this.viewsCounter = Counter.builder("ads.views")
+            .description("Просмотры рекламных объявлений")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Все турниры с сортировкой и фильтром по дате, как GET /api/tournaments
+     *
+     * @param sort      date, name или status; иначе без сортировки
+     * @param ascending направление сортировки
+     * @param upcoming  true - с сегодняшнего дня, false - до сегодняшнего дня, null - все
+     * @param limit     максимальное число турниров, null или не больше 0 - без ограничения
+     */
+    public Mono<List<Map<String, Object>>> getTournaments(String sort, boolean ascending, Boolean upcoming, Integer limit) {
+        StringBuilder sql = new StringBuilder(TOURNAMENT_COLUMNS);
+        if (upcoming != null) {
+            sql.append(upcoming ? " WHERE date >= :today" : " WHERE date < :today");
+        }
+        String column = switch (sort == null ? "" : sort.toLowerCase()) {
+            // Порядок строк совпадает с String.compareTo в JPA-версии
+            case "date" -> "date";
+            case "name" -> "name COLLATE \"C\"";
+            case "status" -> "status COLLATE \"C\"";
+            default -> null;
+        };
+        sql.append(" ORDER BY ").append(column != null ? column + (ascending ? " ASC" : " DESC") + ", id" : "id");
+        if (limit != null && limit > 0) {
+            sql.append(" LIMIT ").append(limit);
+        }
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(sql.toString());
+        if (upcoming != null) {
+            spec = spec.bind("today", LocalDate.now());
+        }
+        return withRegistrations(spec);
+    }
+
+    /**
+     * Предстоящие турниры, как GET /api/tournaments/upcoming
+     */
+    public Mono<List<Map<String, Object>>> getUpcomingTournaments() {
+        return withRegistrations(databaseClient.sql(TOURNAMENT_COLUMNS + " WHERE date >= :today AND status = 'UPCOMING'")
+            .bind("today", LocalDate.now()));
+    }
+
+    /**
+     * Завершенные турниры, как GET /api/tournaments/past
+     */
+    public Mono<List<Map<String, Object>>> getPastTournaments() {
+        return withRegistrations(databaseClient.sql(TOURNAMENT_COLUMNS + " WHERE date < :today AND status = 'COMPLETED'")
+            .bind("today", LocalDate.now()));
+    }
+
+    /**
+     * Лучшие игроки по рейтингу, как GET /api/players/top
+     */
+    public Mono<List<Map<String, Object>>> getTopPlayers(int limit) {
+        return databaseClient.sql("SELECT u.id, u.name, p.rating, p.total_points, p.tournaments_played, p.photo_url "
+                + "FROM profiles p JOIN users u ON u.id = p.user_id "
+                + "WHERE p.total_points IS NOT NULL AND p.rating IS NOT NULL "
+                + "ORDER BY p.rating DESC, p.id LIMIT :limit")
+            .bind("limit", limit)
+            .map(row -> {
+                int rating = row.get("rating", Integer.class);
+                Map<String, Object> player = new HashMap<>();
+                player.put("id", row.get("id", Long.class));
+                player.put("name", row.get("name", String.class));
+                player.put("rating", rating);
+                player.put("points", row.get("total_points", Integer.class));
+                Integer played = row.get("tournaments_played", Integer.class);
+                player.put("tournaments_played", played != null ? played : 0);
+                player.put("photo_url", row.get("photo_url", String.class));
+                player.put("rank", rating > 80 ? "Pro" : "Amateur");
+                return player;
+            })
+            .all()
+            .collectList();
+    }
+
+    /**
+     * Случайное объявление с увеличением счетчика просмотров, как GET /api/ads/public/advertisement.
+     * В ответе показатели до увеличения, как и в JPA-версии.
+     *
+     * @return объявление или пустой Mono, если объявлений нет
+     */
+    public Mono<Map<String, Object>> getRandomAd() {
+        return databaseClient.sql("SELECT a.id, a.title, a.image_url, a.tournament_id, t.name AS tournament_title, "
+                + "a.advertiser_id, adv.name AS advertiser_name, a.business_id, b.name AS business_name, "
+                + "r.id AS results_id, r.clicks, r.views "
+                + "FROM (SELECT * FROM ads ORDER BY RANDOM() LIMIT 1) a "
+                + "LEFT JOIN tournaments t ON t.id = a.tournament_id "
+                + "LEFT JOIN users adv ON adv.id = a.advertiser_id "
+                + "LEFT JOIN users b ON b.id = a.business_id "
+                + "LEFT JOIN ad_results r ON r.ad_id = a.id")
+            .map(row -> {
+                Map<String, Object> ad = new HashMap<>();
+                ad.put("id", row.get("id", Long.class));
+                ad.put("title", row.get("title", String.class));
+                ad.put("image_url", row.get("image_url", String.class));
+                ad.put("tournament_id", row.get("tournament_id", Long.class));
+                ad.put("tournament_title", row.get("tournament_title", String.class));
+                ad.put("advertiser_id", row.get("advertiser_id", Long.class));
+                ad.put("advertiser_name", row.get("advertiser_name", String.class));
+                ad.put("business_id", row.get("business_id", Long.class));
+                ad.put("business_name", row.get("business_name", String.class));
+                if (row.get("results_id", Long.class) != null) {
+                    ad.put("clicks", row.get("clicks", Integer.class));
+                    ad.put("views", row.get("views", Integer.class));
+                }
+                return ad;
+            })
+            .first()
+            .flatMap(ad -> incrementViews((Long) ad.get("id"), ad.containsKey("views")).thenReturn(ad));
+    }
+
+    private Mono<Void> incrementViews(Long adId, boolean resultsExist) {
+        if (!resultsExist) {
+            // Первая запись статистики создается JPA, чтобы идентификатор выдал ее генератор последовательности
+            return Mono.fromRunnable(() -> adService.incrementViewCount(adId))
+                .subscribeOn(Schedulers.boundedElastic())
+                .then();
+        }
+        return databaseClient.sql("UPDATE ad_results SET views = views + 1, updated_at = :now WHERE ad_id = :adId")
+            .bind("now", LocalDateTime.now())
+            .bind("adId", adId)
+            .fetch()
+            .rowsUpdated()
+            .doOnNext(updated -> viewsCounter.increment())
+            .then();
+    }
+
+    /**
+     * Выполняет запрос турниров и добавляет к каждому заявки с капитанами и игроками
+     */
+    private Mono<List<Map<String, Object>>> withRegistrations(DatabaseClient.GenericExecuteSpec tournamentsQuery) {
+        return tournamentsQuery.map(PublicReadService::tournament).all().collectList()
+            .flatMap(tournaments -> {
+                if (tournaments.isEmpty()) {
+                    return Mono.just(tournaments);
+                }
+                Map<Long, List<Map<String, Object>>> byTournament = new HashMap<>();
+                for (Map<String, Object> tournament : tournaments) {
+                    List<Map<String, Object>> registrations = new ArrayList<>();
+                    byTournament.put((Long) tournament.get("id"), registrations);
+                    tournament.put("registrations", registrations);
+                }
+                return loadRegistrations(byTournament).thenReturn(tournaments);
+            });
+    }
+
+    private Mono<Void> loadRegistrations(Map<Long, List<Map<String, Object>>> byTournament) {
+        return databaseClient.sql("SELECT r.id, r.tournament_id, r.team_name, r.status, r.user_id, u.name AS captain_name "
+                + "FROM registrations r LEFT JOIN users u ON u.id = r.user_id "
+                + "WHERE r.tournament_id = ANY(:ids) ORDER BY r.id")
+            .bind("ids", ids(byTournament.keySet()))
+            .map(row -> {
+                Map<String, Object> registration = new HashMap<>();
+                registration.put("id", row.get("id", Long.class));
+                registration.put("team_name", row.get("team_name", String.class));
+                registration.put("status", row.get("status", String.class));
+                Long captainId = row.get("user_id", Long.class);
+                if (captainId != null) {
+                    registration.put("captain_id", captainId);
+                    registration.put("captain_name", row.get("captain_name", String.class));
+                }
+                byTournament.get(row.get("tournament_id", Long.class)).add(registration);
+                return registration;
+            })
+            .all()
+            .collectList()
+            .flatMap(registrations -> registrations.isEmpty() ? Mono.empty() : loadPlayers(registrations));
+    }
+
+    private Mono<Void> loadPlayers(List<Map<String, Object>> registrations) {
+        Map<Long, Map<String, Object>> byId = new HashMap<>();
+        registrations.forEach(registration -> byId.put((Long) registration.get("id"), registration));
+        return databaseClient.sql("SELECT pt.registration_id, u.id, u.name "
+                + "FROM player_team pt JOIN users u ON u.id = pt.user_id WHERE pt.registration_id = ANY(:ids)")
+            .bind("ids", ids(byId.keySet()))
+            .map(row -> {
+                Map<String, Object> registration = byId.get(row.get("registration_id", Long.class));
+                Long playerId = row.get("id", Long.class);
+                Map<String, Object> player = new HashMap<>();
+                player.put("id", playerId);
+                player.put("name", row.get("name", String.class));
+                if (registration.containsKey("captain_id")) {
+                    player.put("is_captain", playerId.equals(registration.get("captain_id")));
+                }
+                @SuppressWarnings("unchecked")
+                List<Map<String, Object>> players = (List<Map<String, Object>>) registration
+                    .computeIfAbsent("players", key -> new ArrayList<Map<String, Object>>());
+                players.add(player);
+                return player;
+            })
+            .all()
+            .then();
+    }
+
+    private static Map<String, Object> tournament(Readable row) {
+        Map<String, Object> result = new HashMap<>();
+        String name = row.get("name", String.class);
+        result.put("id", row.get("id", Long.class));
+        result.put("name", name);
+        result.put("title", name);
+        result.put("date", row.get("date", LocalDate.class).toString());
+        result.put("location", row.get("location", String.class));
+        result.put("level", row.get("level", String.class));
+        result.put("prize_pool", row.get("prize_pool", String.class));
+        result.put("status", row.get("status", String.class));
+        Boolean registrationOpen = row.get("registration_open", Boolean.class);
+        result.put("registration_open", registrationOpen == null ? Boolean.TRUE : registrationOpen);
+
+        String imageUrl = row.get("image_url", String.class);
+        String sponsorLogo = row.get("sponsor_logo", String.class);
+        if (imageUrl != null || sponsorLogo != null) {
+            result.put("image_url", imageUrl != null ? imageUrl : sponsorLogo);
+        }
+        putIfNotNull(result, "sponsor_name", row.get("sponsor_name", String.class));
+        putIfNotNull(result, "sponsor_logo", sponsorLogo);
+        putIfNotNull(result, "business_type", row.get("business_type", String.class));
+        return result;
+    }
+
+    private static void putIfNotNull(Map<String, Object> map, String key, Object value) {
+        if (value != null) {
+            map.put(key, value);
+        }
+    }
+
+    private static Long[] ids(Collection<Long> ids) {
+        return ids.toArray(Long[]::new);
+    }
+}
@@ -1,13 +1,26 @@
 package com.fiba.api.service;
 
+import com.fiba.api.exception.ResourceNotFoundException;
 import com.fiba.api.model.*;
 import com.fiba.api.repository.RegistrationRepository;
 import com.fiba.api.repository.TeamRepository;
+import com.fiba.api.repository.TournamentRepository;
+import com.fiba.api.repository.TournamentTeamRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -19,7 +32,35 @@ public class RegistrationService {
     private final TeamService teamService;
     private final TeamRepository teamRepository;
     private final PlayerService playerService;
+    private final TournamentTeamRepository tournamentTeamRepository;
+    private final TournamentRepository tournamentRepository;
+    private final TournamentCapacityService capacityService;
+    private final MeterRegistry meterRegistry;
 
+    private Counter registeredCounter;
+    private Counter waitlistedCounter;
+
+    @PostConstruct
+    public void initMetrics() {
+        registeredCounter = Counter.builder("registrations.created")
+            .description("Созданные заявки на участие в турнирах")
+            .tag("outcome", "registered")
+            .register(meterRegistry);
+        waitlistedCounter = Counter.builder("registrations.created")
+            .description("Созданные заявки на участие в турнирах")
+            .tag("outcome", "waitlisted")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Регистрация команды на турнир.
+     * Пользователи (включая капитана) загружаются одним запросом, игроки разрешаются пачкой
+     * по ID пользователей, а связь команды с турниром сохраняется напрямую, без загрузки
+     * всех команд турнира.
+     * Место в турнире занимается атомарным условным UPDATE в самом конце транзакции, после
+     * явного сброса вставок команды, заявки и связей: блокировка строки турнира удерживается
+     * только до фиксации. Если мест нет, заявка попадает в лист ожидания.
+     */
     @Transactional
     public Registration createRegistration(Long tournamentId, String teamName, Long captainId, List<Long> playerIds) {
         Tournament tournament = tournamentService.getTournamentById(tournamentId);
@@ -29,8 +70,24 @@ public class RegistrationService {
             throw new IllegalStateException("Team with name '" + teamName + "' already exists in this tournament");
         }
         
-        User captain = userService.getUserById(captainId);
-        List<User> users = userService.getUsersByIds(playerIds);
+        // Загружаем капитана вместе с игроками одним запросом
+        Set<Long> userIds = new LinkedHashSet<>(playerIds);
+        userIds.add(captainId);
+        Map<Long, User> usersById = userService.getUsersByIds(new ArrayList<>(userIds)).stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+        
+        User captain = usersById.get(captainId);
+        if (captain == null) {
+            throw new ResourceNotFoundException("Пользователь", "id", captainId);
+        }
+        List<User> users = new ArrayList<>();
+        for (Long playerId : new LinkedHashSet<>(playerIds)) {
+            User user = usersById.get(playerId);
+            if (user == null) {
+                throw new ResourceNotFoundException("Пользователь", "id", playerId);
+            }
+            users.add(user);
+        }
         
         // Convert users to players
         List<Player> players = playerService.getOrCreatePlayers(users);
@@ -48,15 +105,29 @@ public class RegistrationService {
         registration.setCaptain(captain);
         registration.setPlayers(users); // Registration still uses Users
         registration.setStatus("pending");
+        registration = registrationRepository.save(registration);
 
         // Связываем команду с турниром через TournamentTeam
         TournamentTeam tournamentTeam = new TournamentTeam();
         tournamentTeam.setTeam(team);
         tournamentTeam.setTournament(tournament);
+        tournamentTeam.setRegistration(registration);
         tournamentTeam.setStatus(TeamStatus.PENDING);
-        tournament.getTeams().add(tournamentTeam);
+        tournamentTeamRepository.save(tournamentTeam);
 
-        return registrationRepository.save(registration);
+        // Идентификаторы из пула последовательности не требуют INSERT при save(), поэтому вставки
+        // отложены до сброса. Сбрасываем их до того, как занять место: иначе они выполнялись бы
+        // при фиксации уже под блокировкой строки турнира
+        tournamentTeamRepository.flush();
+        capacityService.enroll(tournamentTeam);
+        if (tournamentTeam.getStatus() == TeamStatus.WAITLISTED) {
+            registration.setStatus("waitlisted");
+            waitlistedCounter.increment();
+        } else {
+            registeredCounter.increment();
+        }
+
+        return registration;
     }
 
     @Transactional(readOnly = true)
@@ -114,9 +185,21 @@ public class RegistrationService {
 
     @Transactional
     public Registration updateRegistrationStatus(Long registrationId, String status) {
+        // Заявка и команда читаются после блокировки строки турнира, чтобы параллельные смена статуса
+        // и удаление не работали с устаревшим статусом
+        lockTournament(registrationId);
         Registration existingRegistration = registrationRepository.findById(registrationId)
                 .orElseThrow(() -> new RuntimeException("Регистрация с ID " + registrationId + " не найдена"));
         
+        // Статус участия команды меняется вместе со счетчиками мест турнира
+        Optional<TournamentTeam> tournamentTeam = tournamentTeamRepository.findByRegistrationId(registrationId);
+        if (tournamentTeam.isPresent()) {
+            TournamentTeam tt = tournamentTeam.get();
+            teamService.updateTeamStatus(tt.getTournament().getId(), tt.getTeam().getId(),
+                    TeamStatus.valueOf(status.toUpperCase()));
+            return existingRegistration;
+        }
+        
         existingRegistration.setStatus(status);
         return registrationRepository.save(existingRegistration);
     }
@@ -153,12 +236,34 @@ public class RegistrationService {
 
     @Transactional
     public void deleteRegistration(Long id) {
+        // Как и при смене статуса, заявка читается под блокировкой строки турнира
+        lockTournament(id);
         Registration registration = registrationRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Регистрация с ID " + id + " не найдена"));
         
+        // Вместе с заявкой команда покидает турнир и освобождает место
+        tournamentTeamRepository.findByRegistrationId(id).ifPresent(tt -> {
+            capacityService.withdraw(tt);
+            tournamentTeamRepository.delete(tt);
+        });
+        
         registrationRepository.delete(registration);
     }
 
+    private void lockTournament(Long registrationId) {
+        registrationRepository.findTournamentIdById(registrationId).ifPresent(tournamentRepository::lockById);
+    }
+
+    /**
+     * Позиция заявки в листе ожидания
+     * @param id ID регистрации
+     * @return позиция (1 — следующая на повышение) или пустое значение, если заявка не в листе ожидания
+     */
+    @Transactional(readOnly = true)
+    public Optional<Integer> getWaitlistPosition(Long id) {
+        return tournamentTeamRepository.findWaitlistPositionByRegistrationId(id);
+    }
+
     /**
      * Получает регистрацию с игроками по ID
      * @param id ID регистрации
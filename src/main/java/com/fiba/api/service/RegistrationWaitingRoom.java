@@ -0,0 +1,237 @@
+package com.fiba.api.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Виртуальная очередь ожидания перед эндпоинтами регистрации команд.
+ *
+ * Одновременно обрабатывается не больше maxConcurrent регистраций (число подобрано под пул соединений
+ * с БД). Остальные запросы получают талон с номером в очереди и оценкой времени ожидания; талоны
+ * допускаются строго по порядку, как только освобождается место. Если очередь заполнена, запрос
+ * сразу отклоняется, не занимая поток сервера.
+ *
+ * Состояние очереди хранится в памяти узла.
+ */
+@Service
+@Slf4j
+public class RegistrationWaitingRoom {
+
+    private static final int WAITING = 0;
+    private static final int ADMITTED = 1;
+    private static final int DONE = 2;
+
+    @Value("${app.waiting-room.enabled:true}")
+    @Getter
+    private boolean enabled;
+
+    @Value("${app.waiting-room.max-concurrent:3}")
+    private int maxConcurrent;
+
+    @Value("${app.waiting-room.max-queue:1000}")
+    private int maxQueue;
+
+    @Value("${app.waiting-room.ticket-ttl-ms:30000}")
+    private long ticketTtlMs;
+
+    @Value("${app.waiting-room.admission-ttl-ms:15000}")
+    private long admissionTtlMs;
+
+    private final ConcurrentLinkedQueue<Ticket> queue = new ConcurrentLinkedQueue<>();
+    private final ConcurrentHashMap<String, Ticket> tickets = new ConcurrentHashMap<>();
+    private final AtomicLong issued = new AtomicLong();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final Counter admittedCounter;
+    private final Counter rejectedCounter;
+    private Semaphore permits;
+    // Не монитор: при виртуальных потоках ожидание synchronized закрепляет поток-носитель
+    private final ReentrantLock admitLock = new ReentrantLock();
+
+    // Номер последнего талона, покинувшего очередь: позиция талона = его номер - served
+    private volatile long served = 0;
+    // Скользящее среднее времени обработки регистрации, используется для оценки ожидания
+    private volatile double averageServiceMs = 500;
+
+    /**
+     * Талон очереди
+     */
+    @Getter
+    public static class Ticket {
+        private final String token;
+        private final long number;
+        private final AtomicInteger state = new AtomicInteger(WAITING);
+        private volatile long lastSeen;
+        private volatile long admittedAt;
+
+        Ticket(String token, long number) {
+            this.token = token;
+            this.number = number;
+            this.lastSeen = System.currentTimeMillis();
+        }
+
+        public boolean isAdmitted() {
+            return state.get() == ADMITTED;
+        }
+    }
+
+    public RegistrationWaitingRoom(MeterRegistry meterRegistry) {
+        this.admittedCounter = Counter.builder("registration.waiting_room.admitted")
+            .description("Регистрации, допущенные к обработке")
+            .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("registration.waiting_room.rejected")
+            .description("Регистрации, отклоненные из-за переполнения очереди")
+            .register(meterRegistry);
+        Gauge.builder("registration.waiting_room.queued", queued, AtomicInteger::get)
+            .description("Количество талонов в очереди ожидания")
+            .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void init() {
+        permits = new Semaphore(maxConcurrent);
+    }
+
+    /**
+     * Пытается допустить запрос к обработке. При успехе вызывающий обязан вызвать {@link #release}.
+     *
+     * @param token талон, полученный ранее, или null
+     * @return true, если запрос можно обрабатывать
+     */
+    public boolean tryAdmit(String token) {
+        if (token != null) {
+            Ticket ticket = tickets.get(token);
+            if (ticket != null && ticket.state.compareAndSet(ADMITTED, DONE)) {
+                // Место было зарезервировано за талоном при допуске
+                tickets.remove(token);
+                return true;
+            }
+            if (ticket != null) {
+                return false;
+            }
+        }
+        // Без очереди пропускаем, только если никто не ждет
+        if (queue.isEmpty() && permits.tryAcquire()) {
+            admittedCounter.increment();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Ставит запрос в очередь
+     *
+     * @return талон или null, если очередь заполнена
+     */
+    public Ticket enqueue() {
+        if (queued.incrementAndGet() > maxQueue) {
+            queued.decrementAndGet();
+            rejectedCounter.increment();
+            return null;
+        }
+        Ticket ticket = new Ticket(UUID.randomUUID().toString(), issued.incrementAndGet());
+        tickets.put(ticket.token, ticket);
+        queue.add(ticket);
+        admitWaiting();
+        return ticket;
+    }
+
+    /**
+     * Возвращает талон по токену, продлевая его срок жизни
+     */
+    public Ticket touch(String token) {
+        Ticket ticket = token != null ? tickets.get(token) : null;
+        if (ticket != null) {
+            ticket.lastSeen = System.currentTimeMillis();
+        }
+        return ticket;
+    }
+
+    /**
+     * Освобождает место после обработки запроса и допускает следующий талон
+     *
+     * @param elapsedMs длительность обработки
+     */
+    public void release(long elapsedMs) {
+        averageServiceMs = averageServiceMs * 0.9 + elapsedMs * 0.1;
+        permits.release();
+        admitWaiting();
+    }
+
+    /**
+     * Позиция талона в очереди (0 — допущен)
+     */
+    public long position(Ticket ticket) {
+        return ticket.isAdmitted() ? 0 : Math.max(1, ticket.number - served);
+    }
+
+    /**
+     * Оценка времени ожидания в секундах
+     */
+    public long etaSeconds(Ticket ticket) {
+        return (long) Math.ceil(position(ticket) * averageServiceMs / maxConcurrent / 1000.0);
+    }
+
+    /**
+     * Допускает талоны из головы очереди, пока есть свободные места.
+     * Талоны, владельцы которых перестали опрашивать очередь, пропускаются.
+     */
+    private void admitWaiting() {
+        admitLock.lock();
+        try {
+            long now = System.currentTimeMillis();
+            Ticket head;
+            while ((head = queue.peek()) != null) {
+                boolean abandoned = now - head.lastSeen > ticketTtlMs;
+                if (!abandoned && !permits.tryAcquire()) {
+                    break;
+                }
+                queue.poll();
+                queued.decrementAndGet();
+                served = head.number;
+                if (abandoned) {
+                    head.state.set(DONE);
+                    tickets.remove(head.token);
+                    continue;
+                }
+                head.admittedAt = now;
+                head.state.set(ADMITTED);
+                admittedCounter.increment();
+            }
+        } finally {
+            admitLock.unlock();
+        }
+    }
+
+    /**
+     * Возвращает места допущенных талонов, которые не были использованы вовремя,
+     * и продвигает очередь, если ее владельцы перестали ее опрашивать
+     */
+    @Scheduled(fixedDelayString = "${app.waiting-room.sweep-interval-ms:1000}")
+    public void sweep() {
+        long now = System.currentTimeMillis();
+        for (Ticket ticket : tickets.values()) {
+            if (ticket.state.get() == ADMITTED && now - ticket.admittedAt > admissionTtlMs
+                    && ticket.state.compareAndSet(ADMITTED, DONE)) {
+                tickets.remove(ticket.token);
+                permits.release();
+                log.debug("Waiting room admission {} expired unused", ticket.number);
+            }
+        }
+        admitWaiting();
+    }
+}
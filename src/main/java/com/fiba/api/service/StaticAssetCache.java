@@ -0,0 +1,252 @@
+package com.fiba.api.service;
+
+import jakarta.annotation.PostConstruct;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Двухуровневый (память + диск) LRU-кэш статических ресурсов, получаемых через прокси.
+ *
+ * Тело каждого ресурса хранится в файле на диске; небольшие ресурсы дополнительно держатся
+ * в памяти. Оба уровня ограничены по суммарному объему.
+ *
+ * Индекс защищен ReentrantLock, а не synchronized: под виртуальными потоками ожидание монитора
+ * закрепляет поток-носитель. Файлы вытесненных записей удаляются уже после снятия блокировки.
+ */
+@Component
+@Slf4j
+public class StaticAssetCache {
+
+    @Value("${proxy.cache.dir:${java.io.tmpdir}/fiba-proxy-cache}")
+    private String cacheDir;
+
+    @Value("${proxy.cache.max-memory-bytes:33554432}")
+    private long maxMemoryBytes;
+
+    @Value("${proxy.cache.max-disk-bytes:268435456}")
+    private long maxDiskBytes;
+
+    @Value("${proxy.cache.max-in-memory-entry-bytes:1048576}")
+    private long maxInMemoryEntryBytes;
+
+    @Value("${proxy.cache.max-entry-bytes:20971520}")
+    @Getter
+    private long maxEntryBytes;
+
+    private Path root;
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(64, 0.75f, true);
+    private long memoryBytes = 0;
+    private long diskBytes = 0;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    /**
+     * Закэшированный ресурс и его валидаторы
+     */
+    @Getter
+    public static class Entry {
+        private final String url;
+        private final Path file;
+        private final long size;
+        private final String contentType;
+        private final String etag;
+        private final String lastModified;
+        private volatile byte[] body;
+        private volatile long validatedAt;
+
+        Entry(String url, Path file, long size, String contentType, String etag, String lastModified) {
+            this.url = url;
+            this.file = file;
+            this.size = size;
+            this.contentType = contentType;
+            this.etag = etag;
+            this.lastModified = lastModified;
+            this.validatedAt = System.currentTimeMillis();
+        }
+
+        /**
+         * Записывает тело ресурса в поток: из памяти, если оно там есть, иначе с диска
+         */
+        public void writeTo(OutputStream out) throws IOException {
+            writeTo(out, 0, size);
+        }
+
+        /**
+         * Записывает в поток часть тела ресурса (для ответов на запросы с Range)
+         */
+        public void writeTo(OutputStream out, long offset, long length) throws IOException {
+            byte[] bytes = body;
+            if (bytes != null) {
+                out.write(bytes, (int) offset, (int) length);
+                return;
+            }
+            try (InputStream in = Files.newInputStream(file)) {
+                in.skipNBytes(offset);
+                byte[] buffer = new byte[8192];
+                long remaining = length;
+                while (remaining > 0) {
+                    int read = in.read(buffer, 0, (int) Math.min(buffer.length, remaining));
+                    if (read == -1) {
+                        throw new IOException("Cached asset file is shorter than expected: " + file);
+                    }
+                    out.write(buffer, 0, read);
+                    remaining -= read;
+                }
+            }
+        }
+
+        void markValidated() {
+            this.validatedAt = System.currentTimeMillis();
+        }
+    }
+
+    @PostConstruct
+    public void init() throws IOException {
+        root = Paths.get(cacheDir).toAbsolutePath().normalize();
+        Files.createDirectories(root);
+        // Индекс хранится только в памяти, поэтому файлы прошлого запуска не нужны
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(root)) {
+            for (Path path : stream) {
+                Files.deleteIfExists(path);
+            }
+        }
+        log.info("Static asset cache initialized at {}", root);
+    }
+
+    public Entry get(String url) {
+        lock.lock();
+        try {
+            return entries.get(url);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Отмечает запись как успешно перепроверенную (upstream ответил 304)
+     */
+    public void touch(Entry entry) {
+        entry.markValidated();
+    }
+
+    /**
+     * Сохраняет тело ресурса из потока в кэш. Возвращает null, если ресурс превышает допустимый размер.
+     */
+    public Entry put(String url, InputStream body, String contentType, String etag, String lastModified)
+            throws IOException {
+        Path tmp = root.resolve(UUID.randomUUID() + ".part");
+        long size;
+        try (OutputStream out = Files.newOutputStream(tmp)) {
+            size = copyLimited(body, out, maxEntryBytes);
+        } catch (IOException e) {
+            Files.deleteIfExists(tmp);
+            throw e;
+        }
+        if (size < 0) {
+            Files.deleteIfExists(tmp);
+            return null;
+        }
+
+        Path file = root.resolve(hash(url) + "-" + UUID.randomUUID());
+        Files.move(tmp, file, StandardCopyOption.ATOMIC_MOVE);
+
+        Entry entry = new Entry(url, file, size, contentType, etag, lastModified);
+        if (size <= maxInMemoryEntryBytes) {
+            entry.body = Files.readAllBytes(file);
+        }
+
+        List<Entry> released = new ArrayList<>();
+        lock.lock();
+        try {
+            Entry previous = entries.put(url, entry);
+            if (previous != null) {
+                release(previous, released);
+            }
+            diskBytes += size;
+            if (entry.body != null) {
+                memoryBytes += size;
+            }
+            evict(released);
+        } finally {
+            lock.unlock();
+        }
+        released.forEach(this::deleteFile);
+        return entry;
+    }
+
+    private void evict(List<Entry> released) {
+        Iterator<Map.Entry<String, Entry>> it = entries.entrySet().iterator();
+        while ((diskBytes > maxDiskBytes || memoryBytes > maxMemoryBytes) && it.hasNext()) {
+            Entry eldest = it.next().getValue();
+            if (diskBytes > maxDiskBytes) {
+                it.remove();
+                release(eldest, released);
+            } else if (eldest.body != null) {
+                // Память переполнена: вытесняем тело на диск, запись остается в кэше
+                memoryBytes -= eldest.size;
+                eldest.body = null;
+            }
+        }
+    }
+
+    private void release(Entry entry, List<Entry> released) {
+        diskBytes -= entry.size;
+        if (entry.body != null) {
+            memoryBytes -= entry.size;
+        }
+        released.add(entry);
+    }
+
+    private void deleteFile(Entry entry) {
+        try {
+            // Уже открытые на чтение файлы остаются доступны до закрытия
+            Files.deleteIfExists(entry.file);
+        } catch (IOException e) {
+            log.warn("Cannot delete cached asset file {}: {}", entry.file, e.getMessage());
+        }
+    }
+
+    private static long copyLimited(InputStream in, OutputStream out, long limit) throws IOException {
+        byte[] buffer = new byte[8192];
+        long total = 0;
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+            total += read;
+            if (total > limit) {
+                return -1;
+            }
+            out.write(buffer, 0, read);
+        }
+        return total;
+    }
+
+    private static String hash(String url) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(url.getBytes(StandardCharsets.UTF_8)), 0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,428 @@
+package com.fiba.api.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestClientResponseException;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Потоковое проксирование статических ресурсов с static.bro-js.ru.
+ *
+ * Тело ответа передается клиенту байтами, без буферизации в строку. Версионированные ресурсы
+ * фронтенда кэшируются в {@link StaticAssetCache} и периодически перепроверяются условным запросом.
+ *
+ * Одновременные промахи кэша по одному URL объединяются в один запрос к upstream: первый запрос
+ * запускает загрузку в фоновом потоке, и все запросы, включая первый, ждут ее не дольше waitTimeoutMs.
+ * Не дождавшийся запрос получает устаревшую копию или 504, но не повторяет загрузку: она продолжается
+ * и заполняет кэш. Если upstream недоступен, отдается устаревшая копия.
+ *
+ * Ресурсы больше допустимого для кэша размера запоминаются и до следующей перепроверки передаются
+ * клиенту напрямую, минуя объединение запросов.
+ *
+ * Заголовок долгого кэширования ставится только на успешные ответы (200, 206, 304): ошибка,
+ * закэшированная браузером или CDN на год, не исправилась бы даже после восстановления upstream.
+ */
+@Service
+@Slf4j
+public class StaticProxyService {
+
+    private static final String IMMUTABLE = "public, max-age=31536000";
+    private static final String NO_STORE = "no-store";
+
+    private final RestTemplate restTemplate;
+    private final StaticAssetCache cache;
+    private final ConcurrentHashMap<String, CompletableFuture<StaticAssetCache.Entry>> inFlight = new ConcurrentHashMap<>();
+    // URL ресурсов, не помещающихся в кэш, и время, когда это выяснилось
+    private final ConcurrentHashMap<String, Long> oversize = new ConcurrentHashMap<>();
+    private final ExecutorService fetchExecutor;
+    private final Counter upstreamFetches;
+    private final Counter coalescedRequests;
+    private final Counter staleResponses;
+    private final Counter waitTimeouts;
+
+    @Value("${proxy.static-bro-js.base-url:https://static.bro-js.ru/}")
+    private String baseUrl;
+
+    @Value("${proxy.static-bro-js.auth.enabled:false}")
+    private boolean authEnabled;
+
+    @Value("${proxy.static-bro-js.auth.username:}")
+    private String username;
+
+    @Value("${proxy.static-bro-js.auth.password:}")
+    private String password;
+
+    @Value("${proxy.cache.revalidate-after-ms:600000}")
+    private long revalidateAfterMs;
+
+    @Value("${proxy.coalesce.wait-timeout-ms:10000}")
+    private long waitTimeoutMs;
+
+    public StaticProxyService(RestTemplate restTemplate, StaticAssetCache cache, MeterRegistry meterRegistry,
+                              @Value("${proxy.coalesce.max-concurrent-fetches:50}") int maxConcurrentFetches) {
+        this.restTemplate = restTemplate;
+        this.cache = cache;
+        // Без очереди: при исчерпании потоков загрузка отклоняется, а не ждет дольше waitTimeoutMs
+        this.fetchExecutor = new ThreadPoolExecutor(0, maxConcurrentFetches, 60, TimeUnit.SECONDS,
+            new SynchronousQueue<>(), runnable -> {
+                Thread thread = new Thread(runnable, "proxy-fetch");
+                thread.setDaemon(true);
+                return thread;
+            });
+        this.upstreamFetches = Counter.builder("proxy.upstream.fetches")
+            .description("Запросы к upstream для заполнения кэша статики")
+            .register(meterRegistry);
+        this.coalescedRequests = Counter.builder("proxy.upstream.coalesced")
+            .description("Промахи кэша, присоединенные к уже выполняющейся загрузке")
+            .register(meterRegistry);
+        this.staleResponses = Counter.builder("proxy.cache.stale.served")
+            .description("Ответы устаревшей копией из-за ошибки upstream")
+            .register(meterRegistry);
+        this.waitTimeouts = Counter.builder("proxy.upstream.wait.timeouts")
+            .description("Запросы, не дождавшиеся загрузки из upstream")
+            .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        fetchExecutor.shutdownNow();
+    }
+
+    /**
+     * Проксирует ресурс без кэширования, передавая тело клиенту по мере получения
+     *
+     * @param path путь ресурса относительно базового URL
+     */
+    public void stream(String path, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        stream(path, request, response, null);
+    }
+
+    /**
+     * @param cacheControl заголовок Cache-Control для успешного ответа upstream, null - не ставить
+     */
+    private void stream(String path, HttpServletRequest request, HttpServletResponse response, String cacheControl)
+            throws IOException {
+        URI uri = URI.create(baseUrl + path);
+        HttpHeaders headers = upstreamHeaders();
+        String range = request.getHeader(HttpHeaders.RANGE);
+        if (range != null) {
+            headers.set(HttpHeaders.RANGE, range);
+        }
+        try {
+            restTemplate.execute(uri, HttpMethod.GET,
+                upstreamRequest -> upstreamRequest.getHeaders().addAll(headers),
+                upstream -> {
+                    HttpHeaders upstreamHeaders = upstream.getHeaders();
+                    response.setStatus(upstream.getStatusCode().value());
+                    response.setContentType(contentType(upstreamHeaders, path));
+                    if (upstreamHeaders.getContentLength() >= 0) {
+                        response.setContentLengthLong(upstreamHeaders.getContentLength());
+                    }
+                    copyHeader(upstreamHeaders, response, HttpHeaders.CONTENT_RANGE);
+                    copyHeader(upstreamHeaders, response, HttpHeaders.ACCEPT_RANGES);
+                    if (cacheControl != null && upstream.getStatusCode().is2xxSuccessful()) {
+                        response.setHeader(HttpHeaders.CACHE_CONTROL, cacheControl);
+                    }
+                    try (InputStream in = upstream.getBody(); OutputStream out = response.getOutputStream()) {
+                        in.transferTo(out);
+                    }
+                    return null;
+                });
+        } catch (RestClientResponseException e) {
+            sendError(response, e.getStatusCode().value(), uri, e.getStatusText());
+        } catch (Exception e) {
+            log.error("Error proxying request to {}: {}", uri, e.getMessage(), e);
+            sendError(response, HttpStatus.BAD_GATEWAY.value(), uri, e.getMessage());
+        }
+    }
+
+    /**
+     * Отдает версионированный ресурс из кэша, при необходимости загружая или перепроверяя его
+     *
+     * @param path путь ресурса относительно базового URL
+     */
+    public void serveCached(String path, HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        URI uri = URI.create(baseUrl + path);
+        if (isOversize(uri.toString())) {
+            stream(path, request, response, IMMUTABLE);
+            return;
+        }
+        StaticAssetCache.Entry entry;
+        try {
+            entry = resolve(uri, path);
+        } catch (RestClientResponseException e) {
+            sendError(response, e.getStatusCode().value(), uri, e.getStatusText());
+            return;
+        } catch (TimeoutException e) {
+            sendError(response, HttpStatus.GATEWAY_TIMEOUT.value(), uri, e.getMessage());
+            return;
+        } catch (Exception e) {
+            log.error("Error proxying request to {}: {}", uri, e.getMessage(), e);
+            sendError(response, HttpStatus.BAD_GATEWAY.value(), uri, e.getMessage());
+            return;
+        }
+
+        if (entry == null) {
+            // Ресурс слишком велик для кэша — отдаем его напрямую
+            stream(path, request, response, IMMUTABLE);
+            return;
+        }
+        writeEntry(entry, request, response);
+    }
+
+    private StaticAssetCache.Entry resolve(URI uri, String path) throws Exception {
+        String url = uri.toString();
+        StaticAssetCache.Entry cached = cache.get(url);
+        if (cached != null && System.currentTimeMillis() - cached.getValidatedAt() < revalidateAfterMs) {
+            return cached;
+        }
+
+        CompletableFuture<StaticAssetCache.Entry> future = new CompletableFuture<>();
+        CompletableFuture<StaticAssetCache.Entry> existing = inFlight.putIfAbsent(url, future);
+        if (existing == null) {
+            // Этот запрос — ведущий: запускает загрузку и ждет ее наравне с остальными
+            upstreamFetches.increment();
+            CompletableFuture<StaticAssetCache.Entry> leader = future;
+            try {
+                // Загрузка снимается с учета до публикации результата: запрос, пришедший после ответа
+                // ожидающим, должен начать новую загрузку, а не получить завершенную
+                fetchExecutor.execute(() -> {
+                    try {
+                        StaticAssetCache.Entry entry = fetch(uri, path, cached);
+                        inFlight.remove(url, leader);
+                        leader.complete(entry);
+                    } catch (Throwable e) {
+                        inFlight.remove(url, leader);
+                        leader.completeExceptionally(e);
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                inFlight.remove(url, leader);
+                leader.completeExceptionally(e);
+            }
+        } else {
+            coalescedRequests.increment();
+            future = existing;
+        }
+
+        try {
+            return future.get(waitTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            // Загрузка продолжается и заполнит кэш, повторный запрос к upstream только добавил бы нагрузки
+            waitTimeouts.increment();
+            return staleOrThrow(url, cached, new TimeoutException("Timed out waiting for upstream response"));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return staleOrThrow(url, cached, e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RestClientResponseException rce && rce.getStatusCode().is4xxClientError()) {
+                // Ресурс отсутствует на upstream — устаревшую копию не отдаем
+                throw rce;
+            }
+            return staleOrThrow(url, cached, cause instanceof Exception ex ? ex : e);
+        }
+    }
+
+    private StaticAssetCache.Entry staleOrThrow(String url, StaticAssetCache.Entry cached, Exception error)
+            throws Exception {
+        if (cached == null) {
+            throw error;
+        }
+        staleResponses.increment();
+        log.warn("Upstream failed for {}, serving stale copy: {}", url, error.getMessage());
+        return cached;
+    }
+
+    private boolean isOversize(String url) {
+        Long since = oversize.get(url);
+        if (since == null) {
+            return false;
+        }
+        if (System.currentTimeMillis() - since >= revalidateAfterMs) {
+            // Ресурс мог уменьшиться: следующий промах снова попробует закэшировать его
+            oversize.remove(url, since);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Загружает ресурс в кэш. Если есть закэшированная версия, отправляет условный запрос
+     * и при ответе 304 продлевает ее актуальность. Для ресурса, не помещающегося в кэш, возвращает null;
+     * если размер известен из Content-Length, тело не сохраняется.
+     */
+    private StaticAssetCache.Entry fetch(URI uri, String path, StaticAssetCache.Entry cached) {
+        HttpHeaders headers = upstreamHeaders();
+        if (cached != null) {
+            if (cached.getEtag() != null) {
+                headers.setIfNoneMatch(cached.getEtag());
+            }
+            if (cached.getLastModified() != null) {
+                headers.set(HttpHeaders.IF_MODIFIED_SINCE, cached.getLastModified());
+            }
+        }
+        return restTemplate.execute(uri, HttpMethod.GET,
+            request -> request.getHeaders().addAll(headers),
+            upstream -> {
+                if (cached != null && upstream.getStatusCode().value() == HttpStatus.NOT_MODIFIED.value()) {
+                    cache.touch(cached);
+                    return cached;
+                }
+                HttpHeaders upstreamHeaders = upstream.getHeaders();
+                StaticAssetCache.Entry entry = null;
+                if (upstreamHeaders.getContentLength() <= cache.getMaxEntryBytes()) {
+                    try (InputStream in = upstream.getBody()) {
+                        entry = cache.put(uri.toString(), in,
+                            contentType(upstreamHeaders, path),
+                            upstreamHeaders.getETag(),
+                            upstreamHeaders.getFirst(HttpHeaders.LAST_MODIFIED));
+                    }
+                }
+                if (entry == null) {
+                    oversize.put(uri.toString(), System.currentTimeMillis());
+                }
+                return entry;
+            });
+    }
+
+    private void writeEntry(StaticAssetCache.Entry entry, HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        if (entry.getEtag() != null) {
+            response.setHeader(HttpHeaders.ETAG, entry.getEtag());
+        }
+        if (entry.getLastModified() != null) {
+            response.setHeader(HttpHeaders.LAST_MODIFIED, entry.getLastModified());
+        }
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+        if (ifNoneMatch != null && ifNoneMatch.equals(entry.getEtag())) {
+            response.setHeader(HttpHeaders.CACHE_CONTROL, IMMUTABLE);
+            response.setStatus(HttpStatus.NOT_MODIFIED.value());
+            return;
+        }
+
+        HttpRange range = requestedRange(entry, request);
+        long size = entry.getSize();
+        long start = 0;
+        long length = size;
+        if (range != null) {
+            try {
+                start = range.getRangeStart(size);
+                length = range.getRangeEnd(size) - start + 1;
+            } catch (IllegalArgumentException e) {
+                length = 0;
+            }
+            if (start >= size || length <= 0) {
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + size);
+                response.setHeader(HttpHeaders.CACHE_CONTROL, NO_STORE);
+                response.setStatus(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value());
+                return;
+            }
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + (start + length - 1) + "/" + size);
+            response.setStatus(HttpStatus.PARTIAL_CONTENT.value());
+        } else {
+            response.setStatus(HttpStatus.OK.value());
+        }
+        response.setHeader(HttpHeaders.CACHE_CONTROL, IMMUTABLE);
+        response.setContentType(entry.getContentType());
+        response.setContentLengthLong(length);
+        try (OutputStream out = response.getOutputStream()) {
+            entry.writeTo(out, start, length);
+        }
+    }
+
+    /**
+     * Единственный диапазон из заголовка Range. Несколько диапазонов, некорректный заголовок
+     * или If-Range с другим валидатором - null, тогда отдается ресурс целиком.
+     */
+    private HttpRange requestedRange(StaticAssetCache.Entry entry, HttpServletRequest request) {
+        String header = request.getHeader(HttpHeaders.RANGE);
+        if (header == null) {
+            return null;
+        }
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (ifRange != null && !ifRange.equals(entry.getEtag()) && !ifRange.equals(entry.getLastModified())) {
+            return null;
+        }
+        try {
+            List<HttpRange> ranges = HttpRange.parseRanges(header);
+            return ranges.size() == 1 ? ranges.get(0) : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static void copyHeader(HttpHeaders from, HttpServletResponse to, String name) {
+        String value = from.getFirst(name);
+        if (value != null) {
+            to.setHeader(name, value);
+        }
+    }
+
+    private HttpHeaders upstreamHeaders() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.add("Accept", "*/*");
+        headers.add("User-Agent", "Spring RestTemplate");
+
+        // Если включена аутентификация, добавляем заголовок Basic Authentication
+        if (authEnabled && username != null && !username.isEmpty()) {
+            String auth = username + ":" + password;
+            headers.add("Authorization", "Basic " + Base64.getEncoder().encodeToString(auth.getBytes(StandardCharsets.UTF_8)));
+        }
+        return headers;
+    }
+
+    private String contentType(HttpHeaders headers, String path) {
+        MediaType contentType = headers.getContentType();
+        if (contentType != null) {
+            return contentType.toString();
+        }
+        if (path.endsWith(".js")) {
+            return "application/javascript";
+        }
+        return MediaType.APPLICATION_OCTET_STREAM_VALUE;
+    }
+
+    private void sendError(HttpServletResponse response, int status, URI uri, String message) throws IOException {
+        if (response.isCommitted()) {
+            return;
+        }
+        // resetBuffer() сохраняет уже выставленные заголовки - ошибку явно запрещаем кэшировать
+        response.resetBuffer();
+        response.setHeader(HttpHeaders.CACHE_CONTROL, NO_STORE);
+        response.setStatus(status);
+        response.setContentType(MediaType.TEXT_PLAIN_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.getWriter().write("Error proxying request to " + uri + ": " + message);
+    }
+}
@@ -0,0 +1,265 @@
+package com.fiba.api.service;
+
+import com.fiba.api.repository.AdRepository;
+import com.fiba.api.repository.PlayerRepository;
+import com.fiba.api.repository.ProfileRepository;
+import com.fiba.api.repository.TeamRepository;
+import com.fiba.api.repository.TournamentRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Инкрементальная очистка каталога загрузок от файлов, на которые больше не ссылается ни одна сущность.
+ *
+ * За один запуск обрабатывается одна страница имен файлов одной поддиректории (в лексикографическом
+ * порядке, начиная с сохраненного курсора), поэтому ни память, ни длительность запуска не зависят
+ * от общего количества файлов. Запуск выполняется под транзакционной advisory-блокировкой PostgreSQL,
+ * так что при нескольких узлах очистку одновременно выполняет только один из них.
+ */
+@Service
+@Slf4j
+public class StorageJanitorService {
+
+    private static final long LOCK_KEY = 0x5354_4A41_4E49_544FL; // "STJANITO"
+    private static final String TEMP_DIR = "temp";
+    private static final List<String> SCANNED_DIRS = List.of(
+        "", "profiles", "avatars", "tournaments", "sponsors", "ads", "teams", TEMP_DIR
+    );
+
+    private final FileStorageService fileStorageService;
+    private final ProfileRepository profileRepository;
+    private final TournamentRepository tournamentRepository;
+    private final AdRepository adRepository;
+    private final TeamRepository teamRepository;
+    private final PlayerRepository playerRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Counter reclaimedBytes;
+    private final Counter deletedFiles;
+
+    @Value("${app.storage.janitor.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.storage.janitor.dry-run:false}")
+    private boolean dryRun;
+
+    @Value("${app.storage.janitor.batch-size:200}")
+    private int batchSize;
+
+    @Value("${app.storage.janitor.max-deletes-per-run:50}")
+    private int maxDeletesPerRun;
+
+    @Value("${app.storage.janitor.grace-period-hours:24}")
+    private long gracePeriodHours;
+
+    // Курсор обхода: текущая поддиректория и последнее обработанное имя файла в ней
+    private int dirIndex = 0;
+    private String cursor = null;
+
+    public StorageJanitorService(FileStorageService fileStorageService,
+                                 ProfileRepository profileRepository,
+                                 TournamentRepository tournamentRepository,
+                                 AdRepository adRepository,
+                                 TeamRepository teamRepository,
+                                 PlayerRepository playerRepository,
+                                 JdbcTemplate jdbcTemplate,
+                                 PlatformTransactionManager transactionManager,
+                                 MeterRegistry meterRegistry) {
+        this.fileStorageService = fileStorageService;
+        this.profileRepository = profileRepository;
+        this.tournamentRepository = tournamentRepository;
+        this.adRepository = adRepository;
+        this.teamRepository = teamRepository;
+        this.playerRepository = playerRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.reclaimedBytes = Counter.builder("storage.janitor.reclaimed")
+            .baseUnit("bytes")
+            .description("Объем места, освобожденного удалением неиспользуемых загрузок")
+            .register(meterRegistry);
+        this.deletedFiles = Counter.builder("storage.janitor.deleted")
+            .baseUnit("files")
+            .description("Количество удаленных неиспользуемых загрузок")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Обрабатывает очередную страницу файлов. Пауза между запусками и лимит удалений
+     * за запуск ограничивают нагрузку на диск и базу данных.
+     */
+    @Scheduled(initialDelayString = "${app.storage.janitor.initial-delay-ms:300000}",
+               fixedDelayString = "${app.storage.janitor.interval-ms:60000}")
+    public void collectOrphans() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                Boolean locked = jdbcTemplate.queryForObject(
+                    "SELECT pg_try_advisory_xact_lock(?)", Boolean.class, LOCK_KEY);
+                if (!Boolean.TRUE.equals(locked)) {
+                    log.debug("Storage janitor is running on another node, skipping");
+                    return;
+                }
+                processNextPage();
+            });
+        } catch (Exception e) {
+            log.error("Error during storage janitor run", e);
+        }
+    }
+
+    private void processNextPage() {
+        String subdirectory = SCANNED_DIRS.get(dirIndex);
+        Path dir = fileStorageService.getRootLocation().resolve(subdirectory);
+
+        TreeSet<String> page = nextPage(dir);
+        if (page.isEmpty()) {
+            // Поддиректория пройдена целиком, переходим к следующей
+            cursor = null;
+            dirIndex = (dirIndex + 1) % SCANNED_DIRS.size();
+            return;
+        }
+        cursor = page.last();
+
+        Instant threshold = Instant.now().minus(Duration.ofHours(gracePeriodHours));
+        List<Path> candidates = new ArrayList<>();
+        for (String name : page) {
+            Path file = dir.resolve(name);
+            try {
+                if (Files.isRegularFile(file)
+                        && Files.getLastModifiedTime(file).toInstant().isBefore(threshold)) {
+                    candidates.add(file);
+                }
+            } catch (IOException e) {
+                log.warn("Cannot read attributes of {}: {}", file, e.getMessage());
+            }
+        }
+        if (candidates.isEmpty()) {
+            return;
+        }
+
+        // Временные файлы удаляются по возрасту, остальные — только если на них нет ссылок
+        List<Path> orphans = TEMP_DIR.equals(subdirectory) ? candidates : findOrphans(subdirectory, candidates);
+
+        int deleted = 0;
+        long bytes = 0;
+        for (Path orphan : orphans) {
+            if (deleted >= maxDeletesPerRun) {
+                // Оставшиеся файлы будут обработаны при следующем проходе по директории
+                break;
+            }
+            try {
+                long size = Files.size(orphan);
+                if (dryRun) {
+                    log.info("Storage janitor (dry run) would delete {} ({} bytes)", orphan, size);
+                } else if (Files.deleteIfExists(orphan)) {
+                    bytes += size;
+                }
+                deleted++;
+            } catch (IOException e) {
+                log.error("Error deleting orphaned file: {}", orphan, e);
+            }
+        }
+
+        if (!dryRun && deleted > 0) {
+            reclaimedBytes.increment(bytes);
+            deletedFiles.increment(deleted);
+            log.info("Storage janitor deleted {} orphaned files from '{}', reclaimed {} bytes",
+                     deleted, subdirectory.isEmpty() ? "/" : subdirectory, bytes);
+        }
+    }
+
+    /**
+     * Возвращает не более batchSize имен файлов директории, следующих за курсором
+     */
+    private TreeSet<String> nextPage(Path dir) {
+        TreeSet<String> page = new TreeSet<>();
+        if (!Files.isDirectory(dir)) {
+            return page;
+        }
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir)) {
+            for (Path path : stream) {
+                String name = path.getFileName().toString();
+                if (name.startsWith(".") || name.equalsIgnoreCase("README.md")) {
+                    continue;
+                }
+                if (cursor != null && name.compareTo(cursor) <= 0) {
+                    continue;
+                }
+                page.add(name);
+                if (page.size() > batchSize) {
+                    page.pollLast();
+                }
+            }
+        } catch (IOException e) {
+            log.error("Error listing directory {}", dir, e);
+        }
+        return page;
+    }
+
+    /**
+     * Отбирает файлы, URL которых не встречается ни в одной ссылающейся колонке
+     */
+    private List<Path> findOrphans(String subdirectory, List<Path> candidates) {
+        Map<String, Path> urlToFile = new HashMap<>();
+        for (Path file : candidates) {
+            for (String url : urlVariants(subdirectory, file.getFileName().toString())) {
+                urlToFile.put(url, file);
+            }
+        }
+        Set<String> urls = urlToFile.keySet();
+
+        Set<Path> referenced = new HashSet<>();
+        List<List<String>> lookups = List.of(
+            profileRepository.findReferencedPhotoUrls(urls),
+            profileRepository.findReferencedAvatarUrls(urls),
+            tournamentRepository.findReferencedImageUrls(urls),
+            tournamentRepository.findReferencedSponsorLogos(urls),
+            adRepository.findReferencedImageUrls(urls),
+            teamRepository.findReferencedLogos(urls),
+            playerRepository.findReferencedPhotoUrls(urls)
+        );
+        for (List<String> lookup : lookups) {
+            for (String url : lookup) {
+                referenced.add(urlToFile.get(url));
+            }
+        }
+
+        List<Path> orphans = new ArrayList<>(candidates);
+        orphans.removeAll(referenced);
+        return orphans;
+    }
+
+    /**
+     * Варианты URL, под которыми файл может быть сохранен в сущностях
+     * (см. {@link FileStorageService#storeFile}: для пустой поддиректории получается двойной слеш)
+     */
+    private List<String> urlVariants(String subdirectory, String filename) {
+        if (subdirectory.isEmpty()) {
+            return List.of("/uploads/" + filename, "/uploads//" + filename, "uploads/" + filename);
+        }
+        String relative = subdirectory + "/" + filename;
+        return List.of("/uploads/" + relative, "uploads/" + relative);
+    }
+}
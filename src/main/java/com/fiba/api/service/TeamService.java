@@ -1,10 +1,12 @@
 package com.fiba.api.service;
 
+import com.fiba.api.exception.BadRequestException;
 import com.fiba.api.exception.ResourceNotFoundException;
 import com.fiba.api.model.Team;
 import com.fiba.api.model.TeamStatus;
 import com.fiba.api.model.Tournament;
 import com.fiba.api.model.TournamentTeam;
+import com.fiba.api.repository.RegistrationRepository;
 import com.fiba.api.repository.TeamRepository;
 import com.fiba.api.repository.TournamentRepository;
 import com.fiba.api.repository.TournamentTeamRepository;
@@ -12,7 +14,12 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * Сервис для работы с командами
@@ -24,6 +31,8 @@ public class TeamService {
     private final TeamRepository teamRepository;
     private final TournamentRepository tournamentRepository;
     private final TournamentTeamRepository tournamentTeamRepository;
+    private final RegistrationRepository registrationRepository;
+    private final TournamentCapacityService capacityService;
 
     /**
      * Получение всех команд
@@ -96,24 +105,36 @@ public class TeamService {
     }
 
     /**
-     * Обновление статуса команды в турнире
+     * Обновление статуса команды в турнире.
+     * Строка турнира блокируется до чтения текущего статуса команды, как и при массовом обновлении.
      * 
      * @param tournamentId идентификатор турнира
      * @param teamId идентификатор команды
      * @param status новый статус
      * @return обновленная запись
      * @throws ResourceNotFoundException если запись не найдена
+     * @throws com.fiba.api.exception.TournamentFullException если команде нужно место в заполненном турнире
      */
     @Transactional
     public TournamentTeam updateTeamStatus(Long tournamentId, Long teamId, TeamStatus status) {
+        // Статус читается после блокировки строки турнира: иначе параллельные отклонение и удаление
+        // команды видят один и тот же прежний статус и дважды освобождают место
+        tournamentRepository.lockById(tournamentId)
+                .orElseThrow(() -> new ResourceNotFoundException("Tournament not found with id: " + tournamentId));
         TournamentTeam tournamentTeam = tournamentTeamRepository.findByTournamentIdAndTeamId(tournamentId, teamId)
                 .orElseThrow(() -> new ResourceNotFoundException(
                         "Team participation not found for tournament id: " + tournamentId + " and team id: " + teamId));
         
-        tournamentTeam.setStatus(status);
+        TeamStatus previous = tournamentTeam.getStatus();
+        capacityService.applyTransition(tournamentTeam, status);
         
-        // Если статус APPROVED или REJECTED, обновляем статистику команды
-        if (status == TeamStatus.APPROVED) {
+        // Заявка, по которой команда попала в турнир, отражает тот же статус
+        if (tournamentTeam.getRegistration() != null) {
+            tournamentTeam.getRegistration().setStatus(status.name().toLowerCase());
+        }
+        
+        // Статистика команды обновляется только при фактическом переходе в APPROVED
+        if (status == TeamStatus.APPROVED && previous != TeamStatus.APPROVED) {
             Team team = tournamentTeam.getTeam();
             team.setTournamentsPlayed(team.getTournamentsPlayed() + 1);
             teamRepository.save(team);
@@ -122,6 +143,50 @@ public class TeamService {
         return tournamentTeamRepository.save(tournamentTeam);
     }
 
+    /**
+     * Массовое обновление статуса команд турнира.
+     * Статусы, счетчики турнира, заявки и статистика команд обновляются набором UPDATE-запросов,
+     * число которых не зависит от количества команд; сущности не загружаются.
+     * Подтверждаются только команды в статусе PENDING, отклоняются — ожидающие, подтвержденные
+     * и стоящие в листе ожидания. Остальные команды пропускаются.
+     * 
+     * @param tournamentId идентификатор турнира
+     * @param teamIds идентификаторы команд
+     * @param status новый статус (APPROVED или REJECTED)
+     * @return количество команд, у которых изменился статус
+     * @throws ResourceNotFoundException если турнир не найден
+     */
+    @Transactional
+    public int updateTeamsStatus(Long tournamentId, Collection<Long> teamIds, TeamStatus status) {
+        Set<TeamStatus> from = switch (status) {
+            case APPROVED -> EnumSet.of(TeamStatus.PENDING);
+            case REJECTED -> EnumSet.of(TeamStatus.PENDING, TeamStatus.APPROVED, TeamStatus.WAITLISTED);
+            default -> throw new BadRequestException("Массово можно только подтвердить или отклонить команды");
+        };
+        // Блокировка строки турнира исключает параллельные изменения между подсчетом и обновлением
+        tournamentRepository.lockById(tournamentId)
+                .orElseThrow(() -> new ResourceNotFoundException("Tournament not found with id: " + tournamentId));
+        
+        Map<TeamStatus, Long> fromCounts = new EnumMap<>(TeamStatus.class);
+        for (Object[] row : tournamentTeamRepository.countStatusesByTeamIds(tournamentId, teamIds)) {
+            TeamStatus current = (TeamStatus) row[0];
+            if (from.contains(current)) {
+                fromCounts.put(current, (Long) row[1]);
+            }
+        }
+        if (fromCounts.isEmpty()) {
+            return 0;
+        }
+        
+        if (status == TeamStatus.APPROVED) {
+            teamRepository.incrementTournamentsPlayed(tournamentId, teamIds, TeamStatus.PENDING);
+        }
+        registrationRepository.updateStatusByTeamIds(tournamentId, teamIds, from, status.name().toLowerCase());
+        int updated = tournamentTeamRepository.updateStatusByTeamIds(tournamentId, teamIds, from, status);
+        capacityService.applyBulkTransition(tournamentId, fromCounts, status);
+        return updated;
+    }
+
     /**
      * Регистрация команды на турнир
      * 
@@ -148,7 +213,9 @@ public class TeamService {
         tournamentTeam.setTournament(tournament);
         tournamentTeam.setTeam(team);
         tournamentTeam.setStatus(TeamStatus.PENDING);
+        tournamentTeam = tournamentTeamRepository.save(tournamentTeam);
         
-        return tournamentTeamRepository.save(tournamentTeam);
+        capacityService.enroll(tournamentTeam);
+        return tournamentTeam;
     }
 } 
\ No newline at end of file
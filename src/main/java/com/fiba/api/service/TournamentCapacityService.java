@@ -0,0 +1,299 @@
+package com.fiba.api.service;
+
+import com.fiba.api.exception.TournamentFullException;
+import com.fiba.api.model.TeamStatus;
+import com.fiba.api.model.Tournament;
+import com.fiba.api.model.TournamentTeam;
+import com.fiba.api.repository.RegistrationRepository;
+import com.fiba.api.repository.TournamentRepository;
+import com.fiba.api.repository.TournamentTeamRepository;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Map;
+
+/**
+ * Учет мест для команд в турнирах и лист ожидания.
+ *
+ * Счетчики registeredTeams/approvedTeams/waitlistedTeams хранятся в строке турнира и изменяются только
+ * условными UPDATE-запросами, поэтому лимит maxTeams соблюдается без блокировок на уровне приложения.
+ * Команды, которым не хватило места, попадают в лист ожидания и повышаются по порядку, как только
+ * место освобождается (отклонение, отзыв или удаление заявки, увеличение лимита). Новые команды
+ * не занимают места, пока лист ожидания не пуст. Повышение выполняется в той же
+ * транзакции, что и освобождение места, после блокировки строки турнира.
+ *
+ * Методы должны вызываться внутри транзакции, изменяющей статус команды, чтобы счетчики
+ * откатывались вместе с ней.
+ *
+ * UPDATE счетчиков не вытесняют регион tournaments кэша второго уровня целиком
+ * ({@link TournamentRepository#COUNTERS_SPACE}): из кэша убирается только турнир, счетчики которого
+ * изменились.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TournamentCapacityService {
+
+    private final TournamentRepository tournamentRepository;
+    private final TournamentTeamRepository tournamentTeamRepository;
+    private final RegistrationRepository registrationRepository;
+    private final PlatformTransactionManager transactionManager;
+    private final EntityManagerFactory entityManagerFactory;
+
+    @Value("${app.tournament.recount-on-startup:false}")
+    private boolean recountOnStartup;
+
+    /**
+     * Занимает место для новой команды
+     *
+     * @param tournamentId идентификатор турнира
+     * @throws TournamentFullException если свободных мест нет
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void reserveSlot(Long tournamentId) {
+        evictFromCache(tournamentId);
+        if (tournamentRepository.tryReserveTeamSlot(tournamentId) == 0) {
+            throw new TournamentFullException(tournamentId);
+        }
+    }
+
+    /**
+     * Принимает новую команду в турнир: занимает место или, если мест нет либо лист ожидания
+     * не пуст, ставит команду в конец листа ожидания
+     *
+     * @param tournamentTeam сохраненная связь команды с турниром в статусе PENDING
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enroll(TournamentTeam tournamentTeam) {
+        Long tournamentId = tournamentTeam.getTournament().getId();
+        evictFromCache(tournamentId);
+        if (tournamentRepository.tryReserveTeamSlotIfWaitlistEmpty(tournamentId, 0) == 1) {
+            return;
+        }
+        // UPDATE блокирует строку турнира, поэтому позиции выдаются без пропусков и повторов
+        tournamentRepository.adjustWaitlistedTeams(tournamentId, 1);
+        // Место могло освободиться до получения блокировки, когда лист ожидания был пуст
+        if (tournamentRepository.tryReserveTeamSlotIfWaitlistEmpty(tournamentId, 1) == 1) {
+            tournamentRepository.adjustWaitlistedTeams(tournamentId, -1);
+            return;
+        }
+        tournamentTeam.setWaitlistPosition(tournamentRepository.getWaitlistedTeams(tournamentId));
+        tournamentTeam.setStatus(TeamStatus.WAITLISTED);
+        log.info("Team {} put on waitlist of tournament {} at position {}",
+                 tournamentTeam.getTeam().getId(), tournamentId, tournamentTeam.getWaitlistPosition());
+    }
+
+    /**
+     * Меняет статус команды вместе со счетчиками. Возврат отклоненной команды и ручное повышение
+     * из листа ожидания требуют свободного места; освободившееся место сразу получает
+     * первая команда листа ожидания.
+     *
+     * @param tournamentTeam связь команды с турниром
+     * @param to новый статус
+     * @throws TournamentFullException если команде нужно место, а свободных мест нет
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void applyTransition(TournamentTeam tournamentTeam, TeamStatus to) {
+        TeamStatus from = tournamentTeam.getStatus();
+        if (from == to) {
+            return;
+        }
+        if (to == TeamStatus.WAITLISTED) {
+            throw new IllegalStateException("Команда попадает в лист ожидания только при регистрации");
+        }
+        Long tournamentId = tournamentTeam.getTournament().getId();
+        evictFromCache(tournamentId);
+        if (from == TeamStatus.WAITLISTED) {
+            leaveWaitlist(tournamentTeam);
+        }
+
+        int registeredDelta = occupiesSlot(to) - occupiesSlot(from);
+        int approvedDelta = isApproved(to) - isApproved(from);
+        if (registeredDelta > 0) {
+            reserveSlot(tournamentId);
+            registeredDelta = 0;
+        }
+        if (registeredDelta != 0 || approvedDelta != 0) {
+            tournamentRepository.adjustTeamCounts(tournamentId, registeredDelta, approvedDelta);
+        }
+        tournamentTeam.setStatus(to);
+
+        if (registeredDelta < 0) {
+            promoteWaitlisted(tournamentId);
+        }
+    }
+
+    /**
+     * Корректирует счетчики и лист ожидания после массовой смены статуса команд.
+     * Строка турнира должна быть заблокирована вызывающим до подсчета команд.
+     *
+     * @param tournamentId идентификатор турнира
+     * @param fromCounts количество переведенных команд по прежним статусам
+     * @param to новый статус
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void applyBulkTransition(Long tournamentId, Map<TeamStatus, Long> fromCounts, TeamStatus to) {
+        if (to == TeamStatus.WAITLISTED) {
+            throw new IllegalStateException("Команда попадает в лист ожидания только при регистрации");
+        }
+        evictFromCache(tournamentId);
+        int registeredDelta = 0;
+        int approvedDelta = 0;
+        int leftWaitlist = 0;
+        for (Map.Entry<TeamStatus, Long> entry : fromCounts.entrySet()) {
+            TeamStatus from = entry.getKey();
+            int count = entry.getValue().intValue();
+            registeredDelta += count * (occupiesSlot(to) - occupiesSlot(from));
+            approvedDelta += count * (isApproved(to) - isApproved(from));
+            if (from == TeamStatus.WAITLISTED) {
+                leftWaitlist += count;
+            }
+        }
+        if (registeredDelta > 0) {
+            // Массово занимать места нельзя: такие переходы выполняются по одной команде
+            throw new IllegalStateException("Массовый переход требует свободных мест в турнире");
+        }
+        if (registeredDelta != 0 || approvedDelta != 0) {
+            tournamentRepository.adjustTeamCounts(tournamentId, registeredDelta, approvedDelta);
+        }
+        if (leftWaitlist > 0) {
+            tournamentRepository.adjustWaitlistedTeams(tournamentId, -leftWaitlist);
+            tournamentTeamRepository.renumberWaitlist(tournamentId);
+        }
+        if (registeredDelta < 0) {
+            promoteWaitlisted(tournamentId);
+        }
+    }
+
+    /**
+     * Освобождает место или позицию в листе ожидания команды, покидающей турнир
+     *
+     * @param tournamentTeam удаляемая связь команды с турниром
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void withdraw(TournamentTeam tournamentTeam) {
+        TeamStatus status = tournamentTeam.getStatus();
+        Long tournamentId = tournamentTeam.getTournament().getId();
+        evictFromCache(tournamentId);
+        if (status == TeamStatus.WAITLISTED) {
+            leaveWaitlist(tournamentTeam);
+            return;
+        }
+        if (occupiesSlot(status) == 0) {
+            return;
+        }
+        tournamentRepository.adjustTeamCounts(tournamentId, -1, -isApproved(status));
+        promoteWaitlisted(tournamentId);
+    }
+
+    /**
+     * Раздает листу ожидания места, освободившиеся после изменения лимита maxTeams.
+     * Строка турнира должна быть заблокирована вызывающим до изменения лимита.
+     *
+     * @param tournamentId идентификатор турнира
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void onCapacityChanged(Long tournamentId) {
+        evictFromCache(tournamentId);
+        promoteWaitlisted(tournamentId);
+    }
+
+    /**
+     * Переводит в PENDING столько первых команд листа ожидания, сколько в турнире свободных мест.
+     * Вызывается после изменения счетчиков, когда строка турнира уже заблокирована.
+     */
+    private void promoteWaitlisted(Long tournamentId) {
+        int waitlisted = tournamentRepository.getWaitlistedTeams(tournamentId);
+        if (waitlisted == 0) {
+            return;
+        }
+        Integer free = tournamentRepository.getFreeTeamSlots(tournamentId);
+        int count = free == null ? waitlisted : Math.min(free, waitlisted);
+        if (count <= 0) {
+            return;
+        }
+        registrationRepository.updateStatusForWaitlistHead(tournamentId, TeamStatus.WAITLISTED, count, "pending");
+        tournamentTeamRepository.promoteWaitlistHead(tournamentId, TeamStatus.WAITLISTED, TeamStatus.PENDING, count);
+        tournamentTeamRepository.shiftWaitlistBy(tournamentId, count);
+        tournamentRepository.adjustTeamCounts(tournamentId, count, 0);
+        tournamentRepository.adjustWaitlistedTeams(tournamentId, -count);
+        log.info("Promoted {} teams from waitlist of tournament {}", count, tournamentId);
+    }
+
+    private void leaveWaitlist(TournamentTeam tournamentTeam) {
+        Long tournamentId = tournamentTeam.getTournament().getId();
+        Integer position = tournamentTeam.getWaitlistPosition();
+        tournamentRepository.adjustWaitlistedTeams(tournamentId, -1);
+        tournamentTeam.setWaitlistPosition(null);
+        if (position != null) {
+            tournamentTeamRepository.shiftWaitlist(tournamentId, position);
+        }
+    }
+
+    /**
+     * Выравнивает счетчики с фактическими данными после ручных правок в БД (при обновлении схемы
+     * их пересчитывает миграция V4).
+     *
+     * Другие узлы в это время могут принимать регистрации, поэтому каждый турнир пересчитывается
+     * в своей транзакции под той же блокировкой строки турнира, что и изменения его команд.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void recalculateOnStartup() {
+        if (!recountOnStartup) {
+            return;
+        }
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        int updated = 0;
+        try {
+            for (Long tournamentId : tournamentRepository.findAllIds()) {
+                Integer count = transactionTemplate.execute(status -> {
+                    // Подсчет отдельным запросом после блокировки видит все зафиксированные изменения
+                    if (tournamentRepository.lockById(tournamentId).isEmpty()) {
+                        return 0;
+                    }
+                    evictFromCache(tournamentId);
+                    return tournamentRepository.recalculateTeamCounts(tournamentId);
+                });
+                updated += count == null ? 0 : count;
+            }
+            log.info("Recalculated team counters for {} tournaments", updated);
+        } catch (Exception e) {
+            log.warn("Could not recalculate tournament team counters: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Убирает турнир из кэша второго уровня сразу и еще раз после завершения транзакции:
+     * копия, которую параллельный запрос прочитал до фиксации, не должна пережить новые счетчики.
+     */
+    private void evictFromCache(Long tournamentId) {
+        entityManagerFactory.getCache().evict(Tournament.class, tournamentId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    entityManagerFactory.getCache().evict(Tournament.class, tournamentId);
+                }
+            });
+        }
+    }
+
+    private static int occupiesSlot(TeamStatus status) {
+        return status != null && status != TeamStatus.REJECTED && status != TeamStatus.WAITLISTED ? 1 : 0;
+    }
+
+    private static int isApproved(TeamStatus status) {
+        return status == TeamStatus.APPROVED || status == TeamStatus.COMPLETED ? 1 : 0;
+    }
+}
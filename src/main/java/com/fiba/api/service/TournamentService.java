@@ -7,6 +7,8 @@ import com.fiba.api.model.Tournament;
 import com.fiba.api.model.TournamentStatus;
 import com.fiba.api.model.TournamentTeam;
 import com.fiba.api.model.Registration;
+import com.fiba.api.repository.RegistrationRepository;
+import com.fiba.api.repository.TeamRepository;
 import com.fiba.api.repository.TournamentRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -16,6 +18,7 @@ import org.springframework.transaction.annotation.Transactional;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
 import java.util.stream.Collectors;
 
 /**
@@ -27,24 +30,36 @@ public class TournamentService {
     @Autowired
     private TournamentRepository tournamentRepository;
 
+    @Autowired
+    private RegistrationRepository registrationRepository;
+
+    @Autowired
+    private TeamRepository teamRepository;
+
+    @Autowired
+    private TournamentCapacityService capacityService;
+
     /**
      * Получение всех турниров
      *
      * @param sort поле для сортировки (например, "date", "name")
      * @param direction направление сортировки ("asc" или "desc")
-     * @return список всех турниров, отсортированный согласно параметрам
+     * @return список всех турниров с регистрациями, капитанами и игроками, отсортированный согласно параметрам
      */
+    @Transactional(readOnly = true)
     public List<Tournament> getAllTournaments(String sort, String direction) {
+        // Регистрации с капитанами и составы загружаются двумя запросами на весь список,
+        // а не по запросу на каждый турнир, регистрацию и игрока при формировании ответа
+        List<Tournament> tournaments = tournamentRepository.findAllWithRegistrations();
+        registrationRepository.findAllWithPlayers();
+
         if (sort == null || sort.isEmpty()) {
-            return tournamentRepository.findAll();
+            return tournaments;
         }
         
         // Определяем направление сортировки
         boolean isAscending = direction == null || "asc".equalsIgnoreCase(direction);
         
-        // Получаем все турниры
-        List<Tournament> tournaments = tournamentRepository.findAll();
-        
         // Сортируем список в соответствии с параметрами
         switch (sort.toLowerCase()) {
             case "date":
@@ -100,7 +115,17 @@ public class TournamentService {
      */
     @Transactional
     public Tournament createTournament(TournamentRequest request) {
-        Tournament tournament = Tournament.builder()
+        return tournamentRepository.save(toTournament(request));
+    }
+
+    /**
+     * Создание несохраненного турнира из данных запроса
+     *
+     * @param request данные турнира
+     * @return новый турнир
+     */
+    public Tournament toTournament(TournamentRequest request) {
+        return Tournament.builder()
                 .name(request.getName())
                 .date(request.getDate())
                 .startTime(request.getStartTime())
@@ -116,8 +141,6 @@ public class TournamentService {
                 .rules(request.getRules())
                 .registrationOpen(request.getRegistrationOpen())
                 .build();
-
-        return tournamentRepository.save(tournament);
     }
 
     /**
@@ -141,7 +164,11 @@ public class TournamentService {
      */
     @Transactional
     public Tournament updateTournament(Long id, TournamentRequest request) {
+        // Изменение лимита меняет число свободных мест: как и регистрации, выполняется под блокировкой турнира
+        tournamentRepository.lockById(id)
+            .orElseThrow(() -> new ResourceNotFoundException("Tournament not found with id: " + id));
         Tournament tournament = getTournamentById(id);
+        Integer previousMaxTeams = tournament.getMaxTeams();
 
         if (request.getName() != null) {
             tournament.setName(request.getName());
@@ -166,7 +193,12 @@ public class TournamentService {
         tournament.setRules(request.getRules());
         tournament.setRegistrationOpen(request.getRegistrationOpen());
 
-        return tournamentRepository.save(tournament);
+        Tournament saved = tournamentRepository.saveAndFlush(tournament);
+        if (!Objects.equals(previousMaxTeams, saved.getMaxTeams())) {
+            // Освободившиеся места получает лист ожидания, а не следующие регистрации
+            capacityService.onCapacityChanged(id);
+        }
+        return saved;
     }
 
     /**
@@ -318,26 +350,23 @@ public class TournamentService {
      * @return турнир со связанными командами и игроками
      * @throws ResourceNotFoundException если турнир не найден
      */
-    @Transactional
+    @Transactional(readOnly = true)
     public Tournament getTournamentWithTeams(Long id) {
         if (id == null) {
             throw new IllegalArgumentException("Tournament ID cannot be null");
         }
         
-        Tournament tournament = tournamentRepository.findById(id)
+        Tournament tournament = tournamentRepository.findByIdWithTeams(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Tournament not found with id: " + id));
         
-        // Инициализируем коллекцию команд, если она не null
-        if (tournament.getTeams() != null) {
-            tournament.getTeams().size(); // Инициализация коллекции
-            
-            // Инициализируем связанные команды и их игроков
-            for (TournamentTeam tournamentTeam : tournament.getTeams()) {
-                Team team = tournamentTeam.getTeam();
-                if (team != null && team.getPlayers() != null) {
-                    team.getPlayers().size(); // Инициализация коллекции игроков
-                }
-            }
+        // Составы всех команд турнира одним запросом: коллекции игроков команд в сессии заполняются им
+        List<Long> teamIds = tournament.getTeams().stream()
+                .map(TournamentTeam::getTeam)
+                .filter(team -> team != null)
+                .map(Team::getId)
+                .collect(Collectors.toList());
+        if (!teamIds.isEmpty()) {
+            teamRepository.findByIdInWithPlayers(teamIds);
         }
         
         return tournament;
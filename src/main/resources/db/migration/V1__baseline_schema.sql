@@ -0,0 +1,170 @@
+-- Исходная схема: в точности то, что создавал ddl-auto=update до перехода на миграции
+-- (IDENTITY-ключи, имена ограничений Hibernate). Все последующие изменения - в версиях V2 и выше.
+-- На базах, созданных до перехода на миграции, эта версия не выполняется (baseline-on-migrate).
+
+CREATE TABLE users (
+    id             BIGSERIAL    NOT NULL,
+    created_at     TIMESTAMP(6),
+    email          VARCHAR(255) NOT NULL UNIQUE,
+    email_verified BOOLEAN,
+    name           VARCHAR(255) NOT NULL,
+    password       VARCHAR(255) NOT NULL,
+    role           VARCHAR(255) NOT NULL,
+    updated_at     TIMESTAMP(6),
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE profiles (
+    id                 BIGSERIAL NOT NULL,
+    age                INTEGER,
+    avatar_url         VARCHAR(255),
+    bio                TEXT,
+    city               VARCHAR(255),
+    created_at         TIMESTAMP(6),
+    phone_number       VARCHAR(255),
+    photo_url          VARCHAR(255),
+    rating             INTEGER,
+    total_points       INTEGER,
+    tournaments_played INTEGER,
+    updated_at         TIMESTAMP(6),
+    user_id            BIGINT    NOT NULL UNIQUE,
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE players (
+    id         BIGSERIAL    NOT NULL,
+    created_at TIMESTAMP(6),
+    name       VARCHAR(255) NOT NULL,
+    photo_url  VARCHAR(255),
+    rating     INTEGER,
+    updated_at TIMESTAMP(6),
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE teams (
+    id                 BIGSERIAL    NOT NULL,
+    created_at         TIMESTAMP(6),
+    logo               VARCHAR(255),
+    name               VARCHAR(255) NOT NULL,
+    total_points       INTEGER,
+    tournaments_played INTEGER,
+    tournaments_won    INTEGER,
+    updated_at         TIMESTAMP(6),
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE team_players (
+    team_id   BIGINT NOT NULL,
+    player_id BIGINT NOT NULL
+);
+
+CREATE TABLE tournaments (
+    id                     BIGSERIAL    NOT NULL,
+    business_type          VARCHAR(255),
+    created_at             TIMESTAMP(6),
+    date                   DATE         NOT NULL,
+    description            VARCHAR(500),
+    entry_fee              FLOAT(53),
+    image_url              VARCHAR(255),
+    is_business_tournament BOOLEAN,
+    level                  VARCHAR(255),
+    location               VARCHAR(255) NOT NULL,
+    max_teams              INTEGER,
+    name                   VARCHAR(255) NOT NULL,
+    prize_pool             VARCHAR(255),
+    registration_open      BOOLEAN,
+    rules                  VARCHAR(1000),
+    sponsor_logo           VARCHAR(255),
+    sponsor_name           VARCHAR(255),
+    start_time             TIME(6),
+    status                 VARCHAR(255) NOT NULL
+        CHECK (status IN ('UPCOMING', 'ONGOING', 'COMPLETED', 'CANCELLED')),
+    updated_at             TIMESTAMP(6),
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE registrations (
+    id            BIGSERIAL    NOT NULL,
+    created_at    TIMESTAMP(6),
+    status        VARCHAR(255) NOT NULL,
+    team_name     VARCHAR(255) NOT NULL,
+    updated_at    TIMESTAMP(6),
+    user_id       BIGINT       NOT NULL,
+    tournament_id BIGINT       NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT idx_registration_team_name UNIQUE (team_name, tournament_id)
+);
+
+CREATE TABLE player_team (
+    registration_id BIGINT NOT NULL,
+    user_id         BIGINT NOT NULL
+);
+
+CREATE TABLE tournament_teams (
+    id                BIGSERIAL    NOT NULL,
+    position          INTEGER,
+    registration_date TIMESTAMP(6),
+    status            VARCHAR(255) NOT NULL
+        CHECK (status IN ('PENDING', 'APPROVED', 'REJECTED', 'COMPLETED')),
+    team_id           BIGINT       NOT NULL,
+    tournament_id     BIGINT       NOT NULL,
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE ads (
+    id            BIGSERIAL    NOT NULL,
+    created_at    TIMESTAMP(6),
+    image_url     VARCHAR(255) NOT NULL,
+    title         VARCHAR(255) NOT NULL,
+    updated_at    TIMESTAMP(6),
+    advertiser_id BIGINT,
+    business_id   BIGINT,
+    tournament_id BIGINT,
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE ad_results (
+    id         BIGSERIAL NOT NULL,
+    clicks     INTEGER,
+    created_at TIMESTAMP(6),
+    updated_at TIMESTAMP(6),
+    views      INTEGER,
+    ad_id      BIGINT UNIQUE,
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE feature_flags (
+    id                        VARCHAR(255) NOT NULL,
+    disable_backend           BOOLEAN      NOT NULL,
+    enable_admin_page         BOOLEAN      NOT NULL,
+    enable_player_search      BOOLEAN      NOT NULL,
+    enable_tournament_filter  BOOLEAN      NOT NULL,
+    experimental_registration BOOLEAN      NOT NULL,
+    show_admin_panel          BOOLEAN      NOT NULL,
+    show_top_players          BOOLEAN      NOT NULL,
+    PRIMARY KEY (id)
+);
+
+CREATE INDEX idx_ad_advertiser ON ads (advertiser_id);
+CREATE INDEX idx_ad_business ON ads (business_id);
+CREATE INDEX idx_ad_tournament ON ads (tournament_id);
+CREATE INDEX idx_registration_status ON registrations (status);
+CREATE INDEX idx_registration_tournament ON registrations (tournament_id);
+CREATE INDEX idx_tournament_date ON tournaments (date);
+CREATE INDEX idx_tournament_status ON tournaments (status);
+CREATE INDEX idx_tournament_level ON tournaments (level);
+CREATE INDEX idx_user_role ON users (role);
+
+ALTER TABLE ad_results ADD CONSTRAINT FKcwo6lwsw834bd420t9dkrt1sj FOREIGN KEY (ad_id) REFERENCES ads;
+ALTER TABLE ads ADD CONSTRAINT FKdx8u60tinmje0aa7m3yyhuopx FOREIGN KEY (advertiser_id) REFERENCES users;
+ALTER TABLE ads ADD CONSTRAINT FKtmidcei2i8xdyumjcrv2j2v54 FOREIGN KEY (business_id) REFERENCES users;
+ALTER TABLE ads ADD CONSTRAINT FKtf82ymyv22i0xgupv9wxakhaj FOREIGN KEY (tournament_id) REFERENCES tournaments;
+ALTER TABLE player_team ADD CONSTRAINT FKgwrua65bg9s80dwvup3ge2pda FOREIGN KEY (user_id) REFERENCES users;
+ALTER TABLE player_team ADD CONSTRAINT FK18ea1xpyrbg44qu2v209m7wdf FOREIGN KEY (registration_id) REFERENCES registrations;
+ALTER TABLE profiles ADD CONSTRAINT FK410q61iev7klncmpqfuo85ivh FOREIGN KEY (user_id) REFERENCES users;
+ALTER TABLE registrations ADD CONSTRAINT FKl2iby9n9hp8jwkfj8i96pkxpi FOREIGN KEY (user_id) REFERENCES users;
+ALTER TABLE registrations ADD CONSTRAINT FKt7v16jbn0b1ox6xc3vla3g365 FOREIGN KEY (tournament_id) REFERENCES tournaments;
+ALTER TABLE team_players ADD CONSTRAINT FKddxneji5ow8j3171oe6mc2gu0 FOREIGN KEY (player_id) REFERENCES players;
+ALTER TABLE team_players ADD CONSTRAINT FK3bhsykltbdhsmmb61l2ml12h FOREIGN KEY (team_id) REFERENCES teams;
+ALTER TABLE tournament_teams ADD CONSTRAINT FKfdh1y15gds2l1e08j7qlhm9e2 FOREIGN KEY (team_id) REFERENCES teams;
+ALTER TABLE tournament_teams ADD CONSTRAINT FKkbbpiasv8aqbh6uwc1m0wlvw4 FOREIGN KEY (tournament_id) REFERENCES tournaments;
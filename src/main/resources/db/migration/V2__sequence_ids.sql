@@ -0,0 +1,26 @@
+-- Идентификаторы выдаются пулами из последовательностей <таблица>_seq (allocationSize = 50) вместо
+-- IDENTITY-колонок. Последовательность продвигается за существующие данные: следующий nextval
+-- вернет max(id) + 50, и пул Hibernate начнется с max(id) + 1 (сравнение нестрогое: еще не вызванная
+-- последовательность с last_value = 1 выдала бы id 1 повторно). Уже обогнавшие данные
+-- последовательности (базы, созданные ddl-auto после перехода на них) не меняются.
+-- Значения по умолчанию старых IDENTITY-колонок остаются: Hibernate всегда передает id сам.
+
+CREATE SEQUENCE IF NOT EXISTS users_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS profiles_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS players_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS teams_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS tournaments_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS registrations_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS tournament_teams_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS ads_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS ad_results_seq START WITH 1 INCREMENT BY 50;
+
+SELECT setval('users_seq', m) FROM (SELECT max(id) AS m FROM users) t, users_seq s WHERE m >= s.last_value;
+SELECT setval('profiles_seq', m) FROM (SELECT max(id) AS m FROM profiles) t, profiles_seq s WHERE m >= s.last_value;
+SELECT setval('players_seq', m) FROM (SELECT max(id) AS m FROM players) t, players_seq s WHERE m >= s.last_value;
+SELECT setval('teams_seq', m) FROM (SELECT max(id) AS m FROM teams) t, teams_seq s WHERE m >= s.last_value;
+SELECT setval('tournaments_seq', m) FROM (SELECT max(id) AS m FROM tournaments) t, tournaments_seq s WHERE m >= s.last_value;
+SELECT setval('registrations_seq', m) FROM (SELECT max(id) AS m FROM registrations) t, registrations_seq s WHERE m >= s.last_value;
+SELECT setval('tournament_teams_seq', m) FROM (SELECT max(id) AS m FROM tournament_teams) t, tournament_teams_seq s WHERE m >= s.last_value;
+SELECT setval('ads_seq', m) FROM (SELECT max(id) AS m FROM ads) t, ads_seq s WHERE m >= s.last_value;
+SELECT setval('ad_results_seq', m) FROM (SELECT max(id) AS m FROM ad_results) t, ad_results_seq s WHERE m >= s.last_value;
@@ -0,0 +1,21 @@
+-- Связь игрока с пользователем: игроки заявки ищутся одним запросом по user_id.
+-- Старые игроки без связи сопоставляются по имени и связываются при следующей регистрации.
+-- Ограничения добавляются, только если их еще нет (базы, обновленные ddl-auto, уже содержат их
+-- под именами Hibernate).
+
+ALTER TABLE players ADD COLUMN IF NOT EXISTS user_id BIGINT;
+
+DO $$
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM pg_constraint
+                   WHERE conrelid = 'players'::regclass AND contype = 'u'
+                     AND conkey = ARRAY[(SELECT attnum FROM pg_attribute
+                                         WHERE attrelid = 'players'::regclass AND attname = 'user_id')]) THEN
+        ALTER TABLE players ADD CONSTRAINT uk_players_user UNIQUE (user_id);
+    END IF;
+    IF NOT EXISTS (SELECT 1 FROM pg_constraint
+                   WHERE conrelid = 'players'::regclass AND contype = 'f'
+                     AND confrelid = 'users'::regclass) THEN
+        ALTER TABLE players ADD CONSTRAINT fk_players_user FOREIGN KEY (user_id) REFERENCES users;
+    END IF;
+END $$;
@@ -0,0 +1,39 @@
+-- Учет мест и лист ожидания: счетчики команд в строке турнира, позиция в листе ожидания
+-- и заявка, по которой команда попала в турнир. Ограничения добавляются, только если их еще нет
+-- (базы, обновленные ddl-auto, уже содержат их под именами Hibernate).
+
+ALTER TABLE tournaments ADD COLUMN IF NOT EXISTS registered_teams INTEGER DEFAULT 0 NOT NULL;
+ALTER TABLE tournaments ADD COLUMN IF NOT EXISTS approved_teams INTEGER DEFAULT 0 NOT NULL;
+ALTER TABLE tournaments ADD COLUMN IF NOT EXISTS waitlisted_teams INTEGER DEFAULT 0 NOT NULL;
+
+ALTER TABLE tournament_teams ADD COLUMN IF NOT EXISTS registration_id BIGINT;
+ALTER TABLE tournament_teams ADD COLUMN IF NOT EXISTS waitlist_position INTEGER;
+
+-- ddl-auto создал CHECK со старым списком статусов и не обновлял его при появлении WAITLISTED
+ALTER TABLE tournament_teams DROP CONSTRAINT IF EXISTS tournament_teams_status_check;
+
+DO $$
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM pg_constraint
+                   WHERE conrelid = 'tournament_teams'::regclass AND contype = 'u'
+                     AND conkey = ARRAY[(SELECT attnum FROM pg_attribute
+                                         WHERE attrelid = 'tournament_teams'::regclass
+                                           AND attname = 'registration_id')]) THEN
+        ALTER TABLE tournament_teams ADD CONSTRAINT uk_tournament_teams_registration UNIQUE (registration_id);
+    END IF;
+    IF NOT EXISTS (SELECT 1 FROM pg_constraint
+                   WHERE conrelid = 'tournament_teams'::regclass AND contype = 'f'
+                     AND confrelid = 'registrations'::regclass) THEN
+        ALTER TABLE tournament_teams ADD CONSTRAINT fk_tournament_teams_registration
+            FOREIGN KEY (registration_id) REFERENCES registrations;
+    END IF;
+END $$;
+
+-- Счетчики по фактическим командам (тот же подсчет, что TournamentRepository.recalculateTeamCounts)
+UPDATE tournaments t SET
+    registered_teams = (SELECT count(*) FROM tournament_teams tt
+                        WHERE tt.tournament_id = t.id AND tt.status NOT IN ('REJECTED', 'WAITLISTED')),
+    approved_teams = (SELECT count(*) FROM tournament_teams tt
+                      WHERE tt.tournament_id = t.id AND tt.status IN ('APPROVED', 'COMPLETED')),
+    waitlisted_teams = (SELECT count(*) FROM tournament_teams tt
+                        WHERE tt.tournament_id = t.id AND tt.status = 'WAITLISTED');
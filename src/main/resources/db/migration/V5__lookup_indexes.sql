@@ -0,0 +1,9 @@
+-- Индексы, которые ddl-auto создавал для поиска при импорте (имена команд, игроков, турниров)
+-- и для листа ожидания. CONCURRENTLY не блокирует запись; Flyway выполняет миграцию вне транзакции.
+-- Если построение прервалось, см. V7.
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_player_name ON players (name);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_team_name ON teams (name);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_tournament_name ON tournaments (name);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_tournament_teams_waitlist ON tournament_teams (tournament_id, waitlist_position);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_tournament_teams_registration ON tournament_teams (registration_id);
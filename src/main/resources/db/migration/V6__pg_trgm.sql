@@ -0,0 +1,3 @@
+-- Триграммы для поиска по подстроке (ILIKE '%...%'); расширение создается отдельной версией,
+-- потому что следующая миграция выполняется вне транзакции
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
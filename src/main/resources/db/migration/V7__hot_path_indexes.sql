@@ -0,0 +1,26 @@
+-- Индексы горячих запросов (см. src/plan/java/com/fiba/api/plan/HotQueries.java).
+-- CONCURRENTLY не блокирует запись в таблицы на время построения; Flyway выполняет такую миграцию
+-- вне транзакции, поэтому в этом файле только CREATE INDEX CONCURRENTLY. Если построение прервалось,
+-- индекс остается INVALID: его нужно удалить (DROP INDEX CONCURRENTLY), выполнить flyway repair
+-- и перезапустить приложение.
+
+-- Вход и регистрация: LOWER(email) = LOWER(:email)
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_user_email_lower ON users (lower(email));
+
+-- Поиск пользователей и турниров по подстроке
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_user_name_trgm ON users USING gin (name gin_trgm_ops);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_user_email_trgm ON users USING gin (email gin_trgm_ops);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_tournament_name_trgm ON tournaments USING gin (lower(name) gin_trgm_ops);
+
+-- Заявки: игроки заявки, заявки игрока и капитана
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_player_team_registration ON player_team (registration_id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_player_team_user ON player_team (user_id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_registration_user ON registrations (user_id);
+
+-- Команды турнира по статусу
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_tournament_teams_status ON tournament_teams (tournament_id, status);
+
+-- Состав команд и рейтинг команд
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_team_players_team ON team_players (team_id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_team_players_player ON team_players (player_id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_team_total_points ON teams (total_points);
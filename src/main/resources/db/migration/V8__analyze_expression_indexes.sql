@@ -0,0 +1,5 @@
+-- Статистика по выражениям индексов lower(email) и lower(name) собирается только ANALYZE: до него
+-- планировщик оценивает поиск по email в 0,5% таблицы и читает тысячи страниц вместо одной строки.
+-- Отдельная версия: в V7 нельзя смешивать CREATE INDEX CONCURRENTLY с транзакционными командами
+ANALYZE users;
+ANALYZE tournaments;
@@ -0,0 +1,17 @@
+-- Версия флагов для обновления снимков на узлах и ETag, проценты постепенного включения.
+-- Строка флагов создается здесь, чтобы чтение флагов никогда не выполняло вставку
+
+ALTER TABLE feature_flags ADD COLUMN IF NOT EXISTS version BIGINT DEFAULT 1 NOT NULL;
+
+CREATE TABLE IF NOT EXISTS feature_flag_rollouts (
+    feature_flags_id VARCHAR(255) NOT NULL,
+    flag             VARCHAR(255) NOT NULL,
+    percentage       INTEGER      NOT NULL CHECK (percentage BETWEEN 0 AND 100),
+    PRIMARY KEY (feature_flags_id, flag),
+    CONSTRAINT fk_feature_flag_rollouts_flags FOREIGN KEY (feature_flags_id) REFERENCES feature_flags
+);
+
+INSERT INTO feature_flags (id, disable_backend, show_top_players, show_admin_panel, enable_admin_page,
+                           enable_tournament_filter, enable_player_search, experimental_registration, version)
+VALUES ('default', FALSE, TRUE, TRUE, TRUE, TRUE, TRUE, FALSE, 1)
+ON CONFLICT (id) DO NOTHING;
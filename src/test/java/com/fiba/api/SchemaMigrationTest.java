@@ -0,0 +1,126 @@
+package com.fiba.api;
+
+import com.fiba.api.support.EntitySchema;
+import com.fiba.api.support.TestDatabase;
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.output.MigrateResult;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Миграции схемы на пустой базе и на базах, созданных ddl-auto=update до перехода на Flyway.
+ * После миграции схема должна проходить ddl-auto=validate, а данные - оставаться пригодными для вставки.
+ */
+class SchemaMigrationTest {
+
+    private static final List<String> SEQUENCE_TABLES = List.of(
+        "users", "profiles", "players", "teams", "tournaments", "registrations", "tournament_teams", "ads", "ad_results");
+
+    @Test
+    void migratesEmptyDatabase() throws Exception {
+        try (TestDatabase database = TestDatabase.create()) {
+            MigrateResult result = flyway(database).migrate();
+
+            assertThat(result.initialSchemaVersion).isNull();
+            EntitySchema.validate(database);
+            assertThat(flyway(database).migrate().migrationsExecuted).isZero();
+        }
+    }
+
+    @Test
+    void migratesPreSeriesDatabase() throws Exception {
+        try (TestDatabase database = TestDatabase.create()) {
+            database.execute("db/ddl-auto-pre-series.sql");
+            JdbcTemplate jdbc = database.jdbc();
+            seedPreSeriesData(jdbc);
+
+            MigrateResult result = flyway(database).migrate();
+
+            assertThat(result.initialSchemaVersion).isEqualTo("1");
+            EntitySchema.validate(database);
+            assertSequencesPastData(jdbc);
+
+            Map<String, Object> counters = jdbc.queryForMap(
+                "SELECT registered_teams, approved_teams, waitlisted_teams FROM tournaments WHERE id = 7");
+            assertThat(counters).containsEntry("registered_teams", 3)
+                .containsEntry("approved_teams", 2)
+                .containsEntry("waitlisted_teams", 0);
+
+            // Новые ограничения работают на старых данных
+            jdbc.update("UPDATE players SET user_id = 1 WHERE id = 1");
+            assertThatThrownBy(() -> jdbc.update("UPDATE players SET user_id = 1 WHERE id = 2"))
+                .isInstanceOf(DataIntegrityViolationException.class);
+            jdbc.update("UPDATE tournament_teams SET status = 'WAITLISTED', waitlist_position = 1 WHERE id = 4");
+            assertThat(jdbc.queryForObject("SELECT count(*) FROM feature_flags WHERE id = 'default'", Integer.class))
+                .isEqualTo(1);
+        }
+    }
+
+    @Test
+    void migratesDatabaseUpdatedByDdlAutoAfterSeries() throws Exception {
+        try (TestDatabase database = TestDatabase.create()) {
+            database.execute("db/ddl-auto-series.sql");
+            JdbcTemplate jdbc = database.jdbc();
+            jdbc.update("INSERT INTO users (id, name, email, password, role) VALUES (1, 'Анна', 'anna@example.com', 'x', 'USER')");
+            // Последовательность уже выдала пул 1..50: миграция не должна отматывать ее назад
+            jdbc.queryForObject("SELECT nextval('users_seq')", Long.class);
+            jdbc.queryForObject("SELECT nextval('users_seq')", Long.class);
+
+            flyway(database).migrate();
+
+            EntitySchema.validate(database);
+            assertThat(jdbc.queryForObject("SELECT last_value FROM users_seq", Long.class)).isEqualTo(51L);
+            // Ограничения, созданные ddl-auto под именами Hibernate, не дублируются
+            assertThat(uniqueConstraints(jdbc, "players")).isEqualTo(1);
+            assertThat(uniqueConstraints(jdbc, "tournament_teams")).isEqualTo(1);
+        }
+    }
+
+    private static Flyway flyway(TestDatabase database) {
+        // Те же настройки, что spring.flyway.* в application.properties
+        return Flyway.configure()
+            .dataSource(database.getUrl(), database.getUser(), database.getPassword())
+            .locations("classpath:db/migration")
+            .baselineOnMigrate(true)
+            .baselineVersion("1")
+            .configuration(Map.of("flyway.postgresql.transactional.lock", "false"))
+            .load();
+    }
+
+    private static void seedPreSeriesData(JdbcTemplate jdbc) {
+        jdbc.update("INSERT INTO users (id, name, email, password, role) VALUES " +
+                    "(1, 'Анна', 'anna@example.com', 'x', 'USER'), (120, 'Иван', 'ivan@example.com', 'x', 'USER')");
+        jdbc.update("INSERT INTO players (id, name, rating) VALUES (1, 'Анна', 0), (2, 'Иван', 0)");
+        jdbc.update("INSERT INTO teams (id, name) VALUES (1, 'Альфа'), (2, 'Бета'), (3, 'Гамма'), (4, 'Дельта')");
+        jdbc.update("INSERT INTO tournaments (id, name, date, location, status, max_teams) " +
+                    "VALUES (7, 'Кубок', DATE '2026-11-01', 'Москва', 'UPCOMING', 8)");
+        jdbc.update("INSERT INTO tournament_teams (id, tournament_id, team_id, status) VALUES " +
+                    "(1, 7, 1, 'PENDING'), (2, 7, 2, 'APPROVED'), (3, 7, 3, 'COMPLETED'), (4, 7, 4, 'REJECTED')");
+        jdbc.update("INSERT INTO registrations (id, tournament_id, user_id, team_name, status) " +
+                    "VALUES (75, 7, 1, 'Альфа', 'pending')");
+    }
+
+    private static void assertSequencesPastData(JdbcTemplate jdbc) {
+        for (String table : SEQUENCE_TABLES) {
+            long maxId = jdbc.queryForObject("SELECT COALESCE(max(id), 0) FROM " + table, Long.class);
+            if (maxId == 0) {
+                continue;
+            }
+            long next = jdbc.queryForObject("SELECT nextval('" + table + "_seq')", Long.class);
+            // Hibernate (pooled, allocationSize = 50) выдает id с next - 49 по next
+            assertThat(next - 49).as(table + "_seq").isGreaterThan(maxId);
+        }
+    }
+
+    private static int uniqueConstraints(JdbcTemplate jdbc, String table) {
+        return jdbc.queryForObject("SELECT count(*) FROM pg_constraint WHERE conrelid = CAST(? AS regclass) AND contype = 'u'",
+            Integer.class, table);
+    }
+}
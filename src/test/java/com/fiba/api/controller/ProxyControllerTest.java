@@ -0,0 +1,314 @@
+package com.fiba.api.controller;
+
+import com.fiba.api.service.StaticAssetCache;
+import com.fiba.api.service.StaticProxyService;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Прокси статики против локального upstream: потоковая передача, Range, условные запросы, ошибки
+ * и медленный upstream.
+ * Долгое кэширование разрешается только успешным ответам.
+ */
+class ProxyControllerTest {
+
+    private static final String IMMUTABLE = "public, max-age=31536000";
+    private static final String ASSET = "/api/proxy/static/fiba3x3/1.2.0/index.js";
+    private static final String UPSTREAM_ASSET = "/fiba3x3/1.2.0/index.js";
+
+    @TempDir
+    Path cacheDir;
+
+    private HttpServer upstream;
+    private final Map<String, Asset> assets = new ConcurrentHashMap<>();
+    private final AtomicInteger upstreamHits = new AtomicInteger();
+    private final AtomicLong upstreamDelayMs = new AtomicLong();
+    private final ConcurrentLinkedQueue<String> conditionalRequests = new ConcurrentLinkedQueue<>();
+    private StaticProxyService proxyService;
+    private MockMvc mockMvc;
+
+    private record Asset(int status, byte[] body, String etag) {
+    }
+
+    @BeforeEach
+    void setUp() throws Exception {
+        upstream = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        upstream.setExecutor(Executors.newCachedThreadPool());
+        upstream.createContext("/", this::handleUpstream);
+        upstream.start();
+
+        StaticAssetCache cache = new StaticAssetCache();
+        ReflectionTestUtils.setField(cache, "cacheDir", cacheDir.toString());
+        ReflectionTestUtils.setField(cache, "maxMemoryBytes", 1_048_576L);
+        ReflectionTestUtils.setField(cache, "maxDiskBytes", 16_777_216L);
+        ReflectionTestUtils.setField(cache, "maxInMemoryEntryBytes", 65_536L);
+        ReflectionTestUtils.setField(cache, "maxEntryBytes", 1_048_576L);
+        cache.init();
+
+        proxyService = new StaticProxyService(new RestTemplate(new HttpComponentsClientHttpRequestFactory()),
+            cache, new SimpleMeterRegistry(), 4);
+        ReflectionTestUtils.setField(proxyService, "baseUrl",
+            "http://127.0.0.1:" + upstream.getAddress().getPort() + "/");
+        ReflectionTestUtils.setField(proxyService, "revalidateAfterMs", 600_000L);
+        ReflectionTestUtils.setField(proxyService, "waitTimeoutMs", 5_000L);
+
+        ProxyController controller = new ProxyController();
+        ReflectionTestUtils.setField(controller, "staticProxyService", proxyService);
+        mockMvc = MockMvcBuilders.standaloneSetup(controller).build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        proxyService.shutdown();
+        upstream.stop(0);
+    }
+
+    @Test
+    void streamsBinaryAssetByteForByteAndCachesIt() throws Exception {
+        // Больше порога памяти: второй ответ читается из файла на диске
+        byte[] body = randomBytes(300_000);
+        assets.put(UPSTREAM_ASSET, new Asset(200, body, "\"v1\""));
+
+        for (int i = 0; i < 2; i++) {
+            mockMvc.perform(get(ASSET))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, IMMUTABLE))
+                .andExpect(header().string(HttpHeaders.ETAG, "\"v1\""))
+                .andExpect(header().longValue(HttpHeaders.CONTENT_LENGTH, body.length))
+                .andExpect(content().bytes(body));
+        }
+        assertThat(upstreamHits).hasValue(1);
+    }
+
+    @Test
+    void streamsOversizeAssetPastTheCache() throws Exception {
+        byte[] body = randomBytes(1_500_000);
+        assets.put(UPSTREAM_ASSET, new Asset(200, body, "\"big\""));
+
+        mockMvc.perform(get(ASSET))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.CACHE_CONTROL, IMMUTABLE))
+            .andExpect(content().bytes(body));
+
+        mockMvc.perform(get(ASSET).header(HttpHeaders.RANGE, "bytes=1000000-1000099"))
+            .andExpect(status().isPartialContent())
+            .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 1000000-1000099/1500000"))
+            .andExpect(content().bytes(Arrays.copyOfRange(body, 1_000_000, 1_000_100)));
+        // Загрузка в кэш остановилась на Content-Length, повторный запрос сразу идет напрямую
+        assertThat(upstreamHits).hasValue(3);
+    }
+
+    @Test
+    void waitersGiveUpOnSlowUpstreamWithoutRefetching() throws Exception {
+        byte[] body = randomBytes(1_000);
+        assets.put(UPSTREAM_ASSET, new Asset(200, body, "\"v1\""));
+        ReflectionTestUtils.setField(proxyService, "waitTimeoutMs", 200L);
+        upstreamDelayMs.set(1_000);
+
+        ExecutorService clients = Executors.newFixedThreadPool(5);
+        try {
+            Callable<MvcResult> request = () -> mockMvc.perform(get(ASSET)).andReturn();
+            List<Future<MvcResult>> results = clients.invokeAll(List.of(request, request, request, request, request));
+            for (Future<MvcResult> result : results) {
+                assertThat(result.get().getResponse().getStatus()).isEqualTo(504);
+                assertThat(result.get().getResponse().getHeader(HttpHeaders.CACHE_CONTROL)).isEqualTo("no-store");
+            }
+        } finally {
+            clients.shutdownNow();
+        }
+
+        // Единственная загрузка завершается в фоне и заполняет кэш
+        Thread.sleep(2_000);
+        mockMvc.perform(get(ASSET))
+            .andExpect(status().isOk())
+            .andExpect(content().bytes(body));
+        assertThat(upstreamHits).hasValue(1);
+    }
+
+    @Test
+    void servesStaleCopyWhileSlowRevalidationRuns() throws Exception {
+        byte[] body = randomBytes(1_000);
+        assets.put(UPSTREAM_ASSET, new Asset(200, body, "\"v1\""));
+        mockMvc.perform(get(ASSET)).andExpect(status().isOk());
+
+        ReflectionTestUtils.setField(proxyService, "revalidateAfterMs", 0L);
+        ReflectionTestUtils.setField(proxyService, "waitTimeoutMs", 200L);
+        upstreamDelayMs.set(1_000);
+        mockMvc.perform(get(ASSET))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.CACHE_CONTROL, IMMUTABLE))
+            .andExpect(content().bytes(body));
+        // Второй запрос присоединяется к еще идущей перепроверке
+        mockMvc.perform(get(ASSET))
+            .andExpect(status().isOk())
+            .andExpect(content().bytes(body));
+        assertThat(upstreamHits).hasValue(2);
+    }
+
+    @Test
+    void servesRangesFromCache() throws Exception {
+        byte[] body = randomBytes(200_000);
+        assets.put(UPSTREAM_ASSET, new Asset(200, body, "\"v1\""));
+        mockMvc.perform(get(ASSET)).andExpect(status().isOk());
+
+        mockMvc.perform(get(ASSET).header(HttpHeaders.RANGE, "bytes=100-199"))
+            .andExpect(status().isPartialContent())
+            .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 100-199/200000"))
+            .andExpect(header().string(HttpHeaders.CACHE_CONTROL, IMMUTABLE))
+            .andExpect(content().bytes(Arrays.copyOfRange(body, 100, 200)));
+        mockMvc.perform(get(ASSET).header(HttpHeaders.RANGE, "bytes=-10"))
+            .andExpect(status().isPartialContent())
+            .andExpect(content().bytes(Arrays.copyOfRange(body, body.length - 10, body.length)));
+        // If-Range от другой версии - ресурс целиком
+        mockMvc.perform(get(ASSET).header(HttpHeaders.RANGE, "bytes=0-9").header(HttpHeaders.IF_RANGE, "\"v0\""))
+            .andExpect(status().isOk())
+            .andExpect(content().bytes(body));
+        mockMvc.perform(get(ASSET).header(HttpHeaders.RANGE, "bytes=200000-"))
+            .andExpect(status().isRequestedRangeNotSatisfiable())
+            .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes */200000"))
+            .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-store"));
+        assertThat(upstreamHits).hasValue(1);
+    }
+
+    @Test
+    void answersNotModifiedAndRevalidatesConditionally() throws Exception {
+        byte[] body = randomBytes(1_000);
+        assets.put(UPSTREAM_ASSET, new Asset(200, body, "\"v1\""));
+        mockMvc.perform(get(ASSET)).andExpect(status().isOk());
+
+        mockMvc.perform(get(ASSET).header(HttpHeaders.IF_NONE_MATCH, "\"v1\""))
+            .andExpect(status().isNotModified())
+            .andExpect(header().string(HttpHeaders.CACHE_CONTROL, IMMUTABLE));
+
+        // Копия устарела: upstream получает условный запрос и подтверждает ее ответом 304
+        ReflectionTestUtils.setField(proxyService, "revalidateAfterMs", 0L);
+        mockMvc.perform(get(ASSET))
+            .andExpect(status().isOk())
+            .andExpect(content().bytes(body));
+        assertThat(upstreamHits).hasValue(2);
+        assertThat(conditionalRequests).containsExactly("\"v1\"");
+    }
+
+    @Test
+    void upstreamErrorsAreNeverCachedLongTerm() throws Exception {
+        assets.put(UPSTREAM_ASSET, new Asset(500, "upstream failure".getBytes(), null));
+        mockMvc.perform(get(ASSET))
+            .andExpect(status().isInternalServerError())
+            .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-store"));
+
+        mockMvc.perform(get("/api/proxy/static/fiba3x3/1.2.0/missing.js"))
+            .andExpect(status().isNotFound())
+            .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-store"));
+
+        ReflectionTestUtils.setField(proxyService, "baseUrl", "http://127.0.0.1:" + closedPort() + "/");
+        mockMvc.perform(get(ASSET))
+            .andExpect(status().isBadGateway())
+            .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-store"));
+    }
+
+    @Test
+    void servesStaleCopyWhenUpstreamFails() throws Exception {
+        byte[] body = randomBytes(1_000);
+        assets.put(UPSTREAM_ASSET, new Asset(200, body, "\"v1\""));
+        mockMvc.perform(get(ASSET)).andExpect(status().isOk());
+
+        ReflectionTestUtils.setField(proxyService, "revalidateAfterMs", 0L);
+        assets.put(UPSTREAM_ASSET, new Asset(503, new byte[0], null));
+        mockMvc.perform(get(ASSET))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.CACHE_CONTROL, IMMUTABLE))
+            .andExpect(content().bytes(body));
+    }
+
+    private void handleUpstream(HttpExchange exchange) throws IOException {
+        upstreamHits.incrementAndGet();
+        try {
+            Thread.sleep(upstreamDelayMs.get());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        try (exchange) {
+            Asset asset = assets.get(exchange.getRequestURI().getPath());
+            if (asset == null) {
+                exchange.sendResponseHeaders(404, -1);
+                return;
+            }
+            String ifNoneMatch = exchange.getRequestHeaders().getFirst(HttpHeaders.IF_NONE_MATCH);
+            if (ifNoneMatch != null) {
+                conditionalRequests.add(ifNoneMatch);
+            }
+            if (asset.etag() != null) {
+                exchange.getResponseHeaders().set(HttpHeaders.ETAG, asset.etag());
+                if (asset.etag().equals(ifNoneMatch)) {
+                    exchange.sendResponseHeaders(304, -1);
+                    return;
+                }
+            }
+            int status = asset.status();
+            byte[] body = asset.body();
+            String range = exchange.getRequestHeaders().getFirst(HttpHeaders.RANGE);
+            if (status == 200 && range != null) {
+                String[] bounds = range.substring("bytes=".length()).split("-");
+                int start = Integer.parseInt(bounds[0]);
+                int end = Integer.parseInt(bounds[1]);
+                exchange.getResponseHeaders().set(HttpHeaders.CONTENT_RANGE,
+                    "bytes " + start + "-" + end + "/" + body.length);
+                body = Arrays.copyOfRange(body, start, end + 1);
+                status = 206;
+            }
+            exchange.getResponseHeaders().set(HttpHeaders.CONTENT_TYPE, "application/javascript");
+            exchange.sendResponseHeaders(status, body.length == 0 ? -1 : body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        }
+    }
+
+    private static byte[] randomBytes(int size) {
+        byte[] bytes = new byte[size];
+        new Random(size).nextBytes(bytes);
+        return bytes;
+    }
+
+    private static int closedPort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.fiba.api.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fiba.api.model.Tournament;
+import com.fiba.api.model.TournamentStatus;
+import com.fiba.api.model.User;
+import com.fiba.api.repository.TournamentRepository;
+import com.fiba.api.repository.UserRepository;
+import com.fiba.api.service.RegistrationService;
+import com.fiba.api.support.PostgresIntegrationTest;
+import com.fiba.api.support.QueryBudget;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Бюджет SQL-запросов ключевых эндпоинтов. Бюджеты не зависят от числа турниров, команд и игроков:
+ * превышение означает появившийся N+1 (в том числе ленивые загрузки при сериализации ответа).
+ */
+class QueryBudgetTest extends PostgresIntegrationTest {
+
+    private static final int TEAMS = 6;
+    private static final int PLAYERS_PER_TEAM = 3;
+    private static final int NEW_TEAM_PLAYERS = 6;
+    // Регистрация берет идентификаторы из четырех последовательностей (players, teams, registrations,
+    // tournament_teams); пул из 50 значений может закончиться в любой из них, смотря сколько строк
+    // создали предыдущие тесты в том же контексте, и тогда добавляется один nextval
+    private static final int SEQUENCE_REFILLS = 4;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private RegistrationService registrationService;
+
+    @Autowired
+    private TournamentRepository tournamentRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private Long tournamentId;
+
+    @BeforeEach
+    void setUp() {
+        tournamentId = newTournament();
+        for (int i = 0; i < TEAMS; i++) {
+            List<User> players = new ArrayList<>();
+            for (int j = 0; j < PLAYERS_PER_TEAM; j++) {
+                players.add(newUser());
+            }
+            registrationService.createRegistration(tournamentId, "Команда " + UUID.randomUUID(),
+                players.get(0).getId(), players.stream().map(User::getId).toList());
+        }
+    }
+
+    @Test
+    void tournamentListStaysWithinBudget() throws Exception {
+        mockMvc.perform(get("/api/tournaments"))
+            .andExpect(status().isOk())
+            .andExpect(QueryBudget.atMost(2));
+    }
+
+    @Test
+    void tournamentTeamsStayWithinBudget() throws Exception {
+        mockMvc.perform(get("/api/tournaments/{id}/teams", tournamentId))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.length()").value(TEAMS))
+            .andExpect(QueryBudget.atMost(2));
+    }
+
+    @Test
+    void registrationCreationStaysWithinBudget() throws Exception {
+        User captain = newUser();
+        List<Long> playerIds = new ArrayList<>(List.of(captain.getId()));
+        for (int i = 1; i < NEW_TEAM_PLAYERS; i++) {
+            playerIds.add(newUser().getId());
+        }
+        // Игроки, команда и связи пишутся пакетами: число запросов не растет с размером состава.
+        // Для новых пользователей добавляются блокировка их строк и повторный поиск игроков
+        mockMvc.perform(post("/api/registrations")
+                .with(user(captain.getEmail()))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(Map.of(
+                    "tournamentId", tournamentId,
+                    "teamName", "Команда " + UUID.randomUUID(),
+                    "playerIds", playerIds))))
+            .andExpect(status().isOk())
+            .andExpect(QueryBudget.atMost(16 + SEQUENCE_REFILLS));
+    }
+
+    private Long newTournament() {
+        return tournamentRepository.save(Tournament.builder()
+            .name("Бюджет " + UUID.randomUUID())
+            .date(LocalDate.now().plusDays(30))
+            .location("Москва")
+            .status(TournamentStatus.UPCOMING)
+            .maxTeams(TEAMS + 2)
+            .build()).getId();
+    }
+
+    private User newUser() {
+        String key = UUID.randomUUID().toString();
+        return userRepository.save(User.builder()
+            .name("Игрок " + key.substring(0, 8))
+            .email(key + "@example.com")
+            .password("x")
+            .role("user")
+            .build());
+    }
+}
@@ -0,0 +1,148 @@
+package com.fiba.api.plan;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Источник данных, запоминающий выполненные текущим потоком запросы вместе с привязкой параметров.
+ *
+ * Нужен, чтобы выполнить EXPLAIN ровно для того SQL, который сгенерировал Hibernate для метода
+ * репозитория, и с теми же значениями параметров. Запись ведется только внутри {@link #capture(Runnable)}.
+ */
+final class CapturingDataSource extends DelegatingDataSource implements AutoCloseable {
+
+    private static final ThreadLocal<List<CapturedStatement>> CURRENT = new ThreadLocal<>();
+
+    /**
+     * Вызов setXxx(index, value, ...) на PreparedStatement
+     */
+    record Bind(Method method, Object[] args) {
+    }
+
+    /**
+     * Выполненный запрос и привязка его параметров
+     */
+    record CapturedStatement(String sql, List<Bind> binds) {
+
+        boolean isQuery() {
+            String head = sql.stripLeading().toLowerCase();
+            return head.startsWith("select") || head.startsWith("with");
+        }
+
+        /**
+         * Повторяет привязку параметров на другом PreparedStatement с тем же порядком параметров
+         */
+        void bind(PreparedStatement statement) throws SQLException {
+            for (Bind bind : binds) {
+                try {
+                    bind.method().invoke(statement, bind.args());
+                } catch (IllegalAccessException e) {
+                    throw new IllegalStateException(e);
+                } catch (InvocationTargetException e) {
+                    if (e.getCause() instanceof SQLException sqlException) {
+                        throw sqlException;
+                    }
+                    throw new IllegalStateException(e.getCause());
+                }
+            }
+        }
+    }
+
+    CapturingDataSource(DataSource target) {
+        super(target);
+    }
+
+    /**
+     * Выполняет действие и возвращает запросы, выполненные им в текущем потоке
+     */
+    static List<CapturedStatement> capture(Runnable action) {
+        List<CapturedStatement> statements = new ArrayList<>();
+        CURRENT.set(statements);
+        try {
+            action.run();
+        } finally {
+            CURRENT.remove();
+        }
+        return statements;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return wrap(obtainTargetDataSource().getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return wrap(obtainTargetDataSource().getConnection(username, password));
+    }
+
+    @Override
+    public void close() throws Exception {
+        if (getTargetDataSource() instanceof AutoCloseable closeable) {
+            closeable.close();
+        }
+    }
+
+    private static Connection wrap(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(CapturingDataSource.class.getClassLoader(),
+            new Class<?>[]{Connection.class}, (proxy, method, args) -> {
+                Object result = invoke(connection, method, args);
+                return switch (method.getName()) {
+                    case "prepareStatement" -> wrap((PreparedStatement) result, (String) args[0]);
+                    case "createStatement" -> wrap((Statement) result);
+                    default -> result;
+                };
+            });
+    }
+
+    private static PreparedStatement wrap(PreparedStatement statement, String sql) {
+        List<Bind> binds = new ArrayList<>();
+        return (PreparedStatement) Proxy.newProxyInstance(CapturingDataSource.class.getClassLoader(),
+            new Class<?>[]{PreparedStatement.class}, (proxy, method, args) -> {
+                String name = method.getName();
+                if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer) {
+                    binds.add(new Bind(method, args.clone()));
+                } else if (name.equals("clearParameters")) {
+                    binds.clear();
+                } else if (name.startsWith("execute") && (args == null || args.length == 0)) {
+                    record(sql, List.copyOf(binds));
+                }
+                return invoke(statement, method, args);
+            });
+    }
+
+    private static Statement wrap(Statement statement) {
+        return (Statement) Proxy.newProxyInstance(CapturingDataSource.class.getClassLoader(),
+            new Class<?>[]{Statement.class}, (proxy, method, args) -> {
+                if (method.getName().startsWith("execute") && args != null && args[0] instanceof String sql) {
+                    record(sql, List.of());
+                }
+                return invoke(statement, method, args);
+            });
+    }
+
+    private static void record(String sql, List<Bind> binds) {
+        List<CapturedStatement> statements = CURRENT.get();
+        if (statements != null) {
+            statements.add(new CapturedStatement(sql, binds));
+        }
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
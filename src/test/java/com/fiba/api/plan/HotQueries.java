@@ -0,0 +1,160 @@
+package com.fiba.api.plan;
+
+import com.fiba.api.model.TeamStatus;
+import com.fiba.api.model.TournamentStatus;
+import com.fiba.api.repository.AdRepository;
+import com.fiba.api.repository.AdResultsRepository;
+import com.fiba.api.repository.PlayerRepository;
+import com.fiba.api.repository.ProfileRepository;
+import com.fiba.api.repository.RegistrationRepository;
+import com.fiba.api.repository.TeamRepository;
+import com.fiba.api.repository.TournamentRepository;
+import com.fiba.api.repository.TournamentTeamRepository;
+import com.fiba.api.repository.UserRepository;
+import org.springframework.context.ApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Горячие методы репозиториев (вход, карточка и списки турниров, регистрация, реклама)
+ * и ожидания к их планам на объеме синтетических данных.
+ *
+ * Потолки стоимости взяты примерно втрое выше планов на данных {@link com.fiba.api.config.SyntheticDataSeeder}
+ * с объемами по умолчанию, поэтому на меньшем наборе db/plan-data.sql они тем более выполняются;
+ * рост выше потолка означает, что запрос начал читать заметно больше страниц.
+ * Отметки knownIssue - найденные проверкой проблемы, которые еще не исправлены.
+ */
+final class HotQueries {
+
+    private HotQueries() {
+    }
+
+    /**
+     * Значения параметров, взятые из базы: популярный турнир и его первая заявка
+     */
+    record Samples(long tournamentId, long registrationId, String teamName, long captainId, String email,
+                   long teamId, long adId, String tournamentName, String location) {
+
+        static Samples load(JdbcTemplate jdbc) {
+            // Турнир на 99-м перцентиле по числу заявок: популярный, но не единичный выброс распределения
+            Long tournamentId = jdbc.query("SELECT tournament_id FROM registrations GROUP BY tournament_id "
+                + "ORDER BY COUNT(*) DESC, tournament_id "
+                + "OFFSET (SELECT COUNT(DISTINCT tournament_id) / 100 FROM registrations) LIMIT 1",
+                rs -> rs.next() ? rs.getLong(1) : null);
+            if (tournamentId == null) {
+                throw new IllegalStateException("В базе нет заявок: синтетические данные db/plan-data.sql не загружены");
+            }
+            return jdbc.queryForObject("SELECT r.id, r.team_name, r.user_id, u.email, tt.team_id, t.name, t.location, "
+                + "(SELECT MIN(a.id) FROM ads a WHERE a.tournament_id = t.id) AS ad_id "
+                + "FROM registrations r JOIN users u ON u.id = r.user_id JOIN tournaments t ON t.id = r.tournament_id "
+                + "JOIN tournament_teams tt ON tt.registration_id = r.id "
+                + "WHERE r.tournament_id = ? ORDER BY r.id LIMIT 1",
+                (rs, row) -> new Samples(tournamentId, rs.getLong("id"), rs.getString("team_name"),
+                    rs.getLong("user_id"), rs.getString("email"), rs.getLong("team_id"), rs.getLong("ad_id"),
+                    rs.getString("name"), rs.getString("location")),
+                tournamentId);
+        }
+    }
+
+    static List<PlanCheck> all(ApplicationContext context, Samples s) {
+        UserRepository users = context.getBean(UserRepository.class);
+        ProfileRepository profiles = context.getBean(ProfileRepository.class);
+        TournamentRepository tournaments = context.getBean(TournamentRepository.class);
+        RegistrationRepository registrations = context.getBean(RegistrationRepository.class);
+        TournamentTeamRepository tournamentTeams = context.getBean(TournamentTeamRepository.class);
+        TeamRepository teams = context.getBean(TeamRepository.class);
+        PlayerRepository players = context.getBean(PlayerRepository.class);
+        AdRepository ads = context.getBean(AdRepository.class);
+        AdResultsRepository adResults = context.getBean(AdResultsRepository.class);
+        TransactionTemplate transaction = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        // Фрагмент названия вида "Open #1234", как его набирают в поиске
+        String titleFragment = s.tournamentName().substring(s.tournamentName().indexOf("Open"));
+        // Начало адреса вида "user1234": имя вроде "иван" совпадает с каждым десятым пользователем,
+        // и последовательное чтение для него - верный план, а не регрессия
+        String emailFragment = s.email().substring(0, s.email().indexOf('@'));
+
+        return List.of(
+            // Вход и регистрация пользователя
+            PlanCheck.of("UserRepository.findByEmail", () -> users.findByEmail(s.email()))
+                .usesIndex("idx_user_email_lower").maxCost(25),
+            PlanCheck.of("UserRepository.existsByEmail", () -> users.existsByEmail(s.email()))
+                .usesIndex("idx_user_email_lower").maxCost(25),
+            PlanCheck.of("UserRepository.searchByNameOrEmail", () -> users.searchByNameOrEmail(emailFragment))
+                .usesIndex("idx_user_name_trgm"),
+            PlanCheck.of("UserRepository.findByIdIn", () -> users.findByIdIn(List.of(s.captainId())))
+                .usesIndex("users_pkey").maxCost(50),
+            PlanCheck.of("ProfileRepository.findByUserId", () -> profiles.findByUserId(s.captainId()))
+                .maxCost(40),
+
+            // Списки и поиск турниров
+            PlanCheck.of("TournamentRepository.findByDateGreaterThanEqualAndStatus",
+                    () -> tournaments.findByDateGreaterThanEqualAndStatus(LocalDate.now(), TournamentStatus.UPCOMING))
+                .allowSeqScan("tournaments").maxCost(4000),
+            PlanCheck.of("TournamentRepository.findByLevel", () -> tournaments.findByLevel("Professional"))
+                .allowSeqScan("tournaments").maxCost(4000),
+            PlanCheck.of("TournamentRepository.searchByTitle", () -> tournaments.searchByTitle(titleFragment))
+                .usesIndex("idx_tournament_name_trgm").maxCost(200),
+            PlanCheck.of("TournamentRepository.findByLocationContainingIgnoreCase",
+                    () -> tournaments.findByLocationContainingIgnoreCase(s.location()))
+                .allowSeqScan("tournaments").maxCost(4000),
+
+            // Карточка турнира и регистрация команды
+            PlanCheck.of("TournamentRepository.findByIdWithRegistrations",
+                    () -> tournaments.findByIdWithRegistrations(s.tournamentId()))
+                .usesIndex("idx_registration_tournament").maxCost(500).maxStatements(1)
+                .knownIssue("профили капитанов загружаются по одному: обратная сторона OneToOne User.profile не ленивая"),
+            PlanCheck.of("TournamentRepository.getFreeTeamSlots", () -> tournaments.getFreeTeamSlots(s.tournamentId()))
+                .usesIndex("tournaments_pkey").maxCost(25),
+            PlanCheck.of("TournamentRepository.lockById",
+                    () -> transaction.executeWithoutResult(status -> tournaments.lockById(s.tournamentId())))
+                .usesIndex("tournaments_pkey").maxCost(25),
+            PlanCheck.of("RegistrationRepository.findByTournamentId",
+                    () -> registrations.findByTournamentId(s.tournamentId()))
+                .usesIndex("idx_registration_tournament").maxCost(150),
+            PlanCheck.of("RegistrationRepository.existsByTeamNameAndTournamentId",
+                    () -> registrations.existsByTeamNameAndTournamentId(s.teamName(), s.tournamentId()))
+                .usesIndex("idx_registration_team_name").maxCost(40),
+            PlanCheck.of("RegistrationRepository.loadRegistrationWithPlayers",
+                    () -> registrations.loadRegistrationWithPlayers(s.registrationId()))
+                .usesIndex("idx_player_team_registration").maxCost(100),
+            PlanCheck.of("RegistrationRepository.findByPlayerId", () -> registrations.findByPlayerId(s.captainId()))
+                .usesIndex("idx_player_team_user").maxCost(500),
+            PlanCheck.of("RegistrationRepository.findByCaptain",
+                    () -> registrations.findByCaptain(users.getReferenceById(s.captainId())))
+                .usesIndex("idx_registration_user").maxCost(500),
+            PlanCheck.of("TournamentTeamRepository.findByTournamentIdAndStatus",
+                    () -> tournamentTeams.findByTournamentIdAndStatus(s.tournamentId(), TeamStatus.APPROVED))
+                .usesIndex("idx_tournament_teams_waitlist").maxCost(200).maxStatements(1)
+                .knownIssue("команды загружаются по одной: ManyToOne TournamentTeam.team загружается EAGER"),
+            PlanCheck.of("TournamentTeamRepository.findByRegistrationId",
+                    () -> tournamentTeams.findByRegistrationId(s.registrationId()))
+                .maxCost(40),
+            PlanCheck.of("TournamentTeamRepository.findWaitlistPositionByRegistrationId",
+                    () -> tournamentTeams.findWaitlistPositionByRegistrationId(s.registrationId()))
+                .maxCost(25),
+            PlanCheck.of("TournamentTeamRepository.countStatusesByTeamIds",
+                    () -> tournamentTeams.countStatusesByTeamIds(s.tournamentId(), List.of(s.teamId())))
+                .usesIndex("idx_tournament_teams_status").maxCost(150),
+            PlanCheck.of("PlayerRepository.findByUserIdIn", () -> players.findByUserIdIn(List.of(s.captainId())))
+                .maxCost(25),
+
+            // Реклама и рейтинги
+            PlanCheck.of("AdRepository.findByTournamentId", () -> ads.findByTournamentId(s.tournamentId()))
+                .usesIndex("idx_ad_tournament").maxCost(600).maxStatements(1)
+                .knownIssue("результаты загружаются по одному: обратная сторона OneToOne Ad.adResults не ленивая"),
+            PlanCheck.of("AdRepository.findWithResultsById", () -> ads.findWithResultsById(s.adId()))
+                .usesIndex("ads_pkey").maxCost(50),
+            PlanCheck.of("AdResultsRepository.findByAdId", () -> adResults.findByAdId(s.adId()))
+                .maxCost(50),
+            PlanCheck.of("AdRepository.findRandomActiveAds", () -> ads.findRandomActiveAds(1))
+                .maxCost(1000)
+                .knownIssue("ORDER BY RANDOM() читает и сортирует всю таблицу ads"),
+            PlanCheck.of("TeamRepository.findTopTeamsByRating", () -> teams.findTopTeamsByRating(10))
+                .usesIndex("idx_team_total_points").maxCost(1000)
+        );
+    }
+}
@@ -0,0 +1,110 @@
+package com.fiba.api.plan;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Ожидания к плану одного горячего метода репозитория.
+ *
+ * По умолчанию план не должен содержать последовательных сканирований больших таблиц
+ * ({@link #LARGE_TABLES}); дополнительно можно потребовать конкретный индекс и ограничить стоимость.
+ * Известная проблема ({@link #knownIssue}) не считается провалом, но если план уже соответствует
+ * ожиданиям, проверка проваливается, чтобы отметку сняли и регрессия снова ловилась.
+ */
+final class PlanCheck {
+
+    /**
+     * Таблицы, которые на объеме production нельзя читать целиком в горячих запросах
+     */
+    static final Set<String> LARGE_TABLES = Set.of("users", "profiles", "tournaments", "registrations", "player_team",
+        "players", "teams", "team_players", "tournament_teams", "ads", "ad_results");
+
+    enum Outcome { OK, FAIL, KNOWN, FIXED }
+
+    final String name;
+    final Runnable action;
+    final Set<String> allowedSeqScans = new TreeSet<>();
+    String requiredIndex;
+    double maxCost = Double.MAX_VALUE;
+    int maxStatements = Integer.MAX_VALUE;
+    String knownIssue;
+
+    private PlanCheck(String name, Runnable action) {
+        this.name = name;
+        this.action = action;
+    }
+
+    static PlanCheck of(String name, Runnable action) {
+        return new PlanCheck(name, action);
+    }
+
+    PlanCheck usesIndex(String index) {
+        this.requiredIndex = index;
+        return this;
+    }
+
+    PlanCheck maxCost(double cost) {
+        this.maxCost = cost;
+        return this;
+    }
+
+    /**
+     * Ограничивает число запросов метода: ленивые и EAGER-загрузки связей выполняются тем же вызовом
+     */
+    PlanCheck maxStatements(int statements) {
+        this.maxStatements = statements;
+        return this;
+    }
+
+    /**
+     * Разрешает последовательное сканирование таблицы, когда метод по смыслу читает ее большую часть
+     */
+    PlanCheck allowSeqScan(String table) {
+        allowedSeqScans.add(table);
+        return this;
+    }
+
+    PlanCheck knownIssue(String reason) {
+        this.knownIssue = reason;
+        return this;
+    }
+
+    /**
+     * Нарушения ожиданий по планам различных запросов метода; пустой список - план в порядке
+     */
+    List<String> violations(List<QueryPlan> plans, int statements) {
+        List<String> violations = new ArrayList<>();
+        if (plans.isEmpty()) {
+            violations.add("метод не выполнил ни одного SELECT");
+            return violations;
+        }
+        if (statements > maxStatements) {
+            violations.add(statements + " statements > " + maxStatements);
+        }
+        boolean indexUsed = false;
+        for (QueryPlan plan : plans) {
+            for (String table : plan.seqScans()) {
+                if (LARGE_TABLES.contains(table) && !allowedSeqScans.contains(table)) {
+                    violations.add("Seq Scan on " + table);
+                }
+            }
+            if (plan.totalCost() > maxCost) {
+                violations.add(String.format("cost %.0f > %.0f", plan.totalCost(), maxCost));
+            }
+            indexUsed |= requiredIndex != null && plan.indexes().contains(requiredIndex);
+        }
+        if (requiredIndex != null && !indexUsed) {
+            violations.add("index " + requiredIndex + " not used");
+        }
+        return violations;
+    }
+
+    Outcome outcome(List<String> violations) {
+        if (knownIssue != null) {
+            return violations.isEmpty() ? Outcome.FIXED : Outcome.KNOWN;
+        }
+        return violations.isEmpty() ? Outcome.OK : Outcome.FAIL;
+    }
+}
@@ -0,0 +1,63 @@
+package com.fiba.api.plan;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * План запроса PostgreSQL (EXPLAIN FORMAT JSON), сведенный к тому, что проверяют регрессионные проверки:
+ * оценка стоимости, последовательные сканирования и использованные индексы.
+ */
+record QueryPlan(String sql, double totalCost, double rows, Set<String> seqScans, Set<String> indexes,
+                 List<String> nodes) {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    /**
+     * Выполняет EXPLAIN для запроса с теми же значениями параметров (без ANALYZE: запрос не выполняется)
+     */
+    static QueryPlan explain(Connection connection, CapturingDataSource.CapturedStatement statement) throws SQLException {
+        try (PreparedStatement explain = connection.prepareStatement("EXPLAIN (FORMAT JSON) " + statement.sql())) {
+            statement.bind(explain);
+            try (ResultSet resultSet = explain.executeQuery()) {
+                resultSet.next();
+                JsonNode root = MAPPER.readTree(resultSet.getString(1)).get(0).get("Plan");
+                Set<String> seqScans = new TreeSet<>();
+                Set<String> indexes = new TreeSet<>();
+                List<String> nodes = new ArrayList<>();
+                walk(root, 0, seqScans, indexes, nodes);
+                return new QueryPlan(statement.sql(), root.path("Total Cost").asDouble(),
+                    root.path("Plan Rows").asDouble(), seqScans, indexes, nodes);
+            } catch (com.fasterxml.jackson.core.JsonProcessingException e) {
+                throw new SQLException("Cannot parse EXPLAIN output", e);
+            }
+        }
+    }
+
+    private static void walk(JsonNode node, int depth, Set<String> seqScans, Set<String> indexes, List<String> nodes) {
+        String type = node.path("Node Type").asText();
+        String relation = node.path("Relation Name").asText(null);
+        String index = node.path("Index Name").asText(null);
+        if ("Seq Scan".equals(type) && relation != null) {
+            seqScans.add(relation);
+        }
+        if (index != null) {
+            indexes.add(index);
+        }
+        nodes.add("  ".repeat(depth) + type
+            + (relation != null ? " on " + relation : "")
+            + (index != null ? " using " + index : "")
+            + String.format(" (cost=%.0f rows=%.0f)", node.path("Total Cost").asDouble(), node.path("Plan Rows").asDouble()));
+        for (JsonNode child : node.path("Plans")) {
+            walk(child, depth + 1, seqScans, indexes, nodes);
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.fiba.api.plan;
+
+import com.fiba.api.support.PostgresIntegrationTest;
+import com.fiba.api.support.TestDatabase;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.TestFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Регрессионные проверки планов горячих запросов: каждая проверка из {@link HotQueries} - отдельный тест.
+ *
+ * Перед проверками общая база дополняется синтетическими данными (db/plan-data.sql, один раз за прогон),
+ * затем методы репозиториев вызываются через источник данных, перехватывающий SQL с параметрами,
+ * и для каждого запроса выполняется EXPLAIN. Тест падает, если большая таблица читается последовательным
+ * сканированием, не используется ожидаемый индекс, стоимость выше потолка или запросов больше допустимого.
+ * Известные проблемы (knownIssue) отмечаются пропущенными тестами, исправленные - падают, чтобы отметку сняли.
+ */
+class QueryPlanRegressionTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private ApplicationContext context;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @TestConfiguration
+    static class CapturingDataSourceConfig {
+
+        @Bean
+        static BeanPostProcessor capturingDataSourcePostProcessor() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    return bean instanceof DataSource target && !(bean instanceof CapturingDataSource)
+                        ? new CapturingDataSource(target) : bean;
+                }
+            };
+        }
+    }
+
+    @TestFactory
+    Stream<DynamicTest> hotQueriesKeepTheirPlans() {
+        if (!Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM users WHERE email LIKE '%@plan.local')", Boolean.class))) {
+            TestDatabase.shared().execute("db/plan-data.sql");
+        }
+        HotQueries.Samples samples = HotQueries.Samples.load(jdbcTemplate);
+        return HotQueries.all(context, samples).stream()
+            .map(check -> DynamicTest.dynamicTest(check.name, () -> verify(check)));
+    }
+
+    private void verify(PlanCheck check) throws SQLException {
+        // Одинаковый SQL (например, загрузки связей по одной строке) объясняется один раз
+        Map<String, QueryPlan> plansBySql = new LinkedHashMap<>();
+        int statements = 0;
+        try (Connection connection = dataSource.getConnection()) {
+            for (CapturingDataSource.CapturedStatement statement : CapturingDataSource.capture(check.action)) {
+                if (statement.isQuery()) {
+                    statements++;
+                    if (!plansBySql.containsKey(statement.sql())) {
+                        plansBySql.put(statement.sql(), QueryPlan.explain(connection, statement));
+                    }
+                }
+            }
+        }
+        List<QueryPlan> plans = new ArrayList<>(plansBySql.values());
+        List<String> violations = check.violations(plans, statements);
+
+        switch (check.outcome(violations)) {
+            case OK -> {
+            }
+            case KNOWN -> Assumptions.abort("Известная проблема: " + check.knownIssue);
+            case FIXED -> throw new AssertionError(check.name + ": план в порядке, снимите отметку knownIssue"
+                + describe(plans));
+            case FAIL -> throw new AssertionError(check.name + ": " + String.join("; ", violations) + describe(plans));
+        }
+    }
+
+    private static String describe(List<QueryPlan> plans) {
+        StringBuilder result = new StringBuilder();
+        for (QueryPlan plan : plans) {
+            result.append(System.lineSeparator()).append(plan.sql());
+            plan.nodes().forEach(node -> result.append(System.lineSeparator()).append("  ").append(node));
+        }
+        return result.toString();
+    }
+}
@@ -0,0 +1,117 @@
+package com.fiba.api.service;
+
+import com.fiba.api.model.Tournament;
+import com.fiba.api.model.TournamentStatus;
+import com.fiba.api.model.User;
+import com.fiba.api.repository.TournamentRepository;
+import com.fiba.api.repository.UserRepository;
+import com.fiba.api.support.PostgresIntegrationTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Первые регистрации одних и тех же пользователей, выполняемые одновременно в разные турниры:
+ * каждому пользователю создается ровно один игрок, и ни одна регистрация не падает на уникальности user_id.
+ */
+class PlayerCreationConcurrencyTest extends PostgresIntegrationTest {
+
+    private static final int REGISTRATIONS = 8;
+    private static final int ROUNDS = 5;
+
+    @Autowired
+    private RegistrationService registrationService;
+
+    @Autowired
+    private TournamentRepository tournamentRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void concurrentFirstRegistrationsShareOnePlayerPerUser() throws Exception {
+        for (int round = 0; round < ROUNDS; round++) {
+            raceOnNewUsers();
+        }
+    }
+
+    private void raceOnNewUsers() throws Exception {
+        User captain = newUser();
+        // Составы пересекаются в разном порядке: блокировки пользователей не должны приводить к взаимоблокировке
+        User second = newUser();
+        User third = newUser();
+        List<Long> tournaments = new ArrayList<>();
+        for (int i = 0; i < REGISTRATIONS; i++) {
+            tournaments.add(newTournament());
+        }
+
+        ConcurrentLinkedQueue<Throwable> failures = new ConcurrentLinkedQueue<>();
+        ExecutorService executor = Executors.newFixedThreadPool(REGISTRATIONS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            for (int i = 0; i < REGISTRATIONS; i++) {
+                Long tournamentId = tournaments.get(i);
+                List<Long> playerIds = i % 2 == 0
+                    ? List.of(captain.getId(), second.getId(), third.getId())
+                    : List.of(third.getId(), second.getId(), captain.getId());
+                executor.submit(() -> {
+                    try {
+                        start.await();
+                        registrationService.createRegistration(tournamentId, "Команда " + UUID.randomUUID(),
+                            captain.getId(), playerIds);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    } catch (RuntimeException e) {
+                        failures.add(e);
+                    }
+                });
+            }
+            start.countDown();
+            executor.shutdown();
+            assertThat(executor.awaitTermination(60, TimeUnit.SECONDS)).isTrue();
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(failures).isEmpty();
+        for (User user : List.of(captain, second, third)) {
+            assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM players WHERE user_id = ?",
+                Integer.class, user.getId())).isEqualTo(1);
+        }
+    }
+
+    private Long newTournament() {
+        return tournamentRepository.save(Tournament.builder()
+            .name("Первая заявка " + UUID.randomUUID())
+            .date(LocalDate.now().plusDays(30))
+            .location("Самара")
+            .status(TournamentStatus.UPCOMING)
+            .maxTeams(4)
+            .build()).getId();
+    }
+
+    private User newUser() {
+        String key = UUID.randomUUID().toString();
+        return userRepository.save(User.builder()
+            .name("Игрок " + key.substring(0, 8))
+            .email(key + "@example.com")
+            .password("x")
+            .role("user")
+            .build());
+    }
+}
@@ -0,0 +1,77 @@
+package com.fiba.api.service;
+
+import com.fiba.api.model.Tournament;
+import com.fiba.api.model.TournamentStatus;
+import com.fiba.api.model.User;
+import com.fiba.api.repository.TournamentRepository;
+import com.fiba.api.repository.UserRepository;
+import com.fiba.api.support.PostgresIntegrationTest;
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Изменение счетчиков команд убирает из кэша второго уровня только свой турнир,
+ * остальные турниры остаются в регионе tournaments.
+ */
+class TournamentCacheEvictionTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private RegistrationService registrationService;
+
+    @Autowired
+    private TournamentRepository tournamentRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void counterUpdateEvictsOnlyAffectedTournament() {
+        Long changed = newTournament();
+        Long untouched = newTournament();
+        Cache cache = entityManagerFactory.getCache();
+        cache.evict(Tournament.class);
+        tournamentRepository.findById(changed);
+        tournamentRepository.findById(untouched);
+        assertThat(cache.contains(Tournament.class, changed)).isTrue();
+        assertThat(cache.contains(Tournament.class, untouched)).isTrue();
+
+        User user = newUser();
+        registrationService.createRegistration(changed, "Команда " + UUID.randomUUID(),
+            user.getId(), List.of(user.getId()));
+
+        assertThat(cache.contains(Tournament.class, untouched)).isTrue();
+        assertThat(cache.contains(Tournament.class, changed)).isFalse();
+        assertThat(tournamentRepository.findById(changed).orElseThrow().getRegisteredTeams()).isEqualTo(1);
+    }
+
+    private Long newTournament() {
+        return tournamentRepository.save(Tournament.builder()
+            .name("Кэш " + UUID.randomUUID())
+            .date(LocalDate.now().plusDays(30))
+            .location("Пермь")
+            .status(TournamentStatus.UPCOMING)
+            .maxTeams(4)
+            .build()).getId();
+    }
+
+    private User newUser() {
+        String key = UUID.randomUUID().toString();
+        return userRepository.save(User.builder()
+            .name("Игрок " + key.substring(0, 8))
+            .email(key + "@example.com")
+            .password("x")
+            .role("user")
+            .build());
+    }
+}
@@ -0,0 +1,247 @@
+package com.fiba.api.service;
+
+import com.fiba.api.exception.ResourceNotFoundException;
+import com.fiba.api.model.Registration;
+import com.fiba.api.model.Tournament;
+import com.fiba.api.model.TournamentStatus;
+import com.fiba.api.model.User;
+import com.fiba.api.repository.TournamentRepository;
+import com.fiba.api.repository.UserRepository;
+import com.fiba.api.support.PostgresIntegrationTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Счетчики мест турнира при параллельных регистрациях, отклонениях и отзывах заявок.
+ * В любой момент счетчик должен совпадать с числом команд, занимающих место, и не превышать лимит.
+ * Наплыв регистраций на один турнир допускает ровно maxTeams команд, остальные встают в лист ожидания.
+ */
+class TournamentCapacityConcurrencyTest extends PostgresIntegrationTest {
+
+    private static final int MAX_TEAMS = 3;
+    private static final int ROUNDS = 5;
+    private static final int RUSH_MAX_TEAMS = 25;
+    private static final int RUSH_REGISTRATIONS = 500;
+    private static final int RUSH_THREADS = 64;
+
+    // Один снимок: счетчики и строки команд фиксируются одной транзакцией и должны совпадать
+    private static final String COUNTERS_VS_ROWS = "SELECT t.max_teams, t.registered_teams, t.approved_teams, t.waitlisted_teams, " +
+        "(SELECT count(*) FROM tournament_teams tt WHERE tt.tournament_id = t.id AND tt.status NOT IN ('REJECTED', 'WAITLISTED')) AS occupied, " +
+        "(SELECT count(*) FROM tournament_teams tt WHERE tt.tournament_id = t.id AND tt.status IN ('APPROVED', 'COMPLETED')) AS approved, " +
+        "(SELECT count(*) FROM tournament_teams tt WHERE tt.tournament_id = t.id AND tt.status = 'WAITLISTED') AS waitlisted " +
+        "FROM tournaments t WHERE t.id = ?";
+
+    @Autowired
+    private RegistrationService registrationService;
+
+    @Autowired
+    private TournamentRepository tournamentRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void countersMatchTeamsUnderConcurrentReserveRejectAndWithdraw() throws Exception {
+        for (int round = 0; round < ROUNDS; round++) {
+            raceOnTournament();
+        }
+    }
+
+    @Test
+    void registrationRushAdmitsExactlyMaxTeams() throws Exception {
+        Long tournamentId = tournamentRepository.save(Tournament.builder()
+            .name("Наплыв " + UUID.randomUUID())
+            .date(LocalDate.now().plusDays(30))
+            .location("Сочи")
+            .status(TournamentStatus.UPCOMING)
+            .maxTeams(RUSH_MAX_TEAMS)
+            .build()).getId();
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < RUSH_REGISTRATIONS; i++) {
+            String key = UUID.randomUUID().toString();
+            users.add(User.builder()
+                .name("Игрок " + key.substring(0, 8))
+                .email(key + "@example.com")
+                .password("x")
+                .role("user")
+                .build());
+        }
+        users = userRepository.saveAll(users);
+
+        ConcurrentLinkedQueue<Throwable> failures = new ConcurrentLinkedQueue<>();
+        ExecutorService executor = Executors.newFixedThreadPool(RUSH_THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            for (User user : users) {
+                executor.submit(() -> {
+                    try {
+                        start.await();
+                        registrationService.createRegistration(tournamentId, "Команда " + user.getId(),
+                            user.getId(), List.of(user.getId()));
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    } catch (RuntimeException e) {
+                        failures.add(e);
+                    }
+                });
+            }
+            start.countDown();
+            executor.shutdown();
+            assertThat(executor.awaitTermination(120, TimeUnit.SECONDS)).isTrue();
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(failures).isEmpty();
+        assertThat(checkCounters(tournamentId)).isNull();
+        Map<String, Object> state = jdbcTemplate.queryForMap(COUNTERS_VS_ROWS, tournamentId);
+        assertThat(((Number) state.get("occupied")).intValue()).isEqualTo(RUSH_MAX_TEAMS);
+        assertThat(((Number) state.get("waitlisted")).intValue()).isEqualTo(RUSH_REGISTRATIONS - RUSH_MAX_TEAMS);
+        List<Integer> positions = jdbcTemplate.queryForList(
+            "SELECT waitlist_position FROM tournament_teams WHERE tournament_id = ? AND status = 'WAITLISTED' " +
+            "ORDER BY waitlist_position", Integer.class, tournamentId);
+        for (int i = 0; i < positions.size(); i++) {
+            assertThat(positions.get(i)).isEqualTo(i + 1);
+        }
+    }
+
+    private void raceOnTournament() throws Exception {
+        Tournament tournament = tournamentRepository.save(Tournament.builder()
+            .name("Гонка " + UUID.randomUUID())
+            .date(LocalDate.now().plusDays(30))
+            .location("Казань")
+            .status(TournamentStatus.UPCOMING)
+            .maxTeams(MAX_TEAMS)
+            .build());
+        Long tournamentId = tournament.getId();
+
+        // 3 команды занимают места, 5 стоят в листе ожидания
+        List<Long> registrations = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            registrations.add(register(tournamentId));
+        }
+        List<User> newcomers = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            newcomers.add(newUser());
+        }
+
+        List<Runnable> tasks = new ArrayList<>();
+        // Каждую из первых заявок одновременно дважды отклоняют и отзывают
+        for (Long registrationId : registrations.subList(0, 5)) {
+            tasks.add(() -> registrationService.updateRegistrationStatus(registrationId, "rejected"));
+            tasks.add(() -> registrationService.updateRegistrationStatus(registrationId, "rejected"));
+            tasks.add(() -> registrationService.deleteRegistration(registrationId));
+        }
+        for (User user : newcomers) {
+            tasks.add(() -> registrationService.createRegistration(tournamentId, "Команда " + user.getId(),
+                user.getId(), List.of(user.getId())));
+        }
+        Collections.shuffle(tasks);
+
+        ConcurrentLinkedQueue<Throwable> failures = new ConcurrentLinkedQueue<>();
+        ConcurrentLinkedQueue<String> violations = new ConcurrentLinkedQueue<>();
+        AtomicBoolean running = new AtomicBoolean(true);
+        Thread sampler = new Thread(() -> {
+            while (running.get()) {
+                String violation = checkCounters(tournamentId);
+                if (violation != null) {
+                    violations.add(violation);
+                }
+            }
+        });
+        sampler.start();
+
+        ExecutorService executor = Executors.newFixedThreadPool(12);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            for (Runnable task : tasks) {
+                executor.submit(() -> {
+                    try {
+                        start.await();
+                        task.run();
+                    } catch (ResourceNotFoundException e) {
+                        // Команда уже удалена параллельным отзывом
+                    } catch (RuntimeException e) {
+                        if (e.getMessage() == null || !e.getMessage().contains("не найдена")) {
+                            failures.add(e);
+                        }
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                });
+            }
+            start.countDown();
+            executor.shutdown();
+            assertThat(executor.awaitTermination(60, TimeUnit.SECONDS)).isTrue();
+        } finally {
+            executor.shutdownNow();
+            running.set(false);
+            sampler.join();
+        }
+
+        assertThat(violations).isEmpty();
+        assertThat(checkCounters(tournamentId)).isNull();
+        assertThat(failures).isEmpty();
+
+        // Освободившиеся места заняты листом ожидания, позиции в нем идут подряд
+        Map<String, Object> state = jdbcTemplate.queryForMap(COUNTERS_VS_ROWS, tournamentId);
+        long waitlisted = ((Number) state.get("waitlisted")).longValue();
+        if (waitlisted > 0) {
+            assertThat(((Number) state.get("occupied")).intValue()).isEqualTo(MAX_TEAMS);
+        }
+        List<Integer> positions = jdbcTemplate.queryForList(
+            "SELECT waitlist_position FROM tournament_teams WHERE tournament_id = ? AND status = 'WAITLISTED' " +
+            "ORDER BY waitlist_position", Integer.class, tournamentId);
+        for (int i = 0; i < positions.size(); i++) {
+            assertThat(positions.get(i)).isEqualTo(i + 1);
+        }
+    }
+
+    private String checkCounters(Long tournamentId) {
+        Map<String, Object> row = jdbcTemplate.queryForMap(COUNTERS_VS_ROWS, tournamentId);
+        int registered = ((Number) row.get("registered_teams")).intValue();
+        if (registered > ((Number) row.get("max_teams")).intValue()
+            || registered != ((Number) row.get("occupied")).intValue()
+            || ((Number) row.get("approved_teams")).intValue() != ((Number) row.get("approved")).intValue()
+            || ((Number) row.get("waitlisted_teams")).intValue() != ((Number) row.get("waitlisted")).intValue()) {
+            return row.toString();
+        }
+        return null;
+    }
+
+    private Long register(Long tournamentId) {
+        User user = newUser();
+        Registration registration = registrationService.createRegistration(tournamentId, "Команда " + user.getId(),
+            user.getId(), List.of(user.getId()));
+        return registration.getId();
+    }
+
+    private User newUser() {
+        String key = UUID.randomUUID().toString();
+        return userRepository.save(User.builder()
+            .name("Игрок " + key.substring(0, 8))
+            .email(key + "@example.com")
+            .password("x")
+            .role("user")
+            .build());
+    }
+}
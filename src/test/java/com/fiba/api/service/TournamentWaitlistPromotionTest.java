@@ -0,0 +1,113 @@
+package com.fiba.api.service;
+
+import com.fiba.api.dto.TournamentRequest;
+import com.fiba.api.model.Tournament;
+import com.fiba.api.model.TournamentStatus;
+import com.fiba.api.model.User;
+import com.fiba.api.repository.TournamentRepository;
+import com.fiba.api.repository.UserRepository;
+import com.fiba.api.support.PostgresIntegrationTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Изменение лимита команд: освободившиеся места получает лист ожидания по порядку,
+ * а новые регистрации не обходят его.
+ */
+class TournamentWaitlistPromotionTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private RegistrationService registrationService;
+
+    @Autowired
+    private TournamentService tournamentService;
+
+    @Autowired
+    private TournamentRepository tournamentRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void raisingAndClearingMaxTeamsPromotesWaitlistInOrder() {
+        Tournament tournament = tournamentRepository.save(Tournament.builder()
+            .name("Лимит " + UUID.randomUUID())
+            .date(LocalDate.now().plusDays(30))
+            .location("Томск")
+            .status(TournamentStatus.UPCOMING)
+            .maxTeams(2)
+            .build());
+        Long tournamentId = tournament.getId();
+
+        for (int i = 0; i < 5; i++) {
+            register(tournamentId);
+        }
+        assertThat(statuses(tournamentId)).containsExactly(
+            "PENDING:null", "PENDING:null", "WAITLISTED:1", "WAITLISTED:2", "WAITLISTED:3");
+
+        tournamentService.updateTournament(tournamentId, request(tournament, 4));
+        assertThat(statuses(tournamentId)).containsExactly(
+            "PENDING:null", "PENDING:null", "PENDING:null", "PENDING:null", "WAITLISTED:1");
+        assertCounters(tournamentId, 4, 1);
+
+        // Лимит поднят ручной правкой в БД, без повышения листа ожидания: свободное место есть,
+        // но новая команда все равно встает за командой из листа ожидания
+        jdbcTemplate.update("UPDATE tournaments SET max_teams = 5 WHERE id = ?", tournamentId);
+        register(tournamentId);
+        assertThat(statuses(tournamentId)).endsWith("WAITLISTED:1", "WAITLISTED:2");
+        assertCounters(tournamentId, 4, 2);
+
+        tournamentService.updateTournament(tournamentId, request(tournament, null));
+        assertThat(statuses(tournamentId)).hasSize(6).allMatch(status -> status.equals("PENDING:null"));
+        assertCounters(tournamentId, 6, 0);
+
+        // Без лимита и без очереди новая команда сразу занимает место
+        register(tournamentId);
+        assertCounters(tournamentId, 7, 0);
+    }
+
+    private List<String> statuses(Long tournamentId) {
+        return jdbcTemplate.queryForList(
+            "SELECT status || ':' || coalesce(waitlist_position::text, 'null') FROM tournament_teams " +
+            "WHERE tournament_id = ? ORDER BY team_id", String.class, tournamentId);
+    }
+
+    private void assertCounters(Long tournamentId, int registered, int waitlisted) {
+        Map<String, Object> row = jdbcTemplate.queryForMap(
+            "SELECT registered_teams, waitlisted_teams FROM tournaments WHERE id = ?", tournamentId);
+        assertThat(((Number) row.get("registered_teams")).intValue()).isEqualTo(registered);
+        assertThat(((Number) row.get("waitlisted_teams")).intValue()).isEqualTo(waitlisted);
+    }
+
+    private static TournamentRequest request(Tournament tournament, Integer maxTeams) {
+        return TournamentRequest.builder()
+            .name(tournament.getName())
+            .date(tournament.getDate())
+            .location(tournament.getLocation())
+            .status(tournament.getStatus())
+            .maxTeams(maxTeams)
+            .build();
+    }
+
+    private void register(Long tournamentId) {
+        String key = UUID.randomUUID().toString();
+        User user = userRepository.save(User.builder()
+            .name("Игрок " + key.substring(0, 8))
+            .email(key + "@example.com")
+            .password("x")
+            .role("user")
+            .build());
+        registrationService.createRegistration(tournamentId, "Команда " + key, user.getId(), List.of(user.getId()));
+    }
+}
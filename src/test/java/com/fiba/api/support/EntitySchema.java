@@ -0,0 +1,53 @@
+package com.fiba.api.support;
+
+import jakarta.persistence.Entity;
+import org.hibernate.SessionFactory;
+import org.hibernate.boot.MetadataSources;
+import org.hibernate.boot.model.naming.CamelCaseToUnderscoresNamingStrategy;
+import org.hibernate.boot.registry.StandardServiceRegistry;
+import org.hibernate.boot.registry.StandardServiceRegistryBuilder;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.boot.orm.jpa.hibernate.SpringImplicitNamingStrategy;
+import org.springframework.context.annotation.ClassPathScanningCandidateComponentProvider;
+import org.springframework.core.type.filter.AnnotationTypeFilter;
+import org.springframework.util.ClassUtils;
+
+/**
+ * Проверка схемы базы по сущностям com.fiba.api.model - то же, что ddl-auto=validate при старте
+ * приложения, но без поднятия контекста Spring
+ */
+public final class EntitySchema {
+
+    private EntitySchema() {
+    }
+
+    /**
+     * @throws org.hibernate.tool.schema.spi.SchemaManagementException если схема не совпадает с сущностями
+     */
+    public static void validate(TestDatabase database) {
+        StandardServiceRegistry registry = new StandardServiceRegistryBuilder()
+            .applySetting(AvailableSettings.JAKARTA_JDBC_URL, database.getUrl())
+            .applySetting(AvailableSettings.JAKARTA_JDBC_USER, database.getUser())
+            .applySetting(AvailableSettings.JAKARTA_JDBC_PASSWORD, database.getPassword())
+            .applySetting(AvailableSettings.HBM2DDL_AUTO, "validate")
+            .applySetting(AvailableSettings.USE_SECOND_LEVEL_CACHE, "false")
+            // Те же стратегии имен, что задает Spring Boot
+            .applySetting(AvailableSettings.PHYSICAL_NAMING_STRATEGY, CamelCaseToUnderscoresNamingStrategy.class.getName())
+            .applySetting(AvailableSettings.IMPLICIT_NAMING_STRATEGY, SpringImplicitNamingStrategy.class.getName())
+            .build();
+        try {
+            MetadataSources sources = new MetadataSources(registry);
+            ClassPathScanningCandidateComponentProvider scanner = new ClassPathScanningCandidateComponentProvider(false);
+            scanner.addIncludeFilter(new AnnotationTypeFilter(Entity.class));
+            for (BeanDefinition candidate : scanner.findCandidateComponents("com.fiba.api.model")) {
+                sources.addAnnotatedClass(ClassUtils.resolveClassName(candidate.getBeanClassName(), null));
+            }
+            try (SessionFactory ignored = sources.buildMetadata().buildSessionFactory()) {
+                // Построение фабрики уже проверило схему
+            }
+        } finally {
+            StandardServiceRegistryBuilder.destroy(registry);
+        }
+    }
+}
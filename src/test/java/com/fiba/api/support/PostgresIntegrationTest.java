@@ -0,0 +1,40 @@
+package com.fiba.api.support;
+
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.BeforeAll;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.TestPropertySource;
+
+/**
+ * Тест с полным контекстом приложения на временной базе PostgreSQL (схема создается миграциями).
+ * База общая для всех таких тестов, поэтому каждый тест создает собственные турниры и пользователей.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@TestPropertySource(properties = {
+    "logging.file.name=target/test-logs/fiba-api.log",
+    "server.tomcat.accesslog.enabled=false",
+    "file.upload-dir=target/test-uploads",
+    "app.storage.janitor.enabled=false",
+    "app.waiting-room.enabled=false",
+    "app.feature-flags.refresh-interval-ms=600000"
+})
+public abstract class PostgresIntegrationTest {
+
+    @BeforeAll
+    static void requirePostgres() {
+        Assumptions.assumeTrue(TestDatabase.isAvailable(), "PostgreSQL для тестов недоступен (TEST_DATABASE_URL)");
+    }
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        TestDatabase database = TestDatabase.shared();
+        registry.add("spring.datasource.url", database::getUrl);
+        registry.add("spring.datasource.username", database::getUser);
+        registry.add("spring.datasource.password", database::getPassword);
+        registry.add("spring.datasource.hikari.maximum-pool-size", () -> "20");
+    }
+}
@@ -0,0 +1,50 @@
+package com.fiba.api.support;
+
+import com.fiba.api.config.QueryCounter;
+import com.fiba.api.filter.QueryBudgetFilter;
+import org.springframework.test.web.servlet.ResultMatcher;
+
+import java.util.Map;
+
+/**
+ * Бюджет SQL-запросов в тестах: проверяет, что действие или HTTP-запрос укладывается в заданное
+ * число обращений к БД. При превышении в сообщении приводится самый частый запрос - обычно это N+1.
+ */
+public final class QueryBudget {
+
+    private QueryBudget() {
+    }
+
+    /**
+     * Проверяет, что действие выполняет не больше max запросов
+     *
+     * @throws AssertionError если бюджет превышен
+     */
+    public static QueryCounter.Stats assertAtMost(int max, Runnable action) {
+        QueryCounter.Stats stats = QueryCounter.capture(action);
+        check(max, stats);
+        return stats;
+    }
+
+    /**
+     * Проверка MockMvc: запрос, включая сериализацию ответа, выполнил не больше max запросов.
+     * Статистику собирает {@link QueryBudgetFilter}.
+     */
+    public static ResultMatcher atMost(int max) {
+        return result -> {
+            Object stats = result.getRequest().getAttribute(QueryBudgetFilter.STATS_ATTRIBUTE);
+            if (!(stats instanceof QueryCounter.Stats queryStats)) {
+                throw new AssertionError("SQL statements were not counted: is app.query-budget.enabled=false?");
+            }
+            check(max, queryStats);
+        };
+    }
+
+    private static void check(int max, QueryCounter.Stats stats) {
+        if (stats.getCount() > max) {
+            Map.Entry<String, Integer> most = stats.getMostRepeated();
+            throw new AssertionError("Expected at most " + max + " SQL statements but got " + stats.getCount()
+                + (most != null ? "; most repeated (" + most.getValue() + "x): " + most.getKey() : ""));
+        }
+    }
+}
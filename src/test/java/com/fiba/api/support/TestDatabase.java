@@ -0,0 +1,141 @@
+package com.fiba.api.support;
+
+import org.junit.jupiter.api.Assumptions;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.UUID;
+
+/**
+ * Временная база PostgreSQL для тестов, которым нужны настоящие блокировки, последовательности и миграции.
+ *
+ * Сервер задается TEST_DATABASE_URL (или -Dtest.database.url) с любой существующей базой в пути,
+ * пользователь и пароль - TEST_DATABASE_USER / TEST_DATABASE_PASSWORD. Тесты миграций создают
+ * отдельную базу (create) и удаляют ее в close(), тесты с контекстом Spring используют общую (shared).
+ * Если сервер недоступен, тест пропускается.
+ */
+public final class TestDatabase implements AutoCloseable {
+
+    private static final String DEFAULT_URL = "jdbc:postgresql://localhost:5432/postgres";
+
+    private static TestDatabase shared;
+
+    private final String serverUrl;
+    private final String name;
+    private final String url;
+    private final DriverManagerDataSource dataSource;
+
+    private TestDatabase(String serverUrl, String name) {
+        this.serverUrl = serverUrl;
+        this.name = name;
+        this.url = serverUrl.substring(0, serverUrl.lastIndexOf('/') + 1) + name;
+        this.dataSource = new DriverManagerDataSource(url, user(), password());
+    }
+
+    /**
+     * Создает пустую базу или пропускает тест, если сервер PostgreSQL недоступен
+     */
+    public static TestDatabase create() {
+        String serverUrl = serverUrl();
+        String name = "fiba_test_" + UUID.randomUUID().toString().replace("-", "").substring(0, 12);
+        try (Connection connection = DriverManager.getConnection(serverUrl, user(), password());
+             Statement statement = connection.createStatement()) {
+            statement.execute("CREATE DATABASE " + name + " TEMPLATE template0 ENCODING 'UTF8'");
+        } catch (SQLException e) {
+            Assumptions.abort("PostgreSQL недоступен по " + serverUrl + ": " + e.getMessage());
+        }
+        return new TestDatabase(serverUrl, name);
+    }
+
+    /**
+     * Общая база для тестов с контекстом Spring: создается при первом обращении и удаляется
+     * при завершении JVM, чтобы кэшированный контекст не остался без базы
+     */
+    public static synchronized TestDatabase shared() {
+        if (shared == null) {
+            TestDatabase database = create();
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                try {
+                    database.close();
+                } catch (SQLException ignored) {
+                    // База временная: не удалилась сейчас - удалится вместе с сервером
+                }
+            }));
+            shared = database;
+        }
+        return shared;
+    }
+
+    /**
+     * Доступен ли сервер PostgreSQL для тестов
+     */
+    public static boolean isAvailable() {
+        try (Connection ignored = DriverManager.getConnection(serverUrl(), user(), password())) {
+            return true;
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    public String getUser() {
+        return user();
+    }
+
+    public String getPassword() {
+        return password();
+    }
+
+    public DataSource getDataSource() {
+        return dataSource;
+    }
+
+    public JdbcTemplate jdbc() {
+        return new JdbcTemplate(dataSource);
+    }
+
+    /**
+     * Выполняет SQL-скрипт из ресурсов теста
+     */
+    public void execute(String resource) {
+        new ResourceDatabasePopulator(new ClassPathResource(resource)).execute(dataSource);
+    }
+
+    @Override
+    public void close() throws SQLException {
+        try (Connection connection = DriverManager.getConnection(serverUrl, user(), password());
+             Statement statement = connection.createStatement()) {
+            statement.execute("DROP DATABASE IF EXISTS " + name + " WITH (FORCE)");
+        }
+    }
+
+    private static String serverUrl() {
+        return setting("TEST_DATABASE_URL", "test.database.url", DEFAULT_URL);
+    }
+
+    private static String user() {
+        return setting("TEST_DATABASE_USER", "test.database.user", "postgres");
+    }
+
+    private static String password() {
+        return setting("TEST_DATABASE_PASSWORD", "test.database.password", "");
+    }
+
+    private static String setting(String env, String property, String defaultValue) {
+        String value = System.getProperty(property);
+        if (value == null || value.isBlank()) {
+            value = System.getenv(env);
+        }
+        return value == null || value.isBlank() ? defaultValue : value;
+    }
+}
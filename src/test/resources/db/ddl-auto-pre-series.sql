@@ -0,0 +1,36 @@
+-- Схема, которую ddl-auto=update создавал до перехода на пулы последовательностей и учет мест
+-- (сгенерирована Hibernate по сущностям базового коммита). Копия схемы старой рабочей базы.
+create table ad_results (id bigserial not null, clicks integer, created_at timestamp(6), updated_at timestamp(6), views integer, ad_id bigint unique, primary key (id));
+create table ads (id bigserial not null, created_at timestamp(6), image_url varchar(255) not null, title varchar(255) not null, updated_at timestamp(6), advertiser_id bigint, business_id bigint, tournament_id bigint, primary key (id));
+create table feature_flags (id varchar(255) not null, disable_backend boolean not null, enable_admin_page boolean not null, enable_player_search boolean not null, enable_tournament_filter boolean not null, experimental_registration boolean not null, show_admin_panel boolean not null, show_top_players boolean not null, primary key (id));
+create table player_team (registration_id bigint not null, user_id bigint not null);
+create table players (id bigserial not null, created_at timestamp(6), name varchar(255) not null, photo_url varchar(255), rating integer, updated_at timestamp(6), primary key (id));
+create table profiles (id bigserial not null, age integer, avatar_url varchar(255), bio TEXT, city varchar(255), created_at timestamp(6), phone_number varchar(255), photo_url varchar(255), rating integer, total_points integer, tournaments_played integer, updated_at timestamp(6), user_id bigint not null unique, primary key (id));
+create table registrations (id bigserial not null, created_at timestamp(6), status varchar(255) not null, team_name varchar(255) not null, updated_at timestamp(6), user_id bigint not null, tournament_id bigint not null, primary key (id), constraint idx_registration_team_name unique (team_name, tournament_id));
+create table team_players (team_id bigint not null, player_id bigint not null);
+create table teams (id bigserial not null, created_at timestamp(6), logo varchar(255), name varchar(255) not null, total_points integer, tournaments_played integer, tournaments_won integer, updated_at timestamp(6), primary key (id));
+create table tournament_teams (id bigserial not null, position integer, registration_date timestamp(6), status varchar(255) not null check (status in ('PENDING','APPROVED','REJECTED','COMPLETED')), team_id bigint not null, tournament_id bigint not null, primary key (id));
+create table tournaments (id bigserial not null, business_type varchar(255), created_at timestamp(6), date date not null, description varchar(500), entry_fee float(53), image_url varchar(255), is_business_tournament boolean, level varchar(255), location varchar(255) not null, max_teams integer, name varchar(255) not null, prize_pool varchar(255), registration_open boolean, rules varchar(1000), sponsor_logo varchar(255), sponsor_name varchar(255), start_time time(6), status varchar(255) not null check (status in ('UPCOMING','ONGOING','COMPLETED','CANCELLED')), updated_at timestamp(6), primary key (id));
+create table users (id bigserial not null, created_at timestamp(6), email varchar(255) not null unique, email_verified boolean, name varchar(255) not null, password varchar(255) not null, role varchar(255) not null, updated_at timestamp(6), primary key (id));
+create index idx_ad_advertiser on ads (advertiser_id);
+create index idx_ad_business on ads (business_id);
+create index idx_ad_tournament on ads (tournament_id);
+create index idx_registration_status on registrations (status);
+create index idx_registration_tournament on registrations (tournament_id);
+create index idx_tournament_date on tournaments (date);
+create index idx_tournament_status on tournaments (status);
+create index idx_tournament_level on tournaments (level);
+create index idx_user_role on users (role);
+alter table if exists ad_results add constraint FKcwo6lwsw834bd420t9dkrt1sj foreign key (ad_id) references ads;
+alter table if exists ads add constraint FKdx8u60tinmje0aa7m3yyhuopx foreign key (advertiser_id) references users;
+alter table if exists ads add constraint FKtmidcei2i8xdyumjcrv2j2v54 foreign key (business_id) references users;
+alter table if exists ads add constraint FKtf82ymyv22i0xgupv9wxakhaj foreign key (tournament_id) references tournaments;
+alter table if exists player_team add constraint FKgwrua65bg9s80dwvup3ge2pda foreign key (user_id) references users;
+alter table if exists player_team add constraint FK18ea1xpyrbg44qu2v209m7wdf foreign key (registration_id) references registrations;
+alter table if exists profiles add constraint FK410q61iev7klncmpqfuo85ivh foreign key (user_id) references users;
+alter table if exists registrations add constraint FKl2iby9n9hp8jwkfj8i96pkxpi foreign key (user_id) references users;
+alter table if exists registrations add constraint FKt7v16jbn0b1ox6xc3vla3g365 foreign key (tournament_id) references tournaments;
+alter table if exists team_players add constraint FKddxneji5ow8j3171oe6mc2gu0 foreign key (player_id) references players;
+alter table if exists team_players add constraint FK3bhsykltbdhsmmb61l2ml12h foreign key (team_id) references teams;
+alter table if exists tournament_teams add constraint FKfdh1y15gds2l1e08j7qlhm9e2 foreign key (team_id) references teams;
+alter table if exists tournament_teams add constraint FKkbbpiasv8aqbh6uwc1m0wlvw4 foreign key (tournament_id) references tournaments;
@@ -0,0 +1,125 @@
+-- Синтетические данные для проверки планов (QueryPlanRegressionTest): по форме как у SyntheticDataSeeder
+-- (названия турниров "<город> 3x3 Open #<id>", популярность турниров с длинным хвостом, 3 игрока в заявке),
+-- по объему - столько, чтобы выборочные запросы шли по индексам, а не читали небольшие таблицы целиком.
+-- База общая с другими тестами: идентификаторы берутся после текущих значений последовательностей,
+-- и последовательности сдвигаются за вставленные строки. Пользователи отмечены адресом @plan.local.
+
+CREATE TEMP TABLE plan_base AS
+SELECT GREATEST((SELECT last_value FROM users_seq), (SELECT COALESCE(MAX(id), 0) FROM users)) AS users,
+       GREATEST((SELECT last_value FROM profiles_seq), (SELECT COALESCE(MAX(id), 0) FROM profiles)) AS profiles,
+       GREATEST((SELECT last_value FROM players_seq), (SELECT COALESCE(MAX(id), 0) FROM players)) AS players,
+       GREATEST((SELECT last_value FROM teams_seq), (SELECT COALESCE(MAX(id), 0) FROM teams)) AS teams,
+       GREATEST((SELECT last_value FROM tournaments_seq), (SELECT COALESCE(MAX(id), 0) FROM tournaments)) AS tournaments,
+       GREATEST((SELECT last_value FROM registrations_seq), (SELECT COALESCE(MAX(id), 0) FROM registrations)) AS registrations,
+       GREATEST((SELECT last_value FROM tournament_teams_seq), (SELECT COALESCE(MAX(id), 0) FROM tournament_teams)) AS tournament_teams,
+       GREATEST((SELECT last_value FROM ads_seq), (SELECT COALESCE(MAX(id), 0) FROM ads)) AS ads,
+       GREATEST((SELECT last_value FROM ad_results_seq), (SELECT COALESCE(MAX(id), 0) FROM ad_results)) AS ad_results,
+       50000 AS user_count,
+       5000 AS tournament_count,
+       25000 AS registration_count,
+       25000 AS ad_count,
+       ARRAY['Москва', 'Санкт-Петербург', 'Казань', 'Новосибирск', 'Екатеринбург', 'Нижний Новгород',
+             'Краснодар', 'Самара', 'Ростов-на-Дону', 'Уфа', 'Пермь', 'Воронеж', 'Волгоград', 'Красноярск',
+             'Челябинск', 'Омск', 'Тюмень', 'Иркутск', 'Владивосток', 'Калининград'] AS cities;
+
+-- Участник k (0-2) заявки g и турнир заявки g; турниры с малыми номерами популярнее
+CREATE TEMP TABLE plan_registration AS
+SELECT g,
+       1 + floor(b.tournament_count * power(((g * 7919) % b.registration_count)::numeric / b.registration_count, 3))::int AS t,
+       k,
+       1 + (g * 37 + k * 7001) % b.user_count AS u
+FROM plan_base b, generate_series(1, b.registration_count) g, generate_series(0, 2) k;
+
+INSERT INTO users (id, name, email, password, email_verified, role, created_at, updated_at)
+SELECT b.users + g,
+       (ARRAY['Александр', 'Дмитрий', 'Максим', 'Иван', 'Артем', 'Никита', 'Михаил', 'Егор', 'Андрей', 'Илья',
+              'Анна', 'Мария', 'Елена', 'Дарья', 'Алина', 'Ксения', 'Полина', 'Виктория', 'Софья', 'Екатерина'])[1 + g * 7 % 20]
+       || ' ' ||
+       (ARRAY['Иванов', 'Смирнов', 'Кузнецов', 'Попов', 'Васильев', 'Петров', 'Соколов', 'Михайлов',
+              'Новиков', 'Федоров', 'Морозов', 'Волков', 'Алексеев', 'Лебедев', 'Семенов', 'Егоров'])[1 + g * 11 % 16],
+       'user' || (b.users + g) || '@plan.local', 'x', true,
+       CASE WHEN g % 50 = 0 THEN 'business' ELSE 'user' END,
+       now() - g * INTERVAL '1 minute', now() - g * INTERVAL '1 minute'
+FROM plan_base b, generate_series(1, b.user_count) g;
+
+INSERT INTO profiles (id, user_id, city, age, tournaments_played, total_points, rating, created_at, updated_at)
+SELECT b.profiles + g, b.users + g, b.cities[1 + g % 20], 16 + g % 30, g % 40, g % 5000, 800 + g % 1200, now(), now()
+FROM plan_base b, generate_series(1, b.user_count) g;
+
+INSERT INTO players (id, name, rating, user_id, created_at, updated_at)
+SELECT b.players + g, 'Игрок ' || g, g % 2000, b.users + g, now(), now()
+FROM plan_base b, generate_series(1, b.user_count) g;
+
+INSERT INTO tournaments (id, name, date, start_time, location, description, status, level, max_teams, entry_fee,
+                         is_business_tournament, registration_open, created_at, updated_at)
+SELECT b.tournaments + g, b.cities[1 + g % 20] || ' 3x3 Open #' || (b.tournaments + g), d.date, TIME '10:00',
+       b.cities[1 + g % 20], 'Турнир по баскетболу 3x3',
+       CASE WHEN d.date < current_date - 1 THEN 'COMPLETED' WHEN d.date > current_date THEN 'UPCOMING' ELSE 'ONGOING' END,
+       (ARRAY['Amateur', 'Amateur', 'Amateur', 'Semi-Pro', 'Professional', 'Youth'])[1 + g % 6],
+       (ARRAY[8, 16, 16, 32, 32, 64])[1 + g * 5 % 6], 500 * (g % 11), g % 10 = 0, d.date > current_date, now(), now()
+FROM plan_base b, generate_series(1, b.tournament_count) g,
+     LATERAL (SELECT current_date + (g * 13 % 1460 - 1095) AS date) d;
+
+INSERT INTO registrations (id, team_name, tournament_id, user_id, status, created_at, updated_at)
+SELECT b.registrations + r.g, 'Команда ' || (b.registrations + r.g), b.tournaments + r.t, b.users + r.u,
+       CASE WHEN r.g % 10 = 0 THEN 'rejected' WHEN r.g % 2 = 0 THEN 'approved' ELSE 'pending' END, now(), now()
+FROM plan_base b, plan_registration r
+WHERE r.k = 0;
+
+INSERT INTO player_team (registration_id, user_id)
+SELECT b.registrations + r.g, b.users + r.u
+FROM plan_base b, plan_registration r;
+
+INSERT INTO teams (id, name, total_points, tournaments_played, tournaments_won, created_at, updated_at)
+SELECT b.teams + g, 'Команда ' || (b.registrations + g), g % 200, g % 3, 0, now(), now()
+FROM plan_base b, generate_series(1, b.registration_count) g;
+
+INSERT INTO team_players (team_id, player_id)
+SELECT b.teams + r.g, b.players + r.u
+FROM plan_base b, plan_registration r;
+
+INSERT INTO tournament_teams (id, tournament_id, team_id, status, registration_id, registration_date)
+SELECT b.tournament_teams + r.g, b.tournaments + r.t, b.teams + r.g,
+       CASE WHEN r.g % 10 = 0 THEN 'REJECTED' WHEN r.g % 2 = 0 THEN 'APPROVED' ELSE 'PENDING' END,
+       b.registrations + r.g, now()
+FROM plan_base b, plan_registration r
+WHERE r.k = 0;
+
+-- Объявления рекламодателей (каждый 50-й пользователь), 80% привязаны к турнирам
+INSERT INTO ads (id, title, image_url, tournament_id, advertiser_id, business_id, created_at, updated_at)
+SELECT b.ads + g, 'Реклама #' || (b.ads + g), '/uploads/ads/seed-' || g % 50 || '.jpg',
+       CASE WHEN g % 5 = 0 THEN NULL
+            ELSE b.tournaments + 1 + floor(b.tournament_count * power((g * 7919 % b.ad_count)::numeric / b.ad_count, 3))::int
+       END,
+       b.users + 50 * (1 + g % (b.user_count / 50)), b.users + 50 * (1 + g % (b.user_count / 50)), now(), now()
+FROM plan_base b, generate_series(1, b.ad_count) g;
+
+INSERT INTO ad_results (id, ad_id, clicks, views, created_at, updated_at)
+SELECT b.ad_results + g, b.ads + g, g % 30, 100 + g % 5000, now(), now()
+FROM plan_base b, generate_series(1, b.ad_count) g;
+
+-- Лимит не меньше числа занятых мест, чтобы счетчики турниров оставались согласованными
+UPDATE tournaments t
+SET registered_teams = c.registered, approved_teams = c.approved, max_teams = GREATEST(t.max_teams, c.registered)
+FROM (SELECT tournament_id,
+             COUNT(*) FILTER (WHERE status <> 'REJECTED') AS registered,
+             COUNT(*) FILTER (WHERE status = 'APPROVED') AS approved
+      FROM tournament_teams GROUP BY tournament_id) c, plan_base b
+WHERE t.id = c.tournament_id AND t.id > b.tournaments;
+
+SELECT setval('users_seq', users + user_count) FROM plan_base;
+SELECT setval('profiles_seq', profiles + user_count) FROM plan_base;
+SELECT setval('players_seq', players + user_count) FROM plan_base;
+SELECT setval('teams_seq', teams + registration_count) FROM plan_base;
+SELECT setval('tournaments_seq', tournaments + tournament_count) FROM plan_base;
+SELECT setval('registrations_seq', registrations + registration_count) FROM plan_base;
+SELECT setval('tournament_teams_seq', tournament_teams + registration_count) FROM plan_base;
+SELECT setval('ads_seq', ads + ad_count) FROM plan_base;
+SELECT setval('ad_results_seq', ad_results + ad_count) FROM plan_base;
+
+DROP TABLE plan_registration;
+DROP TABLE plan_base;
+
+-- Не только статистика: VACUUM переносит строки из очереди GIN-индексов (fastupdate) в сам индекс,
+-- иначе планировщик считает очередь целиком и завышает стоимость триграммного поиска
+VACUUM ANALYZE;